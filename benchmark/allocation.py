@@ -0,0 +1,76 @@
+#!/usr/bin/env python3
+"""
+allocation.py reads the JSON results of a JMH run with the gc profiler, and
+checks that the steady-state calls listed in ZERO_ALLOCATION do not allocate
+on the Java heap, using the normalized allocation rate (bytes per operation)
+reported by the profiler. It prints one CSV row per checked benchmark and
+size, and exits with status 1 when any of them exceeds the limit.
+
+Usage:
+    $ gradle -p benchmark jmh -Pjmh.includes='Blake2b|Poly1305|OneTimeAuth|Secretbox|Ed25519|ShortHash|SipHash24'
+    $ ./benchmark/allocation.py benchmark/build/reports/jmh/results.json
+"""
+import argparse
+import csv
+import json
+import sys
+
+# Benchmarks (Class.method) that must not allocate per operation. The same
+# calls are checked by jvm/src/test/.../AllocationTest on every test run.
+ZERO_ALLOCATION = {
+    'Blake2bBenchmark.update',
+    'Blake2bBenchmark.updateNativeState',
+    'Poly1305Benchmark.update',
+    'Poly1305Benchmark.authVerify',
+    'OneTimeAuthBenchmark.authVerify',
+    'SecretboxBenchmark.easy',
+    'Ed25519Benchmark.verifyDetached',
+    'ShortHashBenchmark.shorthashLong',
+    'SipHash24Benchmark.shorthashLong',
+}
+
+
+def alloc_per_op(result):
+    """Returns the gc.alloc.rate.norm score, or None without the profiler."""
+    for name, metric in result.get('secondaryMetrics', {}).items():
+        if name.endswith('gc.alloc.rate.norm'):
+            return metric['score']
+    return None
+
+
+def main():
+    parser = argparse.ArgumentParser()
+    parser.add_argument('results')
+    # the profiler's own measurement noise stays well below a byte per op
+    parser.add_argument('--max-bytes', type=float, default=1.0)
+    args = parser.parse_args()
+
+    with open(args.results) as f:
+        results = json.load(f)
+
+    out = csv.writer(sys.stdout)
+    out.writerow(['benchmark', 'size', 'bytes_per_op', 'status'])
+    checked = 0
+    failed = 0
+    for result in results:
+        name = '.'.join(result['benchmark'].rsplit('.', 2)[-2:])
+        if name not in ZERO_ALLOCATION:
+            continue
+        score = alloc_per_op(result)
+        if score is None:
+            continue
+        checked += 1
+        ok = score <= args.max_bytes
+        if not ok:
+            failed += 1
+        out.writerow([name, result.get('params', {}).get('size', ''),
+                      '%.3f' % score, 'ok' if ok else 'FAIL'])
+
+    if checked == 0:
+        sys.exit('allocation.py: no results for the checked benchmarks '
+                 '(was the gc profiler enabled?)')
+    sys.exit(1 if failed else 0)
+
+
+if __name__ == '__main__':
+    main()
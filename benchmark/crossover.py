@@ -0,0 +1,67 @@
+#!/usr/bin/env python3
+"""
+crossover.py reads the JSON results of the *VsJdkBenchmark classes, and
+prints one CSV row per operation and message size, comparing the Stodium
+(JNI) throughput with the JDK's. A final row per operation reports the
+crossover: the smallest size from which Stodium is at least as fast as the
+JDK for all larger sizes.
+
+Usage:
+    $ gradle -p benchmark jmh -Pjmh.includes=VsJdk
+    $ ./benchmark/crossover.py benchmark/build/reports/jmh/results.json
+"""
+import csv
+import json
+import sys
+from collections import defaultdict
+
+
+def pair_name(method):
+    """stodiumSign -> ('Sign', 'stodium'), jdk -> ('', 'jdk')"""
+    for impl in ('stodium', 'jdk'):
+        if method.startswith(impl):
+            return method[len(impl):], impl
+    return None, None
+
+
+def main(path):
+    with open(path) as f:
+        results = json.load(f)
+
+    # (class, operation) -> size -> impl -> ops/s
+    scores = defaultdict(lambda: defaultdict(dict))
+    for result in results:
+        cls, method = result['benchmark'].rsplit('.', 2)[-2:]
+        if not cls.endswith('VsJdkBenchmark'):
+            continue
+        operation, impl = pair_name(method)
+        if impl is None:
+            continue
+        size = int(result.get('params', {}).get('size', 0))
+        name = cls[:-len('VsJdkBenchmark')] + operation
+        scores[name][size][impl] = result['primaryMetric']['score']
+
+    out = csv.writer(sys.stdout)
+    out.writerow(['operation', 'size', 'stodium_ops', 'jdk_ops', 'ratio'])
+    for name in sorted(scores):
+        crossover = None
+        for size in sorted(scores[name]):
+            impls = scores[name][size]
+            if 'stodium' not in impls or 'jdk' not in impls:
+                continue
+            ratio = impls['stodium'] / impls['jdk']
+            out.writerow([name, size, '%.1f' % impls['stodium'],
+                          '%.1f' % impls['jdk'], '%.3f' % ratio])
+            if ratio >= 1.0:
+                if crossover is None:
+                    crossover = size
+            else:
+                crossover = None
+        out.writerow([name, 'crossover',
+                      '' if crossover is None else crossover, '', ''])
+
+
+if __name__ == '__main__':
+    if len(sys.argv) != 2:
+        sys.exit(__doc__)
+    main(sys.argv[1])
@@ -0,0 +1,96 @@
+package eu.artemisc.stodium;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Blake2bBenchmark measures the throughput of the Blake2b wrappers, for both
+ * heap and native-resident states.
+ *
+ * @author Jan van de Molengraft [jan@artemisc.eu]
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3)
+@Measurement(iterations = 5)
+@Fork(1)
+public class Blake2bBenchmark {
+    @State(Scope.Thread)
+    public static class Input
+            extends MessageState {
+        public byte[] out;
+        public byte[] key;
+        public Blake2b heapHash;
+        public Blake2b nativeHash;
+
+        @Setup(Level.Trial)
+        public void setup()
+                throws StodiumException {
+            setupMessage();
+            out = new byte[Blake2b.BYTES];
+            key = random(Blake2b.KEYBYTES);
+            heapHash = new Blake2b(Blake2b.BYTES, key);
+            nativeHash = Blake2b.withNativeState(Blake2b.BYTES);
+            nativeHash.init(key);
+        }
+
+        @TearDown(Level.Trial)
+        public void tearDown() {
+            nativeHash.close();
+        }
+    }
+
+    @Benchmark
+    public byte[] genericHash(final Input s,
+                              final ByteCounter counter)
+            throws StodiumException {
+        Blake2b.genericHash(s.out, s.message, s.key);
+        counter.bytes += s.size;
+        return s.out;
+    }
+
+    /**
+     * update only measures the absorption of the message into an already
+     * initialized state, which should not allocate.
+     */
+    @Benchmark
+    public Blake2b update(final Input s,
+                          final ByteCounter counter)
+            throws StodiumException {
+        s.heapHash.update(s.message);
+        counter.bytes += s.size;
+        return s.heapHash;
+    }
+
+    @Benchmark
+    public Blake2b updateNativeState(final Input s,
+                                     final ByteCounter counter)
+            throws StodiumException {
+        s.nativeHash.update(s.message);
+        counter.bytes += s.size;
+        return s.nativeHash;
+    }
+
+    @Benchmark
+    public byte[] streamNativeState(final Input s,
+                                    final ByteCounter counter)
+            throws StodiumException {
+        s.nativeHash.init(s.key);
+        s.nativeHash.update(s.message);
+        s.nativeHash.doFinal(s.out);
+        counter.bytes += s.size;
+        return s.out;
+    }
+}
@@ -0,0 +1,200 @@
+package eu.artemisc.stodium;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * BoxBenchmark measures the throughput of the Box wrappers.
+ *
+ * @author Jan van de Molengraft [jan@artemisc.eu]
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3)
+@Measurement(iterations = 5)
+@Fork(1)
+public class BoxBenchmark {
+    private static final int RECIPIENTS = 8;
+    private static final int MAILBOX = 64;
+
+    @State(Scope.Thread)
+    public static class Keys
+            extends MessageState {
+        public byte[] publicKey;
+        public byte[] privateKey;
+        public byte[] sharedKey;
+        public byte[] nonce;
+        public byte[] cipher;
+        public byte[] sealed;
+        public byte[] plain;
+        public BoxKeyCache cache;
+        public byte[][] recipients;
+        public byte[] envelope;
+        public List<byte[]> mailbox;
+        public ForkJoinPool pool;
+        public EphemeralKeyPool ephemeral;
+
+        @Setup(Level.Trial)
+        public void setup()
+                throws StodiumException {
+            setupMessage();
+            publicKey = new byte[Box.PUBLICKEYBYTES];
+            privateKey = new byte[Box.SECRETKEYBYTES];
+            Box.keypair(publicKey, privateKey);
+            sharedKey = new byte[Box.BEFORENMBYTES];
+            Box.beforenm(sharedKey, publicKey, privateKey);
+            nonce = random(Box.NONCEBYTES);
+            cipher = new byte[size + Box.MACBYTES];
+            sealed = new byte[size + Box.SEALBYTES];
+            plain = new byte[size];
+            Box.easy(cipher, message, nonce, publicKey, privateKey);
+            Box.seal(sealed, message, publicKey);
+            cache = new BoxKeyCache(16);
+            recipients = new byte[RECIPIENTS][Box.PUBLICKEYBYTES];
+            for (final byte[] recipient : recipients) {
+                Box.keypair(recipient, new byte[Box.SECRETKEYBYTES]);
+            }
+            envelope = new byte[SealedEnvelope.envelopeLength(RECIPIENTS, size)];
+            // one in eight boxes of the mailbox is addressed to publicKey
+            mailbox = new ArrayList<>(MAILBOX);
+            for (int i = 0; i < MAILBOX; i++) {
+                final byte[] box = new byte[size + Box.SEALBYTES];
+                Box.seal(box, message, i % 8 == 0 ? publicKey : recipients[0]);
+                mailbox.add(box);
+            }
+            pool = new ForkJoinPool();
+            ephemeral = new EphemeralKeyPool(64);
+        }
+
+        @TearDown(Level.Trial)
+        public void tearDown() {
+            pool.shutdown();
+            ephemeral.close();
+        }
+    }
+
+    @Benchmark
+    public byte[] easy(final Keys s,
+                       final ByteCounter counter)
+            throws StodiumException {
+        Box.easy(s.cipher, s.message, s.nonce, s.publicKey, s.privateKey);
+        counter.bytes += s.size;
+        return s.cipher;
+    }
+
+    @Benchmark
+    public byte[] openEasy(final Keys s,
+                           final ByteCounter counter)
+            throws StodiumException {
+        Box.openEasy(s.plain, s.cipher, s.nonce, s.publicKey, s.privateKey);
+        counter.bytes += s.size;
+        return s.plain;
+    }
+
+    @Benchmark
+    public byte[] easyAfternm(final Keys s,
+                              final ByteCounter counter)
+            throws StodiumException {
+        Box.easyAfternm(s.cipher, s.message, s.nonce, s.sharedKey);
+        counter.bytes += s.size;
+        return s.cipher;
+    }
+
+    /**
+     * easyCached is easy through a BoxKeyCache, which computes the shared
+     * key on the first call only.
+     */
+    @Benchmark
+    public byte[] easyCached(final Keys s,
+                             final ByteCounter counter)
+            throws StodiumException {
+        s.cache.easy(s.cipher, s.message, s.nonce, s.publicKey, s.privateKey);
+        counter.bytes += s.size;
+        return s.cipher;
+    }
+
+    @Benchmark
+    public byte[] seal(final Keys s,
+                       final ByteCounter counter)
+            throws StodiumException {
+        Box.seal(s.sealed, s.message, s.publicKey);
+        counter.bytes += s.size;
+        return s.sealed;
+    }
+
+    @Benchmark
+    public byte[] sealOpen(final Keys s,
+                           final ByteCounter counter)
+            throws StodiumException {
+        Box.sealOpen(s.plain, s.sealed, s.publicKey, s.privateKey);
+        counter.bytes += s.size;
+        return s.plain;
+    }
+
+    /**
+     * sealEnvelope encrypts the message once and seals its data key to
+     * RECIPIENTS public keys in a single native call.
+     */
+    @Benchmark
+    public byte[] sealEnvelope(final Keys s,
+                               final ByteCounter counter)
+            throws StodiumException {
+        SealedEnvelope.seal(s.envelope, s.message, s.recipients);
+        counter.bytes += s.size;
+        return s.envelope;
+    }
+
+    /**
+     * scanMailbox trial-decrypts MAILBOX sealed boxes on a ForkJoinPool.
+     */
+    @Benchmark
+    public SealedBoxScanner.Matches scanMailbox(final Keys s,
+                                                final ByteCounter counter)
+            throws StodiumException {
+        final SealedBoxScanner.Matches matches = SealedBoxScanner.scan(
+                s.mailbox, s.publicKey, s.privateKey, s.pool);
+        counter.bytes += (long) MAILBOX * s.size;
+        return matches;
+    }
+
+    /**
+     * ephemeralBeforenm generates a key pair and derives a shared key with
+     * it, as an ephemeral-key handshake does.
+     */
+    @Benchmark
+    public byte[] ephemeralBeforenm(final Keys s)
+            throws StodiumException {
+        final byte[] ephemeralPublicKey = new byte[Box.PUBLICKEYBYTES];
+        final byte[] ephemeralPrivateKey = new byte[Box.SECRETKEYBYTES];
+        Box.keypair(ephemeralPublicKey, ephemeralPrivateKey);
+        Box.beforenm(s.sharedKey, s.publicKey, ephemeralPrivateKey);
+        return s.sharedKey;
+    }
+
+    /**
+     * ephemeralBeforenmPooled is ephemeralBeforenm with a key pair taken
+     * from an EphemeralKeyPool. When the refill thread keeps up, key
+     * generation is off the measured path.
+     */
+    @Benchmark
+    public byte[] ephemeralBeforenmPooled(final Keys s)
+            throws StodiumException {
+        s.ephemeral.take().beforenm(s.sharedKey, s.publicKey);
+        return s.sharedKey;
+    }
+}
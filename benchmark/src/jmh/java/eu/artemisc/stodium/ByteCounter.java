@@ -0,0 +1,25 @@
+package eu.artemisc.stodium;
+
+import org.openjdk.jmh.annotations.AuxCounters;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+/**
+ * ByteCounter is reported by JMH as a secondary "bytes" metric, normalized
+ * to the benchmark's time unit. Benchmarks add the number of message bytes
+ * they processed, which yields the throughput in bytes/s next to ops/s.
+ *
+ * @author Jan van de Molengraft [jan@artemisc.eu]
+ */
+@AuxCounters(AuxCounters.Type.OPERATIONS)
+@State(Scope.Thread)
+public class ByteCounter {
+    public long bytes;
+
+    @Setup(Level.Iteration)
+    public void reset() {
+        bytes = 0;
+    }
+}
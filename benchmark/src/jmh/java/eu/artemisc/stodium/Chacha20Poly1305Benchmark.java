@@ -0,0 +1,82 @@
+package eu.artemisc.stodium;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.TimeUnit;
+
+import javax.crypto.AEADBadTagException;
+
+/**
+ * Chacha20Poly1305Benchmark measures the throughput of the Chacha20Poly1305
+ * wrappers.
+ *
+ * @author Jan van de Molengraft [jan@artemisc.eu]
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3)
+@Measurement(iterations = 5)
+@Fork(1)
+public class Chacha20Poly1305Benchmark {
+    @State(Scope.Thread)
+    public static class Keys
+            extends MessageState {
+        public byte[] key;
+        public byte[] nonce;
+        public byte[] ad;
+        public byte[] cipher;
+        public byte[] plain;
+        public byte[] inPlace;
+
+        @Setup(Level.Trial)
+        public void setup()
+                throws StodiumException {
+            setupMessage();
+            key = random(Chacha20Poly1305.KEYBYTES);
+            nonce = random(Chacha20Poly1305.NPUBBYTES);
+            ad = random(16);
+            cipher = new byte[size + Chacha20Poly1305.ABYTES];
+            plain = new byte[size];
+            Chacha20Poly1305.encrypt(cipher, message, ad, nonce, key);
+            inPlace = new byte[size + Chacha20Poly1305.ABYTES];
+        }
+    }
+
+    @Benchmark
+    public int encrypt(final Keys s,
+                       final ByteCounter counter)
+            throws StodiumException {
+        counter.bytes += s.size;
+        return Chacha20Poly1305.encrypt(s.cipher, s.message, s.ad, s.nonce, s.key);
+    }
+
+    @Benchmark
+    public int decrypt(final Keys s,
+                       final ByteCounter counter)
+            throws StodiumException, AEADBadTagException {
+        counter.bytes += s.size;
+        return Chacha20Poly1305.decrypt(s.plain, s.cipher, s.ad, s.nonce, s.key);
+    }
+
+    /**
+     * encryptInPlace repeatedly encrypts the first size bytes of a single
+     * buffer, which holds the previous ciphertext.
+     */
+    @Benchmark
+    public int encryptInPlace(final Keys s,
+                              final ByteCounter counter)
+            throws StodiumException {
+        counter.bytes += s.size;
+        return Chacha20Poly1305.encryptInPlace(s.inPlace, 0, s.size, s.ad, s.nonce, s.key);
+    }
+}
@@ -0,0 +1,81 @@
+package eu.artemisc.stodium;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.security.GeneralSecurityException;
+import java.util.concurrent.TimeUnit;
+
+import javax.crypto.Cipher;
+import javax.crypto.spec.IvParameterSpec;
+import javax.crypto.spec.SecretKeySpec;
+
+/**
+ * Chacha20Poly1305VsJdkBenchmark compares Chacha20Poly1305#encrypt with the
+ * "ChaCha20-Poly1305" Cipher of the JDK (SunJCE, Java 11+). The JDK only
+ * implements the IETF construction with a 96-bit nonce, and refuses to reuse
+ * a key/nonce pair, so both sides increment their nonce on every call. The
+ * cost of the primitive is the same for both nonce sizes.
+ *
+ * @author Jan van de Molengraft [jan@artemisc.eu]
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3)
+@Measurement(iterations = 5)
+@Fork(1)
+public class Chacha20Poly1305VsJdkBenchmark {
+    @State(Scope.Thread)
+    public static class Keys
+            extends MessageState {
+        public byte[] key;
+        public byte[] nonce;
+        public byte[] jdkNonce;
+        public byte[] ad;
+        public byte[] cipher;
+        public Cipher jdkCipher;
+        public SecretKeySpec jdkKey;
+
+        @Setup(Level.Trial)
+        public void setup()
+                throws GeneralSecurityException {
+            setupMessage();
+            key = random(Chacha20Poly1305.KEYBYTES);
+            nonce = random(Chacha20Poly1305.NPUBBYTES);
+            jdkNonce = random(12);
+            ad = random(16);
+            cipher = new byte[size + Chacha20Poly1305.ABYTES];
+            jdkCipher = Cipher.getInstance("ChaCha20-Poly1305");
+            jdkKey = new SecretKeySpec(key, "ChaCha20");
+        }
+    }
+
+    @Benchmark
+    public int stodium(final Keys s,
+                       final ByteCounter counter)
+            throws StodiumException {
+        MessageState.increment(s.nonce);
+        counter.bytes += s.size;
+        return Chacha20Poly1305.encrypt(s.cipher, s.message, s.ad, s.nonce, s.key);
+    }
+
+    @Benchmark
+    public int jdk(final Keys s,
+                   final ByteCounter counter)
+            throws GeneralSecurityException {
+        MessageState.increment(s.jdkNonce);
+        s.jdkCipher.init(Cipher.ENCRYPT_MODE, s.jdkKey, new IvParameterSpec(s.jdkNonce));
+        s.jdkCipher.updateAAD(s.ad);
+        counter.bytes += s.size;
+        return s.jdkCipher.doFinal(s.message, 0, s.size, s.cipher, 0);
+    }
+}
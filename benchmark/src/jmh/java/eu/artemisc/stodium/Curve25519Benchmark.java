@@ -0,0 +1,58 @@
+package eu.artemisc.stodium;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Curve25519Benchmark measures the throughput of the Curve25519 wrappers. It
+ * has no message, so the size is not swept.
+ *
+ * @author Jan van de Molengraft [jan@artemisc.eu]
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3)
+@Measurement(iterations = 5)
+@Fork(1)
+public class Curve25519Benchmark {
+    @State(Scope.Thread)
+    public static class Keys {
+        public byte[] scalar;
+        public byte[] point;
+        public byte[] out;
+
+        @Setup(Level.Trial)
+        public void setup()
+                throws StodiumException {
+            scalar = MessageState.random(Curve25519.SCALAR_BYTES);
+            point = new byte[Curve25519.BYTES];
+            out = new byte[Curve25519.BYTES];
+            Curve25519.scalarMultBase(point, MessageState.random(Curve25519.SCALAR_BYTES));
+        }
+    }
+
+    @Benchmark
+    public byte[] scalarMult(final Keys s)
+            throws StodiumException {
+        Curve25519.scalarMult(s.out, s.scalar, s.point);
+        return s.out;
+    }
+
+    @Benchmark
+    public byte[] scalarMultBase(final Keys s)
+            throws StodiumException {
+        Curve25519.scalarMultBase(s.out, s.scalar);
+        return s.out;
+    }
+}
@@ -0,0 +1,73 @@
+package eu.artemisc.stodium;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.security.GeneralSecurityException;
+import java.security.KeyPair;
+import java.security.KeyPairGenerator;
+import java.util.concurrent.TimeUnit;
+
+import javax.crypto.KeyAgreement;
+
+/**
+ * Curve25519VsJdkBenchmark compares Curve25519#scalarMult with an "X25519"
+ * KeyAgreement of the JDK's XDH provider (Java 11+). It has no message, so
+ * the size is not swept.
+ *
+ * @author Jan van de Molengraft [jan@artemisc.eu]
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3)
+@Measurement(iterations = 5)
+@Fork(1)
+public class Curve25519VsJdkBenchmark {
+    @State(Scope.Thread)
+    public static class Keys {
+        public byte[] scalar;
+        public byte[] point;
+        public byte[] out;
+        public KeyPair jdkLocal;
+        public KeyPair jdkRemote;
+        public KeyAgreement jdkAgreement;
+
+        @Setup(Level.Trial)
+        public void setup()
+                throws GeneralSecurityException {
+            scalar = MessageState.random(Curve25519.SCALAR_BYTES);
+            point = new byte[Curve25519.BYTES];
+            out = new byte[Curve25519.BYTES];
+            Curve25519.scalarMultBase(point, MessageState.random(Curve25519.SCALAR_BYTES));
+
+            final KeyPairGenerator generator = KeyPairGenerator.getInstance("X25519");
+            jdkLocal = generator.generateKeyPair();
+            jdkRemote = generator.generateKeyPair();
+            jdkAgreement = KeyAgreement.getInstance("X25519");
+        }
+    }
+
+    @Benchmark
+    public byte[] stodium(final Keys s)
+            throws StodiumException {
+        Curve25519.scalarMult(s.out, s.scalar, s.point);
+        return s.out;
+    }
+
+    @Benchmark
+    public byte[] jdk(final Keys s)
+            throws GeneralSecurityException {
+        s.jdkAgreement.init(s.jdkLocal.getPrivate());
+        s.jdkAgreement.doPhase(s.jdkRemote.getPublic(), true);
+        return s.jdkAgreement.generateSecret();
+    }
+}
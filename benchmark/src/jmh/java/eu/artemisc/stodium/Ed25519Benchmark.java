@@ -0,0 +1,83 @@
+package eu.artemisc.stodium;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Ed25519Benchmark measures the throughput of the Ed25519 wrappers.
+ *
+ * @author Jan van de Molengraft [jan@artemisc.eu]
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3)
+@Measurement(iterations = 5)
+@Fork(1)
+public class Ed25519Benchmark {
+    @State(Scope.Thread)
+    public static class Keys
+            extends MessageState {
+        public byte[] publicKey;
+        public byte[] privateKey;
+        public byte[] signature;
+        public byte[] signed;
+        public byte[] opened;
+
+        @Setup(Level.Trial)
+        public void setup()
+                throws StodiumException {
+            setupMessage();
+            publicKey = new byte[Ed25519.PUBLICKEYBYTES];
+            privateKey = new byte[Ed25519.PRIVATEKEYBYTES];
+            Ed25519.keypair(publicKey, privateKey);
+            signature = new byte[Ed25519.SIGNBYTES];
+            signed = new byte[size + Ed25519.SIGNBYTES];
+            opened = new byte[size];
+            Ed25519.signDetached(signature, message, privateKey);
+            Ed25519.sign(signed, message, privateKey);
+        }
+    }
+
+    @Benchmark
+    public int sign(final Keys s,
+                    final ByteCounter counter)
+            throws StodiumException {
+        counter.bytes += s.size;
+        return Ed25519.sign(s.signed, s.message, s.privateKey);
+    }
+
+    @Benchmark
+    public int open(final Keys s,
+                    final ByteCounter counter)
+            throws StodiumException {
+        counter.bytes += s.size;
+        return Ed25519.open(s.opened, s.signed, s.publicKey);
+    }
+
+    @Benchmark
+    public int signDetached(final Keys s,
+                            final ByteCounter counter)
+            throws StodiumException {
+        counter.bytes += s.size;
+        return Ed25519.signDetached(s.signature, s.message, s.privateKey);
+    }
+
+    @Benchmark
+    public boolean verifyDetached(final Keys s,
+                                  final ByteCounter counter)
+            throws StodiumException {
+        counter.bytes += s.size;
+        return Ed25519.verifyDetached(s.signature, s.message, s.publicKey);
+    }
+}
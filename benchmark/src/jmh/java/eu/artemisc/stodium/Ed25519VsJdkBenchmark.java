@@ -0,0 +1,97 @@
+package eu.artemisc.stodium;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.security.GeneralSecurityException;
+import java.security.KeyPair;
+import java.security.KeyPairGenerator;
+import java.security.Signature;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Ed25519VsJdkBenchmark compares Ed25519#signDetached and
+ * Ed25519#verifyDetached with the JDK's "Ed25519" Signature (Java 15+).
+ *
+ * @author Jan van de Molengraft [jan@artemisc.eu]
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3)
+@Measurement(iterations = 5)
+@Fork(1)
+public class Ed25519VsJdkBenchmark {
+    @State(Scope.Thread)
+    public static class Keys
+            extends MessageState {
+        public byte[] publicKey;
+        public byte[] privateKey;
+        public byte[] signature;
+        public KeyPair jdkKeys;
+        public Signature jdkSigner;
+        public Signature jdkVerifier;
+        public byte[] jdkSignature;
+
+        @Setup(Level.Trial)
+        public void setup()
+                throws GeneralSecurityException {
+            setupMessage();
+            publicKey = new byte[Ed25519.PUBLICKEYBYTES];
+            privateKey = new byte[Ed25519.PRIVATEKEYBYTES];
+            Ed25519.keypair(publicKey, privateKey);
+            signature = new byte[Ed25519.SIGNBYTES];
+            Ed25519.signDetached(signature, message, privateKey);
+
+            jdkKeys = KeyPairGenerator.getInstance("Ed25519").generateKeyPair();
+            jdkSigner = Signature.getInstance("Ed25519");
+            jdkSigner.initSign(jdkKeys.getPrivate());
+            jdkVerifier = Signature.getInstance("Ed25519");
+            jdkVerifier.initVerify(jdkKeys.getPublic());
+            jdkSigner.update(message);
+            jdkSignature = jdkSigner.sign();
+        }
+    }
+
+    @Benchmark
+    public int stodiumSign(final Keys s,
+                           final ByteCounter counter)
+            throws StodiumException {
+        counter.bytes += s.size;
+        return Ed25519.signDetached(s.signature, s.message, s.privateKey);
+    }
+
+    @Benchmark
+    public byte[] jdkSign(final Keys s,
+                          final ByteCounter counter)
+            throws GeneralSecurityException {
+        s.jdkSigner.update(s.message);
+        counter.bytes += s.size;
+        return s.jdkSigner.sign();
+    }
+
+    @Benchmark
+    public boolean stodiumVerify(final Keys s,
+                                 final ByteCounter counter)
+            throws StodiumException {
+        counter.bytes += s.size;
+        return Ed25519.verifyDetached(s.signature, s.message, s.publicKey);
+    }
+
+    @Benchmark
+    public boolean jdkVerify(final Keys s,
+                             final ByteCounter counter)
+            throws GeneralSecurityException {
+        s.jdkVerifier.update(s.message);
+        counter.bytes += s.size;
+        return s.jdkVerifier.verify(s.jdkSignature);
+    }
+}
@@ -0,0 +1,71 @@
+package eu.artemisc.stodium;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * GenericHashBenchmark measures the throughput of the GenericHash wrappers,
+ * for both heap and native-resident states.
+ *
+ * @author Jan van de Molengraft [jan@artemisc.eu]
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3)
+@Measurement(iterations = 5)
+@Fork(1)
+public class GenericHashBenchmark {
+    @State(Scope.Thread)
+    public static class Input
+            extends MessageState {
+        public byte[] out;
+        public byte[] key;
+        public GenericHash nativeHash;
+
+        @Setup(Level.Trial)
+        public void setup()
+                throws StodiumException {
+            setupMessage();
+            out = new byte[GenericHash.BYTES];
+            key = random(GenericHash.KEYBYTES);
+            nativeHash = GenericHash.withNativeState(GenericHash.BYTES);
+        }
+
+        @TearDown(Level.Trial)
+        public void tearDown() {
+            nativeHash.close();
+        }
+    }
+
+    @Benchmark
+    public byte[] genericHash(final Input s,
+                              final ByteCounter counter)
+            throws StodiumException {
+        GenericHash.genericHash(s.out, s.message, s.key);
+        counter.bytes += s.size;
+        return s.out;
+    }
+
+    @Benchmark
+    public byte[] streamNativeState(final Input s,
+                                    final ByteCounter counter)
+            throws StodiumException {
+        s.nativeHash.init(s.key);
+        s.nativeHash.update(s.message);
+        s.nativeHash.doFinal(s.out);
+        counter.bytes += s.size;
+        return s.out;
+    }
+}
@@ -0,0 +1,80 @@
+package eu.artemisc.stodium;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * HashBenchmark measures the throughput of the Hash wrappers, for both heap
+ * and native-resident states.
+ *
+ * @author Jan van de Molengraft [jan@artemisc.eu]
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3)
+@Measurement(iterations = 5)
+@Fork(1)
+public class HashBenchmark {
+    @State(Scope.Thread)
+    public static class Input
+            extends MessageState {
+        public byte[] out;
+        public Hash nativeHash;
+
+        @Setup(Level.Trial)
+        public void setup()
+                throws StodiumException {
+            setupMessage();
+            out = new byte[Hash.BYTES];
+            nativeHash = Hash.withNativeState();
+        }
+
+        @TearDown(Level.Trial)
+        public void tearDown() {
+            nativeHash.close();
+        }
+    }
+
+    @Benchmark
+    public byte[] hash(final Input s,
+                       final ByteCounter counter)
+            throws StodiumException {
+        Hash.hash(s.out, s.message);
+        counter.bytes += s.size;
+        return s.out;
+    }
+
+    @Benchmark
+    public byte[] streamHeapState(final Input s,
+                                  final ByteCounter counter)
+            throws StodiumException {
+        final Hash hash = new Hash();
+        hash.update(s.message);
+        hash.doFinal(s.out);
+        counter.bytes += s.size;
+        return s.out;
+    }
+
+    @Benchmark
+    public byte[] streamNativeState(final Input s,
+                                    final ByteCounter counter)
+            throws StodiumException {
+        s.nativeHash.init();
+        s.nativeHash.update(s.message);
+        s.nativeHash.doFinal(s.out);
+        counter.bytes += s.size;
+        return s.out;
+    }
+}
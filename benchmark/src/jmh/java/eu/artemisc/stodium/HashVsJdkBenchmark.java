@@ -0,0 +1,63 @@
+package eu.artemisc.stodium;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.security.GeneralSecurityException;
+import java.security.MessageDigest;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * HashVsJdkBenchmark compares Hash#hash (SHA-512) with the JDK's
+ * MessageDigest for "SHA-512".
+ *
+ * @author Jan van de Molengraft [jan@artemisc.eu]
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3)
+@Measurement(iterations = 5)
+@Fork(1)
+public class HashVsJdkBenchmark {
+    @State(Scope.Thread)
+    public static class Input
+            extends MessageState {
+        public byte[] out;
+        public MessageDigest jdkDigest;
+
+        @Setup(Level.Trial)
+        public void setup()
+                throws GeneralSecurityException {
+            setupMessage();
+            out = new byte[Hash.BYTES];
+            jdkDigest = MessageDigest.getInstance("SHA-512");
+        }
+    }
+
+    @Benchmark
+    public byte[] stodium(final Input s,
+                          final ByteCounter counter)
+            throws StodiumException {
+        Hash.hash(s.out, s.message);
+        counter.bytes += s.size;
+        return s.out;
+    }
+
+    @Benchmark
+    public int jdk(final Input s,
+                   final ByteCounter counter)
+            throws GeneralSecurityException {
+        s.jdkDigest.update(s.message);
+        counter.bytes += s.size;
+        return s.jdkDigest.digest(s.out, 0, s.out.length);
+    }
+}
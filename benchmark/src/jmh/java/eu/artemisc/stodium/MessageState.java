@@ -0,0 +1,42 @@
+package eu.artemisc.stodium;
+
+import org.openjdk.jmh.annotations.Param;
+
+/**
+ * MessageState is the base class of the benchmark states. It sweeps the
+ * message size from 16 bytes up to 16 MiB. Subclasses call
+ * {@link #setupMessage()} from their own setup method, before deriving their
+ * keys and ciphertexts from the message.
+ *
+ * @author Jan van de Molengraft [jan@artemisc.eu]
+ */
+public abstract class MessageState {
+    @Param({"16", "256", "4096", "65536", "1048576", "16777216"})
+    public int size;
+
+    public byte[] message;
+
+    protected void setupMessage() {
+        message = new byte[size];
+        RandomBytes.nextBytes(message);
+    }
+
+    /**
+     * increment increments the little-endian number in buf, like
+     * sodium_increment, without crossing JNI. It is used to derive a fresh
+     * nonce on every call in the comparative benchmarks.
+     */
+    static void increment(final byte[] buf) {
+        for (int i = 0; i < buf.length; i++) {
+            if (++buf[i] != 0) {
+                return;
+            }
+        }
+    }
+
+    static byte[] random(final int len) {
+        final byte[] buf = new byte[len];
+        RandomBytes.nextBytes(buf);
+        return buf;
+    }
+}
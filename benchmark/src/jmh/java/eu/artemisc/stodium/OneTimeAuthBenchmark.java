@@ -0,0 +1,60 @@
+package eu.artemisc.stodium;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * OneTimeAuthBenchmark measures the throughput of the OneTimeAuth wrappers.
+ *
+ * @author Jan van de Molengraft [jan@artemisc.eu]
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3)
+@Measurement(iterations = 5)
+@Fork(1)
+public class OneTimeAuthBenchmark {
+    @State(Scope.Thread)
+    public static class Input
+            extends MessageState {
+        public byte[] key;
+        public byte[] tag;
+
+        @Setup(Level.Trial)
+        public void setup()
+                throws StodiumException {
+            setupMessage();
+            key = random(OneTimeAuth.KEYBYTES);
+            tag = new byte[OneTimeAuth.BYTES];
+            OneTimeAuth.auth(tag, message, key);
+        }
+    }
+
+    @Benchmark
+    public byte[] auth(final Input s,
+                       final ByteCounter counter)
+            throws StodiumException {
+        OneTimeAuth.auth(s.tag, s.message, s.key);
+        counter.bytes += s.size;
+        return s.tag;
+    }
+
+    @Benchmark
+    public boolean authVerify(final Input s,
+                              final ByteCounter counter)
+            throws StodiumException {
+        counter.bytes += s.size;
+        return OneTimeAuth.authVerify(s.tag, s.message, s.key);
+    }
+}
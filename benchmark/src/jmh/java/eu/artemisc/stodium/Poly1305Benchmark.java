@@ -0,0 +1,75 @@
+package eu.artemisc.stodium;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Poly1305Benchmark measures the throughput of the Poly1305 wrappers.
+ *
+ * @author Jan van de Molengraft [jan@artemisc.eu]
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3)
+@Measurement(iterations = 5)
+@Fork(1)
+public class Poly1305Benchmark {
+    @State(Scope.Thread)
+    public static class Input
+            extends MessageState {
+        public byte[] key;
+        public byte[] tag;
+        public Poly1305 poly1305;
+
+        @Setup(Level.Trial)
+        public void setup()
+                throws StodiumException {
+            setupMessage();
+            key = random(Poly1305.KEYBYTES);
+            tag = new byte[Poly1305.BYTES];
+            Poly1305.auth(tag, message, key);
+            poly1305 = new Poly1305(key);
+        }
+    }
+
+    @Benchmark
+    public byte[] auth(final Input s,
+                       final ByteCounter counter)
+            throws StodiumException {
+        Poly1305.auth(s.tag, s.message, s.key);
+        counter.bytes += s.size;
+        return s.tag;
+    }
+
+    @Benchmark
+    public boolean authVerify(final Input s,
+                              final ByteCounter counter)
+            throws StodiumException {
+        counter.bytes += s.size;
+        return Poly1305.authVerify(s.tag, s.message, s.key);
+    }
+
+    /**
+     * update only measures the absorption of the message into an already
+     * initialized state, which should not allocate.
+     */
+    @Benchmark
+    public Poly1305 update(final Input s,
+                           final ByteCounter counter)
+            throws StodiumException {
+        s.poly1305.update(s.message);
+        counter.bytes += s.size;
+        return s.poly1305;
+    }
+}
@@ -0,0 +1,56 @@
+package eu.artemisc.stodium;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * ScryptBenchmark measures the Scrypt wrappers. Scrypt is dominated by its
+ * memory and ops limits, so the password length is only swept over small
+ * sizes, and the average time per derivation is reported.
+ *
+ * @author Jan van de Molengraft [jan@artemisc.eu]
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3)
+@Measurement(iterations = 5)
+@Fork(1)
+public class ScryptBenchmark {
+    @State(Scope.Thread)
+    public static class Input {
+        @Param({"16", "256", "4096"})
+        public int size;
+
+        public byte[] password;
+        public byte[] salt;
+        public byte[] key;
+
+        @Setup(Level.Trial)
+        public void setup() {
+            password = MessageState.random(size);
+            salt = MessageState.random(Scrypt.SALTBYTES);
+            key = new byte[32];
+        }
+    }
+
+    @Benchmark
+    @BenchmarkMode(Mode.AverageTime)
+    @OutputTimeUnit(TimeUnit.MILLISECONDS)
+    public byte[] pwhashScryptInteractive(final Input s)
+            throws StodiumException {
+        Scrypt.pwhashScrypt(s.key, s.password, s.salt);
+        return s.key;
+    }
+}
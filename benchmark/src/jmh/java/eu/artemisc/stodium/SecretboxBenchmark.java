@@ -0,0 +1,128 @@
+package eu.artemisc.stodium;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.Arrays;
+import java.util.concurrent.TimeUnit;
+
+import javax.crypto.AEADBadTagException;
+
+/**
+ * SecretboxBenchmark measures the throughput of the Secretbox wrappers.
+ *
+ * @author Jan van de Molengraft [jan@artemisc.eu]
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3)
+@Measurement(iterations = 5)
+@Fork(1)
+public class SecretboxBenchmark {
+    @State(Scope.Thread)
+    public static class Keys
+            extends MessageState {
+        public byte[] key;
+        public byte[] nonce;
+        public byte[] cipher;
+        public byte[] plain;
+        public byte[] inPlace;
+        public byte[][] segments;
+        public byte[] detached;
+        public byte[] mac;
+
+        @Setup(Level.Trial)
+        public void setup()
+                throws StodiumException {
+            setupMessage();
+            key = random(Secretbox.KEYBYTES);
+            nonce = random(Secretbox.NONCEBYTES);
+            cipher = new byte[size + Secretbox.MACBYTES];
+            plain = new byte[size];
+            Secretbox.easy(cipher, message, nonce, key);
+            inPlace = new byte[size + Secretbox.MACBYTES];
+
+            // header, body and trailer, each held in its own array
+            final int edge = size / 8;
+            segments = new byte[][] {
+                    Arrays.copyOfRange(message, 0, edge),
+                    Arrays.copyOfRange(message, edge, size - edge),
+                    Arrays.copyOfRange(message, size - edge, size),
+            };
+            detached = new byte[size];
+            mac = new byte[Secretbox.MACBYTES];
+        }
+    }
+
+    @Benchmark
+    public byte[] easy(final Keys s,
+                       final ByteCounter counter)
+            throws StodiumException {
+        Secretbox.easy(s.cipher, s.message, s.nonce, s.key);
+        counter.bytes += s.size;
+        return s.cipher;
+    }
+
+    @Benchmark
+    public byte[] openEasy(final Keys s,
+                           final ByteCounter counter)
+            throws StodiumException, AEADBadTagException {
+        Secretbox.openEasy(s.plain, s.cipher, s.nonce, s.key);
+        counter.bytes += s.size;
+        return s.plain;
+    }
+
+    /**
+     * easyInPlace repeatedly encrypts the first size bytes of a single
+     * buffer, which holds the previous ciphertext.
+     */
+    @Benchmark
+    public byte[] easyInPlace(final Keys s,
+                              final ByteCounter counter)
+            throws StodiumException {
+        Secretbox.easyInPlace(s.inPlace, 0, s.size, s.nonce, s.key);
+        counter.bytes += s.size;
+        return s.inPlace;
+    }
+
+    /**
+     * detachedGather encrypts a message held in three segments, without
+     * concatenating them first.
+     */
+    @Benchmark
+    public byte[] detachedGather(final Keys s,
+                                 final ByteCounter counter)
+            throws StodiumException {
+        Secretbox.detached(s.detached, s.mac, s.segments, s.nonce, s.key);
+        counter.bytes += s.size;
+        return s.detached;
+    }
+
+    /**
+     * detachedConcat is the baseline for detachedGather: it copies the
+     * segments into a single array and encrypts that.
+     */
+    @Benchmark
+    public byte[] detachedConcat(final Keys s,
+                                 final ByteCounter counter)
+            throws StodiumException {
+        final byte[] plain = new byte[s.size];
+        int offset = 0;
+        for (final byte[] segment : s.segments) {
+            System.arraycopy(segment, 0, plain, offset, segment.length);
+            offset += segment.length;
+        }
+        Secretbox.detached(s.detached, s.mac, plain, s.nonce, s.key);
+        counter.bytes += s.size;
+        return s.detached;
+    }
+}
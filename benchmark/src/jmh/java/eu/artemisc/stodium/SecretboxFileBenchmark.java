@@ -0,0 +1,109 @@
+package eu.artemisc.stodium;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.nio.channels.FileChannel;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.TimeUnit;
+
+import javax.crypto.AEADBadTagException;
+
+/**
+ * SecretboxFileBenchmark measures the throughput of the parallel mode of
+ * SecretboxFile on a 256 MiB file, on fork/join pools of increasing size, to
+ * show how it scales with the number of cores. The files are
+ * created in java.io.tmpdir, which should not be a slow disk.
+ *
+ * @author Jan van de Molengraft [jan@artemisc.eu]
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3)
+@Measurement(iterations = 5)
+@Fork(1)
+public class SecretboxFileBenchmark {
+    @State(Scope.Thread)
+    public static class Files {
+        @Param({"268435456"})
+        public long fileSize;
+
+        @Param({"1", "2", "4", "8", "16", "32"})
+        public int threads;
+
+        public byte[] key;
+        public ForkJoinPool pool;
+        public File plain;
+        public File cipher;
+        public File output;
+        public RandomAccessFile plainFile;
+        public RandomAccessFile cipherFile;
+        public RandomAccessFile outputFile;
+
+        @Setup(Level.Trial)
+        public void setup()
+                throws IOException, StodiumException {
+            key = MessageState.random(Secretbox.KEYBYTES);
+            pool = new ForkJoinPool(threads);
+
+            plain = File.createTempFile("stodium", ".plain");
+            cipher = File.createTempFile("stodium", ".cipher");
+            output = File.createTempFile("stodium", ".out");
+            plainFile = new RandomAccessFile(plain, "rw");
+            cipherFile = new RandomAccessFile(cipher, "rw");
+            outputFile = new RandomAccessFile(output, "rw");
+
+            final byte[] block = MessageState.random(1024 * 1024);
+            for (long written = 0; written < fileSize; written += block.length) {
+                plainFile.write(block);
+            }
+            SecretboxFile.encrypt(cipherFile.getChannel(), plainFile.getChannel(), key);
+        }
+
+        @TearDown(Level.Trial)
+        public void tearDown()
+                throws IOException {
+            pool.shutdown();
+            plainFile.close();
+            cipherFile.close();
+            outputFile.close();
+            plain.delete();
+            cipher.delete();
+            output.delete();
+        }
+    }
+
+    @Benchmark
+    public FileChannel encryptParallel(final Files s,
+                                       final ByteCounter counter)
+            throws IOException, StodiumException {
+        SecretboxFile.encryptParallel(s.outputFile.getChannel(), s.plainFile.getChannel(),
+                s.key, SecretboxFile.CHUNKBYTES_DEFAULT, s.pool);
+        counter.bytes += s.fileSize;
+        return s.outputFile.getChannel();
+    }
+
+    @Benchmark
+    public FileChannel decryptParallel(final Files s,
+                                       final ByteCounter counter)
+            throws IOException, StodiumException, AEADBadTagException {
+        SecretboxFile.decryptParallel(s.outputFile.getChannel(), s.cipherFile.getChannel(),
+                s.key, s.pool);
+        counter.bytes += s.fileSize;
+        return s.outputFile.getChannel();
+    }
+}
@@ -0,0 +1,58 @@
+package eu.artemisc.stodium;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * ShortHashBenchmark measures the throughput of the ShortHash wrappers.
+ *
+ * @author Jan van de Molengraft [jan@artemisc.eu]
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3)
+@Measurement(iterations = 5)
+@Fork(1)
+public class ShortHashBenchmark {
+    @State(Scope.Thread)
+    public static class Input
+            extends MessageState {
+        public byte[] key;
+        public byte[] out;
+
+        @Setup(Level.Trial)
+        public void setup() {
+            setupMessage();
+            key = random(ShortHash.KEYBYTES);
+            out = new byte[ShortHash.BYTES];
+        }
+    }
+
+    @Benchmark
+    public byte[] shorthash(final Input s,
+                            final ByteCounter counter)
+            throws StodiumException {
+        ShortHash.shorthash(s.out, s.message, s.key);
+        counter.bytes += s.size;
+        return s.out;
+    }
+
+    @Benchmark
+    public long shorthashLong(final Input s,
+                              final ByteCounter counter)
+            throws StodiumException {
+        counter.bytes += s.size;
+        return ShortHash.shorthash(s.message, s.key);
+    }
+}
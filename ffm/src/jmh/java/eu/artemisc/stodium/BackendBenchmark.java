@@ -0,0 +1,190 @@
+package eu.artemisc.stodium;
+
+import eu.artemisc.stodium.ffm.FfmBackend;
+
+import org.openjdk.jmh.annotations.AuxCounters;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * BackendBenchmark compares the JNI and java.lang.foreign backends per
+ * primitive, by calling each backend directly. The message sizes straddle
+ * the 4096 byte limit above which the JNI backend copies messages, while
+ * the java.lang.foreign backend never does.
+ *
+ * @author Jan van de Molengraft [jan@artemisc.eu]
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3)
+@Measurement(iterations = 5)
+@Fork(1)
+public class BackendBenchmark {
+    @State(Scope.Thread)
+    public static class Keys {
+        @Param({"jni", "ffm"})
+        public String backend;
+
+        @Param({"16", "256", "4096", "4097", "65536", "1048576"})
+        public int size;
+
+        public StodiumBackend b;
+        public byte[] message;
+        public byte[] key;
+        public byte[] nonce;
+        public byte[] cipher;
+        public byte[] plain;
+        public byte[] sharedKey;
+        public byte[] boxPublicKey;
+        public byte[] boxPrivateKey;
+        public byte[] npub;
+        public byte[] ad;
+        public byte[] aeadCipher;
+        public byte[] signPublicKey;
+        public byte[] signPrivateKey;
+        public byte[] signature;
+        public byte[] tag;
+        public byte[] point;
+        public byte[] shortHashKey;
+
+        @Setup(Level.Trial)
+        public void setup()
+                throws StodiumException {
+            b = JniBackend.NAME.equals(backend) ? new JniBackend() : new FfmBackend();
+
+            message = random(size);
+            key = random(Secretbox.KEYBYTES);
+            nonce = random(Secretbox.NONCEBYTES);
+            cipher = new byte[size + Secretbox.MACBYTES];
+            plain = new byte[size];
+            b.crypto_secretbox_easy(cipher, message, size, nonce, key);
+
+            boxPublicKey = new byte[Box.PUBLICKEYBYTES];
+            boxPrivateKey = new byte[Box.SECRETKEYBYTES];
+            Box.keypair(boxPublicKey, boxPrivateKey);
+            sharedKey = new byte[Box.BEFORENMBYTES];
+            b.crypto_box_beforenm(sharedKey, boxPublicKey, boxPrivateKey);
+
+            npub = random(Chacha20Poly1305.NPUBBYTES);
+            ad = random(16);
+            aeadCipher = new byte[size + Chacha20Poly1305.ABYTES];
+
+            signPublicKey = new byte[Ed25519.PUBLICKEYBYTES];
+            signPrivateKey = new byte[Ed25519.PRIVATEKEYBYTES];
+            Ed25519.keypair(signPublicKey, signPrivateKey);
+            signature = new byte[Ed25519.SIGNBYTES];
+            b.crypto_sign_ed25519_detached(signature, message, size, signPrivateKey);
+
+            tag = new byte[Poly1305.BYTES];
+            point = new byte[Curve25519.BYTES];
+            shortHashKey = random(ShortHash.KEYBYTES);
+        }
+    }
+
+    /**
+     * Bytes is reported as a secondary "bytes" metric, like the ByteCounter
+     * of the benchmark module.
+     */
+    @AuxCounters(AuxCounters.Type.OPERATIONS)
+    @State(Scope.Thread)
+    public static class Bytes {
+        public long bytes;
+
+        @Setup(Level.Iteration)
+        public void reset() {
+            bytes = 0;
+        }
+    }
+
+    @Benchmark
+    public byte[] secretboxEasy(final Keys s,
+                                final Bytes counter) {
+        s.b.crypto_secretbox_easy(s.cipher, s.message, s.size, s.nonce, s.key);
+        counter.bytes += s.size;
+        return s.cipher;
+    }
+
+    @Benchmark
+    public int secretboxOpenEasy(final Keys s,
+                                 final Bytes counter) {
+        counter.bytes += s.size;
+        return s.b.crypto_secretbox_open_easy(s.plain, s.cipher, s.cipher.length, s.nonce, s.key);
+    }
+
+    @Benchmark
+    public byte[] boxBeforenm(final Keys s) {
+        s.b.crypto_box_beforenm(s.sharedKey, s.boxPublicKey, s.boxPrivateKey);
+        return s.sharedKey;
+    }
+
+    @Benchmark
+    public byte[] boxEasyAfternm(final Keys s,
+                                 final Bytes counter) {
+        s.b.crypto_box_easy_afternm(s.cipher, s.message, s.size, s.nonce, s.sharedKey);
+        counter.bytes += s.size;
+        return s.cipher;
+    }
+
+    @Benchmark
+    public byte[] chacha20Poly1305Encrypt(final Keys s,
+                                          final Bytes counter) {
+        s.b.crypto_aead_chacha20poly1305_encrypt(s.aeadCipher, 0, s.message, 0, s.size,
+                s.ad, s.npub, s.key);
+        counter.bytes += s.size;
+        return s.aeadCipher;
+    }
+
+    @Benchmark
+    public byte[] ed25519SignDetached(final Keys s,
+                                      final Bytes counter) {
+        s.b.crypto_sign_ed25519_detached(s.signature, s.message, s.size, s.signPrivateKey);
+        counter.bytes += s.size;
+        return s.signature;
+    }
+
+    @Benchmark
+    public int ed25519VerifyDetached(final Keys s,
+                                     final Bytes counter) {
+        counter.bytes += s.size;
+        return s.b.crypto_sign_ed25519_verify_detached(s.signature, s.message, s.size, s.signPublicKey);
+    }
+
+    @Benchmark
+    public byte[] poly1305(final Keys s,
+                           final Bytes counter) {
+        s.b.crypto_onetimeauth_poly1305(s.tag, s.message, s.size, s.key);
+        counter.bytes += s.size;
+        return s.tag;
+    }
+
+    @Benchmark
+    public byte[] curve25519ScalarMult(final Keys s) {
+        s.b.crypto_scalarmult_curve25519(s.point, s.boxPrivateKey, s.boxPublicKey);
+        return s.point;
+    }
+
+    @Benchmark
+    public long shortHash(final Keys s,
+                          final Bytes counter) {
+        counter.bytes += s.size;
+        return s.b.crypto_shorthash_long(s.message, s.size, s.shortHashKey);
+    }
+
+    static byte[] random(final int len) {
+        final byte[] buf = new byte[len];
+        RandomBytes.nextBytes(buf);
+        return buf;
+    }
+}
@@ -0,0 +1,329 @@
+package eu.artemisc.stodium.ffm;
+
+import android.support.annotation.NonNull;
+
+import eu.artemisc.stodium.StodiumBackend;
+
+import java.lang.foreign.Arena;
+import java.lang.foreign.FunctionDescriptor;
+import java.lang.foreign.Linker;
+import java.lang.foreign.MemorySegment;
+import java.lang.foreign.SymbolLookup;
+import java.lang.foreign.ValueLayout;
+import java.lang.invoke.MethodHandle;
+
+/**
+ * FfmBackend is a {@link StodiumBackend} that calls libsodium through
+ * java.lang.foreign downcall handles (JDK 22 or newer), instead of through
+ * JNI. It is registered as a service by this module, so it is installed by
+ * putting the jar on the classpath; when it cannot be used, the library
+ * falls back to JNI.
+ *
+ * The libsodium functions are looked up in the libkaliumjni library that the
+ * wrappers have already loaded, which links libsodium statically, or else in
+ * a shared libsodium on the library path.
+ *
+ * All arrays are passed as heap segments, through handles with
+ * {@link Linker.Option#critical(boolean)}: libsodium reads and writes them in
+ * place, so no array is copied and no native memory is allocated, whatever
+ * the message size. As with the JNI *_critical methods, the garbage collector
+ * may have to wait for a call to return; for very large messages the JNI
+ * backend, which copies messages above 4096 bytes, may be the better
+ * trade-off.
+ *
+ * @author Jan van de Molengraft [jan@artemisc.eu]
+ */
+public final class FfmBackend
+        implements StodiumBackend {
+    static final String NAME = "ffm";
+
+    private static final Linker LINKER = Linker.nativeLinker();
+    private static final SymbolLookup LOOKUP = lookup();
+
+    private static final ValueLayout P = ValueLayout.ADDRESS;
+    private static final ValueLayout J = ValueLayout.JAVA_LONG;
+
+    // int f(out, in, unsigned long long inlen, nonce, key)
+    private static final FunctionDescriptor PPJPP = FunctionDescriptor.of(ValueLayout.JAVA_INT, P, P, J, P, P);
+    // int f(out, in, unsigned long long inlen, key)
+    private static final FunctionDescriptor PPJP = FunctionDescriptor.of(ValueLayout.JAVA_INT, P, P, J, P);
+    // int f(out, a, b)
+    private static final FunctionDescriptor PPP = FunctionDescriptor.of(ValueLayout.JAVA_INT, P, P, P);
+    // int crypto_sign_ed25519_detached(sig, siglen_p, m, mlen, sk)
+    private static final FunctionDescriptor PPPJP = FunctionDescriptor.of(ValueLayout.JAVA_INT, P, P, P, J, P);
+    // int crypto_aead_chacha20poly1305_encrypt(c, clen_p, m, mlen, ad, adlen, nsec, npub, k)
+    // int crypto_aead_chacha20poly1305_decrypt(m, mlen_p, nsec, c, clen, ad, adlen, npub, k)
+    private static final FunctionDescriptor AEAD_ENCRYPT = FunctionDescriptor.of(ValueLayout.JAVA_INT, P, P, P, J, P, J, P, P, P);
+    private static final FunctionDescriptor AEAD_DECRYPT = FunctionDescriptor.of(ValueLayout.JAVA_INT, P, P, P, P, J, P, J, P, P);
+
+    private static final MethodHandle SECRETBOX_EASY = downcall("crypto_secretbox_easy", PPJPP);
+    private static final MethodHandle SECRETBOX_OPEN_EASY = downcall("crypto_secretbox_open_easy", PPJPP);
+    private static final MethodHandle BOX_BEFORENM = downcall("crypto_box_beforenm", PPP);
+    private static final MethodHandle BOX_EASY_AFTERNM = downcall("crypto_box_easy_afternm", PPJPP);
+    private static final MethodHandle BOX_OPEN_EASY_AFTERNM = downcall("crypto_box_open_easy_afternm", PPJPP);
+    private static final MethodHandle AEAD_CHACHA20POLY1305_ENCRYPT = downcall("crypto_aead_chacha20poly1305_encrypt", AEAD_ENCRYPT);
+    private static final MethodHandle AEAD_CHACHA20POLY1305_DECRYPT = downcall("crypto_aead_chacha20poly1305_decrypt", AEAD_DECRYPT);
+    private static final MethodHandle SIGN_ED25519_DETACHED = downcall("crypto_sign_ed25519_detached", PPPJP);
+    private static final MethodHandle SIGN_ED25519_VERIFY_DETACHED = downcall("crypto_sign_ed25519_verify_detached", PPJP);
+    private static final MethodHandle ONETIMEAUTH_POLY1305 = downcall("crypto_onetimeauth_poly1305", PPJP);
+    private static final MethodHandle ONETIMEAUTH_POLY1305_VERIFY = downcall("crypto_onetimeauth_poly1305_verify", PPJP);
+    private static final MethodHandle SCALARMULT_CURVE25519 = downcall("crypto_scalarmult_curve25519", PPP);
+    private static final MethodHandle SHORTHASH = downcall("crypto_shorthash", PPJP);
+
+    /**
+     * SHORTHASH_OUT holds the 8-byte output of crypto_shorthash, which
+     * {@link #crypto_shorthash_long(byte[], int, byte[])} returns as a long.
+     */
+    private static final ThreadLocal<byte[]> SHORTHASH_OUT = ThreadLocal.withInitial(() -> new byte[8]);
+
+    /**
+     * FfmBackend is instantiated by ServiceLoader. Class initialization
+     * fails if libsodium cannot be found, which makes the library fall back
+     * to JNI.
+     */
+    public FfmBackend() {}
+
+    @NonNull
+    @Override
+    public String name() {
+        return NAME;
+    }
+
+    @Override
+    public int crypto_secretbox_easy(@NonNull final byte[] dstCipher,
+                                     @NonNull final byte[] srcPlain,
+                                     final int plainLen,
+                                     @NonNull final byte[] nonce,
+                                     @NonNull final byte[] secretKey) {
+        try {
+            return (int) SECRETBOX_EASY.invokeExact(heap(dstCipher), heap(srcPlain),
+                    (long) plainLen, heap(nonce), heap(secretKey));
+        } catch (Throwable t) {
+            throw rethrow(t);
+        }
+    }
+
+    @Override
+    public int crypto_secretbox_open_easy(@NonNull final byte[] dstPlain,
+                                          @NonNull final byte[] srcCipher,
+                                          final int cipherLen,
+                                          @NonNull final byte[] nonce,
+                                          @NonNull final byte[] secretKey) {
+        try {
+            return (int) SECRETBOX_OPEN_EASY.invokeExact(heap(dstPlain), heap(srcCipher),
+                    (long) cipherLen, heap(nonce), heap(secretKey));
+        } catch (Throwable t) {
+            throw rethrow(t);
+        }
+    }
+
+    @Override
+    public int crypto_box_beforenm(@NonNull final byte[] dstSharedKey,
+                                   @NonNull final byte[] remotePubKey,
+                                   @NonNull final byte[] localPrivKey) {
+        try {
+            return (int) BOX_BEFORENM.invokeExact(heap(dstSharedKey),
+                    heap(remotePubKey), heap(localPrivKey));
+        } catch (Throwable t) {
+            throw rethrow(t);
+        }
+    }
+
+    @Override
+    public int crypto_box_easy_afternm(@NonNull final byte[] dstCipher,
+                                       @NonNull final byte[] srcPlain,
+                                       final int plainLen,
+                                       @NonNull final byte[] nonce,
+                                       @NonNull final byte[] sharedKey) {
+        try {
+            return (int) BOX_EASY_AFTERNM.invokeExact(heap(dstCipher), heap(srcPlain),
+                    (long) plainLen, heap(nonce), heap(sharedKey));
+        } catch (Throwable t) {
+            throw rethrow(t);
+        }
+    }
+
+    @Override
+    public int crypto_box_open_easy_afternm(@NonNull final byte[] dstPlain,
+                                            @NonNull final byte[] srcCipher,
+                                            final int cipherLen,
+                                            @NonNull final byte[] nonce,
+                                            @NonNull final byte[] sharedKey) {
+        try {
+            return (int) BOX_OPEN_EASY_AFTERNM.invokeExact(heap(dstPlain), heap(srcCipher),
+                    (long) cipherLen, heap(nonce), heap(sharedKey));
+        } catch (Throwable t) {
+            throw rethrow(t);
+        }
+    }
+
+    @Override
+    public int crypto_aead_chacha20poly1305_encrypt(@NonNull final byte[] dstCipher,
+                                                    final int dstOffset,
+                                                    @NonNull final byte[] srcPlain,
+                                                    final int srcOffset,
+                                                    final int plainLen,
+                                                    @NonNull final byte[] ad,
+                                                    @NonNull final byte[] nonce,
+                                                    @NonNull final byte[] key) {
+        try {
+            return (int) AEAD_CHACHA20POLY1305_ENCRYPT.invokeExact(heap(dstCipher, dstOffset),
+                    MemorySegment.NULL, heap(srcPlain, srcOffset), (long) plainLen,
+                    heap(ad), (long) ad.length, MemorySegment.NULL, heap(nonce), heap(key));
+        } catch (Throwable t) {
+            throw rethrow(t);
+        }
+    }
+
+    @Override
+    public int crypto_aead_chacha20poly1305_decrypt(@NonNull final byte[] dstPlain,
+                                                    final int dstOffset,
+                                                    @NonNull final byte[] srcCipher,
+                                                    final int srcOffset,
+                                                    final int cipherLen,
+                                                    @NonNull final byte[] ad,
+                                                    @NonNull final byte[] nonce,
+                                                    @NonNull final byte[] key) {
+        try {
+            return (int) AEAD_CHACHA20POLY1305_DECRYPT.invokeExact(heap(dstPlain, dstOffset),
+                    MemorySegment.NULL, MemorySegment.NULL, heap(srcCipher, srcOffset), (long) cipherLen,
+                    heap(ad), (long) ad.length, heap(nonce), heap(key));
+        } catch (Throwable t) {
+            throw rethrow(t);
+        }
+    }
+
+    @Override
+    public int crypto_sign_ed25519_detached(@NonNull final byte[] dstSignature,
+                                            @NonNull final byte[] srcMsg,
+                                            final int msgLen,
+                                            @NonNull final byte[] localPrivKey) {
+        try {
+            return (int) SIGN_ED25519_DETACHED.invokeExact(heap(dstSignature),
+                    MemorySegment.NULL, heap(srcMsg), (long) msgLen, heap(localPrivKey));
+        } catch (Throwable t) {
+            throw rethrow(t);
+        }
+    }
+
+    @Override
+    public int crypto_sign_ed25519_verify_detached(@NonNull final byte[] srcSignature,
+                                                   @NonNull final byte[] srcMsg,
+                                                   final int msgLen,
+                                                   @NonNull final byte[] remotePubKey) {
+        try {
+            return (int) SIGN_ED25519_VERIFY_DETACHED.invokeExact(heap(srcSignature),
+                    heap(srcMsg), (long) msgLen, heap(remotePubKey));
+        } catch (Throwable t) {
+            throw rethrow(t);
+        }
+    }
+
+    @Override
+    public int crypto_onetimeauth_poly1305(@NonNull final byte[] dstOut,
+                                          @NonNull final byte[] srcIn,
+                                          final int inLen,
+                                          @NonNull final byte[] srcKey) {
+        try {
+            return (int) ONETIMEAUTH_POLY1305.invokeExact(heap(dstOut),
+                    heap(srcIn), (long) inLen, heap(srcKey));
+        } catch (Throwable t) {
+            throw rethrow(t);
+        }
+    }
+
+    @Override
+    public int crypto_onetimeauth_poly1305_verify(@NonNull final byte[] srcTag,
+                                                 @NonNull final byte[] srcIn,
+                                                 final int inLen,
+                                                 @NonNull final byte[] srcKey) {
+        try {
+            return (int) ONETIMEAUTH_POLY1305_VERIFY.invokeExact(heap(srcTag),
+                    heap(srcIn), (long) inLen, heap(srcKey));
+        } catch (Throwable t) {
+            throw rethrow(t);
+        }
+    }
+
+    @Override
+    public int crypto_scalarmult_curve25519(@NonNull final byte[] dst,
+                                            @NonNull final byte[] src,
+                                            @NonNull final byte[] groupElement) {
+        try {
+            return (int) SCALARMULT_CURVE25519.invokeExact(heap(dst),
+                    heap(src), heap(groupElement));
+        } catch (Throwable t) {
+            throw rethrow(t);
+        }
+    }
+
+    @Override
+    public long crypto_shorthash_long(@NonNull final byte[] srcIn,
+                                      final int inLen,
+                                      @NonNull final byte[] srcKey) {
+        final byte[] out = SHORTHASH_OUT.get();
+        try {
+            // crypto_shorthash always returns 0
+            final int status = (int) SHORTHASH.invokeExact(heap(out),
+                    heap(srcIn), (long) inLen, heap(srcKey));
+        } catch (Throwable t) {
+            throw rethrow(t);
+        }
+
+        // big-endian, like stodium_load64_be in the JNI glue
+        long hash = 0;
+        for (final byte b : out) {
+            hash = (hash << 8) | (b & 0xff);
+        }
+        return hash;
+    }
+
+    /**
+     * lookup returns the symbols of the libraries loaded by this class
+     * loader, which include libkaliumjni, if it exports libsodium's
+     * functions, or else those of the shared libsodium.
+     */
+    @NonNull
+    private static SymbolLookup lookup() {
+        final SymbolLookup loaded = SymbolLookup.loaderLookup();
+        if (loaded.find("crypto_secretbox_easy").isPresent()) {
+            return loaded;
+        }
+        return SymbolLookup.libraryLookup(System.mapLibraryName("sodium"), Arena.global());
+    }
+
+    /**
+     * downcall creates the handle for the libsodium function name. The
+     * handle accepts heap segments, and runs name as a critical function.
+     *
+     * @throws java.util.NoSuchElementException if the function is not found
+     */
+    @NonNull
+    private static MethodHandle downcall(@NonNull final String name,
+                                         @NonNull final FunctionDescriptor descriptor) {
+        return LINKER.downcallHandle(LOOKUP.find(name).orElseThrow(), descriptor,
+                Linker.Option.critical(true));
+    }
+
+    @NonNull
+    private static MemorySegment heap(@NonNull final byte[] array) {
+        return MemorySegment.ofArray(array);
+    }
+
+    @NonNull
+    private static MemorySegment heap(@NonNull final byte[] array,
+                                      final int offset) {
+        return MemorySegment.ofArray(array).asSlice(offset);
+    }
+
+    @NonNull
+    private static RuntimeException rethrow(@NonNull final Throwable t) {
+        if (t instanceof RuntimeException) {
+            return (RuntimeException) t;
+        }
+        if (t instanceof Error) {
+            throw (Error) t;
+        }
+        return new IllegalStateException(t);
+    }
+}
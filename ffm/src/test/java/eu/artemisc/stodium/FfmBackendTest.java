@@ -0,0 +1,184 @@
+package eu.artemisc.stodium;
+
+import eu.artemisc.stodium.ffm.FfmBackend;
+
+import org.junit.Test;
+
+import java.util.Arrays;
+import java.util.Random;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+
+/**
+ * FfmBackendTest checks the java.lang.foreign backend against the JNI
+ * backend, primitive by primitive, for message sizes on both sides of the
+ * 4096 byte limit above which the JNI backend copies messages. It runs on
+ * the module's Java 22 toolchain, so it also covers the critical downcalls
+ * on heap segments.
+ *
+ * @author Jan van de Molengraft [jan@artemisc.eu]
+ */
+public class FfmBackendTest {
+    private static final int[] SIZES = {0, 1, 100, 4096, 4097, 70000};
+
+    private final StodiumBackend ffm = new FfmBackend();
+    private final StodiumBackend jni = new JniBackend();
+    private final Random random = new Random(0xffb4c3L);
+
+    @Test
+    public void selectedAtStartup() {
+        assertEquals(FfmBackend.class, Backends.BACKEND.getClass());
+    }
+
+    @Test
+    public void secretboxMatchesJni()
+            throws Exception {
+        for (final int size : SIZES) {
+            final byte[] plain = bytes(size);
+            final byte[] nonce = bytes(Secretbox.NONCEBYTES);
+            final byte[] key = bytes(Secretbox.KEYBYTES);
+
+            final byte[] expected = new byte[size + Secretbox.MACBYTES];
+            final byte[] cipher = new byte[size + Secretbox.MACBYTES];
+            assertEquals(0, jni.crypto_secretbox_easy(expected, plain, size, nonce, key));
+            assertEquals(0, ffm.crypto_secretbox_easy(cipher, plain, size, nonce, key));
+            assertArrayEquals(expected, cipher);
+
+            final byte[] opened = new byte[size];
+            assertEquals(0, ffm.crypto_secretbox_open_easy(opened, cipher, cipher.length, nonce, key));
+            assertArrayEquals(plain, opened);
+
+            cipher[0] ^= 1;
+            assertEquals(-1, ffm.crypto_secretbox_open_easy(opened, cipher, cipher.length, nonce, key));
+        }
+    }
+
+    @Test
+    public void boxMatchesJni()
+            throws Exception {
+        final byte[] publicKey = new byte[Box.PUBLICKEYBYTES];
+        final byte[] privateKey = new byte[Box.SECRETKEYBYTES];
+        Box.keypair(publicKey, privateKey);
+
+        final byte[] expectedKey = new byte[Box.BEFORENMBYTES];
+        final byte[] sharedKey = new byte[Box.BEFORENMBYTES];
+        assertEquals(0, jni.crypto_box_beforenm(expectedKey, publicKey, privateKey));
+        assertEquals(0, ffm.crypto_box_beforenm(sharedKey, publicKey, privateKey));
+        assertArrayEquals(expectedKey, sharedKey);
+
+        for (final int size : SIZES) {
+            final byte[] plain = bytes(size);
+            final byte[] nonce = bytes(Box.NONCEBYTES);
+
+            final byte[] expected = new byte[size + Box.MACBYTES];
+            final byte[] cipher = new byte[size + Box.MACBYTES];
+            assertEquals(0, jni.crypto_box_easy_afternm(expected, plain, size, nonce, sharedKey));
+            assertEquals(0, ffm.crypto_box_easy_afternm(cipher, plain, size, nonce, sharedKey));
+            assertArrayEquals(expected, cipher);
+
+            final byte[] opened = new byte[size];
+            assertEquals(0, ffm.crypto_box_open_easy_afternm(opened, cipher, cipher.length, nonce, sharedKey));
+            assertArrayEquals(plain, opened);
+        }
+    }
+
+    @Test
+    public void chacha20Poly1305MatchesJniAtOffsets()
+            throws Exception {
+        for (final int size : SIZES) {
+            final int srcOffset = random.nextInt(16);
+            final int dstOffset = random.nextInt(16);
+            final byte[] src = bytes(srcOffset + size);
+            final byte[] ad = bytes(random.nextInt(40));
+            final byte[] nonce = bytes(Chacha20Poly1305.NPUBBYTES);
+            final byte[] key = bytes(Chacha20Poly1305.KEYBYTES);
+
+            final byte[] expected = new byte[dstOffset + size + Chacha20Poly1305.ABYTES];
+            final byte[] cipher = new byte[dstOffset + size + Chacha20Poly1305.ABYTES];
+            assertEquals(0, jni.crypto_aead_chacha20poly1305_encrypt(expected, dstOffset,
+                    src, srcOffset, size, ad, nonce, key));
+            assertEquals(0, ffm.crypto_aead_chacha20poly1305_encrypt(cipher, dstOffset,
+                    src, srcOffset, size, ad, nonce, key));
+            assertArrayEquals(expected, cipher);
+
+            final byte[] opened = new byte[1 + size];
+            assertEquals(0, ffm.crypto_aead_chacha20poly1305_decrypt(opened, 1,
+                    cipher, dstOffset, size + Chacha20Poly1305.ABYTES, ad, nonce, key));
+            assertArrayEquals(Arrays.copyOfRange(src, srcOffset, srcOffset + size),
+                    Arrays.copyOfRange(opened, 1, opened.length));
+        }
+    }
+
+    @Test
+    public void ed25519MatchesJni()
+            throws Exception {
+        final byte[] publicKey = new byte[Ed25519.PUBLICKEYBYTES];
+        final byte[] privateKey = new byte[Ed25519.PRIVATEKEYBYTES];
+        Ed25519.keypair(publicKey, privateKey);
+
+        for (final int size : SIZES) {
+            final byte[] message = bytes(size);
+            final byte[] expected = new byte[Ed25519.SIGNBYTES];
+            final byte[] signature = new byte[Ed25519.SIGNBYTES];
+            assertEquals(0, jni.crypto_sign_ed25519_detached(expected, message, size, privateKey));
+            assertEquals(0, ffm.crypto_sign_ed25519_detached(signature, message, size, privateKey));
+            assertArrayEquals(expected, signature);
+
+            assertEquals(0, ffm.crypto_sign_ed25519_verify_detached(signature, message, size, publicKey));
+            signature[0] ^= 1;
+            assertEquals(-1, ffm.crypto_sign_ed25519_verify_detached(signature, message, size, publicKey));
+        }
+    }
+
+    @Test
+    public void poly1305MatchesJni() {
+        for (final int size : SIZES) {
+            final byte[] message = bytes(size);
+            final byte[] key = bytes(Poly1305.KEYBYTES);
+            final byte[] expected = new byte[Poly1305.BYTES];
+            final byte[] tag = new byte[Poly1305.BYTES];
+            assertEquals(0, jni.crypto_onetimeauth_poly1305(expected, message, size, key));
+            assertEquals(0, ffm.crypto_onetimeauth_poly1305(tag, message, size, key));
+            assertArrayEquals(expected, tag);
+
+            assertEquals(0, ffm.crypto_onetimeauth_poly1305_verify(tag, message, size, key));
+            tag[0] ^= 1;
+            assertEquals(-1, ffm.crypto_onetimeauth_poly1305_verify(tag, message, size, key));
+        }
+    }
+
+    @Test
+    public void curve25519MatchesJni() {
+        final byte[] scalar = bytes(Curve25519.SCALAR_BYTES);
+        final byte[] point = bytes(Curve25519.BYTES);
+        final byte[] expected = new byte[Curve25519.BYTES];
+        final byte[] result = new byte[Curve25519.BYTES];
+        assertEquals(jni.crypto_scalarmult_curve25519(expected, scalar, point),
+                ffm.crypto_scalarmult_curve25519(result, scalar, point));
+        assertArrayEquals(expected, result);
+    }
+
+    @Test
+    public void shortHashMatchesJni() {
+        for (final int size : SIZES) {
+            final byte[] message = bytes(size);
+            final byte[] key = bytes(ShortHash.KEYBYTES);
+            assertEquals(jni.crypto_shorthash_long(message, size, key),
+                    ffm.crypto_shorthash_long(message, size, key));
+        }
+
+        // SipHash-2-4 reference vector: key 00..0f, empty message
+        final byte[] key = new byte[ShortHash.KEYBYTES];
+        for (int i = 0; i < key.length; i++) {
+            key[i] = (byte) i;
+        }
+        assertEquals(0x310e0edd47db6f72L, ffm.crypto_shorthash_long(new byte[0], 0, key));
+    }
+
+    private byte[] bytes(final int length) {
+        final byte[] b = new byte[length];
+        random.nextBytes(b);
+        return b;
+    }
+}
@@ -0,0 +1,24 @@
+package eu.artemisc.stodium.jfr;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+
+/**
+ * AuthenticationFailureEvent is recorded for every failed operation, which
+ * for the open, decrypt and verify operations means a bad tag or a bad
+ * signature.
+ *
+ * @author Jan van de Molengraft [jan@artemisc.eu]
+ */
+@Name("eu.artemisc.stodium.AuthenticationFailure")
+@Label("Authentication Failure")
+@Category("Stodium")
+@Description("A wrapper call that failed, e.g. on an invalid tag or signature")
+public final class AuthenticationFailureEvent
+        extends Event {
+    @Label("Operation")
+    String operation;
+}
@@ -0,0 +1,33 @@
+package eu.artemisc.stodium.jfr;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.SettingDefinition;
+import jdk.jfr.Timespan;
+
+/**
+ * BeforenmEvent is recorded for every Box#beforenm call, i.e. every
+ * Curve25519 shared key computation.
+ *
+ * @author Jan van de Molengraft [jan@artemisc.eu]
+ */
+@Name("eu.artemisc.stodium.Beforenm")
+@Label("Box Beforenm")
+@Category("Stodium")
+@Description("A Box shared key precomputation")
+public final class BeforenmEvent
+        extends Event {
+    @Label("Latency")
+    @Timespan(Timespan.NANOSECONDS)
+    long latency;
+
+    @Label("Latency Threshold")
+    @Name("latencyThreshold")
+    @SettingDefinition
+    protected boolean latencyThreshold(final ThresholdSetting.Latency setting) {
+        return setting.accept(latency);
+    }
+}
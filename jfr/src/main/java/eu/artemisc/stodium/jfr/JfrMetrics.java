@@ -0,0 +1,81 @@
+package eu.artemisc.stodium.jfr;
+
+import android.support.annotation.NonNull;
+
+import eu.artemisc.stodium.StodiumMetrics;
+import eu.artemisc.stodium.StodiumPasswordHashMetrics;
+
+/**
+ * JfrMetrics is a {@link StodiumMetrics} listener that turns the reported
+ * operations into Java Flight Recorder events. It is registered as a service
+ * by this module, so it is installed by putting the jar on the classpath.
+ *
+ * Which events are recorded is controlled through the usual JFR settings,
+ * e.g. in a .jfc file:
+ *
+ * <pre>
+ * &lt;event name="eu.artemisc.stodium.LargeOperation"&gt;
+ *   &lt;setting name="enabled"&gt;true&lt;/setting&gt;
+ *   &lt;setting name="minimumSize"&gt;1048576&lt;/setting&gt;
+ *   &lt;setting name="latencyThreshold"&gt;10 ms&lt;/setting&gt;
+ * &lt;/event&gt;
+ * </pre>
+ *
+ * @author Jan van de Molengraft [jan@artemisc.eu]
+ */
+public final class JfrMetrics
+        implements StodiumPasswordHashMetrics {
+    private static final String BEFORENM = "Box#beforenm";
+
+    @Override
+    public void onOperation(@NonNull final String operation,
+                            final int bytes,
+                            final long nanos) {
+        if (BEFORENM.equals(operation)) {
+            final BeforenmEvent event = new BeforenmEvent();
+            if (event.isEnabled()) {
+                event.latency = nanos;
+                if (event.shouldCommit()) {
+                    event.commit();
+                }
+            }
+            return;
+        }
+
+        final LargeOperationEvent event = new LargeOperationEvent();
+        if (event.isEnabled()) {
+            event.operation = operation;
+            event.bytes = bytes;
+            event.latency = nanos;
+            if (event.shouldCommit()) {
+                event.commit();
+            }
+        }
+    }
+
+    @Override
+    public void onPasswordHash(@NonNull final String operation,
+                               final int opsLimit,
+                               final int memLimit,
+                               final long nanos) {
+        final PasswordHashEvent event = new PasswordHashEvent();
+        if (event.isEnabled()) {
+            event.operation = operation;
+            event.opsLimit = opsLimit;
+            event.memLimit = memLimit;
+            event.latency = nanos;
+            if (event.shouldCommit()) {
+                event.commit();
+            }
+        }
+    }
+
+    @Override
+    public void onFailure(@NonNull final String operation) {
+        final AuthenticationFailureEvent event = new AuthenticationFailureEvent();
+        if (event.isEnabled()) {
+            event.operation = operation;
+            event.commit();
+        }
+    }
+}
@@ -0,0 +1,48 @@
+package eu.artemisc.stodium.jfr;
+
+import jdk.jfr.Category;
+import jdk.jfr.DataAmount;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.SettingDefinition;
+import jdk.jfr.Timespan;
+
+/**
+ * LargeOperationEvent is recorded for operations on messages of at least
+ * {@code minimumSize} bytes (e.g. Secretbox#easy, Chacha20Poly1305#decrypt).
+ *
+ * @author Jan van de Molengraft [jan@artemisc.eu]
+ */
+@Name("eu.artemisc.stodium.LargeOperation")
+@Label("Large Crypto Operation")
+@Category("Stodium")
+@Description("A wrapper call on a message above the size threshold")
+public final class LargeOperationEvent
+        extends Event {
+    @Label("Operation")
+    String operation;
+
+    @Label("Bytes")
+    @DataAmount
+    int bytes;
+
+    @Label("Latency")
+    @Timespan(Timespan.NANOSECONDS)
+    long latency;
+
+    @Label("Minimum Size")
+    @Name("minimumSize")
+    @SettingDefinition
+    protected boolean minimumSize(final ThresholdSetting.Size setting) {
+        return setting.accept(bytes);
+    }
+
+    @Label("Latency Threshold")
+    @Name("latencyThreshold")
+    @SettingDefinition
+    protected boolean latencyThreshold(final ThresholdSetting.Latency setting) {
+        return setting.accept(latency);
+    }
+}
@@ -0,0 +1,44 @@
+package eu.artemisc.stodium.jfr;
+
+import jdk.jfr.Category;
+import jdk.jfr.DataAmount;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.SettingDefinition;
+import jdk.jfr.Timespan;
+
+/**
+ * PasswordHashEvent is recorded for every password hashing call, along with
+ * the limits it was made with.
+ *
+ * @author Jan van de Molengraft [jan@artemisc.eu]
+ */
+@Name("eu.artemisc.stodium.PasswordHash")
+@Label("Password Hash")
+@Category("Stodium")
+@Description("A password hashing call (e.g. Scrypt#pwhashScrypt)")
+public final class PasswordHashEvent
+        extends Event {
+    @Label("Operation")
+    String operation;
+
+    @Label("Ops Limit")
+    int opsLimit;
+
+    @Label("Memory Limit")
+    @DataAmount
+    int memLimit;
+
+    @Label("Latency")
+    @Timespan(Timespan.NANOSECONDS)
+    long latency;
+
+    @Label("Latency Threshold")
+    @Name("latencyThreshold")
+    @SettingDefinition
+    protected boolean latencyThreshold(final ThresholdSetting.Latency setting) {
+        return setting.accept(latency);
+    }
+}
@@ -0,0 +1,113 @@
+package eu.artemisc.stodium.jfr;
+
+import java.util.Locale;
+import java.util.Set;
+
+import jdk.jfr.SettingControl;
+
+/**
+ * ThresholdSetting is a JFR setting that only lets an event through when one
+ * of its values is at least the configured threshold. Values are written as
+ * a number with an optional time unit ("20 ms", "500 us", "65536").
+ *
+ * The built-in threshold setting of JFR measures the time between begin() and
+ * commit() of an event, whereas the library reports operations after they
+ * have completed; the events therefore carry the measured latency in a
+ * field, and use this setting to filter on it.
+ *
+ * @author Jan van de Molengraft [jan@artemisc.eu]
+ */
+public abstract class ThresholdSetting
+        extends SettingControl {
+    private final String defaultValue;
+    private String value;
+    private volatile long threshold;
+
+    ThresholdSetting(final String defaultValue) {
+        this.defaultValue = defaultValue;
+        setValue(defaultValue);
+    }
+
+    /**
+     * combine returns the lowest threshold of all recordings, so that every
+     * recording receives at least the events it asked for.
+     */
+    @Override
+    public String combine(final Set<String> values) {
+        String lowest = null;
+        for (final String v : values) {
+            if (lowest == null || parse(v) < parse(lowest)) {
+                lowest = v;
+            }
+        }
+        return lowest == null ? defaultValue : lowest;
+    }
+
+    @Override
+    public void setValue(final String value) {
+        this.threshold = parse(value);
+        this.value = value;
+    }
+
+    @Override
+    public String getValue() {
+        return value;
+    }
+
+    /**
+     * @param measured
+     * @return Whether measured is at or above the threshold
+     */
+    boolean accept(final long measured) {
+        return measured >= threshold;
+    }
+
+    /**
+     * parse converts a setting value into a number, converting time units to
+     * nanoseconds. Unparseable values are treated as 0, i.e. no threshold.
+     */
+    static long parse(final String value) {
+        final String[] parts = value.trim().toLowerCase(Locale.ROOT).split("\\s+");
+        final long n;
+        try {
+            n = Long.parseLong(parts[0]);
+        } catch (NumberFormatException e) {
+            return 0L;
+        }
+        if (parts.length < 2) {
+            return n;
+        }
+        switch (parts[1]) {
+        case "us":
+            return n * 1000L;
+        case "ms":
+            return n * 1000000L;
+        case "s":
+            return n * 1000000000L;
+        default:
+            return n;
+        }
+    }
+
+    /**
+     * Latency is the minimum latency of an event, 0 ns (every event) by
+     * default.
+     */
+    public static final class Latency
+            extends ThresholdSetting {
+        public Latency() {
+            super("0 ns");
+        }
+    }
+
+    /**
+     * Size is the minimum number of bytes processed by an operation,
+     * 65536 by default.
+     */
+    public static final class Size
+            extends ThresholdSetting {
+        public Size() {
+            super("65536");
+        }
+    }
+}
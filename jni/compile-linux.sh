@@ -0,0 +1,44 @@
+#!/bin/bash
+#
+# Builds libkaliumjni.so for desktop/server Linux, for use by the jvm module.
+#
+# Usage: ./compile-linux.sh <x86_64|aarch64> <output directory>
+#
+# The compiler defaults to <arch>-linux-gnu-gcc, and can be overridden with
+# CC. libsodium is linked statically, from SODIUM_PREFIX (default
+# /usr/local), which should hold a build of libsodium for the same
+# architecture (configured with --with-pic).
+set -e
+
+if [ -z "$JAVA_HOME" ]; then
+    echo "ERROR You should set JAVA_HOME"
+    echo "Exiting!"
+    exit 1
+fi
+
+ARCH=$1
+OUT=$2
+if [ -z "$ARCH" ] || [ -z "$OUT" ]; then
+    echo "usage: $0 <x86_64|aarch64> <output directory>"
+    exit 1
+fi
+
+CC=${CC:-${ARCH}-linux-gnu-gcc}
+SODIUM_PREFIX=${SODIUM_PREFIX:-/usr/local}
+
+cd "$(dirname "$0")"
+mkdir -p "$OUT"
+SWIG_OUT=$(mktemp -d)
+trap 'rm -rf "$SWIG_OUT"' EXIT
+
+# The JAVA sources generated by swig are checked in (see compile.sh), only
+# the C wrappers are needed here
+swig -java -package org.abstractj.kalium -outdir "$SWIG_OUT" -o "$SWIG_OUT/sodium_wrap.c" sodium.i
+swig -java -package org.abstractj.kalium -outdir "$SWIG_OUT" -o "$SWIG_OUT/sodium_native_wrap.c" sodium_native.i
+
+$CC -O2 -shared -fPIC \
+    -I"${JAVA_HOME}/include" -I"${JAVA_HOME}/include/linux" \
+    -I"${SODIUM_PREFIX}/include" \
+    "$SWIG_OUT/sodium_wrap.c" "$SWIG_OUT/sodium_native_wrap.c" \
+    "${SODIUM_PREFIX}/lib/libsodium.a" \
+    -o "$OUT/libkaliumjni.so"
@@ -32,6 +32,29 @@
 /* Prevent default freearg typemap from being used */
 %typemap(freearg) unsigned char *""
 
+/* const unsigned char
+
+   Read-only inputs (keys, nonces, plaintext, ...) are never written by
+   libsodium, so there is nothing to copy back into the Java heap. Releasing
+   with JNI_ABORT frees the (possibly copied) elements without the write-back
+   performed by mode 0.
+*/
+%typemap(jni) const unsigned char *"jbyteArray"
+%typemap(jtype) const unsigned char *"byte[]"
+%typemap(jstype) const unsigned char *"byte[]"
+%typemap(in) const unsigned char *{
+    if ($input != NULL) {
+        $1 = (unsigned char *) JCALL2(GetByteArrayElements, jenv, $input, 0);
+    }
+}
+%typemap(argout) const unsigned char *{
+    if ($input != NULL) {
+        JCALL3(ReleaseByteArrayElements, jenv, $input, (jbyte *) $1, JNI_ABORT);
+    }
+}
+%typemap(javain) const unsigned char *"$javainput"
+%typemap(freearg) const unsigned char *""
+
 /* uint8_t */
 %typemap(jni) uint8_t *"jbyteArray"
 %typemap(jtype) uint8_t *"byte[]"
@@ -45,6 +68,19 @@
 %typemap(javain) uint8_t *"$javainput"
 %typemap(freearg) uint8_t *""
 
+/* const uint8_t, released with JNI_ABORT (see const unsigned char) */
+%typemap(jni) const uint8_t *"jbyteArray"
+%typemap(jtype) const uint8_t *"byte[]"
+%typemap(jstype) const uint8_t *"byte[]"
+%typemap(in) const uint8_t *{
+    $1 = (uint8_t *) JCALL2(GetByteArrayElements, jenv, $input, 0);
+}
+%typemap(argout) const uint8_t *{
+    JCALL3(ReleaseByteArrayElements, jenv, $input, (jbyte *) $1, JNI_ABORT);
+}
+%typemap(javain) const uint8_t *"$javainput"
+%typemap(freearg) const uint8_t *""
+
 /* String return values, from *_primitive methods */
 %typemap(jni) const char *"jstring"
 %typemap(jtype) const char *"String"
@@ -1496,3 +1532,1793 @@ int crypto_onetimeauth_poly1305_final_offset(crypto_onetimeauth_poly1305_state *
 }
 
 %}
+
+/*
+
+    Critical-region fast path.
+
+    The default typemaps pin (or copy) every array argument separately using
+    Get/ReleaseByteArrayElements. For fixed-size operations and small messages
+    this marshaling dominates the cost of the call. The *_critical entry points
+    below acquire all array arguments with GetPrimitiveArrayCritical, so the
+    whole call runs inside a single critical region without any copying.
+
+    As the garbage collector may be blocked while a critical region is held,
+    the JAVA wrappers only use these methods for fixed-size arguments and
+    messages up to Stodium.CRITICAL_MAX_BYTES. No other JNI calls may be made
+    between acquiring and releasing the arrays, so none of these methods take
+    length pointers (which are marshaled as int[]).
+
+    GetPrimitiveArrayCritical may return NULL, after throwing an
+    OutOfMemoryError. The typemaps then leave the argument NULL, only release
+    the arrays that were acquired, and the entry points return -1 without
+    calling libsodium when any of their arrays is NULL; the pending error is
+    thrown when the call returns to JAVA.
+
+*/
+
+%typemap(jni) unsigned char *CRITICAL "jbyteArray"
+%typemap(jtype) unsigned char *CRITICAL "byte[]"
+%typemap(jstype) unsigned char *CRITICAL "byte[]"
+%typemap(in) unsigned char *CRITICAL {
+    if ($input != NULL) {
+        $1 = (unsigned char *) JCALL2(GetPrimitiveArrayCritical, jenv, $input, 0);
+    }
+}
+%typemap(argout) unsigned char *CRITICAL {
+    if ($input != NULL && $1 != NULL) {
+        JCALL3(ReleasePrimitiveArrayCritical, jenv, $input, $1, 0);
+    }
+}
+%typemap(javain) unsigned char *CRITICAL "$javainput"
+%typemap(freearg) unsigned char *CRITICAL ""
+
+%typemap(jni) const unsigned char *CRITICAL "jbyteArray"
+%typemap(jtype) const unsigned char *CRITICAL "byte[]"
+%typemap(jstype) const unsigned char *CRITICAL "byte[]"
+%typemap(in) const unsigned char *CRITICAL {
+    if ($input != NULL) {
+        $1 = (unsigned char *) JCALL2(GetPrimitiveArrayCritical, jenv, $input, 0);
+    }
+}
+%typemap(argout) const unsigned char *CRITICAL {
+    if ($input != NULL && $1 != NULL) {
+        JCALL3(ReleasePrimitiveArrayCritical, jenv, $input, (void *) $1, JNI_ABORT);
+    }
+}
+%typemap(javain) const unsigned char *CRITICAL "$javainput"
+%typemap(freearg) const unsigned char *CRITICAL ""
+
+%apply unsigned char *CRITICAL {
+    unsigned char *crit_out,
+    unsigned char *crit_mac_out
+};
+%apply const unsigned char *CRITICAL {
+    const unsigned char *crit_in,
+    const unsigned char *crit_mac,
+    const unsigned char *crit_nonce,
+    const unsigned char *crit_key,
+    const unsigned char *crit_point
+};
+
+%inline %{
+
+int crypto_secretbox_easy_critical(unsigned char *crit_out,
+                                   const unsigned char *crit_in,
+                                   unsigned long long in_len,
+                                   const unsigned char *crit_nonce,
+                                   const unsigned char *crit_key) {
+    if (crit_out == NULL || crit_in == NULL || crit_nonce == NULL ||
+        crit_key == NULL) {
+        return -1;
+    }
+    return crypto_secretbox_easy(crit_out, crit_in, in_len, crit_nonce, crit_key);
+}
+
+int crypto_secretbox_open_easy_critical(unsigned char *crit_out,
+                                        const unsigned char *crit_in,
+                                        unsigned long long in_len,
+                                        const unsigned char *crit_nonce,
+                                        const unsigned char *crit_key) {
+    if (crit_out == NULL || crit_in == NULL || crit_nonce == NULL ||
+        crit_key == NULL) {
+        return -1;
+    }
+    return crypto_secretbox_open_easy(crit_out, crit_in, in_len, crit_nonce, crit_key);
+}
+
+int crypto_secretbox_detached_critical(unsigned char *crit_out,
+                                       unsigned char *crit_mac_out,
+                                       const unsigned char *crit_in,
+                                       unsigned long long in_len,
+                                       const unsigned char *crit_nonce,
+                                       const unsigned char *crit_key) {
+    if (crit_out == NULL || crit_mac_out == NULL || crit_in == NULL ||
+        crit_nonce == NULL || crit_key == NULL) {
+        return -1;
+    }
+    return crypto_secretbox_detached(crit_out, crit_mac_out, crit_in, in_len,
+                                     crit_nonce, crit_key);
+}
+
+int crypto_secretbox_open_detached_critical(unsigned char *crit_out,
+                                            const unsigned char *crit_in,
+                                            const unsigned char *crit_mac,
+                                            unsigned long long in_len,
+                                            const unsigned char *crit_nonce,
+                                            const unsigned char *crit_key) {
+    if (crit_out == NULL || crit_in == NULL || crit_mac == NULL ||
+        crit_nonce == NULL || crit_key == NULL) {
+        return -1;
+    }
+    return crypto_secretbox_open_detached(crit_out, crit_in, crit_mac, in_len,
+                                          crit_nonce, crit_key);
+}
+
+int crypto_box_easy_afternm_critical(unsigned char *crit_out,
+                                     const unsigned char *crit_in,
+                                     unsigned long long in_len,
+                                     const unsigned char *crit_nonce,
+                                     const unsigned char *crit_key) {
+    if (crit_out == NULL || crit_in == NULL || crit_nonce == NULL ||
+        crit_key == NULL) {
+        return -1;
+    }
+    return crypto_box_easy_afternm(crit_out, crit_in, in_len, crit_nonce, crit_key);
+}
+
+int crypto_box_open_easy_afternm_critical(unsigned char *crit_out,
+                                          const unsigned char *crit_in,
+                                          unsigned long long in_len,
+                                          const unsigned char *crit_nonce,
+                                          const unsigned char *crit_key) {
+    if (crit_out == NULL || crit_in == NULL || crit_nonce == NULL ||
+        crit_key == NULL) {
+        return -1;
+    }
+    return crypto_box_open_easy_afternm(crit_out, crit_in, in_len, crit_nonce, crit_key);
+}
+
+int crypto_scalarmult_curve25519_critical(unsigned char *crit_out,
+                                          const unsigned char *crit_key,
+                                          const unsigned char *crit_point) {
+    if (crit_out == NULL || crit_key == NULL || crit_point == NULL) {
+        return -1;
+    }
+    return crypto_scalarmult_curve25519(crit_out, crit_key, crit_point);
+}
+
+int crypto_scalarmult_base_critical(unsigned char *crit_out,
+                                    const unsigned char *crit_key) {
+    if (crit_out == NULL || crit_key == NULL) {
+        return -1;
+    }
+    return crypto_scalarmult_base(crit_out, crit_key);
+}
+
+int crypto_sign_ed25519_detached_critical(unsigned char *crit_out,
+                                          const unsigned char *crit_in,
+                                          unsigned long long in_len,
+                                          const unsigned char *crit_key) {
+    if (crit_out == NULL || crit_in == NULL || crit_key == NULL) {
+        return -1;
+    }
+    return crypto_sign_ed25519_detached(crit_out, NULL, crit_in, in_len, crit_key);
+}
+
+int crypto_sign_ed25519_verify_detached_critical(const unsigned char *crit_mac,
+                                                 const unsigned char *crit_in,
+                                                 unsigned long long in_len,
+                                                 const unsigned char *crit_key) {
+    if (crit_mac == NULL || crit_in == NULL || crit_key == NULL) {
+        return -1;
+    }
+    return crypto_sign_ed25519_verify_detached(crit_mac, crit_in, in_len, crit_key);
+}
+
+%}
+
+%clear unsigned char *crit_out, unsigned char *crit_mac_out;
+%clear const unsigned char *crit_in, const unsigned char *crit_mac,
+       const unsigned char *crit_nonce, const unsigned char *crit_key,
+       const unsigned char *crit_point;
+
+/*
+
+    ByteBuffer and offset methods for the authenticated encryption API's.
+
+    The *_buffer methods take direct java.nio.ByteBuffers for the message and
+    cipher arguments, whose memory is accessed by address through
+    GetDirectBufferAddress, so no array pinning or copying takes place at all.
+    The *_offset methods are used for heap buffers, by passing the backing
+    array together with the buffer's arrayOffset() + position().
+
+    The output length of these constructions is fully determined by the input
+    length, so no length pointers are passed; the JAVA methods compute them.
+
+    NOTE memory/overflow safety for these functions is provided by the JAVA
+    methods, and assumes correctness of the libsodium implementations.
+
+*/
+
+%typemap(jni) unsigned char *DIRECTBUFFER "jobject"
+%typemap(jtype) unsigned char *DIRECTBUFFER "java.nio.ByteBuffer"
+%typemap(jstype) unsigned char *DIRECTBUFFER "java.nio.ByteBuffer"
+%typemap(in) unsigned char *DIRECTBUFFER {
+    $1 = (unsigned char *) JCALL1(GetDirectBufferAddress, jenv, $input);
+    if ($1 == NULL) {
+        SWIG_JavaThrowException(jenv, SWIG_JavaIllegalArgumentException,
+                "ByteBuffer is not a direct buffer");
+        return $null;
+    }
+}
+%typemap(javain) unsigned char *DIRECTBUFFER "$javainput"
+%typemap(freearg) unsigned char *DIRECTBUFFER ""
+
+%apply unsigned char *DIRECTBUFFER {
+    unsigned char *dst_buf,
+    const unsigned char *src_buf
+};
+
+%inline %{
+
+/* crypto_secretbox */
+
+int crypto_secretbox_easy_offset(unsigned char *dst_cipher,
+                                 unsigned long long dst_offset,
+                                 const unsigned char *src_plain,
+                                 unsigned long long src_offset,
+                                 unsigned long long plain_len,
+                                 const unsigned char *nonce,
+                                 const unsigned char *secret_key) {
+    return crypto_secretbox_easy(dst_cipher + dst_offset, src_plain + src_offset,
+                                 plain_len, nonce, secret_key);
+}
+
+int crypto_secretbox_open_easy_offset(unsigned char *dst_plain,
+                                      unsigned long long dst_offset,
+                                      const unsigned char *src_cipher,
+                                      unsigned long long src_offset,
+                                      unsigned long long cipher_len,
+                                      const unsigned char *nonce,
+                                      const unsigned char *secret_key) {
+    return crypto_secretbox_open_easy(dst_plain + dst_offset, src_cipher + src_offset,
+                                      cipher_len, nonce, secret_key);
+}
+
+int crypto_secretbox_easy_buffer(unsigned char *dst_buf,
+                                 unsigned long long dst_offset,
+                                 const unsigned char *src_buf,
+                                 unsigned long long src_offset,
+                                 unsigned long long plain_len,
+                                 const unsigned char *nonce,
+                                 const unsigned char *secret_key) {
+    return crypto_secretbox_easy(dst_buf + dst_offset, src_buf + src_offset,
+                                 plain_len, nonce, secret_key);
+}
+
+int crypto_secretbox_open_easy_buffer(unsigned char *dst_buf,
+                                      unsigned long long dst_offset,
+                                      const unsigned char *src_buf,
+                                      unsigned long long src_offset,
+                                      unsigned long long cipher_len,
+                                      const unsigned char *nonce,
+                                      const unsigned char *secret_key) {
+    return crypto_secretbox_open_easy(dst_buf + dst_offset, src_buf + src_offset,
+                                      cipher_len, nonce, secret_key);
+}
+
+/* crypto_box_*_afternm */
+
+int crypto_box_easy_afternm_offset(unsigned char *dst_cipher,
+                                   unsigned long long dst_offset,
+                                   const unsigned char *src_plain,
+                                   unsigned long long src_offset,
+                                   unsigned long long plain_len,
+                                   const unsigned char *nonce,
+                                   const unsigned char *shared_key) {
+    return crypto_box_easy_afternm(dst_cipher + dst_offset, src_plain + src_offset,
+                                   plain_len, nonce, shared_key);
+}
+
+int crypto_box_open_easy_afternm_offset(unsigned char *dst_plain,
+                                        unsigned long long dst_offset,
+                                        const unsigned char *src_cipher,
+                                        unsigned long long src_offset,
+                                        unsigned long long cipher_len,
+                                        const unsigned char *nonce,
+                                        const unsigned char *shared_key) {
+    return crypto_box_open_easy_afternm(dst_plain + dst_offset, src_cipher + src_offset,
+                                        cipher_len, nonce, shared_key);
+}
+
+int crypto_box_easy_afternm_buffer(unsigned char *dst_buf,
+                                   unsigned long long dst_offset,
+                                   const unsigned char *src_buf,
+                                   unsigned long long src_offset,
+                                   unsigned long long plain_len,
+                                   const unsigned char *nonce,
+                                   const unsigned char *shared_key) {
+    return crypto_box_easy_afternm(dst_buf + dst_offset, src_buf + src_offset,
+                                   plain_len, nonce, shared_key);
+}
+
+int crypto_box_open_easy_afternm_buffer(unsigned char *dst_buf,
+                                        unsigned long long dst_offset,
+                                        const unsigned char *src_buf,
+                                        unsigned long long src_offset,
+                                        unsigned long long cipher_len,
+                                        const unsigned char *nonce,
+                                        const unsigned char *shared_key) {
+    return crypto_box_open_easy_afternm(dst_buf + dst_offset, src_buf + src_offset,
+                                        cipher_len, nonce, shared_key);
+}
+
+/* crypto_aead_chacha20poly1305 */
+
+int crypto_aead_chacha20poly1305_encrypt_offset(unsigned char *dst_cipher,
+                                                unsigned long long dst_offset,
+                                                const unsigned char *src_plain,
+                                                unsigned long long src_offset,
+                                                unsigned long long plain_len,
+                                                const unsigned char *ad,
+                                                unsigned long long ad_len,
+                                                const unsigned char *npub,
+                                                const unsigned char *key) {
+    return crypto_aead_chacha20poly1305_encrypt(dst_cipher + dst_offset, NULL,
+                                                src_plain + src_offset, plain_len,
+                                                ad, ad_len, NULL, npub, key);
+}
+
+int crypto_aead_chacha20poly1305_decrypt_offset(unsigned char *dst_plain,
+                                                unsigned long long dst_offset,
+                                                const unsigned char *src_cipher,
+                                                unsigned long long src_offset,
+                                                unsigned long long cipher_len,
+                                                const unsigned char *ad,
+                                                unsigned long long ad_len,
+                                                const unsigned char *npub,
+                                                const unsigned char *key) {
+    return crypto_aead_chacha20poly1305_decrypt(dst_plain + dst_offset, NULL, NULL,
+                                                src_cipher + src_offset, cipher_len,
+                                                ad, ad_len, npub, key);
+}
+
+int crypto_aead_chacha20poly1305_encrypt_buffer(unsigned char *dst_buf,
+                                                unsigned long long dst_offset,
+                                                const unsigned char *src_buf,
+                                                unsigned long long src_offset,
+                                                unsigned long long plain_len,
+                                                const unsigned char *ad,
+                                                unsigned long long ad_len,
+                                                const unsigned char *npub,
+                                                const unsigned char *key) {
+    return crypto_aead_chacha20poly1305_encrypt(dst_buf + dst_offset, NULL,
+                                                src_buf + src_offset, plain_len,
+                                                ad, ad_len, NULL, npub, key);
+}
+
+int crypto_aead_chacha20poly1305_decrypt_buffer(unsigned char *dst_buf,
+                                                unsigned long long dst_offset,
+                                                const unsigned char *src_buf,
+                                                unsigned long long src_offset,
+                                                unsigned long long cipher_len,
+                                                const unsigned char *ad,
+                                                unsigned long long ad_len,
+                                                const unsigned char *npub,
+                                                const unsigned char *key) {
+    return crypto_aead_chacha20poly1305_decrypt(dst_buf + dst_offset, NULL, NULL,
+                                                src_buf + src_offset, cipher_len,
+                                                ad, ad_len, npub, key);
+}
+
+%}
+
+/*
+
+    Offset methods for the one-shot API's, so slices of larger (framing)
+    buffers can be processed without copying them into standalone arrays. The
+    secretbox, box_*_afternm and aead offset methods are defined above,
+    together with their ByteBuffer counterparts.
+
+    NOTE memory/overflow safety for these functions is provided by the JAVA
+    methods, and assumes correctness of the libsodium implementations.
+
+*/
+
+%inline %{
+
+/* crypto_box */
+
+int crypto_box_easy_offset(unsigned char *dst_cipher,
+                           unsigned long long dst_offset,
+                           const unsigned char *src_plain,
+                           unsigned long long src_offset,
+                           unsigned long long plain_len,
+                           const unsigned char *nonce,
+                           const unsigned char *remote_public_key,
+                           const unsigned char *local_private_key) {
+    return crypto_box_easy(dst_cipher + dst_offset, src_plain + src_offset,
+                           plain_len, nonce, remote_public_key, local_private_key);
+}
+
+int crypto_box_open_easy_offset(unsigned char *dst_plain,
+                                unsigned long long dst_offset,
+                                const unsigned char *src_cipher,
+                                unsigned long long src_offset,
+                                unsigned long long cipher_len,
+                                const unsigned char *nonce,
+                                const unsigned char *remote_public_key,
+                                const unsigned char *local_private_key) {
+    return crypto_box_open_easy(dst_plain + dst_offset, src_cipher + src_offset,
+                                cipher_len, nonce, remote_public_key, local_private_key);
+}
+
+int crypto_box_seal_offset(unsigned char *dst_cipher,
+                           unsigned long long dst_offset,
+                           const unsigned char *src_plain,
+                           unsigned long long src_offset,
+                           unsigned long long plain_len,
+                           const unsigned char *remote_public_key) {
+    return crypto_box_seal(dst_cipher + dst_offset, src_plain + src_offset,
+                           plain_len, remote_public_key);
+}
+
+int crypto_box_seal_open_offset(unsigned char *dst_plain,
+                                unsigned long long dst_offset,
+                                const unsigned char *src_cipher,
+                                unsigned long long src_offset,
+                                unsigned long long cipher_len,
+                                const unsigned char *local_public_key,
+                                const unsigned char *local_private_key) {
+    return crypto_box_seal_open(dst_plain + dst_offset, src_cipher + src_offset,
+                                cipher_len, local_public_key, local_private_key);
+}
+
+/* crypto_sign */
+
+int crypto_sign_detached_offset(unsigned char *dst_signature,
+                                unsigned long long signature_offset,
+                                const unsigned char *src_msg,
+                                unsigned long long msg_offset,
+                                unsigned long long msg_len,
+                                const unsigned char *local_private_key) {
+    return crypto_sign_detached(dst_signature + signature_offset, NULL,
+                                src_msg + msg_offset, msg_len, local_private_key);
+}
+
+int crypto_sign_verify_detached_offset(const unsigned char *src_signature,
+                                       unsigned long long signature_offset,
+                                       const unsigned char *src_msg,
+                                       unsigned long long msg_offset,
+                                       unsigned long long msg_len,
+                                       const unsigned char *remote_public_key) {
+    return crypto_sign_verify_detached(src_signature + signature_offset,
+                                       src_msg + msg_offset, msg_len, remote_public_key);
+}
+
+int crypto_sign_ed25519_detached_offset(unsigned char *dst_signature,
+                                        unsigned long long signature_offset,
+                                        const unsigned char *src_msg,
+                                        unsigned long long msg_offset,
+                                        unsigned long long msg_len,
+                                        const unsigned char *local_private_key) {
+    return crypto_sign_ed25519_detached(dst_signature + signature_offset, NULL,
+                                        src_msg + msg_offset, msg_len, local_private_key);
+}
+
+int crypto_sign_ed25519_verify_detached_offset(const unsigned char *src_signature,
+                                               unsigned long long signature_offset,
+                                               const unsigned char *src_msg,
+                                               unsigned long long msg_offset,
+                                               unsigned long long msg_len,
+                                               const unsigned char *remote_public_key) {
+    return crypto_sign_ed25519_verify_detached(src_signature + signature_offset,
+                                               src_msg + msg_offset, msg_len, remote_public_key);
+}
+
+/* crypto_auth */
+
+int crypto_auth_offset(unsigned char *dst_mac,
+                       unsigned long long mac_offset,
+                       const unsigned char *src_input,
+                       unsigned long long input_offset,
+                       unsigned long long input_len,
+                       const unsigned char *src_key) {
+    return crypto_auth(dst_mac + mac_offset, src_input + input_offset,
+                       input_len, src_key);
+}
+
+int crypto_auth_verify_offset(const unsigned char *src_mac,
+                              unsigned long long mac_offset,
+                              const unsigned char *src_input,
+                              unsigned long long input_offset,
+                              unsigned long long input_len,
+                              const unsigned char *src_key) {
+    return crypto_auth_verify(src_mac + mac_offset, src_input + input_offset,
+                              input_len, src_key);
+}
+
+%}
+
+/*
+    Combined mode signing without an output length pointer. The length of a
+    signed message is always msg_len + crypto_sign_BYTES, so the JAVA methods
+    compute it themselves instead of allocating (and pinning) an int[1] on
+    every call.
+*/
+
+%inline %{
+
+int crypto_sign_offset(unsigned char *dst_signed_msg,
+                       unsigned long long dst_offset,
+                       const unsigned char *src_msg,
+                       unsigned long long msg_offset,
+                       unsigned long long msg_len,
+                       const unsigned char *local_private_key) {
+    return crypto_sign(dst_signed_msg + dst_offset, NULL,
+                       src_msg + msg_offset, msg_len, local_private_key);
+}
+
+int crypto_sign_open_offset(unsigned char *dst_msg,
+                            unsigned long long dst_offset,
+                            const unsigned char *src_signed_msg,
+                            unsigned long long signed_offset,
+                            unsigned long long signed_msg_len,
+                            const unsigned char *remote_public_key) {
+    return crypto_sign_open(dst_msg + dst_offset, NULL,
+                            src_signed_msg + signed_offset, signed_msg_len,
+                            remote_public_key);
+}
+
+int crypto_sign_ed25519_offset(unsigned char *dst_signed_msg,
+                               unsigned long long dst_offset,
+                               const unsigned char *src_msg,
+                               unsigned long long msg_offset,
+                               unsigned long long msg_len,
+                               const unsigned char *local_private_key) {
+    return crypto_sign_ed25519(dst_signed_msg + dst_offset, NULL,
+                               src_msg + msg_offset, msg_len, local_private_key);
+}
+
+int crypto_sign_ed25519_open_offset(unsigned char *dst_msg,
+                                    unsigned long long dst_offset,
+                                    const unsigned char *src_signed_msg,
+                                    unsigned long long signed_offset,
+                                    unsigned long long signed_msg_len,
+                                    const unsigned char *remote_public_key) {
+    return crypto_sign_ed25519_open(dst_msg + dst_offset, NULL,
+                                    src_signed_msg + signed_offset, signed_msg_len,
+                                    remote_public_key);
+}
+
+%}
+
+/*
+    Batch methods, which process a number of messages in a single JNI
+    crossing. All messages of a batch are packed into a single source array;
+    message i occupies src[offsets[i], offsets[i + 1]), so the offset table
+    holds count + 1 entries. Its output is written to
+    dst[offsets[i] + i * MACBYTES], and its nonce is read from
+    nonces[i * NONCEBYTES]. The key (and additional data) is shared by all
+    messages of the batch.
+
+    The methods return 0 on success, or -1 as soon as a single message fails.
+
+    NOTE memory/overflow safety for these functions is provided by the JAVA
+    methods, and assumes correctness of the libsodium implementations.
+*/
+
+%typemap(jni) const int *OFFSETS "jintArray"
+%typemap(jtype) const int *OFFSETS "int[]"
+%typemap(jstype) const int *OFFSETS "int[]"
+%typemap(in) const int *OFFSETS {
+    $1 = (int *) JCALL2(GetIntArrayElements, jenv, $input, 0);
+}
+%typemap(argout) const int *OFFSETS {
+    JCALL3(ReleaseIntArrayElements, jenv, $input, (jint *) $1, JNI_ABORT);
+}
+%typemap(javain) const int *OFFSETS "$javainput"
+%typemap(freearg) const int *OFFSETS ""
+
+%apply const int *OFFSETS { const int *offsets };
+
+%inline %{
+
+int crypto_secretbox_easy_batch(unsigned char *dst_cipher,
+                                const unsigned char *src_plain,
+                                const int *offsets,
+                                int count,
+                                const unsigned char *nonces,
+                                const unsigned char *key) {
+    int i;
+    for (i = 0; i < count; i++) {
+        if (crypto_secretbox_easy(
+                dst_cipher + offsets[i] + (size_t) i * crypto_secretbox_MACBYTES,
+                src_plain + offsets[i], offsets[i + 1] - offsets[i],
+                nonces + (size_t) i * crypto_secretbox_NONCEBYTES, key) != 0) {
+            return -1;
+        }
+    }
+    return 0;
+}
+
+int crypto_box_easy_afternm_batch(unsigned char *dst_cipher,
+                                  const unsigned char *src_plain,
+                                  const int *offsets,
+                                  int count,
+                                  const unsigned char *nonces,
+                                  const unsigned char *shared_key) {
+    int i;
+    for (i = 0; i < count; i++) {
+        if (crypto_box_easy_afternm(
+                dst_cipher + offsets[i] + (size_t) i * crypto_box_MACBYTES,
+                src_plain + offsets[i], offsets[i + 1] - offsets[i],
+                nonces + (size_t) i * crypto_box_NONCEBYTES, shared_key) != 0) {
+            return -1;
+        }
+    }
+    return 0;
+}
+
+int crypto_aead_chacha20poly1305_encrypt_batch(unsigned char *dst_cipher,
+                                               const unsigned char *src_plain,
+                                               const int *offsets,
+                                               int count,
+                                               const unsigned char *ad,
+                                               unsigned long long ad_len,
+                                               const unsigned char *nonces,
+                                               const unsigned char *key) {
+    int i;
+    for (i = 0; i < count; i++) {
+        if (crypto_aead_chacha20poly1305_encrypt(
+                dst_cipher + offsets[i] + (size_t) i * crypto_aead_chacha20poly1305_ABYTES,
+                NULL, src_plain + offsets[i], offsets[i + 1] - offsets[i],
+                ad, ad_len, NULL,
+                nonces + (size_t) i * crypto_aead_chacha20poly1305_NPUBBYTES, key) != 0) {
+            return -1;
+        }
+    }
+    return 0;
+}
+
+%}
+
+%clear const int *offsets;
+
+/*
+    Native-resident streaming states. Instead of marshalling a heap byte[]
+    state across JNI on every update, these methods operate on a state that
+    was allocated with stodium_state_alloc and is referred to by its address
+    (handle). Only the input and output buffers cross the JNI boundary.
+
+    The memory is 64-byte aligned (as required by the blake2b state), zeroed
+    on allocation, and wiped before it is released by stodium_state_free.
+
+    NOTE memory/overflow safety for these functions is provided by the JAVA
+    methods, and assumes correctness of the libsodium implementations.
+*/
+
+%{
+#include <stdint.h>
+#include <stdlib.h>
+#include <string.h>
+
+#define STODIUM_STATE(type, handle) ((type *) (intptr_t) (handle))
+%}
+
+%inline %{
+
+/* state management */
+
+long long stodium_state_alloc(const size_t size) {
+    void *state = NULL;
+    if (posix_memalign(&state, 64, size) != 0) {
+        return 0;
+    }
+    sodium_memzero(state, size);
+    return (long long) (intptr_t) state;
+}
+
+void stodium_state_free(long long handle,
+                        const size_t size) {
+    void *state = STODIUM_STATE(void, handle);
+    sodium_memzero(state, size);
+    free(state);
+}
+
+void stodium_state_copy(long long dst_handle,
+                        long long src_handle,
+                        const size_t size) {
+    memcpy(STODIUM_STATE(void, dst_handle), STODIUM_STATE(void, src_handle), size);
+}
+
+/* crypto_generichash */
+
+int crypto_generichash_init_handle(long long handle,
+                                   const unsigned char *key,
+                                   const size_t keylen,
+                                   const size_t outlen) {
+    return crypto_generichash_init(STODIUM_STATE(crypto_generichash_state, handle),
+                                   key, keylen, outlen);
+}
+
+int crypto_generichash_update_handle(long long handle,
+                                     const unsigned char *in,
+                                     unsigned long long in_offset,
+                                     unsigned long long inlen) {
+    return crypto_generichash_update(STODIUM_STATE(crypto_generichash_state, handle),
+                                     in + in_offset, inlen);
+}
+
+int crypto_generichash_final_handle(long long handle,
+                                    unsigned char *out,
+                                    unsigned long long out_offset,
+                                    const size_t outlen) {
+    return crypto_generichash_final(STODIUM_STATE(crypto_generichash_state, handle),
+                                    out + out_offset, outlen);
+}
+
+/* crypto_generichash_blake2b */
+
+int crypto_generichash_blake2b_init_handle(long long handle,
+                                           const unsigned char *key,
+                                           const size_t keylen,
+                                           const size_t outlen) {
+    return crypto_generichash_blake2b_init(
+            STODIUM_STATE(crypto_generichash_blake2b_state, handle),
+            key, keylen, outlen);
+}
+
+int crypto_generichash_blake2b_init_salt_personal_handle(long long handle,
+                                                         const unsigned char *key,
+                                                         const size_t keylen,
+                                                         const size_t outlen,
+                                                         const unsigned char *salt,
+                                                         const unsigned char *personal) {
+    return crypto_generichash_blake2b_init_salt_personal(
+            STODIUM_STATE(crypto_generichash_blake2b_state, handle),
+            key, keylen, outlen, salt, personal);
+}
+
+int crypto_generichash_blake2b_update_handle(long long handle,
+                                             const unsigned char *in,
+                                             unsigned long long in_offset,
+                                             unsigned long long inlen) {
+    return crypto_generichash_blake2b_update(
+            STODIUM_STATE(crypto_generichash_blake2b_state, handle),
+            in + in_offset, inlen);
+}
+
+int crypto_generichash_blake2b_final_handle(long long handle,
+                                            unsigned char *out,
+                                            unsigned long long out_offset,
+                                            const size_t outlen) {
+    return crypto_generichash_blake2b_final(
+            STODIUM_STATE(crypto_generichash_blake2b_state, handle),
+            out + out_offset, outlen);
+}
+
+/* crypto_hash */
+
+int crypto_hash_init_handle(long long handle) {
+    return crypto_hash_sha512_init(STODIUM_STATE(crypto_hash_sha512_state, handle));
+}
+
+int crypto_hash_update_handle(long long handle,
+                              const unsigned char *in,
+                              unsigned long long in_offset,
+                              unsigned long long inlen) {
+    return crypto_hash_sha512_update(STODIUM_STATE(crypto_hash_sha512_state, handle),
+                                     in + in_offset, inlen);
+}
+
+int crypto_hash_final_handle(long long handle,
+                             unsigned char *out,
+                             unsigned long long out_offset) {
+    return crypto_hash_sha512_final(STODIUM_STATE(crypto_hash_sha512_state, handle),
+                                    out + out_offset);
+}
+
+/* crypto_onetimeauth */
+
+int crypto_onetimeauth_init_handle(long long handle,
+                                   const unsigned char *key) {
+    return crypto_onetimeauth_init(STODIUM_STATE(crypto_onetimeauth_state, handle), key);
+}
+
+int crypto_onetimeauth_update_handle(long long handle,
+                                     const unsigned char *in,
+                                     unsigned long long in_offset,
+                                     unsigned long long inlen) {
+    return crypto_onetimeauth_update(STODIUM_STATE(crypto_onetimeauth_state, handle),
+                                     in + in_offset, inlen);
+}
+
+int crypto_onetimeauth_final_handle(long long handle,
+                                    unsigned char *out,
+                                    unsigned long long out_offset) {
+    return crypto_onetimeauth_final(STODIUM_STATE(crypto_onetimeauth_state, handle),
+                                    out + out_offset);
+}
+
+/* crypto_onetimeauth_poly1305 */
+
+int crypto_onetimeauth_poly1305_init_handle(long long handle,
+                                            const unsigned char *key) {
+    return crypto_onetimeauth_poly1305_init(
+            STODIUM_STATE(crypto_onetimeauth_poly1305_state, handle), key);
+}
+
+int crypto_onetimeauth_poly1305_update_handle(long long handle,
+                                              const unsigned char *in,
+                                              unsigned long long in_offset,
+                                              unsigned long long inlen) {
+    return crypto_onetimeauth_poly1305_update(
+            STODIUM_STATE(crypto_onetimeauth_poly1305_state, handle),
+            in + in_offset, inlen);
+}
+
+int crypto_onetimeauth_poly1305_final_handle(long long handle,
+                                             unsigned char *out,
+                                             unsigned long long out_offset) {
+    return crypto_onetimeauth_poly1305_final(
+            STODIUM_STATE(crypto_onetimeauth_poly1305_state, handle),
+            out + out_offset);
+}
+
+%}
+
+/*
+    In-place encryption and decryption. libsodium allows the output of these
+    constructions to overlap the input, so a single array is passed (and
+    pinned or copied once) instead of two. The ciphertext starts at the same
+    offset as the plaintext, so the array must have room for the MAC after
+    the message.
+
+    NOTE memory/overflow safety for these functions is provided by the JAVA
+    methods, and assumes correctness of the libsodium implementations.
+*/
+
+%inline %{
+
+int crypto_secretbox_easy_inplace(unsigned char *buf,
+                                  unsigned long long offset,
+                                  unsigned long long plain_len,
+                                  const unsigned char *nonce,
+                                  const unsigned char *secret_key) {
+    return crypto_secretbox_easy(buf + offset, buf + offset,
+                                 plain_len, nonce, secret_key);
+}
+
+int crypto_secretbox_open_easy_inplace(unsigned char *buf,
+                                       unsigned long long offset,
+                                       unsigned long long cipher_len,
+                                       const unsigned char *nonce,
+                                       const unsigned char *secret_key) {
+    return crypto_secretbox_open_easy(buf + offset, buf + offset,
+                                      cipher_len, nonce, secret_key);
+}
+
+int crypto_aead_chacha20poly1305_encrypt_inplace(unsigned char *buf,
+                                                 unsigned long long offset,
+                                                 unsigned long long plain_len,
+                                                 const unsigned char *ad,
+                                                 unsigned long long ad_len,
+                                                 const unsigned char *npub,
+                                                 const unsigned char *key) {
+    return crypto_aead_chacha20poly1305_encrypt(buf + offset, NULL,
+                                                buf + offset, plain_len,
+                                                ad, ad_len, NULL, npub, key);
+}
+
+int crypto_aead_chacha20poly1305_decrypt_inplace(unsigned char *buf,
+                                                 unsigned long long offset,
+                                                 unsigned long long cipher_len,
+                                                 const unsigned char *ad,
+                                                 unsigned long long ad_len,
+                                                 const unsigned char *npub,
+                                                 const unsigned char *key) {
+    return crypto_aead_chacha20poly1305_decrypt(buf + offset, NULL, NULL,
+                                                buf + offset, cipher_len,
+                                                ad, ad_len, npub, key);
+}
+
+%}
+
+/*
+    Detached mode secretbox for direct ByteBuffers (by address) and array
+    slices. The MAC has its own buffer and offset, so that a caller can lay
+    out MACs and ciphertexts independently (e.g. in a mapped file).
+
+    NOTE memory/overflow safety for these functions is provided by the JAVA
+    methods, and assumes correctness of the libsodium implementations.
+*/
+
+%apply unsigned char *DIRECTBUFFER {
+    unsigned char *mac_buf,
+    const unsigned char *mac_buf
+};
+
+%inline %{
+
+int crypto_secretbox_detached_buffer(unsigned char *dst_buf,
+                                     unsigned long long dst_offset,
+                                     unsigned char *mac_buf,
+                                     unsigned long long mac_offset,
+                                     const unsigned char *src_buf,
+                                     unsigned long long src_offset,
+                                     unsigned long long plain_len,
+                                     const unsigned char *nonce,
+                                     const unsigned char *secret_key) {
+    return crypto_secretbox_detached(dst_buf + dst_offset, mac_buf + mac_offset,
+                                     src_buf + src_offset, plain_len,
+                                     nonce, secret_key);
+}
+
+int crypto_secretbox_open_detached_buffer(unsigned char *dst_buf,
+                                          unsigned long long dst_offset,
+                                          const unsigned char *src_buf,
+                                          unsigned long long src_offset,
+                                          const unsigned char *mac_buf,
+                                          unsigned long long mac_offset,
+                                          unsigned long long cipher_len,
+                                          const unsigned char *nonce,
+                                          const unsigned char *secret_key) {
+    return crypto_secretbox_open_detached(dst_buf + dst_offset,
+                                          src_buf + src_offset,
+                                          mac_buf + mac_offset, cipher_len,
+                                          nonce, secret_key);
+}
+
+int crypto_secretbox_detached_offset(unsigned char *dst_cipher,
+                                     unsigned long long dst_offset,
+                                     unsigned char *dst_mac,
+                                     unsigned long long mac_offset,
+                                     const unsigned char *src_plain,
+                                     unsigned long long src_offset,
+                                     unsigned long long plain_len,
+                                     const unsigned char *nonce,
+                                     const unsigned char *secret_key) {
+    return crypto_secretbox_detached(dst_cipher + dst_offset, dst_mac + mac_offset,
+                                     src_plain + src_offset, plain_len,
+                                     nonce, secret_key);
+}
+
+int crypto_secretbox_open_detached_offset(unsigned char *dst_plain,
+                                          unsigned long long dst_offset,
+                                          const unsigned char *src_cipher,
+                                          unsigned long long src_offset,
+                                          const unsigned char *src_mac,
+                                          unsigned long long mac_offset,
+                                          unsigned long long cipher_len,
+                                          const unsigned char *nonce,
+                                          const unsigned char *secret_key) {
+    return crypto_secretbox_open_detached(dst_plain + dst_offset,
+                                          src_cipher + src_offset,
+                                          src_mac + mac_offset, cipher_len,
+                                          nonce, secret_key);
+}
+
+%}
+
+/*
+    Gathering encryption and scattering decryption. The plaintext (or
+    ciphertext) is described by a list of segments instead of one contiguous
+    buffer, and is fed through the stream cipher and Poly1305 segment by
+    segment, so the caller does not have to concatenate the segments first.
+
+    Every element of a JAVA segment array is either a byte[] or a direct
+    ByteBuffer; the accompanying bounds array holds the offset and the length
+    of each segment, interleaved. A byte[] that backs more than one segment
+    (e.g. slices of one buffer) is pinned once, as the copies that a JVM may
+    return for separate pins would overwrite each other on release. The constructions are identical to
+    crypto_secretbox_detached and crypto_aead_chacha20poly1305_encrypt, so the
+    results can be opened by the contiguous functions and vice versa.
+
+    NOTE memory/overflow safety for these functions is provided by the JAVA
+    methods, and assumes correctness of the libsodium implementations.
+*/
+
+%{
+typedef struct {
+    jsize count;
+    unsigned char **base;
+    jbyteArray *arrays;
+} stodium_segments;
+
+typedef struct {
+    const stodium_segments *segments;
+    const int *bounds;
+    jsize index;
+    unsigned long long pos;
+} stodium_cursor;
+
+typedef int (*stodium_xor_ic)(unsigned char *c, const unsigned char *m,
+                              unsigned long long mlen, const unsigned char *n,
+                              uint64_t ic, const unsigned char *k);
+
+static void stodium_segments_release(JNIEnv *jenv,
+                                     stodium_segments *segments,
+                                     jint mode) {
+    jsize i;
+    for (i = 0; i < segments->count; i++) {
+        if (segments->arrays[i] != NULL) {
+            JCALL3(ReleaseByteArrayElements, jenv, segments->arrays[i],
+                   (jbyte *) segments->base[i], mode);
+            JCALL1(DeleteLocalRef, jenv, segments->arrays[i]);
+        }
+    }
+    free(segments->base);
+    free(segments->arrays);
+    segments->count = 0;
+    segments->base = NULL;
+    segments->arrays = NULL;
+}
+
+static int stodium_segments_get(JNIEnv *jenv,
+                                jobjectArray input,
+                                stodium_segments *segments) {
+    jclass byte_array;
+    jsize count;
+    jsize i;
+
+    segments->count = 0;
+    segments->base = NULL;
+    segments->arrays = NULL;
+    if (input == NULL) {
+        SWIG_JavaThrowException(jenv, SWIG_JavaNullPointerException,
+                "segments array is null");
+        return -1;
+    }
+    count = JCALL1(GetArrayLength, jenv, input);
+    if (JCALL1(EnsureLocalCapacity, jenv, count + 1) != 0) {
+        return -1;
+    }
+    byte_array = JCALL1(FindClass, jenv, "[B");
+    if (byte_array == NULL) {
+        return -1;
+    }
+    segments->base = (unsigned char **) malloc((count + 1) * sizeof(unsigned char *));
+    segments->arrays = (jbyteArray *) calloc(count + 1, sizeof(jbyteArray));
+    if (segments->base == NULL || segments->arrays == NULL) {
+        stodium_segments_release(jenv, segments, JNI_ABORT);
+        JCALL1(DeleteLocalRef, jenv, byte_array);
+        SWIG_JavaThrowException(jenv, SWIG_JavaOutOfMemoryError,
+                "cannot allocate segments");
+        return -1;
+    }
+    for (i = 0; i < count; i++) {
+        jobject element = JCALL2(GetObjectArrayElement, jenv, input, i);
+        if (element != NULL && JCALL2(IsInstanceOf, jenv, element, byte_array)) {
+            jsize j;
+            for (j = 0; j < i; j++) {
+                if (segments->arrays[j] != NULL
+                        && JCALL2(IsSameObject, jenv, segments->arrays[j], element)) {
+                    break;
+                }
+            }
+            if (j < i) {
+                /* already pinned by segment j, which also releases it */
+                segments->base[i] = segments->base[j];
+                JCALL1(DeleteLocalRef, jenv, element);
+            } else {
+                segments->arrays[i] = (jbyteArray) element;
+                segments->base[i] = (unsigned char *) JCALL2(GetByteArrayElements,
+                        jenv, segments->arrays[i], 0);
+            }
+        } else if (element != NULL) {
+            segments->base[i] = (unsigned char *) JCALL1(GetDirectBufferAddress,
+                    jenv, element);
+            JCALL1(DeleteLocalRef, jenv, element);
+        } else {
+            segments->base[i] = NULL;
+        }
+        segments->count = i + 1;
+        if (segments->base[i] == NULL) {
+            segments->arrays[i] = NULL;
+            stodium_segments_release(jenv, segments, JNI_ABORT);
+            JCALL1(DeleteLocalRef, jenv, byte_array);
+            if (!JCALL0(ExceptionCheck, jenv)) {
+                SWIG_JavaThrowException(jenv, SWIG_JavaIllegalArgumentException,
+                        "segment is neither a byte[] nor a direct ByteBuffer");
+            }
+            return -1;
+        }
+    }
+    JCALL1(DeleteLocalRef, jenv, byte_array);
+    return 0;
+}
+
+static void stodium_cursor_init(stodium_cursor *cursor,
+                                const stodium_segments *segments,
+                                const int *bounds) {
+    cursor->segments = segments;
+    cursor->bounds = bounds;
+    cursor->index = 0;
+    cursor->pos = 0;
+}
+
+/*
+    stodium_cursor_peek returns the address at the cursor and stores the
+    number of contiguous bytes that follow it in avail, or returns NULL if
+    the segments are exhausted.
+*/
+static unsigned char *stodium_cursor_peek(stodium_cursor *cursor,
+                                          unsigned long long *avail) {
+    const stodium_segments *segments = cursor->segments;
+    while (cursor->index < segments->count
+           && cursor->pos == (unsigned long long) cursor->bounds[2 * cursor->index + 1]) {
+        cursor->index++;
+        cursor->pos = 0;
+    }
+    if (cursor->index == segments->count) {
+        *avail = 0;
+        return NULL;
+    }
+    *avail = (unsigned long long) cursor->bounds[2 * cursor->index + 1] - cursor->pos;
+    return segments->base[cursor->index] + cursor->bounds[2 * cursor->index] + cursor->pos;
+}
+
+static int stodium_cursor_copy(stodium_cursor *cursor,
+                               unsigned char *dst,
+                               const unsigned char *src,
+                               unsigned long long len) {
+    while (len > 0) {
+        unsigned long long avail;
+        unsigned char *at = stodium_cursor_peek(cursor, &avail);
+        if (at == NULL) {
+            return -1;
+        }
+        if (avail > len) {
+            avail = len;
+        }
+        if (dst != NULL) {
+            memcpy(dst, at, avail);
+            dst += avail;
+        } else {
+            memcpy(at, src, avail);
+            src += avail;
+        }
+        cursor->pos += avail;
+        len -= avail;
+    }
+    return 0;
+}
+
+static int stodium_cursor_mac(crypto_onetimeauth_poly1305_state *state,
+                              stodium_cursor *cursor,
+                              unsigned long long len) {
+    while (len > 0) {
+        unsigned long long avail;
+        const unsigned char *at = stodium_cursor_peek(cursor, &avail);
+        if (at == NULL) {
+            return -1;
+        }
+        if (avail > len) {
+            avail = len;
+        }
+        crypto_onetimeauth_poly1305_update(state, at, avail);
+        cursor->pos += avail;
+        len -= avail;
+    }
+    return 0;
+}
+
+/*
+    stodium_cursor_xor xors len bytes from src with the key stream, starting
+    at byte offset of the stream, and writes them to dst. Runs that start on
+    a block boundary are passed to xor_ic directly, the bytes around segment
+    boundaries are xored with a single cached key stream block. If state is
+    not NULL, the output is authenticated as it is written.
+*/
+static int stodium_cursor_xor(stodium_cursor *dst,
+                              stodium_cursor *src,
+                              unsigned long long len,
+                              unsigned long long offset,
+                              stodium_xor_ic xor_ic,
+                              const unsigned char *n,
+                              const unsigned char *k,
+                              crypto_onetimeauth_poly1305_state *state) {
+    unsigned char block[64];
+    unsigned long long block_ic = 0;
+    int cached = 0;
+    int status = 0;
+
+    while (len > 0) {
+        unsigned long long dst_avail;
+        unsigned long long src_avail;
+        unsigned long long run;
+        unsigned char *out = stodium_cursor_peek(dst, &dst_avail);
+        const unsigned char *in = stodium_cursor_peek(src, &src_avail);
+        const unsigned long long skip = offset % sizeof block;
+        if (out == NULL || in == NULL) {
+            status = -1;
+            break;
+        }
+        run = len < dst_avail ? len : dst_avail;
+        run = run < src_avail ? run : src_avail;
+        if (skip != 0 || run < sizeof block) {
+            unsigned long long i;
+            if (run > sizeof block - skip) {
+                run = sizeof block - skip;
+            }
+            if (!cached || block_ic != offset / sizeof block) {
+                block_ic = offset / sizeof block;
+                memset(block, 0, sizeof block);
+                xor_ic(block, block, sizeof block, n, block_ic, k);
+                cached = 1;
+            }
+            for (i = 0; i < run; i++) {
+                out[i] = in[i] ^ block[skip + i];
+            }
+        } else {
+            run -= run % sizeof block;
+            xor_ic(out, in, run, n, offset / sizeof block, k);
+        }
+        if (state != NULL) {
+            crypto_onetimeauth_poly1305_update(state, out, run);
+        }
+        dst->pos += run;
+        src->pos += run;
+        offset += run;
+        len -= run;
+    }
+    sodium_memzero(block, sizeof block);
+    return status;
+}
+
+static void stodium_store64_le(unsigned char *dst, unsigned long long v) {
+    int i;
+    for (i = 0; i < 8; i++) {
+        dst[i] = (unsigned char) (v >> (8 * i));
+    }
+}
+%}
+
+%typemap(jni) stodium_segments *SEGMENTS "jobjectArray"
+%typemap(jtype) stodium_segments *SEGMENTS "Object[]"
+%typemap(jstype) stodium_segments *SEGMENTS "Object[]"
+%typemap(in) stodium_segments *SEGMENTS (stodium_segments temp) {
+    if (stodium_segments_get(jenv, $input, &temp) != 0) {
+        return $null;
+    }
+    $1 = &temp;
+}
+%typemap(argout) stodium_segments *SEGMENTS {
+    stodium_segments_release(jenv, $1, 0);
+}
+%typemap(javain) stodium_segments *SEGMENTS "$javainput"
+%typemap(freearg) stodium_segments *SEGMENTS ""
+
+%typemap(jni) const stodium_segments *SEGMENTS "jobjectArray"
+%typemap(jtype) const stodium_segments *SEGMENTS "Object[]"
+%typemap(jstype) const stodium_segments *SEGMENTS "Object[]"
+%typemap(in) const stodium_segments *SEGMENTS (stodium_segments temp) {
+    if (stodium_segments_get(jenv, $input, &temp) != 0) {
+        return $null;
+    }
+    $1 = &temp;
+}
+%typemap(argout) const stodium_segments *SEGMENTS {
+    stodium_segments_release(jenv, (stodium_segments *) $1, JNI_ABORT);
+}
+%typemap(javain) const stodium_segments *SEGMENTS "$javainput"
+%typemap(freearg) const stodium_segments *SEGMENTS ""
+
+%apply stodium_segments *SEGMENTS { stodium_segments *dst_segments };
+%apply const stodium_segments *SEGMENTS { const stodium_segments *src_segments };
+%apply const int *OFFSETS {
+    const int *dst_bounds,
+    const int *src_bounds
+};
+
+%inline %{
+
+int crypto_secretbox_detached_segments(stodium_segments *dst_segments,
+                                       const int *dst_bounds,
+                                       unsigned char *dst_mac,
+                                       const stodium_segments *src_segments,
+                                       const int *src_bounds,
+                                       unsigned long long plain_len,
+                                       const unsigned char *nonce,
+                                       const unsigned char *secret_key) {
+    crypto_onetimeauth_poly1305_state state;
+    unsigned char subkey[crypto_stream_salsa20_KEYBYTES];
+    unsigned char block0[crypto_onetimeauth_poly1305_KEYBYTES];
+    stodium_cursor dst;
+    stodium_cursor src;
+    int status;
+
+    crypto_core_hsalsa20(subkey, nonce, secret_key, NULL);
+    crypto_stream_salsa20(block0, sizeof block0, nonce + 16, subkey);
+    crypto_onetimeauth_poly1305_init(&state, block0);
+
+    stodium_cursor_init(&dst, dst_segments, dst_bounds);
+    stodium_cursor_init(&src, src_segments, src_bounds);
+    status = stodium_cursor_xor(&dst, &src, plain_len, sizeof block0,
+                                crypto_stream_salsa20_xor_ic, nonce + 16, subkey,
+                                &state);
+    crypto_onetimeauth_poly1305_final(&state, dst_mac);
+
+    sodium_memzero(&state, sizeof state);
+    sodium_memzero(subkey, sizeof subkey);
+    sodium_memzero(block0, sizeof block0);
+    return status;
+}
+
+int crypto_secretbox_open_detached_segments(stodium_segments *dst_segments,
+                                            const int *dst_bounds,
+                                            const stodium_segments *src_segments,
+                                            const int *src_bounds,
+                                            const unsigned char *src_mac,
+                                            unsigned long long cipher_len,
+                                            const unsigned char *nonce,
+                                            const unsigned char *secret_key) {
+    crypto_onetimeauth_poly1305_state state;
+    unsigned char subkey[crypto_stream_salsa20_KEYBYTES];
+    unsigned char block0[crypto_onetimeauth_poly1305_KEYBYTES];
+    unsigned char computed[crypto_onetimeauth_poly1305_BYTES];
+    stodium_cursor dst;
+    stodium_cursor src;
+    stodium_cursor mac;
+    int status;
+
+    crypto_core_hsalsa20(subkey, nonce, secret_key, NULL);
+    crypto_stream_salsa20(block0, sizeof block0, nonce + 16, subkey);
+    crypto_onetimeauth_poly1305_init(&state, block0);
+
+    stodium_cursor_init(&dst, dst_segments, dst_bounds);
+    stodium_cursor_init(&src, src_segments, src_bounds);
+    mac = src;
+    status = stodium_cursor_mac(&state, &mac, cipher_len);
+    crypto_onetimeauth_poly1305_final(&state, computed);
+    if (status == 0 && crypto_verify_16(computed, src_mac) != 0) {
+        status = -1;
+    }
+    if (status == 0) {
+        status = stodium_cursor_xor(&dst, &src, cipher_len, sizeof block0,
+                                    crypto_stream_salsa20_xor_ic, nonce + 16,
+                                    subkey, NULL);
+    }
+
+    sodium_memzero(&state, sizeof state);
+    sodium_memzero(subkey, sizeof subkey);
+    sodium_memzero(block0, sizeof block0);
+    return status;
+}
+
+int crypto_aead_chacha20poly1305_encrypt_segments(stodium_segments *dst_segments,
+                                                  const int *dst_bounds,
+                                                  const stodium_segments *src_segments,
+                                                  const int *src_bounds,
+                                                  unsigned long long plain_len,
+                                                  const unsigned char *ad,
+                                                  unsigned long long ad_len,
+                                                  const unsigned char *npub,
+                                                  const unsigned char *key) {
+    crypto_onetimeauth_poly1305_state state;
+    unsigned char block0[64];
+    unsigned char slen[8];
+    unsigned char tag[crypto_aead_chacha20poly1305_ABYTES];
+    stodium_cursor dst;
+    stodium_cursor src;
+    int status;
+
+    crypto_stream_chacha20(block0, sizeof block0, npub, key);
+    crypto_onetimeauth_poly1305_init(&state, block0);
+    crypto_onetimeauth_poly1305_update(&state, ad, ad_len);
+    stodium_store64_le(slen, ad_len);
+    crypto_onetimeauth_poly1305_update(&state, slen, sizeof slen);
+
+    stodium_cursor_init(&dst, dst_segments, dst_bounds);
+    stodium_cursor_init(&src, src_segments, src_bounds);
+    status = stodium_cursor_xor(&dst, &src, plain_len, sizeof block0,
+                                crypto_stream_chacha20_xor_ic, npub, key,
+                                &state);
+    stodium_store64_le(slen, plain_len);
+    crypto_onetimeauth_poly1305_update(&state, slen, sizeof slen);
+    crypto_onetimeauth_poly1305_final(&state, tag);
+    if (status == 0) {
+        status = stodium_cursor_copy(&dst, NULL, tag, sizeof tag);
+    }
+
+    sodium_memzero(&state, sizeof state);
+    sodium_memzero(block0, sizeof block0);
+    return status;
+}
+
+int crypto_aead_chacha20poly1305_decrypt_segments(stodium_segments *dst_segments,
+                                                  const int *dst_bounds,
+                                                  const stodium_segments *src_segments,
+                                                  const int *src_bounds,
+                                                  unsigned long long cipher_len,
+                                                  const unsigned char *ad,
+                                                  unsigned long long ad_len,
+                                                  const unsigned char *npub,
+                                                  const unsigned char *key) {
+    crypto_onetimeauth_poly1305_state state;
+    unsigned char block0[64];
+    unsigned char slen[8];
+    unsigned char tag[crypto_aead_chacha20poly1305_ABYTES];
+    unsigned char computed[crypto_aead_chacha20poly1305_ABYTES];
+    unsigned long long plain_len;
+    stodium_cursor dst;
+    stodium_cursor src;
+    stodium_cursor mac;
+    int status;
+
+    if (cipher_len < crypto_aead_chacha20poly1305_ABYTES) {
+        return -1;
+    }
+    plain_len = cipher_len - crypto_aead_chacha20poly1305_ABYTES;
+
+    crypto_stream_chacha20(block0, sizeof block0, npub, key);
+    crypto_onetimeauth_poly1305_init(&state, block0);
+    crypto_onetimeauth_poly1305_update(&state, ad, ad_len);
+    stodium_store64_le(slen, ad_len);
+    crypto_onetimeauth_poly1305_update(&state, slen, sizeof slen);
+
+    stodium_cursor_init(&dst, dst_segments, dst_bounds);
+    stodium_cursor_init(&src, src_segments, src_bounds);
+    mac = src;
+    status = stodium_cursor_mac(&state, &mac, plain_len);
+    stodium_store64_le(slen, plain_len);
+    crypto_onetimeauth_poly1305_update(&state, slen, sizeof slen);
+    crypto_onetimeauth_poly1305_final(&state, computed);
+    if (status == 0) {
+        status = stodium_cursor_copy(&mac, tag, NULL, sizeof tag);
+    }
+    if (status == 0 && crypto_verify_16(computed, tag) != 0) {
+        status = -1;
+    }
+    if (status == 0) {
+        status = stodium_cursor_xor(&dst, &src, plain_len, sizeof block0,
+                                    crypto_stream_chacha20_xor_ic, npub, key,
+                                    NULL);
+    }
+
+    sodium_memzero(&state, sizeof state);
+    sodium_memzero(block0, sizeof block0);
+    return status;
+}
+
+%}
+
+/*
+    Multi-recipient sealed boxes. crypto_box_seal_batch seals the same
+    (short) message to count public keys, packed in public_keys, and writes
+    the sealed boxes back to back to dst_cipher, starting at dst_offset.
+    crypto_box_seal_open_first tries to open count such boxes, starting at
+    src_offset, and returns the index of the first one that opens, or -1.
+
+    NOTE memory/overflow safety for these functions is provided by the JAVA
+    methods, and assumes correctness of the libsodium implementations.
+*/
+
+%inline %{
+
+int crypto_box_seal_batch(unsigned char *dst_cipher,
+                          unsigned long long dst_offset,
+                          const unsigned char *src_plain,
+                          unsigned long long plain_len,
+                          const unsigned char *public_keys,
+                          int count) {
+    const size_t stride = (size_t) plain_len + crypto_box_SEALBYTES;
+    int i;
+    for (i = 0; i < count; i++) {
+        if (crypto_box_seal(dst_cipher + dst_offset + (size_t) i * stride,
+                            src_plain, plain_len,
+                            public_keys + (size_t) i * crypto_box_PUBLICKEYBYTES) != 0) {
+            return -1;
+        }
+    }
+    return 0;
+}
+
+int crypto_box_seal_open_first(unsigned char *dst_plain,
+                               const unsigned char *src_cipher,
+                               unsigned long long src_offset,
+                               unsigned long long cipher_len,
+                               int count,
+                               const unsigned char *local_public_key,
+                               const unsigned char *local_private_key) {
+    int i;
+    for (i = 0; i < count; i++) {
+        if (crypto_box_seal_open(dst_plain,
+                                 src_cipher + src_offset + (size_t) i * cipher_len,
+                                 cipher_len, local_public_key,
+                                 local_private_key) == 0) {
+            return i;
+        }
+    }
+    return -1;
+}
+
+%}
+
+/*
+    Secure key slabs. A slab is allocated with sodium_malloc, which places it
+    between guard pages, and is then locked into memory with sodium_mlock.
+    sodium_malloc ignores a failing mlock (e.g. when RLIMIT_MEMLOCK is
+    exceeded), so stodium_secure_alloc locks the slab explicitly, and fails
+    if it cannot: the private keys generated into a slab are never swapped to
+    disk and never copied onto the JAVA heap. The key pairs are generated,
+    used and wiped in place, and only their public keys are copied out. A key
+    pair occupies crypto_box_PUBLICKEYBYTES + crypto_box_SECRETKEYBYTES bytes
+    of the slab, at the offset passed to each function, public key first.
+
+    A handle of 0 (no slab) is ignored by stodium_secure_free and
+    stodium_secure_wipe, and fails the other functions.
+
+    NOTE memory/overflow safety for these functions is provided by the JAVA
+    methods, and assumes correctness of the libsodium implementations.
+*/
+
+%inline %{
+
+long long stodium_secure_alloc(const size_t size) {
+    void *slab = sodium_malloc(size);
+    if (slab == NULL) {
+        return 0;
+    }
+    if (sodium_mlock(slab, size) != 0) {
+        sodium_free(slab);
+        return 0;
+    }
+    sodium_memzero(slab, size);
+    return (long long) (intptr_t) slab;
+}
+
+void stodium_secure_free(long long handle) {
+    if (handle == 0) {
+        return;
+    }
+    /* sodium_free wipes and unlocks the slab before releasing it */
+    sodium_free(STODIUM_STATE(void, handle));
+}
+
+void stodium_secure_wipe(long long handle,
+                         unsigned long long offset,
+                         unsigned long long len) {
+    if (handle == 0) {
+        return;
+    }
+    sodium_memzero(STODIUM_STATE(unsigned char, handle) + offset, len);
+}
+
+int crypto_box_keypair_handle(unsigned char *dst_public_key,
+                              long long handle,
+                              unsigned long long offset) {
+    if (handle == 0) {
+        return -1;
+    }
+    unsigned char *pair = STODIUM_STATE(unsigned char, handle) + offset;
+    if (crypto_box_keypair(pair, pair + crypto_box_PUBLICKEYBYTES) != 0) {
+        return -1;
+    }
+    memcpy(dst_public_key, pair, crypto_box_PUBLICKEYBYTES);
+    return 0;
+}
+
+int crypto_box_beforenm_handle(unsigned char *dst_shared_key,
+                               const unsigned char *remote_public_key,
+                               long long handle,
+                               unsigned long long offset) {
+    if (handle == 0) {
+        return -1;
+    }
+    return crypto_box_beforenm(dst_shared_key, remote_public_key,
+            STODIUM_STATE(unsigned char, handle) + offset + crypto_box_PUBLICKEYBYTES);
+}
+
+int crypto_box_easy_handle(unsigned char *dst_cipher,
+                           const unsigned char *src_plain,
+                           unsigned long long plain_len,
+                           const unsigned char *nonce,
+                           const unsigned char *remote_public_key,
+                           long long handle,
+                           unsigned long long offset) {
+    if (handle == 0) {
+        return -1;
+    }
+    return crypto_box_easy(dst_cipher, src_plain, plain_len, nonce, remote_public_key,
+            STODIUM_STATE(unsigned char, handle) + offset + crypto_box_PUBLICKEYBYTES);
+}
+
+int crypto_scalarmult_handle(unsigned char *dst,
+                             const unsigned char *remote_public_key,
+                             long long handle,
+                             unsigned long long offset) {
+    if (handle == 0) {
+        return -1;
+    }
+    return crypto_scalarmult_curve25519(dst,
+            STODIUM_STATE(unsigned char, handle) + offset + crypto_box_PUBLICKEYBYTES,
+            remote_public_key);
+}
+
+%}
+
+/*
+    Short hashes returned as a 64-bit integer, the big-endian interpretation
+    of the 8 output bytes. The JAVA wrappers can then return a primitive long
+    instead of allocating an output array and a ByteBuffer on every call.
+*/
+
+%{
+static long long stodium_load64_be(const unsigned char *src) {
+    unsigned long long v = 0;
+    int i;
+    for (i = 0; i < 8; i++) {
+        v = (v << 8) | src[i];
+    }
+    return (long long) v;
+}
+%}
+
+%inline %{
+
+long long crypto_shorthash_long(const unsigned char *src_input,
+                                unsigned long long input_len,
+                                const unsigned char *src_key) {
+    unsigned char out[crypto_shorthash_BYTES];
+    crypto_shorthash(out, src_input, input_len, src_key);
+    return stodium_load64_be(out);
+}
+
+long long crypto_shorthash_siphash24_long(const unsigned char *in,
+                                          unsigned long long inlen,
+                                          const unsigned char *k) {
+    unsigned char out[crypto_shorthash_siphash24_BYTES];
+    crypto_shorthash_siphash24(out, in, inlen, k);
+    return stodium_load64_be(out);
+}
+
+%}
+
+/*
+    Bootstrap, which initializes libsodium and fetches every size constant
+    and primitive name used by the JAVA wrapper classes in a single JNI
+    crossing, instead of one call per constant during class initialization.
+
+    The order of both arrays MUST match the indices defined in
+    eu.artemisc.stodium.Constants. Returns the value of sodium_init().
+*/
+
+%{
+#define STODIUM_CONSTANTS_COUNT 62
+#define STODIUM_PRIMITIVES_COUNT 9
+%}
+
+%typemap(jni) int *CONSTANTS "jintArray"
+%typemap(jtype) int *CONSTANTS "int[]"
+%typemap(jstype) int *CONSTANTS "int[]"
+%typemap(in) int *CONSTANTS {
+    if (JCALL1(GetArrayLength, jenv, $input) != STODIUM_CONSTANTS_COUNT) {
+        SWIG_JavaThrowException(jenv, SWIG_JavaIllegalArgumentException,
+                "constants array has the wrong length");
+        return $null;
+    }
+    $1 = (int *) JCALL2(GetIntArrayElements, jenv, $input, 0);
+}
+%typemap(argout) int *CONSTANTS {
+    JCALL3(ReleaseIntArrayElements, jenv, $input, (jint *) $1, 0);
+}
+%typemap(javain) int *CONSTANTS "$javainput"
+%typemap(freearg) int *CONSTANTS ""
+
+%typemap(jni) const char **PRIMITIVES "jobjectArray"
+%typemap(jtype) const char **PRIMITIVES "String[]"
+%typemap(jstype) const char **PRIMITIVES "String[]"
+%typemap(in) const char **PRIMITIVES (const char *temp[STODIUM_PRIMITIVES_COUNT]) {
+    if (JCALL1(GetArrayLength, jenv, $input) != STODIUM_PRIMITIVES_COUNT) {
+        SWIG_JavaThrowException(jenv, SWIG_JavaIllegalArgumentException,
+                "primitives array has the wrong length");
+        return $null;
+    }
+    $1 = temp;
+}
+%typemap(argout) const char **PRIMITIVES {
+    jsize i;
+    for (i = 0; i < STODIUM_PRIMITIVES_COUNT; i++) {
+        jstring value = JCALL1(NewStringUTF, jenv, $1[i]);
+        JCALL3(SetObjectArrayElement, jenv, $input, i, value);
+        JCALL1(DeleteLocalRef, jenv, value);
+    }
+}
+%typemap(javain) const char **PRIMITIVES "$javainput"
+%typemap(freearg) const char **PRIMITIVES ""
+
+%apply int *CONSTANTS { int *dst_constants };
+%apply const char **PRIMITIVES { const char **dst_primitives };
+
+%inline %{
+
+int stodium_bootstrap(int *dst_constants,
+                      const char **dst_primitives) {
+    const int status = sodium_init();
+    const int constants[STODIUM_CONSTANTS_COUNT] = {
+        (int) crypto_generichash_blake2b_bytes(),
+        (int) crypto_generichash_blake2b_bytes_min(),
+        (int) crypto_generichash_blake2b_bytes_max(),
+        (int) crypto_generichash_blake2b_keybytes(),
+        (int) crypto_generichash_blake2b_keybytes_min(),
+        (int) crypto_generichash_blake2b_keybytes_max(),
+        (int) crypto_generichash_blake2b_saltbytes(),
+        (int) crypto_generichash_blake2b_personalbytes(),
+        (int) crypto_generichash_blake2b_statebytes(),
+        (int) crypto_box_publickeybytes(),
+        (int) crypto_box_secretkeybytes(),
+        (int) crypto_box_macbytes(),
+        (int) crypto_box_noncebytes(),
+        (int) crypto_box_seedbytes(),
+        (int) crypto_box_beforenmbytes(),
+        (int) crypto_box_sealbytes(),
+        (int) crypto_aead_chacha20poly1305_keybytes(),
+        (int) crypto_aead_chacha20poly1305_npubbytes(),
+        (int) crypto_aead_chacha20poly1305_abytes(),
+        (int) crypto_aead_chacha20poly1305_nsecbytes(),
+        (int) crypto_scalarmult_bytes(),
+        (int) crypto_scalarmult_scalarbytes(),
+        (int) crypto_sign_ed25519_bytes(),
+        (int) crypto_sign_ed25519_publickeybytes(),
+        (int) crypto_sign_ed25519_secretkeybytes(),
+        (int) crypto_generichash_bytes(),
+        (int) crypto_generichash_bytes_min(),
+        (int) crypto_generichash_bytes_max(),
+        (int) crypto_generichash_keybytes(),
+        (int) crypto_generichash_keybytes_min(),
+        (int) crypto_generichash_keybytes_max(),
+        (int) crypto_generichash_statebytes(),
+        (int) crypto_core_hsalsa20_inputbytes(),
+        (int) crypto_core_hsalsa20_outputbytes(),
+        (int) crypto_core_hsalsa20_constbytes(),
+        (int) crypto_core_hsalsa20_keybytes(),
+        (int) crypto_hash_bytes(),
+        (int) crypto_hash_statebytes(),
+        (int) crypto_onetimeauth_bytes(),
+        (int) crypto_onetimeauth_keybytes(),
+        (int) crypto_onetimeauth_statebytes(),
+        (int) crypto_onetimeauth_poly1305_bytes(),
+        (int) crypto_onetimeauth_poly1305_keybytes(),
+        (int) crypto_onetimeauth_poly1305_statebytes(),
+        (int) crypto_pwhash_scryptsalsa208sha256_saltbytes(),
+        (int) crypto_pwhash_scryptsalsa208sha256_strbytes(),
+        (int) crypto_pwhash_scryptsalsa208sha256_opslimit_interactive(),
+        (int) crypto_pwhash_scryptsalsa208sha256_memlimit_interactive(),
+        (int) crypto_pwhash_scryptsalsa208sha256_opslimit_sensitive(),
+        (int) crypto_pwhash_scryptsalsa208sha256_memlimit_sensitive(),
+        (int) crypto_secretbox_keybytes(),
+        (int) crypto_secretbox_noncebytes(),
+        (int) crypto_secretbox_macbytes(),
+        (int) crypto_secretbox_boxzerobytes(),
+        (int) crypto_secretbox_zerobytes(),
+        (int) crypto_shorthash_bytes(),
+        (int) crypto_shorthash_keybytes(),
+        (int) crypto_sign_bytes(),
+        (int) crypto_sign_publickeybytes(),
+        (int) crypto_sign_secretkeybytes(),
+        (int) crypto_shorthash_siphash24_bytes(),
+        (int) crypto_shorthash_siphash24_keybytes()
+    };
+    const char *primitives[STODIUM_PRIMITIVES_COUNT] = {
+        crypto_auth_primitive(),
+        crypto_box_primitive(),
+        crypto_scalarmult_primitive(),
+        crypto_generichash_primitive(),
+        crypto_onetimeauth_primitive(),
+        crypto_pwhash_scryptsalsa208sha256_strprefix(),
+        crypto_secretbox_primitive(),
+        crypto_shorthash_primitive(),
+        crypto_sign_primitive()
+    };
+    memcpy(dst_constants, constants, sizeof constants);
+    memcpy(dst_primitives, primitives, sizeof primitives);
+    return status;
+}
+
+%}
+
+%clear int *dst_constants;
+%clear const char **dst_primitives;
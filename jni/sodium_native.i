@@ -0,0 +1,208 @@
+/* sodium_native.i */
+%module SodiumNative
+
+/*
+    SodiumNative exposes a raw, address-based tier of the libsodium API. All
+    buffer arguments are passed as native memory addresses (JAVA long), and
+    all lengths as 64-bit values, so callers that manage their own off-heap
+    memory (direct buffers, Unsafe, MemorySegment, ...) can operate on it in
+    place, without any JNI array pinning or copying.
+
+    NOTE no validation whatsoever is performed by this tier. The caller is
+    responsible for passing valid addresses of sufficiently sized buffers, as
+    well as for keeping that memory alive for the duration of the call. Output
+    length pointers (e.g. siglen_p) may be passed as 0 (NULL).
+
+    Both modules are linked into the same kaliumjni library, which is loaded
+    by eu.artemisc.stodium.Stodium.
+*/
+
+/* Basic mappings */
+%apply long long {unsigned long long};
+%apply long long {size_t};
+
+/* Native addresses */
+%typemap(jni) unsigned char *ADDRESS "jlong"
+%typemap(jtype) unsigned char *ADDRESS "long"
+%typemap(jstype) unsigned char *ADDRESS "long"
+%typemap(in) unsigned char *ADDRESS {
+    $1 = ($1_ltype) (intptr_t) $input;
+}
+%typemap(javain) unsigned char *ADDRESS "$javainput"
+%typemap(freearg) unsigned char *ADDRESS ""
+
+%apply unsigned char *ADDRESS {
+    unsigned char *,
+    const unsigned char *,
+    unsigned long long *,
+    crypto_generichash_state *
+};
+
+%{
+#include "sodium.h"
+%}
+
+/*
+    crypto_secretbox API
+*/
+int crypto_secretbox_easy(unsigned char *dst_cipher,
+                          const unsigned char *src_plain,
+                          unsigned long long plain_len,
+                          const unsigned char *nonce,
+                          const unsigned char *secret_key);
+
+int crypto_secretbox_open_easy(unsigned char *dst_plain,
+                               const unsigned char *src_cipher,
+                               unsigned long long cipher_len,
+                               const unsigned char *nonce,
+                               const unsigned char *secret_key);
+
+int crypto_secretbox_detached(unsigned char *dst_cipher,
+                              unsigned char *dst_mac,
+                              const unsigned char *src_plain,
+                              unsigned long long plain_len,
+                              const unsigned char *nonce,
+                              const unsigned char *secret_key);
+
+int crypto_secretbox_open_detached(unsigned char *dst_plain,
+                                   const unsigned char *src_cipher,
+                                   const unsigned char *src_mac,
+                                   unsigned long long cipher_len,
+                                   const unsigned char *nonce,
+                                   const unsigned char *secret_key);
+
+/*
+    crypto_box API
+*/
+int crypto_box_easy(unsigned char *dst_cipher,
+                    const unsigned char *src_plain,
+                    unsigned long long plain_len,
+                    const unsigned char *nonce,
+                    const unsigned char *remote_public_key,
+                    const unsigned char *local_private_key);
+
+int crypto_box_open_easy(unsigned char *dst_plain,
+                         const unsigned char *src_cipher,
+                         unsigned long long cipher_len,
+                         const unsigned char *nonce,
+                         const unsigned char *remote_public_key,
+                         const unsigned char *local_private_key);
+
+int crypto_box_beforenm(unsigned char *dst_shared_key,
+                        const unsigned char *remote_public_key,
+                        const unsigned char *local_private_key);
+
+int crypto_box_easy_afternm(unsigned char *dst_cipher,
+                            const unsigned char *src_plain,
+                            unsigned long long plain_len,
+                            const unsigned char *nonce,
+                            const unsigned char *shared_key);
+
+int crypto_box_open_easy_afternm(unsigned char *dst_plain,
+                                 const unsigned char *src_cipher,
+                                 unsigned long long cipher_len,
+                                 const unsigned char *nonce,
+                                 const unsigned char *shared_key);
+
+int crypto_box_seal(unsigned char *dst_cipher,
+                    const unsigned char *src_plain,
+                    unsigned long long plain_len,
+                    const unsigned char *remote_public_key);
+
+int crypto_box_seal_open(unsigned char *dst_plain,
+                         const unsigned char *src_cipher,
+                         unsigned long long cipher_len,
+                         const unsigned char *local_public_key,
+                         const unsigned char *local_private_key);
+
+/*
+    AEAD chacha20poly1305
+*/
+int crypto_aead_chacha20poly1305_encrypt(unsigned char *c,
+                                         unsigned long long *clen_p,
+                                         const unsigned char *m,
+                                         unsigned long long mlen,
+                                         const unsigned char *ad,
+                                         unsigned long long adlen,
+                                         const unsigned char *nsec,
+                                         const unsigned char *npub,
+                                         const unsigned char *k);
+
+int crypto_aead_chacha20poly1305_decrypt(unsigned char *m,
+                                         unsigned long long *mlen_p,
+                                         unsigned char *nsec,
+                                         const unsigned char *c,
+                                         unsigned long long clen,
+                                         const unsigned char *ad,
+                                         unsigned long long adlen,
+                                         const unsigned char *npub,
+                                         const unsigned char *k);
+
+int crypto_aead_chacha20poly1305_ietf_encrypt(unsigned char *c,
+                                              unsigned long long *clen_p,
+                                              const unsigned char *m,
+                                              unsigned long long mlen,
+                                              const unsigned char *ad,
+                                              unsigned long long adlen,
+                                              const unsigned char *nsec,
+                                              const unsigned char *npub,
+                                              const unsigned char *k);
+
+int crypto_aead_chacha20poly1305_ietf_decrypt(unsigned char *m,
+                                              unsigned long long *mlen_p,
+                                              unsigned char *nsec,
+                                              const unsigned char *c,
+                                              unsigned long long clen,
+                                              const unsigned char *ad,
+                                              unsigned long long adlen,
+                                              const unsigned char *npub,
+                                              const unsigned char *k);
+
+/*
+    crypto_generichash API
+*/
+int crypto_generichash(unsigned char *dst_hash,
+                       size_t dst_len,
+                       const unsigned char *src_input,
+                       unsigned long long input_len,
+                       const unsigned char *src_key,
+                       size_t key_len);
+
+int crypto_generichash_init(crypto_generichash_state *state,
+                            const unsigned char *src_key,
+                            const size_t key_len,
+                            const size_t out_len);
+
+int crypto_generichash_update(crypto_generichash_state *state,
+                              const unsigned char *src_input,
+                              unsigned long long input_len);
+
+int crypto_generichash_final(crypto_generichash_state *state,
+                             unsigned char *dst_out,
+                             const size_t out_len);
+
+/*
+    crypto_sign API
+*/
+int crypto_sign(unsigned char *dst_signed_msg,
+                unsigned long long *signed_msg_len,
+                const unsigned char *src_msg,
+                unsigned long long msg_len,
+                const unsigned char *local_private_key);
+
+int crypto_sign_open(unsigned char *dst_msg,
+                     unsigned long long *msg_len,
+                     const unsigned char *src_signed_msg,
+                     unsigned long long signed_msg_len,
+                     const unsigned char *remote_public_key);
+
+int crypto_sign_detached(unsigned char *dst_signature,
+                         unsigned long long *signature_len,
+                         const unsigned char *src_msg,
+                         unsigned long long msg_len,
+                         const unsigned char *local_private_key);
+
+int crypto_sign_verify_detached(const unsigned char *src_signature,
+                                const unsigned char *src_msg,
+                                unsigned long long msg_len,
+                                const unsigned char *remote_public_key);
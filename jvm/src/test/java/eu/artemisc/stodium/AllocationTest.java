@@ -0,0 +1,175 @@
+package eu.artemisc.stodium;
+
+import org.junit.Before;
+import org.junit.Test;
+
+import java.lang.management.ManagementFactory;
+import java.util.Random;
+
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assume.assumeTrue;
+
+/**
+ * AllocationTest checks that the steady-state calls that are meant to be
+ * allocation-free do not allocate on the JAVA heap, by measuring the bytes
+ * allocated by the current thread around many warmed-up calls. It covers
+ * the same calls as benchmark/allocation.py, without needing a JMH run.
+ *
+ * @author Jan van de Molengraft [jan@artemisc.eu]
+ */
+public class AllocationTest {
+    private static final int WARMUP = 50000;
+    private static final int ITERATIONS = 10000;
+    // the smallest of several measurements is used, so that allocations by
+    // a late JIT compilation or deoptimization are not counted against a call
+    private static final int ROUNDS = 5;
+    private static final int MESSAGE_BYTES = 64;
+
+    /**
+     * Call is a single operation whose allocations are measured.
+     */
+    private interface Call {
+        void run() throws Exception;
+    }
+
+    private static final Call EMPTY = new Call() {
+        @Override
+        public void run() {}
+    };
+
+    private final Random random = new Random(0xa110cL);
+    private com.sun.management.ThreadMXBean threads;
+
+    @Before
+    public void setUp() {
+        final java.lang.management.ThreadMXBean bean = ManagementFactory.getThreadMXBean();
+        assumeTrue(bean instanceof com.sun.management.ThreadMXBean);
+        threads = (com.sun.management.ThreadMXBean) bean;
+        assumeTrue(threads.isThreadAllocatedMemorySupported());
+        threads.setThreadAllocatedMemoryEnabled(true);
+    }
+
+    @Test
+    public void blake2bUpdate()
+            throws Exception {
+        final byte[] message = bytes(MESSAGE_BYTES);
+        final Blake2b blake2b = new Blake2b(Blake2b.BYTES);
+        blake2b.init();
+        assertNoAllocation("Blake2b#update", new Call() {
+            @Override
+            public void run() throws Exception {
+                blake2b.update(message);
+            }
+        });
+    }
+
+    @Test
+    public void blake2bUpdateNativeState()
+            throws Exception {
+        final byte[] message = bytes(MESSAGE_BYTES);
+        final Blake2b blake2b = Blake2b.withNativeState(Blake2b.BYTES);
+        try {
+            blake2b.init();
+            assertNoAllocation("Blake2b#update (native state)", new Call() {
+                @Override
+                public void run() throws Exception {
+                    blake2b.update(message);
+                }
+            });
+        } finally {
+            blake2b.close();
+        }
+    }
+
+    @Test
+    public void poly1305Update()
+            throws Exception {
+        final byte[] message = bytes(MESSAGE_BYTES);
+        final Poly1305 poly1305 = new Poly1305(bytes(Poly1305.KEYBYTES));
+        assertNoAllocation("Poly1305#update", new Call() {
+            @Override
+            public void run() throws Exception {
+                poly1305.update(message);
+            }
+        });
+    }
+
+    @Test
+    public void secretboxEasy()
+            throws Exception {
+        final byte[] plain = bytes(MESSAGE_BYTES);
+        final byte[] cipher = new byte[plain.length + Secretbox.MACBYTES];
+        final byte[] nonce = bytes(Secretbox.NONCEBYTES);
+        final byte[] key = bytes(Secretbox.KEYBYTES);
+        assertNoAllocation("Secretbox#easy", new Call() {
+            @Override
+            public void run() throws Exception {
+                Secretbox.easy(cipher, plain, nonce, key);
+            }
+        });
+    }
+
+    @Test
+    public void ed25519VerifyDetached()
+            throws Exception {
+        final byte[] message = bytes(MESSAGE_BYTES);
+        final byte[] signature = bytes(Ed25519.SIGNBYTES);
+        final byte[] publicKey = bytes(Ed25519.PUBLICKEYBYTES);
+        assertNoAllocation("Ed25519#verifyDetached", new Call() {
+            @Override
+            public void run() throws Exception {
+                Ed25519.verifyDetached(signature, message, publicKey);
+            }
+        });
+    }
+
+    @Test
+    public void shortHashShorthash()
+            throws Exception {
+        final byte[] message = bytes(MESSAGE_BYTES);
+        final byte[] key = bytes(ShortHash.KEYBYTES);
+        assertNoAllocation("ShortHash#shorthash", new Call() {
+            @Override
+            public void run() throws Exception {
+                ShortHash.shorthash(message, key);
+            }
+        });
+    }
+
+    /**
+     * assertNoAllocation warms call up, and fails if running it ITERATIONS
+     * times allocates more than the measurement itself does.
+     */
+    private void assertNoAllocation(final String name,
+                                    final Call call)
+            throws Exception {
+        for (int i = 0; i < WARMUP; i++) {
+            call.run();
+            EMPTY.run();
+        }
+        final long overhead = minAllocatedBytes(EMPTY);
+        final long allocated = minAllocatedBytes(call);
+        assertTrue(String.format("%s allocated %d bytes in %d calls", name,
+                allocated - overhead, ITERATIONS), allocated <= overhead);
+    }
+
+    private long minAllocatedBytes(final Call call)
+            throws Exception {
+        final long thread = Thread.currentThread().getId();
+        long min = Long.MAX_VALUE;
+        for (int round = 0; round < ROUNDS; round++) {
+            final long before = threads.getThreadAllocatedBytes(thread);
+            for (int i = 0; i < ITERATIONS; i++) {
+                call.run();
+            }
+            min = Math.min(min, threads.getThreadAllocatedBytes(thread) - before);
+        }
+        return min;
+    }
+
+    private byte[] bytes(final int length) {
+        final byte[] b = new byte[length];
+        random.nextBytes(b);
+        return b;
+    }
+}
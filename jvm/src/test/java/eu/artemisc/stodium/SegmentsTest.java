@@ -0,0 +1,184 @@
+package eu.artemisc.stodium;
+
+import org.junit.Test;
+
+import java.nio.ByteBuffer;
+import java.util.Arrays;
+import java.util.Random;
+
+import javax.crypto.AEADBadTagException;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.fail;
+
+/**
+ * SegmentsTest checks the gathering and scattering Secretbox and
+ * Chacha20Poly1305 methods against their contiguous counterparts, over
+ * random segmentations of random messages.
+ *
+ * @author Jan van de Molengraft [jan@artemisc.eu]
+ */
+public class SegmentsTest {
+    private static final int ROUNDS = 200;
+    // covers runs within, across and spanning many 64-byte key stream blocks
+    private static final int MAX_LENGTH = 700;
+
+    private final Random random = new Random(0x5e67e475L);
+
+    @Test
+    public void secretboxDetachedMatchesContiguous()
+            throws Exception {
+        for (int round = 0; round < ROUNDS; round++) {
+            final byte[] plain = bytes(random.nextInt(MAX_LENGTH));
+            final byte[] nonce = bytes(Secretbox.NONCEBYTES);
+            final byte[] key = bytes(Secretbox.KEYBYTES);
+
+            final byte[] cipher = new byte[plain.length];
+            final byte[] mac = new byte[Secretbox.MACBYTES];
+            Secretbox.detached(cipher, mac, plain, nonce, key);
+
+            final byte[] segmentedCipher = new byte[plain.length];
+            final byte[] segmentedMac = new byte[Secretbox.MACBYTES];
+            Secretbox.detached(segmentedCipher, segmentedMac, split(plain), nonce, key);
+            assertArrayEquals(cipher, segmentedCipher);
+            assertArrayEquals(mac, segmentedMac);
+
+            final byte[][] opened = split(new byte[plain.length]);
+            Secretbox.openDetached(opened, cipher, mac, nonce, key);
+            assertArrayEquals(plain, concat(opened));
+        }
+    }
+
+    @Test
+    public void chacha20Poly1305MatchesContiguous()
+            throws Exception {
+        for (int round = 0; round < ROUNDS; round++) {
+            final byte[] plain = bytes(random.nextInt(MAX_LENGTH));
+            final byte[] ad = bytes(random.nextInt(40));
+            final byte[] nonce = bytes(Chacha20Poly1305.NPUBBYTES);
+            final byte[] key = bytes(Chacha20Poly1305.KEYBYTES);
+
+            final byte[] cipher = new byte[plain.length + Chacha20Poly1305.ABYTES];
+            Chacha20Poly1305.encrypt(cipher, plain, ad, nonce, key);
+
+            final byte[] segmentedCipher = new byte[cipher.length];
+            Chacha20Poly1305.encrypt(segmentedCipher, split(plain), ad, nonce, key);
+            assertArrayEquals(cipher, segmentedCipher);
+
+            final byte[][] opened = split(new byte[plain.length]);
+            Chacha20Poly1305.decrypt(opened, cipher, ad, nonce, key);
+            assertArrayEquals(plain, concat(opened));
+        }
+    }
+
+    @Test
+    public void sharedBackingArrayKeepsAllSegments()
+            throws Exception {
+        for (int round = 0; round < ROUNDS; round++) {
+            final byte[] plain = bytes(random.nextInt(MAX_LENGTH));
+            final byte[] nonce = bytes(Secretbox.NONCEBYTES);
+            final byte[] key = bytes(Secretbox.KEYBYTES);
+            final byte[] cipher = new byte[plain.length];
+            final byte[] mac = new byte[Secretbox.MACBYTES];
+            Secretbox.detached(cipher, mac, plain, nonce, key);
+
+            // slices of one heap buffer, so every segment has the same array
+            final ByteBuffer whole = ByteBuffer.allocate(plain.length);
+            final ByteBuffer[] slices = slices(whole, cuts(plain.length));
+            Secretbox.openDetached(slices, ByteBuffer.wrap(cipher), ByteBuffer.wrap(mac), nonce, key);
+            assertArrayEquals(plain, whole.array());
+
+            final ByteBuffer source = ByteBuffer.allocateDirect(plain.length);
+            source.put(plain).flip();
+            final ByteBuffer segmentedCipher = ByteBuffer.allocateDirect(plain.length);
+            final ByteBuffer segmentedMac = ByteBuffer.allocate(Secretbox.MACBYTES);
+            Secretbox.detached(segmentedCipher, segmentedMac, slices(source, cuts(plain.length)), nonce, key);
+            segmentedCipher.flip();
+            final byte[] out = new byte[plain.length];
+            segmentedCipher.get(out);
+            assertArrayEquals(cipher, out);
+            assertArrayEquals(mac, segmentedMac.array());
+        }
+    }
+
+    @Test
+    public void tamperedSegmentsAreRejected()
+            throws Exception {
+        final byte[] plain = bytes(300);
+        final byte[] nonce = bytes(Chacha20Poly1305.NPUBBYTES);
+        final byte[] key = bytes(Chacha20Poly1305.KEYBYTES);
+        final byte[] cipher = new byte[plain.length + Chacha20Poly1305.ABYTES];
+        Chacha20Poly1305.encrypt(cipher, split(plain), new byte[0], nonce, key);
+        cipher[random.nextInt(cipher.length)] ^= 1;
+
+        final byte[][] opened = split(new byte[plain.length]);
+        try {
+            Chacha20Poly1305.decrypt(opened, cipher, new byte[0], nonce, key);
+            fail("tampered ciphertext was accepted");
+        } catch (AEADBadTagException expected) {
+            assertArrayEquals(new byte[plain.length], concat(opened));
+        }
+    }
+
+    private byte[] bytes(final int length) {
+        final byte[] b = new byte[length];
+        random.nextBytes(b);
+        return b;
+    }
+
+    /**
+     * cuts returns sorted, possibly repeated (empty segment) cut points in
+     * [0, length].
+     */
+    private int[] cuts(final int length) {
+        final int[] cuts = new int[random.nextInt(8)];
+        for (int i = 0; i < cuts.length; i++) {
+            cuts[i] = random.nextInt(length + 1);
+        }
+        Arrays.sort(cuts);
+        return cuts;
+    }
+
+    private byte[][] split(final byte[] b) {
+        final int[] cuts = cuts(b.length);
+        final byte[][] segments = new byte[cuts.length + 1][];
+        int from = 0;
+        for (int i = 0; i <= cuts.length; i++) {
+            final int to = i < cuts.length ? cuts[i] : b.length;
+            segments[i] = Arrays.copyOfRange(b, from, to);
+            from = to;
+        }
+        return segments;
+    }
+
+    private static ByteBuffer[] slices(final ByteBuffer buf,
+                                       final int[] cuts) {
+        final ByteBuffer[] slices = new ByteBuffer[cuts.length + 1];
+        int from = 0;
+        for (int i = 0; i <= cuts.length; i++) {
+            final int to = i < cuts.length ? cuts[i] : buf.limit();
+            final ByteBuffer slice = buf.duplicate();
+            slice.limit(to);
+            slice.position(from);
+            slices[i] = slice.slice();
+            from = to;
+        }
+        return slices;
+    }
+
+    private static byte[] concat(final byte[][] segments) {
+        int length = 0;
+        for (final byte[] segment : segments) {
+            length += segment.length;
+        }
+        final byte[] out = new byte[length];
+        int at = 0;
+        for (final byte[] segment : segments) {
+            System.arraycopy(segment, 0, out, at, segment.length);
+            at += segment.length;
+        }
+        assertEquals(length, at);
+        return out;
+    }
+}
@@ -22,7 +22,7 @@ public class Auth {
     public static final int BYTES = 32;
     public static final int KEYBYTES = 32;
 
-    public static final String PRIMITIVE = Sodium.crypto_auth_primitive();
+    public static final String PRIMITIVE = Stodium.PRIMITIVES[Constants.CRYPTO_AUTH_PRIMITIVE];
 
     // wrappers
 
@@ -44,6 +44,31 @@ public class Auth {
                 Sodium.crypto_auth(dstOut, srcIn, srcIn.length, srcKey));
     }
 
+    /**
+     *
+     * @param dstOut
+     * @param outOffset
+     * @param srcIn
+     * @param inOffset
+     * @param inLen
+     * @param srcKey
+     * @throws ConstraintViolationException
+     * @throws StodiumException
+     */
+    public static void auth(@NonNull final byte[] dstOut,
+                            final int outOffset,
+                            @NonNull final byte[] srcIn,
+                            final int inOffset,
+                            final int inLen,
+                            @NonNull final byte[] srcKey)
+            throws StodiumException {
+        Stodium.checkOffsetParams(dstOut.length, outOffset, BYTES);
+        Stodium.checkOffsetParams(srcIn.length, inOffset, inLen);
+        Stodium.checkSize(srcKey.length, KEYBYTES, "Auth.KEYBYTES");
+        Stodium.checkStatus(Sodium.crypto_auth_offset(
+                dstOut, outOffset, srcIn, inOffset, inLen, srcKey));
+    }
+
     /**
      *
      * @param srcTag
@@ -62,4 +87,30 @@ public class Auth {
         return Sodium.crypto_auth_verify(
                 srcTag, srcIn, srcIn.length, srcKey) == 0;
     }
+
+    /**
+     *
+     * @param srcTag
+     * @param tagOffset
+     * @param srcIn
+     * @param inOffset
+     * @param inLen
+     * @param srcKey
+     * @return
+     * @throws ConstraintViolationException
+     * @throws StodiumException
+     */
+    public static boolean authVerify(@NonNull final byte[] srcTag,
+                                     final int tagOffset,
+                                     @NonNull final byte[] srcIn,
+                                     final int inOffset,
+                                     final int inLen,
+                                     @NonNull final byte[] srcKey)
+            throws StodiumException {
+        Stodium.checkOffsetParams(srcTag.length, tagOffset, BYTES);
+        Stodium.checkOffsetParams(srcIn.length, inOffset, inLen);
+        Stodium.checkSize(srcKey.length, KEYBYTES, "Auth.KEYBYTES");
+        return Sodium.crypto_auth_verify_offset(
+                srcTag, tagOffset, srcIn, inOffset, inLen, srcKey) == 0;
+    }
 }
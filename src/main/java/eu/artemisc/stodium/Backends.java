@@ -0,0 +1,69 @@
+package eu.artemisc.stodium;
+
+import android.support.annotation.NonNull;
+import android.support.annotation.Nullable;
+
+import java.util.Iterator;
+import java.util.ServiceConfigurationError;
+import java.util.ServiceLoader;
+
+/**
+ * Backends holds the {@link StodiumBackend} that was chosen at startup. The
+ * wrappers call it through the static final {@link #BACKEND}, so that the JIT
+ * sees a single implementation and can inline it.
+ *
+ * @author Jan van de Molengraft [jan@artemisc.eu]
+ */
+final class Backends {
+    static {
+        // Require sodium_init(); a backend may look up libsodium's symbols in
+        // the library loaded by StodiumInit
+        Stodium.StodiumInit();
+    }
+
+    // block the constructor
+    private Backends() {}
+
+    /**
+     * PROPERTY is the system property that selects a backend by name.
+     */
+    static final String PROPERTY = "eu.artemisc.stodium.backend";
+
+    @NonNull
+    static final StodiumBackend BACKEND = load(System.getProperty(PROPERTY));
+
+    /**
+     * load returns the first registered StodiumBackend that can be
+     * instantiated and, if name is set, has that name. It falls back to the
+     * JNI backend.
+     */
+    @NonNull
+    private static StodiumBackend load(@Nullable final String name) {
+        if (JniBackend.NAME.equals(name)) {
+            return new JniBackend();
+        }
+
+        final Iterator<StodiumBackend> it = ServiceLoader.load(
+                StodiumBackend.class, Backends.class.getClassLoader()).iterator();
+        while (true) {
+            final StodiumBackend backend;
+            try {
+                if (!it.hasNext()) {
+                    break;
+                }
+                backend = it.next();
+            } catch (ServiceConfigurationError e) {
+                // e.g. a backend that did not find libsodium; the iterator
+                // has moved past it, so try the next one
+                continue;
+            } catch (LinkageError e) {
+                // a backend compiled for a newer JVM
+                continue;
+            }
+            if (name == null || name.equals(backend.name())) {
+                return backend;
+            }
+        }
+        return new JniBackend();
+    }
+}
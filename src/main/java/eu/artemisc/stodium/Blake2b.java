@@ -5,28 +5,30 @@ import android.support.annotation.Nullable;
 
 import org.abstractj.kalium.Sodium;
 
+import java.io.Closeable;
 import java.util.Arrays;
 
 /**
  * @author Jan van de Molengraft [jan@artemisc.eu]
  */
-public class Blake2b {
+public class Blake2b
+        implements Closeable {
     static {
         // Require sodium_init();
         Stodium.StodiumInit();
     }
 
     // constants
-    public static final int BYTES = Sodium.crypto_generichash_blake2b_bytes();
-    public static final int BYTES_MIN = Sodium.crypto_generichash_blake2b_bytes_min();
-    public static final int BYTES_MAX = Sodium.crypto_generichash_blake2b_bytes_max();
-    public static final int KEYBYTES = Sodium.crypto_generichash_blake2b_keybytes();
-    public static final int KEYBYTES_MIN = Sodium.crypto_generichash_blake2b_keybytes_min();
-    public static final int KEYBYTES_MAX = Sodium.crypto_generichash_blake2b_keybytes_max();
-    public static final int SALTBYTES = Sodium.crypto_generichash_blake2b_saltbytes();
-    public static final int PERSONALBYTES = Sodium.crypto_generichash_blake2b_personalbytes();
+    public static final int BYTES = Stodium.CONSTANTS[Constants.CRYPTO_GENERICHASH_BLAKE2B_BYTES];
+    public static final int BYTES_MIN = Stodium.CONSTANTS[Constants.CRYPTO_GENERICHASH_BLAKE2B_BYTES_MIN];
+    public static final int BYTES_MAX = Stodium.CONSTANTS[Constants.CRYPTO_GENERICHASH_BLAKE2B_BYTES_MAX];
+    public static final int KEYBYTES = Stodium.CONSTANTS[Constants.CRYPTO_GENERICHASH_BLAKE2B_KEYBYTES];
+    public static final int KEYBYTES_MIN = Stodium.CONSTANTS[Constants.CRYPTO_GENERICHASH_BLAKE2B_KEYBYTES_MIN];
+    public static final int KEYBYTES_MAX = Stodium.CONSTANTS[Constants.CRYPTO_GENERICHASH_BLAKE2B_KEYBYTES_MAX];
+    public static final int SALTBYTES = Stodium.CONSTANTS[Constants.CRYPTO_GENERICHASH_BLAKE2B_SALTBYTES];
+    public static final int PERSONALBYTES = Stodium.CONSTANTS[Constants.CRYPTO_GENERICHASH_BLAKE2B_PERSONALBYTES];
 
-    public static final int STATE_BYTES = Sodium.crypto_generichash_blake2b_statebytes();
+    public static final int STATE_BYTES = Stodium.CONSTANTS[Constants.CRYPTO_GENERICHASH_BLAKE2B_STATEBYTES];
 
     // Implementation of the stream API
 
@@ -34,7 +36,14 @@ public class Blake2b {
      * state holds the binary representation of the
      * crypto_generichash_blake2b_state value.
      */
-    @NonNull private final byte[] state;
+    @Nullable private final byte[] state;
+
+    /**
+     * nativeState holds the crypto_generichash_blake2b_state value in native memory,
+     * for instances created by {@link #withNativeState(int)}. Exactly one of
+     * state and nativeState is non-null.
+     */
+    @Nullable private final NativeState nativeState;
 
     /**
      * outlen is the number of output bytes the state should produce. It is
@@ -56,9 +65,36 @@ public class Blake2b {
         Stodium.checkSize(outlen, BYTES_MIN, BYTES_MAX,
                 "Blake2b.BYTES_MIN", "Blake2b.BYTES_MAX");
         this.state = new byte[STATE_BYTES];
+        this.nativeState = null;
         this.outlen = outlen;
     }
 
+    private Blake2b(final int outlen,
+                    @NonNull final NativeState nativeState) {
+        this.state = null;
+        this.nativeState = nativeState;
+        this.outlen = outlen;
+    }
+
+    /**
+     * withNativeState creates a Blake2b instance that keeps its state in
+     * native memory, so that update calls only have to pass the input across
+     * JNI. The instance should be closed when it is no longer used. This
+     * method does NOT call {@code init()}.
+     *
+     * @param outlen
+     * @return A new Blake2b instance
+     * @throws ConstraintViolationException
+     * @throws StodiumException
+     */
+    @NonNull
+    public static Blake2b withNativeState(final int outlen)
+            throws StodiumException {
+        Stodium.checkSize(outlen, BYTES_MIN, BYTES_MAX,
+                "Blake2b.BYTES_MIN", "Blake2b.BYTES_MAX");
+        return new Blake2b(outlen, new NativeState(STATE_BYTES));
+    }
+
     /**
      * This constructor calls {@link #init(byte[])}.
      *
@@ -82,7 +118,10 @@ public class Blake2b {
      * @param original The original State that should be copied
      */
     public Blake2b(@NonNull final Blake2b original) {
-        this.state = Arrays.copyOf(original.state, original.state.length);
+        this.state = original.state == null ? null
+                : Arrays.copyOf(original.state, original.state.length);
+        this.nativeState = original.nativeState == null ? null
+                : new NativeState(original.nativeState);
         this.outlen = original.outlen;
     }
 
@@ -108,6 +147,13 @@ public class Blake2b {
                     "Blake2b.KEYBYTES_MIN", "Blake2b.KEYBYTES_MAX");
         }
 
+        if (nativeState != null) {
+            synchronized (nativeState) {
+                Stodium.checkStatus(Sodium.crypto_generichash_blake2b_init_handle(nativeState.handle(),
+                        key, key == null ? 0 : key.length, outlen));
+            }
+            return;
+        }
         Stodium.checkStatus(Sodium.crypto_generichash_blake2b_init(
                 state, key, key == null ? 0 : key.length, outlen));
     }
@@ -138,6 +184,14 @@ public class Blake2b {
                     "Blake2b.PERSONALBYTES");
         }
 
+        if (nativeState != null) {
+            synchronized (nativeState) {
+                Stodium.checkStatus(
+                        Sodium.crypto_generichash_blake2b_init_salt_personal_handle(
+                                nativeState.handle(), key, key.length, outlen, salt, personal));
+            }
+            return;
+        }
         Stodium.checkStatus(
                 Sodium.crypto_generichash_blake2b_init_salt_personal(
                         state, key, key.length, outlen, salt, personal));
@@ -167,8 +221,17 @@ public class Blake2b {
                        final int length)
             throws StodiumException {
         Stodium.checkOffsetParams(in.length, offset, length);
-        Stodium.checkStatus(Sodium.crypto_generichash_blake2b_update_offset(
-                state, in, offset, length));
+        if (nativeState != null) {
+            synchronized (nativeState) {
+                Stodium.checkStatus(Metrics.record("Blake2b#update", length, Metrics.start(),
+                        Sodium.crypto_generichash_blake2b_update_handle(
+                        nativeState.handle(), in, offset, length)));
+            }
+            return;
+        }
+        Stodium.checkStatus(Metrics.record("Blake2b#update", length, Metrics.start(),
+                Sodium.crypto_generichash_blake2b_update_offset(
+                state, in, offset, length)));
     }
 
     /**
@@ -210,10 +273,28 @@ public class Blake2b {
             throws StodiumException {
         Stodium.checkSize(length, 1, outlen, "1", "Blake2b.outlen");
         Stodium.checkOffsetParams(out.length, offset, outlen);
+        if (nativeState != null) {
+            synchronized (nativeState) {
+                Stodium.checkStatus(Sodium.crypto_generichash_blake2b_final_handle(
+                        nativeState.handle(), out, offset, length));
+            }
+            return;
+        }
         Stodium.checkStatus(Sodium.crypto_generichash_blake2b_final_offset(
                 state, out, offset, length));
     }
 
+    /**
+     * close wipes and releases the native state of instances created by
+     * {@link #withNativeState(int)}. It has no effect on other instances.
+     */
+    @Override
+    public void close() {
+        if (nativeState != null) {
+            nativeState.close();
+        }
+    }
+
     // wrappers
 
     //
@@ -4,6 +4,8 @@ import android.support.annotation.NonNull;
 
 import org.abstractj.kalium.Sodium;
 
+import java.nio.ByteBuffer;
+
 /**
  * ox is a static class that maps all calls to the corresponding native
  * implementations. All the methods are crypto_box_* functions.
@@ -20,16 +22,16 @@ public final class Box {
     private Box() {}
 
     // constants
-    public static final int PUBLICKEYBYTES = Sodium.crypto_box_publickeybytes();
-    public static final int SECRETKEYBYTES = Sodium.crypto_box_secretkeybytes();
-    public static final int MACBYTES = Sodium.crypto_box_macbytes();
-    public static final int NONCEBYTES = Sodium.crypto_box_noncebytes();
-    public static final int SEEDBYTES = Sodium.crypto_box_seedbytes();
-    public static final int BEFORENMBYTES = Sodium.crypto_box_beforenmbytes();
+    public static final int PUBLICKEYBYTES = Stodium.CONSTANTS[Constants.CRYPTO_BOX_PUBLICKEYBYTES];
+    public static final int SECRETKEYBYTES = Stodium.CONSTANTS[Constants.CRYPTO_BOX_SECRETKEYBYTES];
+    public static final int MACBYTES = Stodium.CONSTANTS[Constants.CRYPTO_BOX_MACBYTES];
+    public static final int NONCEBYTES = Stodium.CONSTANTS[Constants.CRYPTO_BOX_NONCEBYTES];
+    public static final int SEEDBYTES = Stodium.CONSTANTS[Constants.CRYPTO_BOX_SEEDBYTES];
+    public static final int BEFORENMBYTES = Stodium.CONSTANTS[Constants.CRYPTO_BOX_BEFORENMBYTES];
 
-    public static final int SEALBYTES = Sodium.crypto_box_sealbytes();
+    public static final int SEALBYTES = Stodium.CONSTANTS[Constants.CRYPTO_BOX_SEALBYTES];
 
-    public static final String PRIMITIVE = Sodium.crypto_box_primitive();
+    public static final String PRIMITIVE = Stodium.PRIMITIVES[Constants.CRYPTO_BOX_PRIMITIVE];
 
     // wrappers
 
@@ -110,8 +112,44 @@ public final class Box {
         Stodium.checkSize(nonce.length, NONCEBYTES, "Box.NONCEBYTES");
         Stodium.checkSize(remotePubKey.length, PUBLICKEYBYTES, "Box.PUBLICKEYBYTES");
         Stodium.checkSize(localPrivKey.length, SECRETKEYBYTES, "Box.SECRETKEYBYTES");
-        Stodium.checkStatus(Sodium.crypto_box_easy(dstCipher, srcPlain,
-                srcPlain.length, nonce, remotePubKey, localPrivKey));
+        Stodium.checkStatus(Metrics.record("Box#easy", srcPlain.length, Metrics.start(),
+                Sodium.crypto_box_easy(dstCipher, srcPlain,
+                srcPlain.length, nonce, remotePubKey, localPrivKey)));
+    }
+
+    /**
+     * easy encrypts {@code srcLen} bytes of srcPlain, starting at srcOffset,
+     * and writes {@code srcLen + MACBYTES} bytes to dstCipher, starting at
+     * dstOffset.
+     *
+     * @param dstCipher
+     * @param dstOffset
+     * @param srcPlain
+     * @param srcOffset
+     * @param srcLen
+     * @param nonce
+     * @param remotePubKey
+     * @param localPrivKey
+     * @throws ConstraintViolationException
+     * @throws StodiumException
+     */
+    public static void easy(@NonNull final byte[] dstCipher,
+                            final int dstOffset,
+                            @NonNull final byte[] srcPlain,
+                            final int srcOffset,
+                            final int srcLen,
+                            @NonNull final byte[] nonce,
+                            @NonNull final byte[] remotePubKey,
+                            @NonNull final byte[] localPrivKey)
+            throws StodiumException {
+        Stodium.checkOffsetParams(srcPlain.length, srcOffset, srcLen);
+        Stodium.checkOffsetParams(dstCipher.length, dstOffset, srcLen + MACBYTES);
+        Stodium.checkSize(nonce.length, NONCEBYTES, "Box.NONCEBYTES");
+        Stodium.checkSize(remotePubKey.length, PUBLICKEYBYTES, "Box.PUBLICKEYBYTES");
+        Stodium.checkSize(localPrivKey.length, SECRETKEYBYTES, "Box.SECRETKEYBYTES");
+        Stodium.checkStatus(Metrics.record("Box#easy", srcLen, Metrics.start(),
+                Sodium.crypto_box_easy_offset(dstCipher, dstOffset,
+                srcPlain, srcOffset, srcLen, nonce, remotePubKey, localPrivKey)));
     }
 
     /**
@@ -134,8 +172,74 @@ public final class Box {
         Stodium.checkSize(nonce.length, NONCEBYTES, "Box.NONCEBYTES");
         Stodium.checkSize(remotePubKey.length, PUBLICKEYBYTES, "Box.PUBLICKEYBYTES");
         Stodium.checkSize(localPrivKey.length, SECRETKEYBYTES, "Box.SECRETKEYBYTES");
-        Stodium.checkStatus(Sodium.crypto_box_open_easy(dstPlain, srcCipher,
-                srcCipher.length, nonce, remotePubKey, localPrivKey));
+        Stodium.checkStatus(Metrics.record("Box#openEasy", srcCipher.length, Metrics.start(),
+                Sodium.crypto_box_open_easy(dstPlain, srcCipher,
+                srcCipher.length, nonce, remotePubKey, localPrivKey)));
+    }
+
+    /**
+     * tryOpenEasy is the exception-free variant of
+     * {@link #openEasy(byte[], byte[], byte[], byte[], byte[])}. An invalid
+     * authentication tag is reported by returning false, without allocating
+     * an exception. Invalid parameters are still reported by exceptions.
+     *
+     * @param dstPlain
+     * @param srcCipher
+     * @param nonce
+     * @param remotePubKey
+     * @param localPrivKey
+     * @return true iff srcCipher was authenticated and decrypted into dstPlain
+     * @throws ConstraintViolationException
+     */
+    public static boolean tryOpenEasy(@NonNull final byte[] dstPlain,
+                                      @NonNull final byte[] srcCipher,
+                                      @NonNull final byte[] nonce,
+                                      @NonNull final byte[] remotePubKey,
+                                      @NonNull final byte[] localPrivKey)
+            throws ConstraintViolationException {
+        Stodium.checkSize(srcCipher.length, dstPlain.length + MACBYTES, "Box.MACBYTES + dstPlain.length");
+        Stodium.checkSize(nonce.length, NONCEBYTES, "Box.NONCEBYTES");
+        Stodium.checkSize(remotePubKey.length, PUBLICKEYBYTES, "Box.PUBLICKEYBYTES");
+        Stodium.checkSize(localPrivKey.length, SECRETKEYBYTES, "Box.SECRETKEYBYTES");
+        return Metrics.record("Box#openEasy", srcCipher.length, Metrics.start(),
+                Sodium.crypto_box_open_easy(dstPlain, srcCipher,
+                srcCipher.length, nonce, remotePubKey, localPrivKey)) == 0;
+    }
+
+    /**
+     * openEasy verifies and decrypts {@code srcLen} bytes of srcCipher,
+     * starting at srcOffset, and writes {@code srcLen - MACBYTES} bytes to
+     * dstPlain, starting at dstOffset.
+     *
+     * @param dstPlain
+     * @param dstOffset
+     * @param srcCipher
+     * @param srcOffset
+     * @param srcLen
+     * @param nonce
+     * @param remotePubKey
+     * @param localPrivKey
+     * @throws ConstraintViolationException
+     * @throws StodiumException
+     */
+    public static void openEasy(@NonNull final byte[] dstPlain,
+                                final int dstOffset,
+                                @NonNull final byte[] srcCipher,
+                                final int srcOffset,
+                                final int srcLen,
+                                @NonNull final byte[] nonce,
+                                @NonNull final byte[] remotePubKey,
+                                @NonNull final byte[] localPrivKey)
+            throws StodiumException {
+        Stodium.checkSize(srcLen, MACBYTES, Integer.MAX_VALUE, "Box.MACBYTES", "Integer.MAX_VALUE");
+        Stodium.checkOffsetParams(srcCipher.length, srcOffset, srcLen);
+        Stodium.checkOffsetParams(dstPlain.length, dstOffset, srcLen - MACBYTES);
+        Stodium.checkSize(nonce.length, NONCEBYTES, "Box.NONCEBYTES");
+        Stodium.checkSize(remotePubKey.length, PUBLICKEYBYTES, "Box.PUBLICKEYBYTES");
+        Stodium.checkSize(localPrivKey.length, SECRETKEYBYTES, "Box.SECRETKEYBYTES");
+        Stodium.checkStatus(Metrics.record("Box#openEasy", srcLen, Metrics.start(),
+                Sodium.crypto_box_open_easy_offset(dstPlain, dstOffset,
+                srcCipher, srcOffset, srcLen, nonce, remotePubKey, localPrivKey)));
     }
 
     //
@@ -165,8 +269,9 @@ public final class Box {
         Stodium.checkSize(nonce.length, NONCEBYTES, "Box.NONCEBYTES");
         Stodium.checkSize(remotePubKey.length, PUBLICKEYBYTES, "Box.PUBLICKEYBYTES");
         Stodium.checkSize(localPrivKey.length, SECRETKEYBYTES, "Box.SECRETKEYBYTES");
-        Stodium.checkStatus(Sodium.crypto_box_detached(dstCipher, dstMac,
-                srcPlain, srcPlain.length, nonce, remotePubKey, localPrivKey));
+        Stodium.checkStatus(Metrics.record("Box#detached", srcPlain.length, Metrics.start(),
+                Sodium.crypto_box_detached(dstCipher, dstMac,
+                srcPlain, srcPlain.length, nonce, remotePubKey, localPrivKey)));
     }
 
     /**
@@ -192,8 +297,9 @@ public final class Box {
         Stodium.checkSize(nonce.length, NONCEBYTES, "Box.NONCEBYTES");
         Stodium.checkSize(remotePubKey.length, PUBLICKEYBYTES, "Box.PUBLICKEYBYTES");
         Stodium.checkSize(localPrivKey.length, SECRETKEYBYTES, "Box.SECRETKEYBYTES");
-        Stodium.checkStatus(Sodium.crypto_box_detached(srcCipher, srcMac,
-                dstPlain, srcCipher.length, nonce, remotePubKey, localPrivKey));
+        Stodium.checkStatus(Metrics.record("Box#openDetached", srcCipher.length, Metrics.start(),
+                Sodium.crypto_box_detached(srcCipher, srcMac,
+                dstPlain, srcCipher.length, nonce, remotePubKey, localPrivKey)));
     }
 
     //
@@ -215,8 +321,9 @@ public final class Box {
         Stodium.checkSize(dstSharedKey.length, BEFORENMBYTES, "Box.BEFORENMBYTES");
         Stodium.checkSize(remotePubKey.length, PUBLICKEYBYTES, "Box.PUBLICKEYBYTES");
         Stodium.checkSize(localPrivKey.length, SECRETKEYBYTES, "Box.SECRETKEYBYTES");
-        Stodium.checkStatus(Sodium.crypto_box_beforenm(dstSharedKey,
-                remotePubKey, localPrivKey));
+        Stodium.checkStatus(Metrics.record("Box#beforenm", 0, Metrics.start(),
+                Backends.BACKEND.crypto_box_beforenm(dstSharedKey,
+                remotePubKey, localPrivKey)));
     }
 
     //
@@ -240,8 +347,9 @@ public final class Box {
         Stodium.checkSize(dstCipher.length, srcPlain.length + MACBYTES, "Box.MACBYTES + srcPlain.length");
         Stodium.checkSize(nonce.length, NONCEBYTES, "Box.NONCEBYTES");
         Stodium.checkSize(sharedKey.length, BEFORENMBYTES, "Box.BEFORENMBYTES");
-        Stodium.checkStatus(Sodium.crypto_box_easy_afternm(dstCipher, srcPlain,
-                srcPlain.length, nonce, sharedKey));
+        Stodium.checkStatus(Metrics.record("Box#easyAfternm", srcPlain.length, Metrics.start(),
+                Backends.BACKEND.crypto_box_easy_afternm(dstCipher, srcPlain,
+                srcPlain.length, nonce, sharedKey)));
     }
 
     /**
@@ -261,8 +369,172 @@ public final class Box {
         Stodium.checkSize(srcCipher.length, dstPlain.length + MACBYTES, "Box.MACBYTES + dstPlain.length");
         Stodium.checkSize(nonce.length, NONCEBYTES, "Box.NONCEBYTES");
         Stodium.checkSize(sharedKey.length, BEFORENMBYTES, "Box.BEFORENMBYTES");
-        Stodium.checkStatus(Sodium.crypto_box_open_easy_afternm(dstPlain,
-                srcCipher, srcCipher.length, nonce, sharedKey));
+        Stodium.checkStatus(Metrics.record("Box#easyOpenAfternm", srcCipher.length, Metrics.start(),
+                Backends.BACKEND.crypto_box_open_easy_afternm(dstPlain,
+                srcCipher, srcCipher.length, nonce, sharedKey)));
+    }
+
+    /**
+     * tryEasyOpenAfternm is the exception-free variant of
+     * {@link #easyOpenAfternm(byte[], byte[], byte[], byte[])}. An invalid
+     * authentication tag is reported by returning false, without allocating
+     * an exception. Invalid parameters are still reported by exceptions.
+     *
+     * @param dstPlain
+     * @param srcCipher
+     * @param nonce
+     * @param sharedKey
+     * @return true iff srcCipher was authenticated and decrypted into dstPlain
+     * @throws ConstraintViolationException
+     */
+    public static boolean tryEasyOpenAfternm(@NonNull final byte[] dstPlain,
+                                             @NonNull final byte[] srcCipher,
+                                             @NonNull final byte[] nonce,
+                                             @NonNull final byte[] sharedKey)
+            throws ConstraintViolationException {
+        Stodium.checkSize(srcCipher.length, dstPlain.length + MACBYTES, "Box.MACBYTES + dstPlain.length");
+        Stodium.checkSize(nonce.length, NONCEBYTES, "Box.NONCEBYTES");
+        Stodium.checkSize(sharedKey.length, BEFORENMBYTES, "Box.BEFORENMBYTES");
+        return Metrics.record("Box#easyOpenAfternm", srcCipher.length, Metrics.start(),
+                Backends.BACKEND.crypto_box_open_easy_afternm(dstPlain,
+                srcCipher, srcCipher.length, nonce, sharedKey)) == 0;
+    }
+
+    /**
+     * easyAfternm encrypts the remaining bytes of srcPlain into dstCipher,
+     * which must have at least {@code srcPlain.remaining() + MACBYTES} bytes
+     * remaining.
+     *
+     * Direct buffers are passed to the native code by address, heap buffers
+     * by their backing arrays. Upon return, the position of srcPlain equals
+     * its limit, and the position of dstCipher is advanced by the number of
+     * bytes written.
+     *
+     * @param dstCipher
+     * @param srcPlain
+     * @param nonce
+     * @param sharedKey
+     * @throws ConstraintViolationException
+     * @throws StodiumException
+     */
+    public static void easyAfternm(@NonNull final ByteBuffer dstCipher,
+                                   @NonNull final ByteBuffer srcPlain,
+                                   @NonNull final byte[] nonce,
+                                   @NonNull final byte[] sharedKey)
+            throws StodiumException {
+        final int plainLen = srcPlain.remaining();
+        Stodium.checkSize(plainLen, 0, Integer.MAX_VALUE - MACBYTES,
+                "0", "Integer.MAX_VALUE - Box.MACBYTES");
+        final int cipherLen = plainLen + MACBYTES;
+        Stodium.checkBuffer(dstCipher, cipherLen, "Box.MACBYTES + srcPlain.remaining()");
+        Stodium.checkSize(nonce.length, NONCEBYTES, "Box.NONCEBYTES");
+        Stodium.checkSize(sharedKey.length, BEFORENMBYTES, "Box.BEFORENMBYTES");
+
+        if (dstCipher.isDirect() && srcPlain.isDirect()) {
+            Stodium.checkStatus(Metrics.record("Box#easyAfternm", plainLen, Metrics.start(),
+                    Sodium.crypto_box_easy_afternm_buffer(
+                    dstCipher, dstCipher.position(), srcPlain, srcPlain.position(),
+                    plainLen, nonce, sharedKey)));
+        } else if (dstCipher.hasArray() && srcPlain.hasArray()) {
+            Stodium.checkStatus(Metrics.record("Box#easyAfternm", plainLen, Metrics.start(),
+                    Sodium.crypto_box_easy_afternm_offset(
+                    dstCipher.array(), Stodium.arrayPosition(dstCipher),
+                    srcPlain.array(), Stodium.arrayPosition(srcPlain),
+                    plainLen, nonce, sharedKey)));
+        } else {
+            final byte[] cipher = new byte[cipherLen];
+            easyAfternm(cipher, Stodium.remainingBytes(srcPlain), nonce, sharedKey);
+            dstCipher.duplicate().put(cipher);
+        }
+
+        srcPlain.position(srcPlain.limit());
+        dstCipher.position(dstCipher.position() + cipherLen);
+    }
+
+    /**
+     * easyOpenAfternm verifies and decrypts the remaining bytes of srcCipher
+     * into dstPlain, which must have at least
+     * {@code srcCipher.remaining() - MACBYTES} bytes remaining.
+     *
+     * Direct buffers are passed to the native code by address, heap buffers
+     * by their backing arrays. Upon return, the position of srcCipher equals
+     * its limit, and the position of dstPlain is advanced by the number of
+     * bytes written.
+     *
+     * @param dstPlain
+     * @param srcCipher
+     * @param nonce
+     * @param sharedKey
+     * @throws ConstraintViolationException
+     * @throws StodiumException
+     */
+    public static void easyOpenAfternm(@NonNull final ByteBuffer dstPlain,
+                                       @NonNull final ByteBuffer srcCipher,
+                                       @NonNull final byte[] nonce,
+                                       @NonNull final byte[] sharedKey)
+            throws StodiumException {
+        final int cipherLen = srcCipher.remaining();
+        final int plainLen = cipherLen - MACBYTES;
+        Stodium.checkSize(cipherLen, MACBYTES, Integer.MAX_VALUE, "Box.MACBYTES", "Integer.MAX_VALUE");
+        Stodium.checkBuffer(dstPlain, plainLen, "srcCipher.remaining() - Box.MACBYTES");
+        Stodium.checkSize(nonce.length, NONCEBYTES, "Box.NONCEBYTES");
+        Stodium.checkSize(sharedKey.length, BEFORENMBYTES, "Box.BEFORENMBYTES");
+
+        if (dstPlain.isDirect() && srcCipher.isDirect()) {
+            Stodium.checkStatus(Metrics.record("Box#easyOpenAfternm", cipherLen, Metrics.start(),
+                    Sodium.crypto_box_open_easy_afternm_buffer(
+                    dstPlain, dstPlain.position(), srcCipher, srcCipher.position(),
+                    cipherLen, nonce, sharedKey)));
+        } else if (dstPlain.hasArray() && srcCipher.hasArray()) {
+            Stodium.checkStatus(Metrics.record("Box#easyOpenAfternm", cipherLen, Metrics.start(),
+                    Sodium.crypto_box_open_easy_afternm_offset(
+                    dstPlain.array(), Stodium.arrayPosition(dstPlain),
+                    srcCipher.array(), Stodium.arrayPosition(srcCipher),
+                    cipherLen, nonce, sharedKey)));
+        } else {
+            final byte[] plain = new byte[plainLen];
+            easyOpenAfternm(plain, Stodium.remainingBytes(srcCipher), nonce, sharedKey);
+            dstPlain.duplicate().put(plain);
+        }
+
+        srcCipher.position(srcCipher.limit());
+        dstPlain.position(dstPlain.position() + plainLen);
+    }
+
+    /**
+     * easyAfternmBatch encrypts a batch of messages, packed into srcPlain, in
+     * a single native call. Message i consists of the bytes
+     * {@code [offsets[i], offsets[i + 1])} of srcPlain, is encrypted using the
+     * nonce at {@code i * NONCEBYTES} in nonces, and its ciphertext is written
+     * to dstCipher starting at {@code offsets[i] + i * MACBYTES}.
+     *
+     * @param dstCipher
+     * @param srcPlain
+     * @param offsets
+     * @param nonces
+     * @param sharedKey
+     * @throws ConstraintViolationException
+     * @throws StodiumException
+     */
+    public static void easyAfternmBatch(@NonNull final byte[] dstCipher,
+                                        @NonNull final byte[] srcPlain,
+                                        @NonNull final int[] offsets,
+                                        @NonNull final byte[] nonces,
+                                        @NonNull final byte[] sharedKey)
+            throws StodiumException {
+        // validate and pass a private copy, so that the offsets cannot be
+        // changed by another thread between the checks and the native loop
+        final int[] batch = offsets.clone();
+        final int count = Stodium.checkBatchOffsets(srcPlain.length, batch);
+        Stodium.checkBatchLength(dstCipher.length, batch[count] + (long) count * MACBYTES,
+                "offsets[count] + count * Box.MACBYTES");
+        Stodium.checkSize(count, 0, Integer.MAX_VALUE / NONCEBYTES,
+                "0", "Integer.MAX_VALUE / Box.NONCEBYTES");
+        Stodium.checkSize(nonces.length, count * NONCEBYTES, "count * Box.NONCEBYTES");
+        Stodium.checkSize(sharedKey.length, BEFORENMBYTES, "Box.BEFORENMBYTES");
+        Stodium.checkStatus(Metrics.record("Box#easyAfternmBatch", srcPlain.length, Metrics.start(),
+                Sodium.crypto_box_easy_afternm_batch(dstCipher,
+                srcPlain, batch, count, nonces, sharedKey)));
     }
 
     //
@@ -289,8 +561,9 @@ public final class Box {
         Stodium.checkSize(dstMac.length, MACBYTES, "Box.MACBYTES");
         Stodium.checkSize(nonce.length, NONCEBYTES, "Box.NONCEBYTES");
         Stodium.checkSize(sharedKey.length, BEFORENMBYTES, "Box.BEFORENMBYTES");
-        Stodium.checkStatus(Sodium.crypto_box_open_detached_afternm(dstCipher,
-                dstMac, srcPlain, srcPlain.length, nonce, sharedKey));
+        Stodium.checkStatus(Metrics.record("Box#detachedAfternm", srcPlain.length, Metrics.start(),
+                Sodium.crypto_box_open_detached_afternm(dstCipher,
+                dstMac, srcPlain, srcPlain.length, nonce, sharedKey)));
     }
 
     /**
@@ -313,8 +586,9 @@ public final class Box {
         Stodium.checkSize(srcMac.length, MACBYTES, "Box.MACBYTES");
         Stodium.checkSize(nonce.length, NONCEBYTES, "Box.NONCEBYTES");
         Stodium.checkSize(sharedKey.length, BEFORENMBYTES, "Box.BEFORENMBYTES");
-        Stodium.checkStatus(Sodium.crypto_box_open_detached_afternm(dstPlain,
-                srcCipher, srcMac, srcCipher.length, nonce, sharedKey));
+        Stodium.checkStatus(Metrics.record("Box#openDetachedAfternm", srcCipher.length, Metrics.start(),
+                Sodium.crypto_box_open_detached_afternm(dstPlain,
+                srcCipher, srcMac, srcCipher.length, nonce, sharedKey)));
     }
 
     //
@@ -337,8 +611,40 @@ public final class Box {
             throws StodiumException {
         Stodium.checkSize(dstCipher.length, srcPlain.length + SEALBYTES, "srcPlain.length + Box.SEALBYTES");
         Stodium.checkSize(remotePubKey.length, PUBLICKEYBYTES, "Box.PUBLICKEYBYTES");
-        Stodium.checkStatus(Sodium.crypto_box_seal(dstCipher, srcPlain,
-                srcPlain.length, remotePubKey));
+        Stodium.checkStatus(Metrics.record("Box#seal", srcPlain.length, Metrics.start(),
+                Sodium.crypto_box_seal(dstCipher, srcPlain,
+                srcPlain.length, remotePubKey)));
+    }
+
+    /**
+     * seal encrypts {@code srcLen} bytes of srcPlain, starting at srcOffset,
+     * and writes {@code srcLen + SEALBYTES} bytes to dstCipher, starting at
+     * dstOffset.
+     *
+     * @param dstCipher
+     * @param dstOffset
+     * @param srcPlain
+     * @param srcOffset
+     * @param srcLen
+     * @param remotePubKey
+     * @throws ConstraintViolationException
+     * @throws StodiumException
+     *
+     * @see <a href="https://download.libsodium.org/doc/public-key_cryptography/sealed_boxes.html#usage">libsodium docs</a>
+     */
+    public static void seal(@NonNull final byte[] dstCipher,
+                            final int dstOffset,
+                            @NonNull final byte[] srcPlain,
+                            final int srcOffset,
+                            final int srcLen,
+                            @NonNull final byte[] remotePubKey)
+            throws StodiumException {
+        Stodium.checkOffsetParams(srcPlain.length, srcOffset, srcLen);
+        Stodium.checkOffsetParams(dstCipher.length, dstOffset, srcLen + SEALBYTES);
+        Stodium.checkSize(remotePubKey.length, PUBLICKEYBYTES, "Box.PUBLICKEYBYTES");
+        Stodium.checkStatus(Metrics.record("Box#seal", srcLen, Metrics.start(),
+                Sodium.crypto_box_seal_offset(dstCipher, dstOffset,
+                srcPlain, srcOffset, srcLen, remotePubKey)));
     }
 
     /**
@@ -360,7 +666,71 @@ public final class Box {
         Stodium.checkSize(srcCipher.length, dstPlain.length + SEALBYTES, "dstPlain.length + Box.SEALBYTES");
         Stodium.checkSize(localPubKey.length, PUBLICKEYBYTES, "Box.PUBLICKEYBYTES");
         Stodium.checkSize(localPrivKey.length, SECRETKEYBYTES, "Box.SECRETKEYBYTES");
-        Stodium.checkStatus(Sodium.crypto_box_seal_open(dstPlain, srcCipher,
-                srcCipher.length, localPubKey, localPrivKey));
+        Stodium.checkStatus(Metrics.record("Box#sealOpen", srcCipher.length, Metrics.start(),
+                Sodium.crypto_box_seal_open(dstPlain, srcCipher,
+                srcCipher.length, localPubKey, localPrivKey)));
+    }
+
+    /**
+     * trySealOpen is the exception-free variant of
+     * {@link #sealOpen(byte[], byte[], byte[], byte[])}. An invalid
+     * authentication tag is reported by returning false, without allocating
+     * an exception. Invalid parameters are still reported by exceptions.
+     *
+     * @param dstPlain
+     * @param srcCipher
+     * @param localPubKey
+     * @param localPrivKey
+     * @return true iff srcCipher was authenticated and decrypted into dstPlain
+     * @throws ConstraintViolationException
+     *
+     * @see <a href="https://download.libsodium.org/doc/public-key_cryptography/sealed_boxes.html#usage">libsodium docs</a>
+     */
+    public static boolean trySealOpen(@NonNull final byte[] dstPlain,
+                                      @NonNull final byte[] srcCipher,
+                                      @NonNull final byte[] localPubKey,
+                                      @NonNull final byte[] localPrivKey)
+            throws ConstraintViolationException {
+        Stodium.checkSize(srcCipher.length, dstPlain.length + SEALBYTES, "dstPlain.length + Box.SEALBYTES");
+        Stodium.checkSize(localPubKey.length, PUBLICKEYBYTES, "Box.PUBLICKEYBYTES");
+        Stodium.checkSize(localPrivKey.length, SECRETKEYBYTES, "Box.SECRETKEYBYTES");
+        return Metrics.record("Box#sealOpen", srcCipher.length, Metrics.start(),
+                Sodium.crypto_box_seal_open(dstPlain, srcCipher,
+                srcCipher.length, localPubKey, localPrivKey)) == 0;
+    }
+
+    /**
+     * sealOpen verifies and decrypts {@code srcLen} bytes of srcCipher,
+     * starting at srcOffset, and writes {@code srcLen - SEALBYTES} bytes to
+     * dstPlain, starting at dstOffset.
+     *
+     * @param dstPlain
+     * @param dstOffset
+     * @param srcCipher
+     * @param srcOffset
+     * @param srcLen
+     * @param localPubKey
+     * @param localPrivKey
+     * @throws ConstraintViolationException
+     * @throws StodiumException
+     *
+     * @see <a href="https://download.libsodium.org/doc/public-key_cryptography/sealed_boxes.html#usage">libsodium docs</a>
+     */
+    public static void sealOpen(@NonNull final byte[] dstPlain,
+                                final int dstOffset,
+                                @NonNull final byte[] srcCipher,
+                                final int srcOffset,
+                                final int srcLen,
+                                @NonNull final byte[] localPubKey,
+                                @NonNull final byte[] localPrivKey)
+            throws StodiumException {
+        Stodium.checkSize(srcLen, SEALBYTES, Integer.MAX_VALUE, "Box.SEALBYTES", "Integer.MAX_VALUE");
+        Stodium.checkOffsetParams(srcCipher.length, srcOffset, srcLen);
+        Stodium.checkOffsetParams(dstPlain.length, dstOffset, srcLen - SEALBYTES);
+        Stodium.checkSize(localPubKey.length, PUBLICKEYBYTES, "Box.PUBLICKEYBYTES");
+        Stodium.checkSize(localPrivKey.length, SECRETKEYBYTES, "Box.SECRETKEYBYTES");
+        Stodium.checkStatus(Metrics.record("Box#sealOpen", srcLen, Metrics.start(),
+                Sodium.crypto_box_seal_open_offset(dstPlain, dstOffset,
+                srcCipher, srcOffset, srcLen, localPubKey, localPrivKey)));
     }
 }
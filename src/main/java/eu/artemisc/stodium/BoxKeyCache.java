@@ -0,0 +1,330 @@
+package eu.artemisc.stodium;
+
+import android.support.annotation.NonNull;
+
+import java.util.Arrays;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * BoxKeyCache performs Box encryption and decryption with shared keys that
+ * are computed once per (remote public key, local private key) pair by
+ * {@link Box#beforenm(byte[], byte[], byte[])}, instead of on every message
+ * as {@link Box#easy(byte[], byte[], byte[], byte[], byte[])} does. The
+ * results are identical to those of the Box methods.
+ *
+ * The cache holds at most capacity shared keys. It is split into
+ * independently locked shards, each evicting its least recently used key
+ * when full. Evicted keys, and the copies of the key pairs used to look them
+ * up, are wiped. Shared keys are computed outside the locks, so concurrent
+ * misses for the same pair may compute the key more than once.
+ *
+ * Remote public keys are chosen by peers, so the shard and bucket of a pair
+ * are derived from a ShortHash (SipHash) of the public key under a random
+ * key of the cache: without that key, a peer cannot craft public keys that
+ * all land in the same shard to evict the keys of other peers.
+ *
+ * @author Jan van de Molengraft [jan@artemisc.eu]
+ */
+public final class BoxKeyCache {
+    static {
+        // Require sodium_init();
+        Stodium.StodiumInit();
+    }
+
+    /**
+     * MAX_SHARDS is the maximum number of independently locked shards.
+     */
+    private static final int MAX_SHARDS = 16;
+
+    /**
+     * SCRATCH holds each thread's copy of the shared key it is using, so that
+     * a key that is evicted (and wiped) by another thread in the meantime
+     * cannot affect an operation in progress.
+     */
+    private static final ThreadLocal<byte[]> SCRATCH = new ThreadLocal<byte[]>() {
+        @Override
+        protected byte[] initialValue() {
+            return new byte[Box.BEFORENMBYTES];
+        }
+    };
+
+    @NonNull private final Shard[] shards;
+
+    /**
+     * hashKey is the random ShortHash key from which the hashes of pairs
+     * are derived.
+     */
+    @NonNull private final byte[] hashKey;
+
+    /**
+     * BoxKeyCache creates an empty cache that holds at most capacity shared
+     * keys.
+     *
+     * @param capacity
+     * @throws ConstraintViolationException if capacity is not positive
+     */
+    public BoxKeyCache(final int capacity)
+            throws ConstraintViolationException {
+        Stodium.checkSize(capacity, 1, Integer.MAX_VALUE, "1", "Integer.MAX_VALUE");
+        int count = 1;
+        while (count < MAX_SHARDS && count * 2 <= capacity) {
+            count *= 2;
+        }
+        shards = new Shard[count];
+        for (int i = 0; i < count; i++) {
+            shards[i] = new Shard(capacity / count + (i < capacity % count ? 1 : 0));
+        }
+        hashKey = new byte[ShortHash.KEYBYTES];
+        RandomBytes.nextBytes(hashKey);
+    }
+
+    /**
+     * easy is equivalent to
+     * {@link Box#easy(byte[], byte[], byte[], byte[], byte[])}, using the
+     * cached shared key of remotePubKey and localPrivKey.
+     *
+     * @param dstCipher
+     * @param srcPlain
+     * @param nonce
+     * @param remotePubKey
+     * @param localPrivKey
+     * @throws ConstraintViolationException
+     * @throws StodiumException
+     */
+    public void easy(@NonNull final byte[] dstCipher,
+                     @NonNull final byte[] srcPlain,
+                     @NonNull final byte[] nonce,
+                     @NonNull final byte[] remotePubKey,
+                     @NonNull final byte[] localPrivKey)
+            throws StodiumException {
+        final byte[] sharedKey = sharedKey(remotePubKey, localPrivKey);
+        try {
+            Box.easyAfternm(dstCipher, srcPlain, nonce, sharedKey);
+        } finally {
+            Stodium.wipeBytes(sharedKey);
+        }
+    }
+
+    /**
+     * openEasy is equivalent to
+     * {@link Box#openEasy(byte[], byte[], byte[], byte[], byte[])}, using the
+     * cached shared key of remotePubKey and localPrivKey.
+     *
+     * @param dstPlain
+     * @param srcCipher
+     * @param nonce
+     * @param remotePubKey
+     * @param localPrivKey
+     * @throws ConstraintViolationException
+     * @throws StodiumException
+     */
+    public void openEasy(@NonNull final byte[] dstPlain,
+                         @NonNull final byte[] srcCipher,
+                         @NonNull final byte[] nonce,
+                         @NonNull final byte[] remotePubKey,
+                         @NonNull final byte[] localPrivKey)
+            throws StodiumException {
+        final byte[] sharedKey = sharedKey(remotePubKey, localPrivKey);
+        try {
+            Box.easyOpenAfternm(dstPlain, srcCipher, nonce, sharedKey);
+        } finally {
+            Stodium.wipeBytes(sharedKey);
+        }
+    }
+
+    /**
+     * tryOpenEasy is the exception-free variant of
+     * {@link #openEasy(byte[], byte[], byte[], byte[], byte[])}. An invalid
+     * authentication tag is reported by returning false, without allocating
+     * an exception. Invalid parameters are still reported by exceptions.
+     *
+     * @param dstPlain
+     * @param srcCipher
+     * @param nonce
+     * @param remotePubKey
+     * @param localPrivKey
+     * @return true iff srcCipher was authenticated and decrypted into dstPlain
+     * @throws ConstraintViolationException
+     * @throws StodiumException if the shared key cannot be computed
+     */
+    public boolean tryOpenEasy(@NonNull final byte[] dstPlain,
+                               @NonNull final byte[] srcCipher,
+                               @NonNull final byte[] nonce,
+                               @NonNull final byte[] remotePubKey,
+                               @NonNull final byte[] localPrivKey)
+            throws StodiumException {
+        final byte[] sharedKey = sharedKey(remotePubKey, localPrivKey);
+        try {
+            return Box.tryEasyOpenAfternm(dstPlain, srcCipher, nonce, sharedKey);
+        } finally {
+            Stodium.wipeBytes(sharedKey);
+        }
+    }
+
+    /**
+     * @return The number of shared keys currently held by the cache
+     */
+    public int size() {
+        int size = 0;
+        for (final Shard shard : shards) {
+            synchronized (shard) {
+                size += shard.size();
+            }
+        }
+        return size;
+    }
+
+    /**
+     * clear wipes and removes all shared keys from the cache.
+     */
+    public void clear() {
+        for (final Shard shard : shards) {
+            synchronized (shard) {
+                final Iterator<Map.Entry<Pair, byte[]>> it = shard.entrySet().iterator();
+                while (it.hasNext()) {
+                    final Map.Entry<Pair, byte[]> entry = it.next();
+                    it.remove();
+                    entry.getKey().wipe();
+                    Stodium.wipeBytes(entry.getValue());
+                }
+            }
+        }
+    }
+
+    /**
+     * sharedKey copies the shared key of remotePubKey and localPrivKey into
+     * the calling thread's scratch array, computing and caching it first if
+     * it is not cached yet. The caller wipes the scratch array after use.
+     *
+     * @param remotePubKey
+     * @param localPrivKey
+     * @return the scratch array
+     * @throws ConstraintViolationException
+     * @throws StodiumException
+     */
+    @NonNull
+    private byte[] sharedKey(@NonNull final byte[] remotePubKey,
+                             @NonNull final byte[] localPrivKey)
+            throws StodiumException {
+        Stodium.checkSize(remotePubKey.length, Box.PUBLICKEYBYTES, "Box.PUBLICKEYBYTES");
+        Stodium.checkSize(localPrivKey.length, Box.SECRETKEYBYTES, "Box.SECRETKEYBYTES");
+
+        final byte[] scratch = SCRATCH.get();
+        final Pair lookup = new Pair(remotePubKey, localPrivKey, hash(remotePubKey, localPrivKey));
+        // the top bits select the shard, the low bits the bucket within it
+        final Shard shard = shards[(lookup.hash >>> 24) & (shards.length - 1)];
+        synchronized (shard) {
+            final byte[] cached = shard.get(lookup);
+            if (cached != null) {
+                System.arraycopy(cached, 0, scratch, 0, scratch.length);
+                return scratch;
+            }
+        }
+
+        final byte[] computed = new byte[Box.BEFORENMBYTES];
+        Box.beforenm(computed, remotePubKey, localPrivKey);
+        System.arraycopy(computed, 0, scratch, 0, scratch.length);
+        synchronized (shard) {
+            if (shard.containsKey(lookup)) {
+                Stodium.wipeBytes(computed);
+            } else {
+                shard.put(lookup.copy(), computed);
+                shard.trim();
+            }
+        }
+        return scratch;
+    }
+
+    /**
+     * hash derives the hash of a pair from the keyed ShortHash of the
+     * remote public key. The local private key is not chosen by peers, so
+     * its plain hash is only mixed in.
+     *
+     * @param remotePubKey
+     * @param localPrivKey
+     * @return the hash of the pair
+     */
+    private int hash(@NonNull final byte[] remotePubKey,
+                     @NonNull final byte[] localPrivKey) {
+        final long keyed = Backends.BACKEND.crypto_shorthash_long(
+                remotePubKey, remotePubKey.length, hashKey);
+        return (int) (keyed ^ (keyed >>> 32)) * 31 + Arrays.hashCode(localPrivKey);
+    }
+
+    /**
+     * Pair is the cache key, a (remote public key, local private key) pair.
+     * Lookups wrap the caller's arrays, the cache itself stores copies.
+     * The hash is computed by the cache, see {@link #hash(byte[], byte[])}.
+     */
+    private static final class Pair {
+        @NonNull private final byte[] remotePubKey;
+        @NonNull private final byte[] localPrivKey;
+        private final int hash;
+
+        Pair(@NonNull final byte[] remotePubKey,
+             @NonNull final byte[] localPrivKey,
+             final int hash) {
+            this.remotePubKey = remotePubKey;
+            this.localPrivKey = localPrivKey;
+            this.hash = hash;
+        }
+
+        @NonNull
+        Pair copy() {
+            return new Pair(remotePubKey.clone(), localPrivKey.clone(), hash);
+        }
+
+        void wipe() {
+            Stodium.wipeBytes(remotePubKey);
+            Stodium.wipeBytes(localPrivKey);
+        }
+
+        @Override
+        public int hashCode() {
+            return hash;
+        }
+
+        @Override
+        public boolean equals(final Object o) {
+            if (!(o instanceof Pair)) {
+                return false;
+            }
+            final Pair other = (Pair) o;
+            return hash == other.hash
+                    && Arrays.equals(remotePubKey, other.remotePubKey)
+                    && Stodium.isEqual(localPrivKey, other.localPrivKey);
+        }
+    }
+
+    /**
+     * Shard is an access-ordered map of at most capacity entries. Callers
+     * synchronize on the shard.
+     */
+    private static final class Shard
+            extends LinkedHashMap<Pair, byte[]> {
+        private final int capacity;
+
+        Shard(final int capacity) {
+            super(16, 0.75f, true);
+            this.capacity = capacity;
+        }
+
+        /**
+         * trim wipes and removes the least recently used entries until the
+         * shard holds at most capacity entries. This is not done in
+         * removeEldestEntry, which Android calls before inserting the new
+         * entry rather than after.
+         */
+        void trim() {
+            final Iterator<Map.Entry<Pair, byte[]>> it = entrySet().iterator();
+            while (size() > capacity && it.hasNext()) {
+                final Map.Entry<Pair, byte[]> eldest = it.next();
+                it.remove();
+                eldest.getKey().wipe();
+                Stodium.wipeBytes(eldest.getValue());
+            }
+        }
+    }
+}
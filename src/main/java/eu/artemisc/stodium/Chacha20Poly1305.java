@@ -4,6 +4,8 @@ import android.support.annotation.NonNull;
 
 import org.abstractj.kalium.Sodium;
 
+import java.nio.ByteBuffer;
+
 import javax.crypto.AEADBadTagException;
 
 /**
@@ -21,17 +23,17 @@ public class Chacha20Poly1305 {
     private Chacha20Poly1305() {}
 
     // constants
-    public static final int KEYBYTES = Sodium.crypto_aead_chacha20poly1305_keybytes();
-    public static final int NPUBBYTES = Sodium.crypto_aead_chacha20poly1305_npubbytes();
+    public static final int KEYBYTES = Stodium.CONSTANTS[Constants.CRYPTO_AEAD_CHACHA20POLY1305_KEYBYTES];
+    public static final int NPUBBYTES = Stodium.CONSTANTS[Constants.CRYPTO_AEAD_CHACHA20POLY1305_NPUBBYTES];
     /**
      * ABYTES is the maximum number of Additional Bytes that are added to the
      * cipher upon encryption.
      */
-    public static final int ABYTES = Sodium.crypto_aead_chacha20poly1305_abytes();
+    public static final int ABYTES = Stodium.CONSTANTS[Constants.CRYPTO_AEAD_CHACHA20POLY1305_ABYTES];
     /**
      * NSECBYTES is not used by this construction.
      */
-    public static final int NSECBYTES = Sodium.crypto_aead_chacha20poly1305_nsecbytes();
+    public static final int NSECBYTES = Stodium.CONSTANTS[Constants.CRYPTO_AEAD_CHACHA20POLY1305_NSECBYTES];
 
     // wrappers
 
@@ -56,11 +58,46 @@ public class Chacha20Poly1305 {
         Stodium.checkSize(nonce.length, NPUBBYTES, "Chacha20Poly1305.NPUBBYTES");
         Stodium.checkSize(key.length, KEYBYTES, "Chacha20Poly1305.KEYBYTES");
 
-        final int[] size = new int[1];
-        Stodium.checkStatus(Sodium.crypto_aead_chacha20poly1305_encrypt(
-                dstCipher, size, srcPlain, srcPlain.length, ad, ad.length,
-                null, nonce, key));
-        return size[0];
+        Stodium.checkStatus(Metrics.record("Chacha20Poly1305#encrypt", srcPlain.length, Metrics.start(),
+                Backends.BACKEND.crypto_aead_chacha20poly1305_encrypt(
+                dstCipher, 0, srcPlain, 0, srcPlain.length, ad, nonce, key)));
+        return srcPlain.length + ABYTES;
+    }
+
+    /**
+     * encrypt encrypts {@code srcLen} bytes of srcPlain, starting at
+     * srcOffset, and writes {@code srcLen + ABYTES} bytes to dstCipher,
+     * starting at dstOffset.
+     *
+     * @param dstCipher
+     * @param dstOffset
+     * @param srcPlain
+     * @param srcOffset
+     * @param srcLen
+     * @param ad
+     * @param nonce
+     * @param key
+     * @return The actual number of bytes written to dstCipher
+     * @throws ConstraintViolationException
+     * @throws StodiumException
+     */
+    public static int encrypt(@NonNull final byte[] dstCipher,
+                              final int dstOffset,
+                              @NonNull final byte[] srcPlain,
+                              final int srcOffset,
+                              final int srcLen,
+                              @NonNull final byte[] ad,
+                              @NonNull final byte[] nonce,
+                              @NonNull final byte[] key)
+            throws StodiumException {
+        Stodium.checkOffsetParams(srcPlain.length, srcOffset, srcLen);
+        Stodium.checkOffsetParams(dstCipher.length, dstOffset, srcLen + ABYTES);
+        Stodium.checkSize(nonce.length, NPUBBYTES, "Chacha20Poly1305.NPUBBYTES");
+        Stodium.checkSize(key.length, KEYBYTES, "Chacha20Poly1305.KEYBYTES");
+        Stodium.checkStatus(Metrics.record("Chacha20Poly1305#encrypt", srcLen, Metrics.start(),
+                Backends.BACKEND.crypto_aead_chacha20poly1305_encrypt(
+                dstCipher, dstOffset, srcPlain, srcOffset, srcLen, ad, nonce, key)));
+        return srcLen + ABYTES;
     }
 
     /**
@@ -84,11 +121,499 @@ public class Chacha20Poly1305 {
         Stodium.checkSize(nonce.length, NPUBBYTES, "Chacha20Poly1305.NPUBBYTES");
         Stodium.checkSize(key.length, KEYBYTES, "Chacha20Poly1305.KEYBYTES");
 
-        final int[] size = new int[1];
-        Stodium.checkStatusSealOpen(Sodium.crypto_aead_chacha20poly1305_decrypt(
-                        dstPlain, size, null, srcCipher, srcCipher.length, ad, ad.length,
-                        nonce, key),
+        Stodium.checkStatusSealOpen(Metrics.record("Chacha20Poly1305#decrypt", srcCipher.length, Metrics.start(),
+                Backends.BACKEND.crypto_aead_chacha20poly1305_decrypt(
+                        dstPlain, 0, srcCipher, 0, srcCipher.length, ad, nonce, key)),
+                "Chacha20Poly1305#decrypt");
+        return srcCipher.length - ABYTES;
+    }
+
+    /**
+     * decrypt verifies and decrypts {@code srcLen} bytes of srcCipher,
+     * starting at srcOffset, and writes {@code srcLen - ABYTES} bytes to
+     * dstPlain, starting at dstOffset.
+     *
+     * @param dstPlain
+     * @param dstOffset
+     * @param srcCipher
+     * @param srcOffset
+     * @param srcLen
+     * @param ad
+     * @param nonce
+     * @param key
+     * @return The actual number of bytes written to dstPlain
+     * @throws ConstraintViolationException
+     * @throws StodiumException
+     */
+    public static int decrypt(@NonNull final byte[] dstPlain,
+                              final int dstOffset,
+                              @NonNull final byte[] srcCipher,
+                              final int srcOffset,
+                              final int srcLen,
+                              @NonNull final byte[] ad,
+                              @NonNull final byte[] nonce,
+                              @NonNull final byte[] key)
+            throws StodiumException, AEADBadTagException {
+        Stodium.checkSize(srcLen, ABYTES, Integer.MAX_VALUE, "Chacha20Poly1305.ABYTES", "Integer.MAX_VALUE");
+        Stodium.checkOffsetParams(srcCipher.length, srcOffset, srcLen);
+        Stodium.checkOffsetParams(dstPlain.length, dstOffset, srcLen - ABYTES);
+        Stodium.checkSize(nonce.length, NPUBBYTES, "Chacha20Poly1305.NPUBBYTES");
+        Stodium.checkSize(key.length, KEYBYTES, "Chacha20Poly1305.KEYBYTES");
+        Stodium.checkStatusSealOpen(Metrics.record("Chacha20Poly1305#decrypt", srcLen, Metrics.start(),
+                Backends.BACKEND.crypto_aead_chacha20poly1305_decrypt(
+                        dstPlain, dstOffset, srcCipher, srcOffset, srcLen, ad, nonce, key)),
+                "Chacha20Poly1305#decrypt");
+        return srcLen - ABYTES;
+    }
+
+    /**
+     * tryDecrypt is the exception-free variant of
+     * {@link #decrypt(byte[], byte[], byte[], byte[], byte[])}. An invalid
+     * authentication tag, or a srcCipher shorter than ABYTES, is reported by
+     * returning -1, without allocating an exception. Invalid parameters are
+     * still reported by exceptions.
+     *
+     * @param dstPlain
+     * @param srcCipher
+     * @param ad
+     * @param nonce
+     * @param key
+     * @return The number of bytes written to dstPlain, or -1 if srcCipher
+     *         could not be authenticated
+     * @throws ConstraintViolationException
+     */
+    public static int tryDecrypt(@NonNull final byte[] dstPlain,
+                                 @NonNull final byte[] srcCipher,
+                                 @NonNull final byte[] ad,
+                                 @NonNull final byte[] nonce,
+                                 @NonNull final byte[] key)
+            throws ConstraintViolationException {
+        return tryDecrypt(dstPlain, 0, srcCipher, 0, srcCipher.length, ad, nonce, key);
+    }
+
+    /**
+     * tryDecrypt is the exception-free variant of
+     * {@link #decrypt(byte[], int, byte[], int, int, byte[], byte[], byte[])}.
+     * A srcLen shorter than ABYTES cannot be authenticated, and is reported
+     * by returning -1 as well.
+     *
+     * @param dstPlain
+     * @param dstOffset
+     * @param srcCipher
+     * @param srcOffset
+     * @param srcLen
+     * @param ad
+     * @param nonce
+     * @param key
+     * @return The number of bytes written to dstPlain, or -1 if srcCipher
+     *         could not be authenticated
+     * @throws ConstraintViolationException
+     */
+    public static int tryDecrypt(@NonNull final byte[] dstPlain,
+                                 final int dstOffset,
+                                 @NonNull final byte[] srcCipher,
+                                 final int srcOffset,
+                                 final int srcLen,
+                                 @NonNull final byte[] ad,
+                                 @NonNull final byte[] nonce,
+                                 @NonNull final byte[] key)
+            throws ConstraintViolationException {
+        Stodium.checkOffsetParams(srcCipher.length, srcOffset, srcLen);
+        Stodium.checkSize(nonce.length, NPUBBYTES, "Chacha20Poly1305.NPUBBYTES");
+        Stodium.checkSize(key.length, KEYBYTES, "Chacha20Poly1305.KEYBYTES");
+        if (srcLen < ABYTES) {
+            return -1;
+        }
+        Stodium.checkOffsetParams(dstPlain.length, dstOffset, srcLen - ABYTES);
+        if (Metrics.record("Chacha20Poly1305#decrypt", srcLen, Metrics.start(),
+                Backends.BACKEND.crypto_aead_chacha20poly1305_decrypt(dstPlain, dstOffset,
+                srcCipher, srcOffset, srcLen, ad, nonce, key)) != 0) {
+            return -1;
+        }
+        return srcLen - ABYTES;
+    }
+
+    /**
+     * encryptInPlace encrypts {@code plainLen} bytes of buffer, starting at
+     * offset, and overwrites them with the {@code plainLen + ABYTES} bytes of
+     * ciphertext, starting at the same offset. The buffer must therefore have
+     * ABYTES of room after the message.
+     *
+     * @param buffer
+     * @param offset
+     * @param plainLen
+     * @param ad
+     * @param nonce
+     * @param key
+     * @return The actual number of bytes written to buffer
+     * @throws ConstraintViolationException
+     * @throws StodiumException
+     */
+    public static int encryptInPlace(@NonNull final byte[] buffer,
+                                     final int offset,
+                                     final int plainLen,
+                                     @NonNull final byte[] ad,
+                                     @NonNull final byte[] nonce,
+                                     @NonNull final byte[] key)
+            throws StodiumException {
+        Stodium.checkOffsetParams(buffer.length, offset, plainLen);
+        Stodium.checkOffsetParams(buffer.length, offset, plainLen + ABYTES);
+        Stodium.checkSize(nonce.length, NPUBBYTES, "Chacha20Poly1305.NPUBBYTES");
+        Stodium.checkSize(key.length, KEYBYTES, "Chacha20Poly1305.KEYBYTES");
+        Stodium.checkStatus(Metrics.record("Chacha20Poly1305#encryptInPlace", plainLen, Metrics.start(),
+                Sodium.crypto_aead_chacha20poly1305_encrypt_inplace(
+                buffer, offset, plainLen, ad, ad.length, nonce, key)));
+        return plainLen + ABYTES;
+    }
+
+    /**
+     * decryptInPlace verifies and decrypts {@code cipherLen} bytes of buffer,
+     * starting at offset, and writes the {@code cipherLen - ABYTES} bytes of
+     * plaintext to the same offset. The buffer is only modified if the
+     * ciphertext could be authenticated.
+     *
+     * @param buffer
+     * @param offset
+     * @param cipherLen
+     * @param ad
+     * @param nonce
+     * @param key
+     * @return The actual number of bytes written to buffer
+     * @throws ConstraintViolationException
+     * @throws StodiumException
+     * @throws AEADBadTagException
+     */
+    public static int decryptInPlace(@NonNull final byte[] buffer,
+                                     final int offset,
+                                     final int cipherLen,
+                                     @NonNull final byte[] ad,
+                                     @NonNull final byte[] nonce,
+                                     @NonNull final byte[] key)
+            throws StodiumException, AEADBadTagException {
+        Stodium.checkSize(cipherLen, ABYTES, Integer.MAX_VALUE, "Chacha20Poly1305.ABYTES", "Integer.MAX_VALUE");
+        Stodium.checkOffsetParams(buffer.length, offset, cipherLen);
+        Stodium.checkSize(nonce.length, NPUBBYTES, "Chacha20Poly1305.NPUBBYTES");
+        Stodium.checkSize(key.length, KEYBYTES, "Chacha20Poly1305.KEYBYTES");
+        Stodium.checkStatusSealOpen(Metrics.record("Chacha20Poly1305#decryptInPlace", cipherLen, Metrics.start(),
+                Sodium.crypto_aead_chacha20poly1305_decrypt_inplace(
+                        buffer, offset, cipherLen, ad, ad.length, nonce, key)),
+                "Chacha20Poly1305#decryptInPlace");
+        return cipherLen - ABYTES;
+    }
+
+    /**
+     * encrypt encrypts the remaining bytes of srcPlain into dstCipher, which
+     * must have at least {@code srcPlain.remaining() + ABYTES} bytes
+     * remaining.
+     *
+     * Direct buffers are passed to the native code by address, heap buffers
+     * by their backing arrays. Upon return, the position of srcPlain equals
+     * its limit, and the position of dstCipher is advanced by the number of
+     * bytes written.
+     *
+     * @param dstCipher
+     * @param srcPlain
+     * @param ad
+     * @param nonce
+     * @param key
+     * @return The actual number of bytes written to dstCipher
+     * @throws ConstraintViolationException
+     * @throws StodiumException
+     */
+    public static int encrypt(@NonNull final ByteBuffer dstCipher,
+                              @NonNull final ByteBuffer srcPlain,
+                              @NonNull final byte[] ad,
+                              @NonNull final byte[] nonce,
+                              @NonNull final byte[] key)
+            throws StodiumException {
+        final int plainLen = srcPlain.remaining();
+        Stodium.checkSize(plainLen, 0, Integer.MAX_VALUE - ABYTES,
+                "0", "Integer.MAX_VALUE - Chacha20Poly1305.ABYTES");
+        final int cipherLen = plainLen + ABYTES;
+        Stodium.checkBuffer(dstCipher, cipherLen, "Chacha20Poly1305.ABYTES + srcPlain.remaining()");
+        Stodium.checkSize(nonce.length, NPUBBYTES, "Chacha20Poly1305.NPUBBYTES");
+        Stodium.checkSize(key.length, KEYBYTES, "Chacha20Poly1305.KEYBYTES");
+
+        if (dstCipher.isDirect() && srcPlain.isDirect()) {
+            Stodium.checkStatus(Metrics.record("Chacha20Poly1305#encrypt", plainLen, Metrics.start(),
+                    Sodium.crypto_aead_chacha20poly1305_encrypt_buffer(
+                    dstCipher, dstCipher.position(), srcPlain, srcPlain.position(),
+                    plainLen, ad, ad.length, nonce, key)));
+        } else if (dstCipher.hasArray() && srcPlain.hasArray()) {
+            Stodium.checkStatus(Metrics.record("Chacha20Poly1305#encrypt", plainLen, Metrics.start(),
+                    Sodium.crypto_aead_chacha20poly1305_encrypt_offset(
+                    dstCipher.array(), Stodium.arrayPosition(dstCipher),
+                    srcPlain.array(), Stodium.arrayPosition(srcPlain),
+                    plainLen, ad, ad.length, nonce, key)));
+        } else {
+            final byte[] cipher = new byte[cipherLen];
+            encrypt(cipher, Stodium.remainingBytes(srcPlain), ad, nonce, key);
+            dstCipher.duplicate().put(cipher);
+        }
+
+        srcPlain.position(srcPlain.limit());
+        dstCipher.position(dstCipher.position() + cipherLen);
+        return cipherLen;
+    }
+
+    /**
+     * decrypt verifies and decrypts the remaining bytes of srcCipher into
+     * dstPlain, which must have at least {@code srcCipher.remaining() - ABYTES}
+     * bytes remaining.
+     *
+     * Direct buffers are passed to the native code by address, heap buffers
+     * by their backing arrays. Upon return, the position of srcCipher equals
+     * its limit, and the position of dstPlain is advanced by the number of
+     * bytes written.
+     *
+     * @param dstPlain
+     * @param srcCipher
+     * @param ad
+     * @param nonce
+     * @param key
+     * @return The actual number of bytes written to dstPlain
+     * @throws ConstraintViolationException
+     * @throws StodiumException
+     */
+    public static int decrypt(@NonNull final ByteBuffer dstPlain,
+                              @NonNull final ByteBuffer srcCipher,
+                              @NonNull final byte[] ad,
+                              @NonNull final byte[] nonce,
+                              @NonNull final byte[] key)
+            throws StodiumException, AEADBadTagException {
+        final int cipherLen = srcCipher.remaining();
+        final int plainLen = cipherLen - ABYTES;
+        Stodium.checkSize(cipherLen, ABYTES, Integer.MAX_VALUE, "Chacha20Poly1305.ABYTES", "Integer.MAX_VALUE");
+        Stodium.checkBuffer(dstPlain, plainLen, "srcCipher.remaining() - Chacha20Poly1305.ABYTES");
+        Stodium.checkSize(nonce.length, NPUBBYTES, "Chacha20Poly1305.NPUBBYTES");
+        Stodium.checkSize(key.length, KEYBYTES, "Chacha20Poly1305.KEYBYTES");
+
+        if (dstPlain.isDirect() && srcCipher.isDirect()) {
+            Stodium.checkStatusSealOpen(Metrics.record("Chacha20Poly1305#decrypt", cipherLen, Metrics.start(),
+                    Sodium.crypto_aead_chacha20poly1305_decrypt_buffer(
+                    dstPlain, dstPlain.position(), srcCipher, srcCipher.position(),
+                    cipherLen, ad, ad.length, nonce, key)),
+                    "Chacha20Poly1305#decrypt");
+        } else if (dstPlain.hasArray() && srcCipher.hasArray()) {
+            Stodium.checkStatusSealOpen(Metrics.record("Chacha20Poly1305#decrypt", cipherLen, Metrics.start(),
+                    Sodium.crypto_aead_chacha20poly1305_decrypt_offset(
+                    dstPlain.array(), Stodium.arrayPosition(dstPlain),
+                    srcCipher.array(), Stodium.arrayPosition(srcCipher),
+                    cipherLen, ad, ad.length, nonce, key)),
+                    "Chacha20Poly1305#decrypt");
+        } else {
+            final byte[] plain = new byte[plainLen];
+            decrypt(plain, Stodium.remainingBytes(srcCipher), ad, nonce, key);
+            dstPlain.duplicate().put(plain);
+        }
+
+        srcCipher.position(srcCipher.limit());
+        dstPlain.position(dstPlain.position() + plainLen);
+        return plainLen;
+    }
+
+    /**
+     * encryptBatch encrypts a batch of messages, packed into srcPlain, in a
+     * single native call. Message i consists of the bytes
+     * {@code [offsets[i], offsets[i + 1])} of srcPlain, is encrypted using the
+     * nonce at {@code i * NPUBBYTES} in nonces, and its ciphertext is written
+     * to dstCipher starting at {@code offsets[i] + i * ABYTES}. The additional
+     * data ad is authenticated with every message of the batch.
+     *
+     * @param dstCipher
+     * @param srcPlain
+     * @param offsets
+     * @param ad
+     * @param nonces
+     * @param key
+     * @return The total number of bytes written to dstCipher
+     * @throws ConstraintViolationException
+     * @throws StodiumException
+     */
+    public static int encryptBatch(@NonNull final byte[] dstCipher,
+                                   @NonNull final byte[] srcPlain,
+                                   @NonNull final int[] offsets,
+                                   @NonNull final byte[] ad,
+                                   @NonNull final byte[] nonces,
+                                   @NonNull final byte[] key)
+            throws StodiumException {
+        // validate and pass a private copy, so that the offsets cannot be
+        // changed by another thread between the checks and the native loop
+        final int[] batch = offsets.clone();
+        final int count = Stodium.checkBatchOffsets(srcPlain.length, batch);
+        Stodium.checkBatchLength(dstCipher.length, batch[count] + (long) count * ABYTES,
+                "offsets[count] + count * Chacha20Poly1305.ABYTES");
+        Stodium.checkSize(count, 0, Integer.MAX_VALUE / NPUBBYTES,
+                "0", "Integer.MAX_VALUE / Chacha20Poly1305.NPUBBYTES");
+        Stodium.checkSize(nonces.length, count * NPUBBYTES, "count * Chacha20Poly1305.NPUBBYTES");
+        Stodium.checkSize(key.length, KEYBYTES, "Chacha20Poly1305.KEYBYTES");
+        Stodium.checkStatus(Metrics.record("Chacha20Poly1305#encryptBatch", srcPlain.length, Metrics.start(),
+                Sodium.crypto_aead_chacha20poly1305_encrypt_batch(
+                dstCipher, srcPlain, batch, count, ad, ad.length, nonces, key)));
+        return batch[count] - batch[0] + count * ABYTES;
+    }
+
+    /**
+     * encrypt encrypts the concatenation of the srcPlain segments, and
+     * writes the ciphertext followed by the ABYTES tag to dstCipher, which
+     * must be exactly ABYTES longer than the segments combined.
+     *
+     * The segments are fed through the cipher and MAC one after the other,
+     * without first being copied into a single array. The result is
+     * identical to that of {@link #encrypt(byte[], byte[], byte[], byte[], byte[])}
+     * on the concatenated segments.
+     *
+     * @param dstCipher
+     * @param srcPlain
+     * @param ad
+     * @param nonce
+     * @param key
+     * @return The actual number of bytes written to dstCipher
+     * @throws ConstraintViolationException
+     * @throws StodiumException
+     */
+    public static int encrypt(@NonNull final byte[] dstCipher,
+                              @NonNull final byte[][] srcPlain,
+                              @NonNull final byte[] ad,
+                              @NonNull final byte[] nonce,
+                              @NonNull final byte[] key)
+            throws StodiumException {
+        final Segments src = Segments.of(srcPlain);
+        Stodium.checkSize(dstCipher.length, src.length + ABYTES, "Chacha20Poly1305.ABYTES + srcPlain total length");
+        Stodium.checkSize(nonce.length, NPUBBYTES, "Chacha20Poly1305.NPUBBYTES");
+        Stodium.checkSize(key.length, KEYBYTES, "Chacha20Poly1305.KEYBYTES");
+
+        final Segments dst = Segments.of(dstCipher);
+        Stodium.checkStatus(Metrics.record("Chacha20Poly1305#encrypt", src.length, Metrics.start(),
+                Sodium.crypto_aead_chacha20poly1305_encrypt_segments(
+                dst.buffers, dst.bounds, src.buffers, src.bounds, src.length,
+                ad, ad.length, nonce, key)));
+        return dstCipher.length;
+    }
+
+    /**
+     * decrypt verifies srcCipher, and scatters the decrypted message over the
+     * dstPlain segments, which must be exactly ABYTES shorter than srcCipher
+     * combined. The segments are filled in order.
+     *
+     * @param dstPlain
+     * @param srcCipher
+     * @param ad
+     * @param nonce
+     * @param key
+     * @return The actual number of bytes written to dstPlain
+     * @throws ConstraintViolationException
+     * @throws StodiumException
+     * @throws AEADBadTagException
+     */
+    public static int decrypt(@NonNull final byte[][] dstPlain,
+                              @NonNull final byte[] srcCipher,
+                              @NonNull final byte[] ad,
+                              @NonNull final byte[] nonce,
+                              @NonNull final byte[] key)
+            throws StodiumException, AEADBadTagException {
+        final Segments dst = Segments.of(dstPlain);
+        Stodium.checkSize(srcCipher.length, dst.length + ABYTES, "dstPlain total length + Chacha20Poly1305.ABYTES");
+        Stodium.checkSize(nonce.length, NPUBBYTES, "Chacha20Poly1305.NPUBBYTES");
+        Stodium.checkSize(key.length, KEYBYTES, "Chacha20Poly1305.KEYBYTES");
+
+        final Segments src = Segments.of(srcCipher);
+        Stodium.checkStatusSealOpen(Metrics.record("Chacha20Poly1305#decrypt", srcCipher.length, Metrics.start(),
+                Sodium.crypto_aead_chacha20poly1305_decrypt_segments(
+                        dst.buffers, dst.bounds, src.buffers, src.bounds,
+                        srcCipher.length, ad, ad.length, nonce, key)),
+                "Chacha20Poly1305#decrypt");
+        return dst.length;
+    }
+
+    /**
+     * encrypt encrypts the remaining bytes of the srcPlain buffers, in order,
+     * into dstCipher, which must have at least ABYTES more bytes remaining
+     * than the buffers combined.
+     *
+     * Direct buffers are passed to the native code by address, heap buffers
+     * by their backing arrays; the segments are not copied into a single
+     * buffer first. Upon return, the positions of the srcPlain buffers equal
+     * their limits, and the position of dstCipher is advanced by the number
+     * of bytes written.
+     *
+     * @param dstCipher
+     * @param srcPlain
+     * @param ad
+     * @param nonce
+     * @param key
+     * @return The actual number of bytes written to dstCipher
+     * @throws ConstraintViolationException
+     * @throws StodiumException
+     */
+    public static int encrypt(@NonNull final ByteBuffer dstCipher,
+                              @NonNull final ByteBuffer[] srcPlain,
+                              @NonNull final byte[] ad,
+                              @NonNull final byte[] nonce,
+                              @NonNull final byte[] key)
+            throws StodiumException {
+        final Segments src = Segments.of(srcPlain);
+        Stodium.checkSize(src.length, 0, Integer.MAX_VALUE - ABYTES,
+                "0", "Integer.MAX_VALUE - Chacha20Poly1305.ABYTES");
+        final int cipherLen = src.length + ABYTES;
+        Stodium.checkBuffer(dstCipher, cipherLen, "Chacha20Poly1305.ABYTES + srcPlain total remaining");
+        Stodium.checkSize(nonce.length, NPUBBYTES, "Chacha20Poly1305.NPUBBYTES");
+        Stodium.checkSize(key.length, KEYBYTES, "Chacha20Poly1305.KEYBYTES");
+
+        final Segments dst = Segments.of(dstCipher);
+        Stodium.checkStatus(Metrics.record("Chacha20Poly1305#encrypt", src.length, Metrics.start(),
+                Sodium.crypto_aead_chacha20poly1305_encrypt_segments(
+                dst.buffers, dst.bounds, src.buffers, src.bounds, src.length,
+                ad, ad.length, nonce, key)));
+
+        Segments.advance(srcPlain, src.length);
+        dstCipher.position(dstCipher.position() + cipherLen);
+        return cipherLen;
+    }
+
+    /**
+     * decrypt verifies the remaining bytes of srcCipher, and scatters the
+     * decrypted message over the dstPlain buffers, filling them in order. The
+     * buffers must have at least {@code srcCipher.remaining() - ABYTES} bytes
+     * remaining combined.
+     *
+     * Upon return, the position of srcCipher equals its limit, and the
+     * positions of the dstPlain buffers are advanced by the number of bytes
+     * written to each of them.
+     *
+     * @param dstPlain
+     * @param srcCipher
+     * @param ad
+     * @param nonce
+     * @param key
+     * @return The actual number of bytes written to dstPlain
+     * @throws ConstraintViolationException
+     * @throws StodiumException
+     * @throws AEADBadTagException
+     */
+    public static int decrypt(@NonNull final ByteBuffer[] dstPlain,
+                              @NonNull final ByteBuffer srcCipher,
+                              @NonNull final byte[] ad,
+                              @NonNull final byte[] nonce,
+                              @NonNull final byte[] key)
+            throws StodiumException, AEADBadTagException {
+        final int cipherLen = srcCipher.remaining();
+        final int plainLen = cipherLen - ABYTES;
+        Stodium.checkSize(cipherLen, ABYTES, Integer.MAX_VALUE, "Chacha20Poly1305.ABYTES", "Integer.MAX_VALUE");
+        final Segments dst = Segments.writable(dstPlain);
+        Stodium.checkSize(dst.length, plainLen, Integer.MAX_VALUE, "srcCipher.remaining() - Chacha20Poly1305.ABYTES", "Integer.MAX_VALUE");
+        Stodium.checkSize(nonce.length, NPUBBYTES, "Chacha20Poly1305.NPUBBYTES");
+        Stodium.checkSize(key.length, KEYBYTES, "Chacha20Poly1305.KEYBYTES");
+
+        final Segments src = Segments.of(srcCipher);
+        Stodium.checkStatusSealOpen(Metrics.record("Chacha20Poly1305#decrypt", cipherLen, Metrics.start(),
+                Sodium.crypto_aead_chacha20poly1305_decrypt_segments(
+                        dst.buffers, dst.bounds, src.buffers, src.bounds,
+                        cipherLen, ad, ad.length, nonce, key)),
                 "Chacha20Poly1305#decrypt");
-        return size[0];
+
+        srcCipher.position(srcCipher.limit());
+        Segments.advance(dstPlain, plainLen);
+        return plainLen;
     }
 }
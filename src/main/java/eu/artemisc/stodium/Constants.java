@@ -0,0 +1,93 @@
+package eu.artemisc.stodium;
+
+/**
+ * Constants holds the indices of the size constants and primitive names in
+ * the arrays filled by the native bootstrap call (see
+ * {@link Stodium#CONSTANTS} and {@link Stodium#PRIMITIVES}). The order MUST
+ * match the order of stodium_bootstrap in jni/sodium.i.
+ *
+ * @author Jan van de Molengraft [jan@artemisc.eu]
+ */
+final class Constants {
+    // Block constructor
+    private Constants() {}
+
+    // indices in Stodium.CONSTANTS
+    static final int CRYPTO_GENERICHASH_BLAKE2B_BYTES = 0;
+    static final int CRYPTO_GENERICHASH_BLAKE2B_BYTES_MIN = 1;
+    static final int CRYPTO_GENERICHASH_BLAKE2B_BYTES_MAX = 2;
+    static final int CRYPTO_GENERICHASH_BLAKE2B_KEYBYTES = 3;
+    static final int CRYPTO_GENERICHASH_BLAKE2B_KEYBYTES_MIN = 4;
+    static final int CRYPTO_GENERICHASH_BLAKE2B_KEYBYTES_MAX = 5;
+    static final int CRYPTO_GENERICHASH_BLAKE2B_SALTBYTES = 6;
+    static final int CRYPTO_GENERICHASH_BLAKE2B_PERSONALBYTES = 7;
+    static final int CRYPTO_GENERICHASH_BLAKE2B_STATEBYTES = 8;
+    static final int CRYPTO_BOX_PUBLICKEYBYTES = 9;
+    static final int CRYPTO_BOX_SECRETKEYBYTES = 10;
+    static final int CRYPTO_BOX_MACBYTES = 11;
+    static final int CRYPTO_BOX_NONCEBYTES = 12;
+    static final int CRYPTO_BOX_SEEDBYTES = 13;
+    static final int CRYPTO_BOX_BEFORENMBYTES = 14;
+    static final int CRYPTO_BOX_SEALBYTES = 15;
+    static final int CRYPTO_AEAD_CHACHA20POLY1305_KEYBYTES = 16;
+    static final int CRYPTO_AEAD_CHACHA20POLY1305_NPUBBYTES = 17;
+    static final int CRYPTO_AEAD_CHACHA20POLY1305_ABYTES = 18;
+    static final int CRYPTO_AEAD_CHACHA20POLY1305_NSECBYTES = 19;
+    static final int CRYPTO_SCALARMULT_BYTES = 20;
+    static final int CRYPTO_SCALARMULT_SCALARBYTES = 21;
+    static final int CRYPTO_SIGN_ED25519_BYTES = 22;
+    static final int CRYPTO_SIGN_ED25519_PUBLICKEYBYTES = 23;
+    static final int CRYPTO_SIGN_ED25519_SECRETKEYBYTES = 24;
+    static final int CRYPTO_GENERICHASH_BYTES = 25;
+    static final int CRYPTO_GENERICHASH_BYTES_MIN = 26;
+    static final int CRYPTO_GENERICHASH_BYTES_MAX = 27;
+    static final int CRYPTO_GENERICHASH_KEYBYTES = 28;
+    static final int CRYPTO_GENERICHASH_KEYBYTES_MIN = 29;
+    static final int CRYPTO_GENERICHASH_KEYBYTES_MAX = 30;
+    static final int CRYPTO_GENERICHASH_STATEBYTES = 31;
+    static final int CRYPTO_CORE_HSALSA20_INPUTBYTES = 32;
+    static final int CRYPTO_CORE_HSALSA20_OUTPUTBYTES = 33;
+    static final int CRYPTO_CORE_HSALSA20_CONSTBYTES = 34;
+    static final int CRYPTO_CORE_HSALSA20_KEYBYTES = 35;
+    static final int CRYPTO_HASH_BYTES = 36;
+    static final int CRYPTO_HASH_STATEBYTES = 37;
+    static final int CRYPTO_ONETIMEAUTH_BYTES = 38;
+    static final int CRYPTO_ONETIMEAUTH_KEYBYTES = 39;
+    static final int CRYPTO_ONETIMEAUTH_STATEBYTES = 40;
+    static final int CRYPTO_ONETIMEAUTH_POLY1305_BYTES = 41;
+    static final int CRYPTO_ONETIMEAUTH_POLY1305_KEYBYTES = 42;
+    static final int CRYPTO_ONETIMEAUTH_POLY1305_STATEBYTES = 43;
+    static final int CRYPTO_PWHASH_SCRYPTSALSA208SHA256_SALTBYTES = 44;
+    static final int CRYPTO_PWHASH_SCRYPTSALSA208SHA256_STRBYTES = 45;
+    static final int CRYPTO_PWHASH_SCRYPTSALSA208SHA256_OPSLIMIT_INTERACTIVE = 46;
+    static final int CRYPTO_PWHASH_SCRYPTSALSA208SHA256_MEMLIMIT_INTERACTIVE = 47;
+    static final int CRYPTO_PWHASH_SCRYPTSALSA208SHA256_OPSLIMIT_SENSITIVE = 48;
+    static final int CRYPTO_PWHASH_SCRYPTSALSA208SHA256_MEMLIMIT_SENSITIVE = 49;
+    static final int CRYPTO_SECRETBOX_KEYBYTES = 50;
+    static final int CRYPTO_SECRETBOX_NONCEBYTES = 51;
+    static final int CRYPTO_SECRETBOX_MACBYTES = 52;
+    static final int CRYPTO_SECRETBOX_BOXZEROBYTES = 53;
+    static final int CRYPTO_SECRETBOX_ZEROBYTES = 54;
+    static final int CRYPTO_SHORTHASH_BYTES = 55;
+    static final int CRYPTO_SHORTHASH_KEYBYTES = 56;
+    static final int CRYPTO_SIGN_BYTES = 57;
+    static final int CRYPTO_SIGN_PUBLICKEYBYTES = 58;
+    static final int CRYPTO_SIGN_SECRETKEYBYTES = 59;
+    static final int CRYPTO_SHORTHASH_SIPHASH24_BYTES = 60;
+    static final int CRYPTO_SHORTHASH_SIPHASH24_KEYBYTES = 61;
+
+    static final int CONSTANTS_COUNT = 62;
+
+    // indices in Stodium.PRIMITIVES
+    static final int CRYPTO_AUTH_PRIMITIVE = 0;
+    static final int CRYPTO_BOX_PRIMITIVE = 1;
+    static final int CRYPTO_SCALARMULT_PRIMITIVE = 2;
+    static final int CRYPTO_GENERICHASH_PRIMITIVE = 3;
+    static final int CRYPTO_ONETIMEAUTH_PRIMITIVE = 4;
+    static final int CRYPTO_PWHASH_SCRYPTSALSA208SHA256_STRPREFIX = 5;
+    static final int CRYPTO_SECRETBOX_PRIMITIVE = 6;
+    static final int CRYPTO_SHORTHASH_PRIMITIVE = 7;
+    static final int CRYPTO_SIGN_PRIMITIVE = 8;
+
+    static final int PRIMITIVES_COUNT = 9;
+}
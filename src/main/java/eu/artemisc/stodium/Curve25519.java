@@ -19,10 +19,10 @@ public final class Curve25519 {
     private Curve25519() {}
 
     // constants
-    public static final int BYTES = Sodium.crypto_scalarmult_bytes();
-    public static final int SCALAR_BYTES = Sodium.crypto_scalarmult_scalarbytes();
+    public static final int BYTES = Stodium.CONSTANTS[Constants.CRYPTO_SCALARMULT_BYTES];
+    public static final int SCALAR_BYTES = Stodium.CONSTANTS[Constants.CRYPTO_SCALARMULT_SCALARBYTES];
 
-    public static final String PRIMITIVE = Sodium.crypto_scalarmult_primitive();
+    public static final String PRIMITIVE = Stodium.PRIMITIVES[Constants.CRYPTO_SCALARMULT_PRIMITIVE];
 
     // wrappers
 
@@ -45,8 +45,9 @@ public final class Curve25519 {
         Stodium.checkSize(dst.length, SCALAR_BYTES, "Curve25519.SCALAR_BYTES");
         Stodium.checkSize(src.length, SCALAR_BYTES, "Curve25519.SCALAR_BYTES");
         Stodium.checkSize(groupElement.length, SCALAR_BYTES, "Curve25519.SCALAR_BYTES");
-        Stodium.checkStatus(Sodium.crypto_scalarmult_curve25519(dst, src,
-                groupElement));
+        Stodium.checkStatus(Metrics.record("Curve25519#scalarMult", 0, Metrics.start(),
+                Backends.BACKEND.crypto_scalarmult_curve25519(dst,
+                src, groupElement)));
     }
 
     /**
@@ -61,7 +62,8 @@ public final class Curve25519 {
             throws StodiumException {
         Stodium.checkSize(dst.length, SCALAR_BYTES, "Curve25519.SCALAR_BYTES");
         Stodium.checkSize(src.length, SCALAR_BYTES, "Curve25519.SCALAR_BYTES");
-        Stodium.checkStatus(Sodium.crypto_scalarmult_base(dst, src));
+        Stodium.checkStatus(Metrics.record("Curve25519#scalarMultBase", 0, Metrics.start(),
+                Sodium.crypto_scalarmult_base_critical(dst, src)));
     }
 
     //
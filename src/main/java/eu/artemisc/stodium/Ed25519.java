@@ -18,10 +18,10 @@ public final class Ed25519 {
     private Ed25519() {}
 
     // constant
-    public static final int SIGNBYTES = Sodium.crypto_sign_ed25519_bytes();
-    public static final int PUBLICKEYBYTES = Sodium.crypto_sign_ed25519_publickeybytes();
-    public static final int PRIVATEKEYBYTES = Sodium.crypto_sign_ed25519_secretkeybytes();
-    public static final int SEEDBYTES = Sodium.crypto_box_seedbytes();
+    public static final int SIGNBYTES = Stodium.CONSTANTS[Constants.CRYPTO_SIGN_ED25519_BYTES];
+    public static final int PUBLICKEYBYTES = Stodium.CONSTANTS[Constants.CRYPTO_SIGN_ED25519_PUBLICKEYBYTES];
+    public static final int PRIVATEKEYBYTES = Stodium.CONSTANTS[Constants.CRYPTO_SIGN_ED25519_SECRETKEYBYTES];
+    public static final int SEEDBYTES = Stodium.CONSTANTS[Constants.CRYPTO_BOX_SEEDBYTES];
 
     // wrappers
 
@@ -143,10 +143,10 @@ public final class Ed25519 {
             throws StodiumException {
         Stodium.checkSize(dstSignedMsg.length, srcMsg.length + SIGNBYTES, "Ed25519.SIGNBYTES + srcMsg.length");
         Stodium.checkSize(localPrivKey.length, PRIVATEKEYBYTES, "Ed25519.PRIVATEKEYBYTES");
-        final int[] dstSize = new int[1];
-        Stodium.checkStatus(Sodium.crypto_sign_ed25519(dstSignedMsg, dstSize, srcMsg,
-                srcMsg.length, localPrivKey));
-        return dstSize[0];
+        Stodium.checkStatus(Metrics.record("Ed25519#sign", srcMsg.length, Metrics.start(),
+                Sodium.crypto_sign_ed25519_offset(dstSignedMsg, 0, srcMsg, 0,
+                srcMsg.length, localPrivKey)));
+        return srcMsg.length + SIGNBYTES;
     }
 
     /**
@@ -173,10 +173,10 @@ public final class Ed25519 {
             throws StodiumException {
         Stodium.checkSize(srcSignedMsg.length, dstMsg.length + SIGNBYTES, "Ed25519.SIGNBYTES + dstMsg.length");
         Stodium.checkSize(remotePubKey.length, PUBLICKEYBYTES, "Ed25519.PUBLICKEYBYTES");
-        final int[] dstSize = new int[1];
-        Stodium.checkStatus(Sodium.crypto_sign_ed25519_open(dstMsg, dstSize,
-                srcSignedMsg, srcSignedMsg.length, remotePubKey));
-        return dstSize[0];
+        Stodium.checkStatus(Metrics.record("Ed25519#open", srcSignedMsg.length, Metrics.start(),
+                Sodium.crypto_sign_ed25519_open_offset(dstMsg, 0,
+                srcSignedMsg, 0, srcSignedMsg.length, remotePubKey)));
+        return srcSignedMsg.length - SIGNBYTES;
     }
 
     //
@@ -188,8 +188,7 @@ public final class Ed25519 {
      * @param dstSignature
      * @param srcMsg
      * @param localPrivKey
-     * @return The real size of dstSignature as calculated by
-     *         {@link org.abstractj.kalium.Sodium#crypto_sign_ed25519_detached(byte[], int[], byte[], int, byte[])}
+     * @return The size of the signature, SIGNBYTES
      * @throws ConstraintViolationException
      * @throws StodiumException
      *
@@ -201,10 +200,43 @@ public final class Ed25519 {
             throws StodiumException {
         Stodium.checkSize(dstSignature.length, SIGNBYTES, "Ed25519.SIGNBYTES");
         Stodium.checkSize(localPrivKey.length, PRIVATEKEYBYTES, "Ed25519.PRIVATEKEYBYTES");
-        final int[] dstSize = new int[1];
-        Stodium.checkStatus(Sodium.crypto_sign_ed25519_detached(dstSignature, dstSize,
-                srcMsg, srcMsg.length, localPrivKey));
-        return dstSize[0];
+        Stodium.checkStatus(Metrics.record("Ed25519#signDetached", srcMsg.length, Metrics.start(),
+                Backends.BACKEND.crypto_sign_ed25519_detached(dstSignature,
+                srcMsg, srcMsg.length, localPrivKey)));
+        return SIGNBYTES;
+    }
+
+    /**
+     * signDetached calculates the signature of {@code srcLen} bytes of srcMsg,
+     * starting at srcOffset, and writes it to dstSignature, starting at
+     * dstOffset.
+     *
+     * @param dstSignature
+     * @param dstOffset
+     * @param srcMsg
+     * @param srcOffset
+     * @param srcLen
+     * @param localPrivKey
+     * @return The size of the signature, SIGNBYTES
+     * @throws ConstraintViolationException
+     * @throws StodiumException
+     *
+     * @see <a href="https://download.libsodium.org/doc/public-key_cryptography/public-key_signatures.html#detached-mode">libsodium docs</a>
+     */
+    public static int signDetached(@NonNull final byte[] dstSignature,
+                                   final int dstOffset,
+                                   @NonNull final byte[] srcMsg,
+                                   final int srcOffset,
+                                   final int srcLen,
+                                   @NonNull @Size(64) final byte[] localPrivKey)
+            throws StodiumException {
+        Stodium.checkOffsetParams(dstSignature.length, dstOffset, SIGNBYTES);
+        Stodium.checkOffsetParams(srcMsg.length, srcOffset, srcLen);
+        Stodium.checkSize(localPrivKey.length, PRIVATEKEYBYTES, "Ed25519.PRIVATEKEYBYTES");
+        Stodium.checkStatus(Metrics.record("Ed25519#signDetached", srcLen, Metrics.start(),
+                Sodium.crypto_sign_ed25519_detached_offset(dstSignature,
+                dstOffset, srcMsg, srcOffset, srcLen, localPrivKey)));
+        return SIGNBYTES;
     }
 
     /**
@@ -223,7 +255,40 @@ public final class Ed25519 {
             throws StodiumException {
         Stodium.checkSize(srcSignature.length, SIGNBYTES, "Ed25519.SIGNBYTES");
         Stodium.checkSize(remotePubKey.length, PUBLICKEYBYTES, "Ed25519.PUBLICKEYBYTES");
-        return Sodium.crypto_sign_ed25519_verify_detached(srcSignature, srcMsg,
-                srcMsg.length, remotePubKey) == 0;
+        return Metrics.record("Ed25519#verifyDetached", srcMsg.length, Metrics.start(),
+                Backends.BACKEND.crypto_sign_ed25519_verify_detached(srcSignature,
+                srcMsg, srcMsg.length, remotePubKey)) == 0;
+    }
+
+    /**
+     * verifyDetached verifies the signature found at sigOffset in
+     * srcSignature, against {@code srcLen} bytes of srcMsg, starting at
+     * srcOffset.
+     *
+     * @param srcSignature
+     * @param sigOffset
+     * @param srcMsg
+     * @param srcOffset
+     * @param srcLen
+     * @param remotePubKey
+     * @return true iff the signature is valid
+     * @throws ConstraintViolationException
+     * @throws StodiumException
+     *
+     * @see <a href="https://download.libsodium.org/doc/public-key_cryptography/public-key_signatures.html#detached-mode">libsodium docs</a>
+     */
+    public static boolean verifyDetached(@NonNull final byte[] srcSignature,
+                                         final int sigOffset,
+                                         @NonNull final byte[] srcMsg,
+                                         final int srcOffset,
+                                         final int srcLen,
+                                         @NonNull @Size(32) final byte[] remotePubKey)
+            throws StodiumException {
+        Stodium.checkOffsetParams(srcSignature.length, sigOffset, SIGNBYTES);
+        Stodium.checkOffsetParams(srcMsg.length, srcOffset, srcLen);
+        Stodium.checkSize(remotePubKey.length, PUBLICKEYBYTES, "Ed25519.PUBLICKEYBYTES");
+        return Metrics.record("Ed25519#verifyDetached", srcLen, Metrics.start(),
+                Sodium.crypto_sign_ed25519_verify_detached_offset(srcSignature,
+                sigOffset, srcMsg, srcOffset, srcLen, remotePubKey)) == 0;
     }
 }
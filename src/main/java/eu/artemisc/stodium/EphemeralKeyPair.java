@@ -0,0 +1,191 @@
+package eu.artemisc.stodium;
+
+import android.support.annotation.NonNull;
+import android.support.annotation.Nullable;
+
+import org.abstractj.kalium.Sodium;
+
+import java.io.Closeable;
+
+/**
+ * EphemeralKeyPair is a single-use Box (Curve25519) key pair taken from an
+ * {@link EphemeralKeyPool}. Its private key stays in the pool's locked native
+ * memory: exactly one of {@link #beforenm}, {@link #easy} or
+ * {@link #scalarMult} can be performed with it, after which the key pair is
+ * wiped. A key pair that is not needed after all must be closed, to return
+ * its slot to the pool (or to release its own allocation, if the pool had no
+ * free slot when it was taken).
+ *
+ * @author Jan van de Molengraft [jan@artemisc.eu]
+ */
+public final class EphemeralKeyPair
+        implements Closeable {
+    /**
+     * pool is the pool whose slab holds the key pair, or null if the key
+     * pair has an allocation of its own, which it releases after use.
+     */
+    @Nullable private final EphemeralKeyPool pool;
+    @NonNull private final byte[] publicKey;
+
+    /**
+     * handle and offset locate the key pair in native memory. The pool does
+     * not release its slab while the slot is taken.
+     */
+    private final long handle;
+    private final int offset;
+
+    /**
+     * slot is the index of the key pair in the pool, or -1 after the key
+     * pair was used or closed.
+     */
+    private int slot;
+
+    EphemeralKeyPair(@Nullable final EphemeralKeyPool pool,
+                     final int slot,
+                     final long handle,
+                     final int offset,
+                     @NonNull final byte[] publicKey) {
+        this.pool = pool;
+        this.slot = slot;
+        this.handle = handle;
+        this.offset = offset;
+        this.publicKey = publicKey;
+    }
+
+    /**
+     * @return A copy of the public key, which remains available after the
+     *         key pair was used
+     */
+    @NonNull
+    public byte[] publicKey() {
+        return publicKey.clone();
+    }
+
+    /**
+     * beforenm is equivalent to
+     * {@link Box#beforenm(byte[], byte[], byte[])} with the private key of
+     * this key pair, and uses it up.
+     *
+     * @param dstSharedKey
+     * @param remotePubKey
+     * @throws ConstraintViolationException
+     * @throws StodiumException
+     * @throws IllegalStateException if the key pair was already used
+     */
+    public void beforenm(@NonNull final byte[] dstSharedKey,
+                         @NonNull final byte[] remotePubKey)
+            throws StodiumException {
+        Stodium.checkSize(dstSharedKey.length, Box.BEFORENMBYTES, "Box.BEFORENMBYTES");
+        Stodium.checkSize(remotePubKey.length, Box.PUBLICKEYBYTES, "Box.PUBLICKEYBYTES");
+        final int slot = consume();
+        try {
+            Stodium.checkStatus(Metrics.record("Box#beforenm", 0, Metrics.start(),
+                    Sodium.crypto_box_beforenm_handle(dstSharedKey,
+                    remotePubKey, handle, offset)));
+        } finally {
+            release(slot);
+        }
+    }
+
+    /**
+     * easy is equivalent to
+     * {@link Box#easy(byte[], byte[], byte[], byte[], byte[])} with the
+     * private key of this key pair, and uses it up.
+     *
+     * @param dstCipher
+     * @param srcPlain
+     * @param nonce
+     * @param remotePubKey
+     * @throws ConstraintViolationException
+     * @throws StodiumException
+     * @throws IllegalStateException if the key pair was already used
+     */
+    public void easy(@NonNull final byte[] dstCipher,
+                     @NonNull final byte[] srcPlain,
+                     @NonNull final byte[] nonce,
+                     @NonNull final byte[] remotePubKey)
+            throws StodiumException {
+        Stodium.checkSize(dstCipher.length, Box.MACBYTES + srcPlain.length, "Box.MACBYTES + srcPlain.length");
+        Stodium.checkSize(nonce.length, Box.NONCEBYTES, "Box.NONCEBYTES");
+        Stodium.checkSize(remotePubKey.length, Box.PUBLICKEYBYTES, "Box.PUBLICKEYBYTES");
+        final int slot = consume();
+        try {
+            Stodium.checkStatus(Metrics.record("Box#easy", srcPlain.length, Metrics.start(),
+                    Sodium.crypto_box_easy_handle(dstCipher, srcPlain, srcPlain.length,
+                    nonce, remotePubKey, handle, offset)));
+        } finally {
+            release(slot);
+        }
+    }
+
+    /**
+     * scalarMult is equivalent to
+     * {@link Curve25519#scalarMult(byte[], byte[], byte[])} with the private
+     * key of this key pair as the scalar, and uses it up.
+     *
+     * @param dst
+     * @param remotePubKey
+     * @throws ConstraintViolationException
+     * @throws StodiumException
+     * @throws IllegalStateException if the key pair was already used
+     */
+    public void scalarMult(@NonNull final byte[] dst,
+                           @NonNull final byte[] remotePubKey)
+            throws StodiumException {
+        Stodium.checkSize(dst.length, Curve25519.BYTES, "Curve25519.BYTES");
+        Stodium.checkSize(remotePubKey.length, Curve25519.BYTES, "Curve25519.BYTES");
+        final int slot = consume();
+        try {
+            Stodium.checkStatus(Metrics.record("Curve25519#scalarMult", 0, Metrics.start(),
+                    Sodium.crypto_scalarmult_handle(dst, remotePubKey,
+                    handle, offset)));
+        } finally {
+            release(slot);
+        }
+    }
+
+    /**
+     * close wipes the key pair without using it, and returns its slot to the
+     * pool. Calling close more than once, or after the key pair was used, has
+     * no effect.
+     */
+    @Override
+    public void close() {
+        final int slot;
+        synchronized (this) {
+            slot = this.slot;
+            this.slot = -1;
+        }
+        if (slot >= 0) {
+            release(slot);
+        }
+    }
+
+    /**
+     * release wipes the key pair, and returns its slot to the pool, or
+     * releases its own allocation.
+     */
+    private void release(final int slot) {
+        if (pool != null) {
+            pool.release(slot);
+        } else {
+            // sodium_free wipes the allocation before releasing it
+            Sodium.stodium_secure_free(handle);
+        }
+    }
+
+    /**
+     * consume marks the key pair as used.
+     *
+     * @return the slot of the key pair, which the caller releases after use
+     * @throws IllegalStateException if the key pair was already used
+     */
+    private synchronized int consume() {
+        if (slot < 0) {
+            throw new IllegalStateException("EphemeralKeyPair: key pair was already used");
+        }
+        final int consumed = slot;
+        slot = -1;
+        return consumed;
+    }
+}
@@ -0,0 +1,336 @@
+package eu.artemisc.stodium;
+
+import android.support.annotation.NonNull;
+
+import org.abstractj.kalium.Sodium;
+
+import java.io.Closeable;
+import java.util.ArrayDeque;
+
+/**
+ * EphemeralKeyPool keeps up to capacity fresh Box (Curve25519) key pairs
+ * ready for use, so that protocols that need a new key pair per handshake do
+ * not have to generate one on the critical path. A background thread refills
+ * the pool whenever a key pair is taken.
+ *
+ * The key pairs are held in a single slab of native memory, allocated with
+ * sodium_malloc and surrounded by guard pages. The slab is locked into memory
+ * with sodium_mlock, so it is never swapped to disk; if it cannot be locked
+ * (e.g. because RLIMIT_MEMLOCK is too small), the pool cannot be created.
+ * The private keys never leave the slab; a taken {@link EphemeralKeyPair}
+ * performs a single operation with its private key in place, after which
+ * the key pair is wiped and its slot is refilled.
+ *
+ * {@link #take()} never waits. If no key pair is ready, it generates one on
+ * the calling thread, in a free slot, or, when all capacity slots are taken
+ * (or leaked), in a separate locked allocation that is released as soon as
+ * that key pair is used or closed. The pool must be closed to stop the
+ * refill thread and release the slab; key pairs that are still held at that
+ * time remain usable, and the slab is released when the last of them is
+ * used or closed.
+ *
+ * @author Jan van de Molengraft [jan@artemisc.eu]
+ */
+public final class EphemeralKeyPool
+        implements Closeable {
+    static {
+        // Require sodium_init();
+        Stodium.StodiumInit();
+    }
+
+    /**
+     * SLOTBYTES is the size of a key pair in the slab: the public key,
+     * followed by the private key.
+     */
+    static final int SLOTBYTES = Box.PUBLICKEYBYTES + Box.SECRETKEYBYTES;
+
+    /**
+     * handle is the address of the slab, or 0 after it was released.
+     */
+    private long handle;
+    private final int capacity;
+
+    /**
+     * ready holds the slots that contain a fresh key pair, free the slots
+     * that are empty and not being filled. Slots in neither are taken, or
+     * being filled by the refill thread. The slab is only released when no
+     * slot is taken or being filled. All state is guarded by this.
+     */
+    @NonNull private final ArrayDeque<Integer> ready;
+    @NonNull private final ArrayDeque<Integer> free;
+    @NonNull private final byte[][] publicKeys;
+    private int taken;
+    private int filling;
+    private boolean closed;
+
+    @NonNull private final Thread refiller;
+
+    /**
+     * EphemeralKeyPool allocates room for capacity key pairs, and starts the
+     * background thread that fills it.
+     *
+     * @param capacity
+     * @throws ConstraintViolationException if capacity is not positive, or
+     *         the slab would exceed Integer.MAX_VALUE bytes
+     * @throws OutOfMemoryError if the slab cannot be allocated, or cannot be
+     *         locked into memory
+     */
+    public EphemeralKeyPool(final int capacity)
+            throws ConstraintViolationException {
+        Stodium.checkSize(capacity, 1, Integer.MAX_VALUE / SLOTBYTES,
+                "1", "Integer.MAX_VALUE / EphemeralKeyPool.SLOTBYTES");
+        this.handle = secureAlloc(capacity * SLOTBYTES);
+        this.capacity = capacity;
+        this.ready = new ArrayDeque<>(capacity);
+        this.free = new ArrayDeque<>(capacity);
+        this.publicKeys = new byte[capacity][];
+        for (int i = 0; i < capacity; i++) {
+            free.add(i);
+        }
+
+        refiller = new Thread(new Runnable() {
+            @Override
+            public void run() {
+                refill();
+            }
+        }, "EphemeralKeyPool");
+        refiller.setDaemon(true);
+        refiller.start();
+    }
+
+    /**
+     * @return The number of key pairs the pool holds when it is full
+     */
+    public int capacity() {
+        return capacity;
+    }
+
+    /**
+     * @return The number of key pairs that are currently ready
+     */
+    public synchronized int available() {
+        return ready.size();
+    }
+
+    /**
+     * take removes a key pair from the pool, without waiting. If none is
+     * ready, one is generated on the calling thread: in a free slot, or, if
+     * all slots are taken, in a separate allocation of locked memory.
+     *
+     * @return a fresh, single-use key pair
+     * @throws IllegalStateException if the pool is closed
+     * @throws StodiumException if a key pair cannot be generated
+     * @throws OutOfMemoryError if all slots are taken, and the separate
+     *         allocation cannot be made or locked into memory
+     */
+    @NonNull
+    public EphemeralKeyPair take()
+            throws StodiumException {
+        final int slot;
+        final long slab;
+        synchronized (this) {
+            if (closed) {
+                throw new IllegalStateException("EphemeralKeyPool: pool is closed");
+            }
+            if (!ready.isEmpty()) {
+                final int next = ready.poll();
+                taken++;
+                return new EphemeralKeyPair(this, next, handle, offset(next), publicKeys[next]);
+            }
+            if (free.isEmpty()) {
+                return takeTransient();
+            }
+            slot = free.poll();
+            taken++;
+            // the slab cannot be released while the slot is taken
+            slab = handle;
+        }
+
+        final byte[] publicKey = new byte[Box.PUBLICKEYBYTES];
+        try {
+            Stodium.checkStatus(Metrics.record("EphemeralKeyPool#keypair", SLOTBYTES, Metrics.start(),
+                    Sodium.crypto_box_keypair_handle(publicKey, slab, offset(slot))));
+        } catch (StodiumException e) {
+            release(slot);
+            throw e;
+        }
+        return new EphemeralKeyPair(this, slot, slab, offset(slot), publicKey);
+    }
+
+    /**
+     * close stops the refill thread and wipes the key pairs that were not
+     * taken. The slab is released as soon as no key pairs are held. Calling
+     * close more than once has no effect.
+     */
+    @Override
+    public void close() {
+        synchronized (this) {
+            if (closed) {
+                return;
+            }
+            closed = true;
+            notifyAll();
+        }
+
+        // wait for a key pair that is being generated
+        boolean interrupted = false;
+        while (refiller.isAlive()) {
+            try {
+                refiller.join();
+            } catch (InterruptedException e) {
+                interrupted = true;
+            }
+        }
+        if (interrupted) {
+            Thread.currentThread().interrupt();
+        }
+
+        synchronized (this) {
+            while (!ready.isEmpty()) {
+                wipe(ready.poll());
+            }
+            releaseIfUnused();
+        }
+    }
+
+    /**
+     * @param slot
+     * @return The offset of slot in the slab
+     */
+    int offset(final int slot) {
+        return slot * SLOTBYTES;
+    }
+
+    /**
+     * release wipes a taken slot and returns it to the pool, to be refilled.
+     *
+     * @param slot
+     */
+    synchronized void release(final int slot) {
+        wipe(slot);
+        taken--;
+        if (closed) {
+            releaseIfUnused();
+            return;
+        }
+        free.add(slot);
+        notifyAll();
+    }
+
+    /**
+     * refill runs on the refill thread, and fills free slots until the pool
+     * is closed, or a key pair cannot be generated. Slots are filled outside
+     * the lock; a slot that is being filled is in neither ready nor free.
+     */
+    private void refill() {
+        final byte[] publicKey = new byte[Box.PUBLICKEYBYTES];
+        while (true) {
+            final int slot;
+            final long slab;
+            synchronized (this) {
+                while (!closed && free.isEmpty()) {
+                    waitUninterruptibly();
+                }
+                if (closed) {
+                    return;
+                }
+                slot = free.poll();
+                // the slab cannot be released while the slot is being filled
+                filling++;
+                slab = handle;
+            }
+
+            final int status = Metrics.record("EphemeralKeyPool#keypair", SLOTBYTES, Metrics.start(),
+                    Sodium.crypto_box_keypair_handle(publicKey, slab, offset(slot)));
+            synchronized (this) {
+                filling--;
+                if (closed) {
+                    // closed while the slot was being filled: wipe it, and
+                    // release the slab if the last key pair was released
+                    // in the meantime
+                    wipe(slot);
+                    free.add(slot);
+                    releaseIfUnused();
+                    return;
+                }
+                if (status == 0) {
+                    publicKeys[slot] = publicKey.clone();
+                    ready.add(slot);
+                    notifyAll();
+                } else {
+                    // stop refilling rather than spin; take still generates
+                    // key pairs on the calling thread
+                    wipe(slot);
+                    free.add(slot);
+                    notifyAll();
+                    return;
+                }
+            }
+        }
+    }
+
+    private void wipe(final int slot) {
+        if (handle != 0) {
+            Sodium.stodium_secure_wipe(handle, offset(slot), SLOTBYTES);
+        }
+        publicKeys[slot] = null;
+    }
+
+    /**
+     * releaseIfUnused releases the slab once the pool is closed and no slots
+     * are taken or being filled. Callers hold the lock.
+     */
+    private void releaseIfUnused() {
+        if (taken == 0 && filling == 0 && handle != 0) {
+            Sodium.stodium_secure_free(handle);
+            handle = 0;
+        }
+    }
+
+    /**
+     * takeTransient generates a key pair in its own allocation of locked
+     * memory, for when all slots are taken. The key pair releases that
+     * allocation itself.
+     */
+    @NonNull
+    private static EphemeralKeyPair takeTransient()
+            throws StodiumException {
+        final long slab = secureAlloc(SLOTBYTES);
+        final byte[] publicKey = new byte[Box.PUBLICKEYBYTES];
+        try {
+            Stodium.checkStatus(Metrics.record("EphemeralKeyPool#keypair", SLOTBYTES, Metrics.start(),
+                    Sodium.crypto_box_keypair_handle(publicKey, slab, 0)));
+        } catch (StodiumException e) {
+            Sodium.stodium_secure_free(slab);
+            throw e;
+        }
+        return new EphemeralKeyPair(null, 0, slab, 0, publicKey);
+    }
+
+    /**
+     * secureAlloc allocates len bytes of guarded memory, locked into memory.
+     *
+     * @throws OutOfMemoryError if the memory cannot be allocated or locked
+     */
+    private static long secureAlloc(final int len) {
+        final long slab = Sodium.stodium_secure_alloc(len);
+        if (slab == 0) {
+            throw new OutOfMemoryError(
+                    String.format("EphemeralKeyPool: cannot allocate and lock %d bytes", len));
+        }
+        return slab;
+    }
+
+    /**
+     * waitUninterruptibly waits on this, for the refill thread: only close
+     * stops it, so interrupts are ignored. Callers hold the lock, and
+     * re-check their condition.
+     */
+    private void waitUninterruptibly() {
+        try {
+            wait();
+        } catch (InterruptedException e) {
+            // re-check the condition
+        }
+    }
+}
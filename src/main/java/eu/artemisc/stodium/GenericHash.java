@@ -5,6 +5,7 @@ import android.support.annotation.Nullable;
 
 import org.abstractj.kalium.Sodium;
 
+import java.io.Closeable;
 import java.util.Arrays;
 
 /**
@@ -12,23 +13,24 @@ import java.util.Arrays;
  *
  * @author Jan van de Molengraft [jan@artemisc.eu]
  */
-public final class GenericHash {
+public final class GenericHash
+        implements Closeable {
     static {
         // Require sodium_init();
         Stodium.StodiumInit();
     }
 
     // constants
-    public static final int BYTES = Sodium.crypto_generichash_bytes();
-    public static final int BYTES_MIN = Sodium.crypto_generichash_bytes_min();
-    public static final int BYTES_MAX = Sodium.crypto_generichash_bytes_max();
-    public static final int KEYBYTES = Sodium.crypto_generichash_keybytes();
-    public static final int KEYBYTES_MIN = Sodium.crypto_generichash_keybytes_min();
-    public static final int KEYBYTES_MAX = Sodium.crypto_generichash_keybytes_max();
+    public static final int BYTES = Stodium.CONSTANTS[Constants.CRYPTO_GENERICHASH_BYTES];
+    public static final int BYTES_MIN = Stodium.CONSTANTS[Constants.CRYPTO_GENERICHASH_BYTES_MIN];
+    public static final int BYTES_MAX = Stodium.CONSTANTS[Constants.CRYPTO_GENERICHASH_BYTES_MAX];
+    public static final int KEYBYTES = Stodium.CONSTANTS[Constants.CRYPTO_GENERICHASH_KEYBYTES];
+    public static final int KEYBYTES_MIN = Stodium.CONSTANTS[Constants.CRYPTO_GENERICHASH_KEYBYTES_MIN];
+    public static final int KEYBYTES_MAX = Stodium.CONSTANTS[Constants.CRYPTO_GENERICHASH_KEYBYTES_MAX];
 
-    public static final int STATE_BYTES = Sodium.crypto_generichash_statebytes();
+    public static final int STATE_BYTES = Stodium.CONSTANTS[Constants.CRYPTO_GENERICHASH_STATEBYTES];
 
-    public static final String PRIMITIVE = Sodium.crypto_generichash_primitive();
+    public static final String PRIMITIVE = Stodium.PRIMITIVES[Constants.CRYPTO_GENERICHASH_PRIMITIVE];
 
     // Implementation of the stream API
 
@@ -36,7 +38,14 @@ public final class GenericHash {
      * state holds the binary representation of the crypto_generichash_state
      * value.
      */
-    @NonNull private final byte[] state;
+    @Nullable private final byte[] state;
+
+    /**
+     * nativeState holds the crypto_generichash_state value in native memory,
+     * for instances created by {@link #withNativeState(int)}. Exactly one of
+     * state and nativeState is non-null.
+     */
+    @Nullable private final NativeState nativeState;
     /**
      * outlen is the number of output bytes the state should produce. It is
      * used byte genericHashFinal to validate that the number of
@@ -59,9 +68,36 @@ public final class GenericHash {
         Stodium.checkSize(outlen, BYTES_MIN, BYTES_MAX,
                 "GenericHash.BYTES_MIN", "GenericHash.BYTES_MAX");
         this.state = new byte[STATE_BYTES];
+        this.nativeState = null;
+        this.outlen = outlen;
+    }
+
+    private GenericHash(final int outlen,
+                        @NonNull final NativeState nativeState) {
+        this.state = null;
+        this.nativeState = nativeState;
         this.outlen = outlen;
     }
 
+    /**
+     * withNativeState creates a GenericHash instance that keeps its state in
+     * native memory, so that update calls only have to pass the input across
+     * JNI. The instance should be closed when it is no longer used. This
+     * method does NOT call {@code init()}.
+     *
+     * @param outlen
+     * @return A new GenericHash instance
+     * @throws ConstraintViolationException
+     * @throws StodiumException
+     */
+    @NonNull
+    public static GenericHash withNativeState(final int outlen)
+            throws StodiumException {
+        Stodium.checkSize(outlen, BYTES_MIN, BYTES_MAX,
+                "GenericHash.BYTES_MIN", "GenericHash.BYTES_MAX");
+        return new GenericHash(outlen, new NativeState(STATE_BYTES));
+    }
+
     /**
      * This constructor calls {@link #init(byte[])}.
      *
@@ -85,7 +121,10 @@ public final class GenericHash {
      * @param original The original State that should be copied
      */
     public GenericHash(@NonNull final GenericHash original) {
-        this.state = Arrays.copyOf(original.state, original.state.length);
+        this.state = original.state == null ? null
+                : Arrays.copyOf(original.state, original.state.length);
+        this.nativeState = original.nativeState == null ? null
+                : new NativeState(original.nativeState);
         this.outlen = original.outlen;
     }
 
@@ -111,6 +150,13 @@ public final class GenericHash {
                     "GenericHash.KEYBYTES_MIN", "GenericHash.KEYBYTES_MAX");
         }
 
+        if (nativeState != null) {
+            synchronized (nativeState) {
+                Stodium.checkStatus(Sodium.crypto_generichash_init_handle(nativeState.handle(),
+                        key, key == null ? 0 : key.length, outlen));
+            }
+            return;
+        }
         Stodium.checkStatus(Sodium.crypto_generichash_init(
                 state, key, key == null ? 0 : key.length, outlen));
     }
@@ -139,8 +185,17 @@ public final class GenericHash {
                        final int length)
             throws StodiumException {
         Stodium.checkOffsetParams(in.length, offset, length);
-            Stodium.checkStatus(Sodium.crypto_generichash_update_offset(
-                    state, in, offset, length));
+        if (nativeState != null) {
+            synchronized (nativeState) {
+                Stodium.checkStatus(Metrics.record("GenericHash#update", length, Metrics.start(),
+                        Sodium.crypto_generichash_update_handle(
+                        nativeState.handle(), in, offset, length)));
+            }
+            return;
+        }
+            Stodium.checkStatus(Metrics.record("GenericHash#update", length, Metrics.start(),
+                    Sodium.crypto_generichash_update_offset(
+                    state, in, offset, length)));
     }
 
     /**
@@ -182,10 +237,28 @@ public final class GenericHash {
             throws StodiumException {
         Stodium.checkSize(length, 1, outlen, "1", "Blake2b.outlen");
         Stodium.checkOffsetParams(out.length, offset, outlen);
+        if (nativeState != null) {
+            synchronized (nativeState) {
+                Stodium.checkStatus(Sodium.crypto_generichash_final_handle(
+                        nativeState.handle(), out, offset, length));
+            }
+            return;
+        }
         Stodium.checkStatus(Sodium.crypto_generichash_blake2b_final_offset(
                 state, out, offset, length));
     }
 
+    /**
+     * close wipes and releases the native state of instances created by
+     * {@link #withNativeState(int)}. It has no effect on other instances.
+     */
+    @Override
+    public void close() {
+        if (nativeState != null) {
+            nativeState.close();
+        }
+    }
+
     // wrappers
 
     //
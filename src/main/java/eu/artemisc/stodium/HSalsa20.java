@@ -15,10 +15,10 @@ public class HSalsa20 {
     }
 
     // constants
-    public static final int INPUTBYTES  = Sodium.crypto_core_hsalsa20_inputbytes();
-    public static final int OUTPUTBYTES = Sodium.crypto_core_hsalsa20_outputbytes();
-    public static final int CONSTBYTES  = Sodium.crypto_core_hsalsa20_constbytes();
-    public static final int KEYBYTES    = Sodium.crypto_core_hsalsa20_keybytes();
+    public static final int INPUTBYTES  = Stodium.CONSTANTS[Constants.CRYPTO_CORE_HSALSA20_INPUTBYTES];
+    public static final int OUTPUTBYTES = Stodium.CONSTANTS[Constants.CRYPTO_CORE_HSALSA20_OUTPUTBYTES];
+    public static final int CONSTBYTES  = Stodium.CONSTANTS[Constants.CRYPTO_CORE_HSALSA20_CONSTBYTES];
+    public static final int KEYBYTES    = Stodium.CONSTANTS[Constants.CRYPTO_CORE_HSALSA20_KEYBYTES];
 
     /**
      *
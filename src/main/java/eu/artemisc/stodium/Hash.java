@@ -1,33 +1,44 @@
 package eu.artemisc.stodium;
 
 import android.support.annotation.NonNull;
+import android.support.annotation.Nullable;
 
 import org.abstractj.kalium.Sodium;
 
+import java.io.Closeable;
 import java.util.Arrays;
 
 /**
  * @author Jan van de Molengraft [jan@artemisc.eu]
  */
-public class Hash {
+public class Hash
+        implements Closeable {
     static {
         // Require sodium_init();
         Stodium.StodiumInit();
     }
 
     // constants
-    public static final int BYTES = Sodium.crypto_hash_bytes();
+    public static final int BYTES = Stodium.CONSTANTS[Constants.CRYPTO_HASH_BYTES];
 
-    public static final int STATE_BYTES = Sodium.crypto_hash_statebytes();
+    public static final int STATE_BYTES = Stodium.CONSTANTS[Constants.CRYPTO_HASH_STATEBYTES];
 
-    public static final String PRIMITIVE = Sodium.crypto_generichash_primitive();
+    public static final String PRIMITIVE = Stodium.PRIMITIVES[Constants.CRYPTO_GENERICHASH_PRIMITIVE];
 
     /**
      * state holds the binary representation of the crypto_hash_state value.
      */
-    @NonNull
+    @Nullable
     private final byte[] state;
 
+    /**
+     * nativeState holds the crypto_hash_state value in native memory, for
+     * instances created by {@link #withNativeState()}. Exactly one of state
+     * and nativeState is non-null.
+     */
+    @Nullable
+    private final NativeState nativeState;
+
     /**
      * Hash constructor creates a new hash_state. It implicitly calls
      * {@link #init()}, so calling init manually should only be required when an
@@ -39,16 +50,51 @@ public class Hash {
     public Hash()
             throws StodiumException {
         this.state = new byte[STATE_BYTES];
+        this.nativeState = null;
+        init();
+    }
+
+    private Hash(@NonNull final NativeState nativeState)
+            throws StodiumException {
+        this.state = null;
+        this.nativeState = nativeState;
         init();
     }
 
+    /**
+     * withNativeState creates a Hash instance that keeps its state in native
+     * memory, so that update calls only have to pass the input across JNI.
+     * The instance should be closed when it is no longer used.
+     *
+     * @return A new, initialized Hash instance
+     * @throws ConstraintViolationException
+     * @throws StodiumException
+     */
+    @NonNull
+    public static Hash withNativeState()
+            throws StodiumException {
+        final NativeState nativeState = new NativeState(STATE_BYTES);
+        try {
+            return new Hash(nativeState);
+        } catch (StodiumException e) {
+            nativeState.close();
+            throw e;
+        } catch (RuntimeException e) {
+            nativeState.close();
+            throw e;
+        }
+    }
+
     /**
      * Hash copy constructor, creates a deep copy of the original Hash instance
      * by copying the internal byte array of the original state value.
      * @param original
      */
     public Hash(@NonNull final Hash original) {
-        this.state = Arrays.copyOf(original.state, STATE_BYTES);
+        this.state = original.state == null ? null
+                : Arrays.copyOf(original.state, STATE_BYTES);
+        this.nativeState = original.nativeState == null ? null
+                : new NativeState(original.nativeState);
     }
 
     /**
@@ -58,6 +104,12 @@ public class Hash {
      */
     public void init()
             throws StodiumException {
+        if (nativeState != null) {
+            synchronized (nativeState) {
+                Stodium.checkStatus(Sodium.crypto_hash_init_handle(nativeState.handle()));
+            }
+            return;
+        }
         Stodium.checkStatus(Sodium.crypto_hash_init(state));
     }
 
@@ -85,7 +137,16 @@ public class Hash {
                        final int len)
             throws StodiumException {
         Stodium.checkOffsetParams(in.length, offset, len);
-        Stodium.checkStatus(Sodium.crypto_hash_update_offset(state, in, offset, len));
+        if (nativeState != null) {
+            synchronized (nativeState) {
+                Stodium.checkStatus(Metrics.record("Hash#update", len, Metrics.start(),
+                        Sodium.crypto_hash_update_handle(
+                        nativeState.handle(), in, offset, len)));
+            }
+            return;
+        }
+        Stodium.checkStatus(Metrics.record("Hash#update", len, Metrics.start(),
+                Sodium.crypto_hash_update_offset(state, in, offset, len)));
     }
 
     /**
@@ -110,9 +171,27 @@ public class Hash {
                         final int offset)
             throws StodiumException {
         Stodium.checkOffsetParams(out.length, offset, BYTES);
+        if (nativeState != null) {
+            synchronized (nativeState) {
+                Stodium.checkStatus(Sodium.crypto_hash_final_handle(
+                        nativeState.handle(), out, offset));
+            }
+            return;
+        }
         Stodium.checkStatus(Sodium.crypto_hash_final_offset(state, out, offset));
     }
 
+    /**
+     * close wipes and releases the native state of instances created by
+     * {@link #withNativeState()}. It has no effect on other instances.
+     */
+    @Override
+    public void close() {
+        if (nativeState != null) {
+            nativeState.close();
+        }
+    }
+
     /**
      *
      * @param out
@@ -144,6 +223,7 @@ public class Hash {
             throws StodiumException {
         Stodium.checkOffsetParams(out.length, outOffset, BYTES);
         Stodium.checkOffsetParams(in.length, inOffset, inLen);
-        Stodium.checkStatus(Sodium.crypto_hash_offset(out, outOffset, in, inOffset, inLen));
+        Stodium.checkStatus(Metrics.record("Hash#hash", inLen, Metrics.start(),
+                Sodium.crypto_hash_offset(out, outOffset, in, inOffset, inLen)));
     }
 }
@@ -0,0 +1,157 @@
+package eu.artemisc.stodium;
+
+import android.support.annotation.NonNull;
+
+import org.abstractj.kalium.Sodium;
+
+/**
+ * JniBackend is the default {@link StodiumBackend}, which calls the
+ * SWIG-generated JNI methods. Messages of up to
+ * {@link Stodium#CRITICAL_MAX_BYTES} are passed through the *_critical
+ * variants, which pin all arrays of a call at once.
+ *
+ * @author Jan van de Molengraft [jan@artemisc.eu]
+ */
+final class JniBackend
+        implements StodiumBackend {
+    static final String NAME = "jni";
+
+    @NonNull
+    @Override
+    public String name() {
+        return NAME;
+    }
+
+    @Override
+    public int crypto_secretbox_easy(@NonNull final byte[] dstCipher,
+                                     @NonNull final byte[] srcPlain,
+                                     final int plainLen,
+                                     @NonNull final byte[] nonce,
+                                     @NonNull final byte[] secretKey) {
+        if (plainLen <= Stodium.CRITICAL_MAX_BYTES) {
+            return Sodium.crypto_secretbox_easy_critical(dstCipher, srcPlain, plainLen, nonce, secretKey);
+        }
+        return Sodium.crypto_secretbox_easy(dstCipher, srcPlain, plainLen, nonce, secretKey);
+    }
+
+    @Override
+    public int crypto_secretbox_open_easy(@NonNull final byte[] dstPlain,
+                                          @NonNull final byte[] srcCipher,
+                                          final int cipherLen,
+                                          @NonNull final byte[] nonce,
+                                          @NonNull final byte[] secretKey) {
+        if (cipherLen <= Stodium.CRITICAL_MAX_BYTES) {
+            return Sodium.crypto_secretbox_open_easy_critical(dstPlain, srcCipher, cipherLen, nonce, secretKey);
+        }
+        return Sodium.crypto_secretbox_open_easy(dstPlain, srcCipher, cipherLen, nonce, secretKey);
+    }
+
+    @Override
+    public int crypto_box_beforenm(@NonNull final byte[] dstSharedKey,
+                                   @NonNull final byte[] remotePubKey,
+                                   @NonNull final byte[] localPrivKey) {
+        return Sodium.crypto_box_beforenm(dstSharedKey, remotePubKey, localPrivKey);
+    }
+
+    @Override
+    public int crypto_box_easy_afternm(@NonNull final byte[] dstCipher,
+                                       @NonNull final byte[] srcPlain,
+                                       final int plainLen,
+                                       @NonNull final byte[] nonce,
+                                       @NonNull final byte[] sharedKey) {
+        if (plainLen <= Stodium.CRITICAL_MAX_BYTES) {
+            return Sodium.crypto_box_easy_afternm_critical(dstCipher, srcPlain, plainLen, nonce, sharedKey);
+        }
+        return Sodium.crypto_box_easy_afternm(dstCipher, srcPlain, plainLen, nonce, sharedKey);
+    }
+
+    @Override
+    public int crypto_box_open_easy_afternm(@NonNull final byte[] dstPlain,
+                                            @NonNull final byte[] srcCipher,
+                                            final int cipherLen,
+                                            @NonNull final byte[] nonce,
+                                            @NonNull final byte[] sharedKey) {
+        if (cipherLen <= Stodium.CRITICAL_MAX_BYTES) {
+            return Sodium.crypto_box_open_easy_afternm_critical(dstPlain, srcCipher, cipherLen, nonce, sharedKey);
+        }
+        return Sodium.crypto_box_open_easy_afternm(dstPlain, srcCipher, cipherLen, nonce, sharedKey);
+    }
+
+    @Override
+    public int crypto_aead_chacha20poly1305_encrypt(@NonNull final byte[] dstCipher,
+                                                    final int dstOffset,
+                                                    @NonNull final byte[] srcPlain,
+                                                    final int srcOffset,
+                                                    final int plainLen,
+                                                    @NonNull final byte[] ad,
+                                                    @NonNull final byte[] nonce,
+                                                    @NonNull final byte[] key) {
+        return Sodium.crypto_aead_chacha20poly1305_encrypt_offset(dstCipher, dstOffset,
+                srcPlain, srcOffset, plainLen, ad, ad.length, nonce, key);
+    }
+
+    @Override
+    public int crypto_aead_chacha20poly1305_decrypt(@NonNull final byte[] dstPlain,
+                                                    final int dstOffset,
+                                                    @NonNull final byte[] srcCipher,
+                                                    final int srcOffset,
+                                                    final int cipherLen,
+                                                    @NonNull final byte[] ad,
+                                                    @NonNull final byte[] nonce,
+                                                    @NonNull final byte[] key) {
+        return Sodium.crypto_aead_chacha20poly1305_decrypt_offset(dstPlain, dstOffset,
+                srcCipher, srcOffset, cipherLen, ad, ad.length, nonce, key);
+    }
+
+    @Override
+    public int crypto_sign_ed25519_detached(@NonNull final byte[] dstSignature,
+                                            @NonNull final byte[] srcMsg,
+                                            final int msgLen,
+                                            @NonNull final byte[] localPrivKey) {
+        if (msgLen <= Stodium.CRITICAL_MAX_BYTES) {
+            return Sodium.crypto_sign_ed25519_detached_critical(dstSignature, srcMsg, msgLen, localPrivKey);
+        }
+        return Sodium.crypto_sign_ed25519_detached_offset(dstSignature, 0, srcMsg, 0, msgLen, localPrivKey);
+    }
+
+    @Override
+    public int crypto_sign_ed25519_verify_detached(@NonNull final byte[] srcSignature,
+                                                   @NonNull final byte[] srcMsg,
+                                                   final int msgLen,
+                                                   @NonNull final byte[] remotePubKey) {
+        if (msgLen <= Stodium.CRITICAL_MAX_BYTES) {
+            return Sodium.crypto_sign_ed25519_verify_detached_critical(srcSignature, srcMsg, msgLen, remotePubKey);
+        }
+        return Sodium.crypto_sign_ed25519_verify_detached(srcSignature, srcMsg, msgLen, remotePubKey);
+    }
+
+    @Override
+    public int crypto_onetimeauth_poly1305(@NonNull final byte[] dstOut,
+                                          @NonNull final byte[] srcIn,
+                                          final int inLen,
+                                          @NonNull final byte[] srcKey) {
+        return Sodium.crypto_onetimeauth_poly1305(dstOut, srcIn, inLen, srcKey);
+    }
+
+    @Override
+    public int crypto_onetimeauth_poly1305_verify(@NonNull final byte[] srcTag,
+                                                 @NonNull final byte[] srcIn,
+                                                 final int inLen,
+                                                 @NonNull final byte[] srcKey) {
+        return Sodium.crypto_onetimeauth_poly1305_verify(srcTag, srcIn, inLen, srcKey);
+    }
+
+    @Override
+    public int crypto_scalarmult_curve25519(@NonNull final byte[] dst,
+                                            @NonNull final byte[] src,
+                                            @NonNull final byte[] groupElement) {
+        return Sodium.crypto_scalarmult_curve25519_critical(dst, src, groupElement);
+    }
+
+    @Override
+    public long crypto_shorthash_long(@NonNull final byte[] srcIn,
+                                      final int inLen,
+                                      @NonNull final byte[] srcKey) {
+        return Sodium.crypto_shorthash_long(srcIn, inLen, srcKey);
+    }
+}
@@ -0,0 +1,115 @@
+package eu.artemisc.stodium;
+
+import android.support.annotation.NonNull;
+import android.support.annotation.Nullable;
+
+import java.util.Iterator;
+import java.util.ServiceLoader;
+
+/**
+ * Metrics holds the installed {@link StodiumMetrics} listener, if any. The
+ * wrappers pass the result of every native call through
+ * {@link #record(String, int, long, int)}:
+ *
+ * <pre>
+ * Stodium.checkStatus(Metrics.record("Secretbox#easy", srcPlain.length, Metrics.start(),
+ *         Sodium.crypto_secretbox_easy(...)));
+ * </pre>
+ *
+ * Java evaluates arguments from left to right, so {@link #start()} is read
+ * before the native call is made. Both methods only touch the clock and the
+ * listener when {@link #ENABLED} is set; otherwise record simply returns the
+ * status.
+ *
+ * @author Jan van de Molengraft [jan@artemisc.eu]
+ */
+final class Metrics {
+    // block the constructor
+    private Metrics() {}
+
+    @Nullable
+    private static final StodiumMetrics LISTENER = load();
+
+    static final boolean ENABLED = LISTENER != null;
+
+    @Nullable
+    private static final StodiumPasswordHashMetrics PASSWORD_HASH_LISTENER =
+            LISTENER instanceof StodiumPasswordHashMetrics
+                    ? (StodiumPasswordHashMetrics) LISTENER
+                    : null;
+
+    /**
+     * load returns the first StodiumMetrics implementation that is
+     * registered as a service, or null if there is none.
+     */
+    @Nullable
+    private static StodiumMetrics load() {
+        final Iterator<StodiumMetrics> it = ServiceLoader.load(
+                StodiumMetrics.class, Metrics.class.getClassLoader()).iterator();
+        return it.hasNext() ? it.next() : null;
+    }
+
+    /**
+     * @return The current value of System.nanoTime(), or 0 if no listener is
+     *         installed
+     */
+    static long start() {
+        return ENABLED ? System.nanoTime() : 0L;
+    }
+
+    /**
+     * record reports a completed native call to the listener and returns its
+     * status unchanged.
+     *
+     * @param operation
+     * @param bytes
+     * @param start The value returned by {@link #start()} before the call
+     * @param status The status returned by the native call
+     * @return status
+     */
+    static int record(@NonNull final String operation,
+                      final int bytes,
+                      final long start,
+                      final int status) {
+        if (ENABLED) {
+            LISTENER.onOperation(operation, bytes, System.nanoTime() - start);
+            if (status != 0) {
+                LISTENER.onFailure(operation);
+            }
+        }
+        return status;
+    }
+
+    /**
+     * recordPasswordHash is the equivalent of
+     * {@link #record(String, int, long, int)} for password hashing calls,
+     * which additionally reports the limits to a
+     * {@link StodiumPasswordHashMetrics} listener.
+     *
+     * @param operation
+     * @param bytes
+     * @param opsLimit
+     * @param memLimit
+     * @param start The value returned by {@link #start()} before the call
+     * @param status The status returned by the native call
+     * @return status
+     */
+    static int recordPasswordHash(@NonNull final String operation,
+                                  final int bytes,
+                                  final int opsLimit,
+                                  final int memLimit,
+                                  final long start,
+                                  final int status) {
+        if (ENABLED) {
+            final long nanos = System.nanoTime() - start;
+            LISTENER.onOperation(operation, bytes, nanos);
+            if (PASSWORD_HASH_LISTENER != null) {
+                PASSWORD_HASH_LISTENER.onPasswordHash(operation, opsLimit, memLimit, nanos);
+            }
+            if (status != 0) {
+                LISTENER.onFailure(operation);
+            }
+        }
+        return status;
+    }
+}
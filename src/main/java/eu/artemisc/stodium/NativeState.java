@@ -0,0 +1,159 @@
+package eu.artemisc.stodium;
+
+import android.support.annotation.NonNull;
+
+import org.abstractj.kalium.Sodium;
+
+import java.io.Closeable;
+import java.lang.ref.PhantomReference;
+import java.lang.ref.Reference;
+import java.lang.ref.ReferenceQueue;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.Set;
+
+/**
+ * NativeState owns a block of native memory that holds the state of one of
+ * the streaming API's (hash, generichash, onetimeauth). Unlike a heap byte[]
+ * state, it does not have to be copied across JNI on every update call.
+ *
+ * The memory is wiped and released by {@link #close()}. If an instance is
+ * never closed, the memory is released after the instance has become
+ * unreachable, through a PhantomReference that is processed on the next
+ * allocation of a NativeState (java.lang.ref.Cleaner is not available on
+ * Android).
+ *
+ * Callers hold the lock on the NativeState for the whole of every native
+ * call that uses its {@link #handle()}: this keeps close from releasing the
+ * memory during the call, and keeps the instance reachable until the call
+ * has returned.
+ *
+ * @author Jan van de Molengraft [jan@artemisc.eu]
+ */
+final class NativeState
+        implements Closeable {
+    static {
+        // Require sodium_init();
+        Stodium.StodiumInit();
+    }
+
+    /**
+     * QUEUE receives the Release references of unreachable instances.
+     */
+    private static final ReferenceQueue<NativeState> QUEUE = new ReferenceQueue<>();
+
+    /**
+     * PENDING keeps the Release references of live instances reachable, as
+     * a PhantomReference that is itself collected is never enqueued.
+     */
+    private static final Set<Release> PENDING = Collections.synchronizedSet(new HashSet<Release>());
+
+    /**
+     * handle is the address of the native state, or 0 after the state was
+     * closed.
+     */
+    private long handle;
+    private final int size;
+    @NonNull private final Release release;
+
+    /**
+     * NativeState allocates size bytes of zeroed, 64-byte aligned native
+     * memory.
+     *
+     * @param size
+     * @throws OutOfMemoryError if the allocation fails
+     */
+    NativeState(final int size) {
+        releaseUnreachable();
+        this.handle = Sodium.stodium_state_alloc(size);
+        this.size = size;
+        if (handle == 0) {
+            throw new OutOfMemoryError(
+                    String.format("NativeState: cannot allocate %d bytes", size));
+        }
+        this.release = new Release(this, handle, size);
+    }
+
+    /**
+     * NativeState copy-constructor, allocates a new native state and copies
+     * the contents of the original into it.
+     *
+     * @param original
+     * @throws OutOfMemoryError if the allocation fails
+     */
+    NativeState(@NonNull final NativeState original) {
+        this(original.size);
+        synchronized (original) {
+            Sodium.stodium_state_copy(handle, original.handle(), size);
+        }
+    }
+
+    /**
+     * handle returns the address of the native state. The caller must hold
+     * the lock on this instance until the native call that uses the address
+     * has returned.
+     *
+     * @return The address of the native state
+     * @throws IllegalStateException if the state was already closed
+     */
+    synchronized long handle() {
+        if (handle == 0) {
+            throw new IllegalStateException("NativeState: state is closed");
+        }
+        return handle;
+    }
+
+    /**
+     * close wipes and releases the native memory. Calling close more than
+     * once has no effect.
+     */
+    @Override
+    public synchronized void close() {
+        if (handle == 0) {
+            return;
+        }
+        release.run();
+        handle = 0;
+    }
+
+    /**
+     * releaseUnreachable releases the memory of the instances that were
+     * found unreachable since the last call.
+     */
+    private static void releaseUnreachable() {
+        Reference<? extends NativeState> ref;
+        while ((ref = QUEUE.poll()) != null) {
+            ((Release) ref).run();
+        }
+    }
+
+    /**
+     * Release frees the memory of a NativeState, either when it is closed,
+     * or after it has become unreachable. It does not refer to the
+     * NativeState itself.
+     */
+    private static final class Release
+            extends PhantomReference<NativeState> {
+        private long handle;
+        private final int size;
+
+        Release(@NonNull final NativeState owner,
+                final long handle,
+                final int size) {
+            super(owner, QUEUE);
+            this.handle = handle;
+            this.size = size;
+            PENDING.add(this);
+        }
+
+        synchronized void run() {
+            if (handle == 0) {
+                return;
+            }
+            Sodium.stodium_state_free(handle, size);
+            handle = 0;
+            PENDING.remove(this);
+            clear();
+        }
+    }
+}
@@ -1,9 +1,11 @@
 package eu.artemisc.stodium;
 
 import android.support.annotation.NonNull;
+import android.support.annotation.Nullable;
 
 import org.abstractj.kalium.Sodium;
 
+import java.io.Closeable;
 import java.util.Arrays;
 
 /**
@@ -12,19 +14,20 @@ import java.util.Arrays;
  *
  * @author Jan van de Molengraft [jan@artemisc.eu]
  */
-public class OneTimeAuth {
+public class OneTimeAuth
+        implements Closeable {
     static {
         // Require sodium_init();
         Stodium.StodiumInit();
     }
 
     // constants
-    public static final int BYTES = Sodium.crypto_onetimeauth_bytes();
-    public static final int KEYBYTES = Sodium.crypto_onetimeauth_keybytes();
+    public static final int BYTES = Stodium.CONSTANTS[Constants.CRYPTO_ONETIMEAUTH_BYTES];
+    public static final int KEYBYTES = Stodium.CONSTANTS[Constants.CRYPTO_ONETIMEAUTH_KEYBYTES];
 
-    public static final int STATEBYTES = Sodium.crypto_onetimeauth_statebytes();
+    public static final int STATEBYTES = Stodium.CONSTANTS[Constants.CRYPTO_ONETIMEAUTH_STATEBYTES];
 
-    public static final String PRIMITIVE = Sodium.crypto_onetimeauth_primitive();
+    public static final String PRIMITIVE = Stodium.PRIMITIVES[Constants.CRYPTO_ONETIMEAUTH_PRIMITIVE];
 
     // Implementation of the stream API
 
@@ -32,15 +35,42 @@ public class OneTimeAuth {
      * state holds the binary representation of the crypto_onetimeauth_state
      * value.
      */
-    @NonNull
+    @Nullable
     private final byte[] state;
 
+    /**
+     * nativeState holds the crypto_onetimeauth_state value in native memory,
+     * for instances created by {@link #withNativeState()}. Exactly one of
+     * state and nativeState is non-null.
+     */
+    @Nullable
+    private final NativeState nativeState;
+
     /**
      * State allocates a byte array that holds the raw packed value of the C
      * crypto_onetimeauth_state bytes.
      */
     public OneTimeAuth() {
         this.state = new byte[STATEBYTES];
+        this.nativeState = null;
+    }
+
+    private OneTimeAuth(@NonNull final NativeState nativeState) {
+        this.state = null;
+        this.nativeState = nativeState;
+    }
+
+    /**
+     * withNativeState creates a OneTimeAuth instance that keeps its state in
+     * native memory, so that update calls only have to pass the input across
+     * JNI. The instance should be closed when it is no longer used. This
+     * method does NOT call {@code init()}.
+     *
+     * @return A new OneTimeAuth instance
+     */
+    @NonNull
+    public static OneTimeAuth withNativeState() {
+        return new OneTimeAuth(new NativeState(STATEBYTES));
     }
 
     /**
@@ -65,7 +95,10 @@ public class OneTimeAuth {
      * @param original The original State that should be copied
      */
     public OneTimeAuth(@NonNull final OneTimeAuth original) {
-        this.state = Arrays.copyOf(original.state, original.state.length);
+        this.state = original.state == null ? null
+                : Arrays.copyOf(original.state, original.state.length);
+        this.nativeState = original.nativeState == null ? null
+                : new NativeState(original.nativeState);
     }
 
     /**
@@ -77,6 +110,13 @@ public class OneTimeAuth {
     public void init(@NonNull final byte[] key)
             throws StodiumException {
         Stodium.checkSize(key.length, KEYBYTES, "OneTimeAuth.KEYBYTES");
+        if (nativeState != null) {
+            synchronized (nativeState) {
+                Stodium.checkStatus(
+                        Sodium.crypto_onetimeauth_init_handle(nativeState.handle(), key));
+            }
+            return;
+        }
         Stodium.checkStatus(
                 Sodium.crypto_onetimeauth_init(state, key));
     }
@@ -105,8 +145,17 @@ public class OneTimeAuth {
                        final int length)
             throws StodiumException {
         Stodium.checkOffsetParams(in.length, offset, length);
-        Stodium.checkStatus(Sodium.crypto_onetimeauth_update_offset(
-                state, in, offset, length));
+        if (nativeState != null) {
+            synchronized (nativeState) {
+                Stodium.checkStatus(Metrics.record("OneTimeAuth#update", length, Metrics.start(),
+                        Sodium.crypto_onetimeauth_update_handle(
+                        nativeState.handle(), in, offset, length)));
+            }
+            return;
+        }
+        Stodium.checkStatus(Metrics.record("OneTimeAuth#update", length, Metrics.start(),
+                Sodium.crypto_onetimeauth_update_offset(
+                state, in, offset, length)));
     }
 
     /**
@@ -133,10 +182,28 @@ public class OneTimeAuth {
                         final int offset)
             throws StodiumException {
         Stodium.checkOffsetParams(out.length, offset, BYTES);
+        if (nativeState != null) {
+            synchronized (nativeState) {
+                Stodium.checkStatus(Sodium.crypto_onetimeauth_final_handle(
+                        nativeState.handle(), out, offset));
+            }
+            return;
+        }
         Stodium.checkStatus(Sodium.crypto_onetimeauth_final_offset(
                 state, out, offset));
     }
 
+    /**
+     * close wipes and releases the native state of instances created by
+     * {@link #withNativeState()}. It has no effect on other instances.
+     */
+    @Override
+    public void close() {
+        if (nativeState != null) {
+            nativeState.close();
+        }
+    }
+
     // wrappers
 
     //
@@ -155,9 +222,10 @@ public class OneTimeAuth {
                             @NonNull final byte[] srcIn,
                             @NonNull final byte[] srcKey)
             throws StodiumException {
-        final OneTimeAuth auth = new OneTimeAuth(srcKey);
-        auth.update(srcIn);
-        auth.doFinal(dstOut);
+        Stodium.checkSize(dstOut.length, BYTES, "OneTimeAuth.BYTES");
+        Stodium.checkSize(srcKey.length, KEYBYTES, "OneTimeAuth.KEYBYTES");
+        Stodium.checkStatus(Metrics.record("OneTimeAuth#auth", srcIn.length, Metrics.start(),
+                Sodium.crypto_onetimeauth(dstOut, srcIn, srcIn.length, srcKey)));
     }
 
     /**
@@ -173,8 +241,9 @@ public class OneTimeAuth {
                                      @NonNull final byte[] srcIn,
                                      @NonNull final byte[] srcKey)
             throws StodiumException {
-        final byte[] verify = new byte[BYTES];
-        auth(verify, srcIn, srcKey);
-        return Stodium.isEqual(srcTag, verify);
+        Stodium.checkSize(srcTag.length, BYTES, "OneTimeAuth.BYTES");
+        Stodium.checkSize(srcKey.length, KEYBYTES, "OneTimeAuth.KEYBYTES");
+        return Metrics.record("OneTimeAuth#authVerify", srcIn.length, Metrics.start(),
+                Sodium.crypto_onetimeauth_verify(srcTag, srcIn, srcIn.length, srcKey)) == 0;
     }
 }
@@ -0,0 +1,123 @@
+package eu.artemisc.stodium;
+
+import android.support.annotation.NonNull;
+
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.util.Locale;
+
+/**
+ * Platform describes the capabilities of the runtime the library is loaded
+ * on, which is either Android or a desktop/server JVM. It replaces direct
+ * references to android.os.Build, so that the same sources can be built and
+ * run outside of Android.
+ *
+ * @author Jan van de Molengraft [jan@artemisc.eu]
+ */
+final class Platform {
+    // block the constructor
+    private Platform() {}
+
+    /**
+     * SDK_INT is the value of android.os.Build.VERSION.SDK_INT, or 0 when not
+     * running on Android.
+     */
+    static final int SDK_INT = sdkInt();
+
+    /**
+     * ANDROID is true when running on Android.
+     */
+    static final boolean ANDROID = SDK_INT > 0;
+
+    /**
+     * AEAD_BAD_TAG_EXCEPTION is true when javax.crypto.AEADBadTagException is
+     * available, which is the case on every JVM since Java 7, and on Android
+     * since KitKat (API 19).
+     */
+    static final boolean AEAD_BAD_TAG_EXCEPTION = !ANDROID || SDK_INT >= 19;
+
+    /**
+     * sdkInt reads android.os.Build.VERSION.SDK_INT through reflection, so
+     * that this class does not link against the Android framework.
+     */
+    private static int sdkInt() {
+        try {
+            return Class.forName("android.os.Build$VERSION")
+                    .getField("SDK_INT").getInt(null);
+        } catch (Exception e) {
+            return 0;
+        }
+    }
+
+    /**
+     * loadLibrary loads the named JNI library. On Android, and on a JVM where
+     * it is found on java.library.path, System.loadLibrary is used. Otherwise
+     * the copy bundled by the jvm module, at
+     * {@code /native/linux-<arch>/lib<name>.so}, is extracted to a temporary
+     * file and loaded from there.
+     *
+     * @param name The library name, as passed to System.loadLibrary
+     * @throws UnsatisfiedLinkError if the library cannot be loaded
+     */
+    static void loadLibrary(@NonNull final String name) {
+        try {
+            System.loadLibrary(name);
+        } catch (UnsatisfiedLinkError e) {
+            if (ANDROID) {
+                throw e;
+            }
+            final String resource = String.format("/native/linux-%s/%s",
+                    arch(), System.mapLibraryName(name));
+            final InputStream in = Platform.class.getResourceAsStream(resource);
+            if (in == null) {
+                throw e;
+            }
+            System.load(extract(in, name).getAbsolutePath());
+        }
+    }
+
+    /**
+     * @return The os.arch property, using the names of the jvm module's
+     *         native build (x86_64, aarch64)
+     */
+    @NonNull
+    private static String arch() {
+        final String arch = System.getProperty("os.arch", "").toLowerCase(Locale.ROOT);
+        if (arch.equals("amd64") || arch.equals("x86-64")) {
+            return "x86_64";
+        }
+        if (arch.equals("arm64")) {
+            return "aarch64";
+        }
+        return arch;
+    }
+
+    @NonNull
+    private static File extract(@NonNull final InputStream in,
+                                @NonNull final String name) {
+        try {
+            final File file = File.createTempFile(name, ".so");
+            file.deleteOnExit();
+            final OutputStream out = new FileOutputStream(file);
+            try {
+                final byte[] buffer = new byte[8192];
+                int n;
+                while ((n = in.read(buffer)) != -1) {
+                    out.write(buffer, 0, n);
+                }
+            } finally {
+                out.close();
+                in.close();
+            }
+            return file;
+        } catch (IOException e) {
+            final UnsatisfiedLinkError error = new UnsatisfiedLinkError(
+                    "Platform: cannot extract " + name + ": " + e.getMessage());
+            error.initCause(e);
+            throw error;
+        }
+    }
+}
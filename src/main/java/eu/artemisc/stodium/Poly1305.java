@@ -1,10 +1,12 @@
 package eu.artemisc.stodium;
 
 import android.support.annotation.NonNull;
+import android.support.annotation.Nullable;
 import android.support.annotation.Size;
 
 import org.abstractj.kalium.Sodium;
 
+import java.io.Closeable;
 import java.util.Arrays;
 
 /**
@@ -12,17 +14,18 @@ import java.util.Arrays;
  *
  * @author Jan van de Molengraft [jan@artemisc.eu]
  */
-public class Poly1305 {
+public class Poly1305
+        implements Closeable {
     static {
         // Require sodium_init();
         Stodium.StodiumInit();
     }
 
     // constants
-    public static final int BYTES = Sodium.crypto_onetimeauth_poly1305_bytes();
-    public static final int KEYBYTES = Sodium.crypto_onetimeauth_poly1305_keybytes();
+    public static final int BYTES = Stodium.CONSTANTS[Constants.CRYPTO_ONETIMEAUTH_POLY1305_BYTES];
+    public static final int KEYBYTES = Stodium.CONSTANTS[Constants.CRYPTO_ONETIMEAUTH_POLY1305_KEYBYTES];
 
-    public static final int STATEBYTES = Sodium.crypto_onetimeauth_poly1305_statebytes();
+    public static final int STATEBYTES = Stodium.CONSTANTS[Constants.CRYPTO_ONETIMEAUTH_POLY1305_STATEBYTES];
 
     // Implementation of the stream API
 
@@ -30,15 +33,42 @@ public class Poly1305 {
      * state holds the binary representation of the
      * crypto_onetimeauth_poly1305_state value.
      */
-    @NonNull
+    @Nullable
     private final byte[] state;
 
+    /**
+     * nativeState holds the crypto_onetimeauth_poly1305_state value in native memory,
+     * for instances created by {@link #withNativeState()}. Exactly one of
+     * state and nativeState is non-null.
+     */
+    @Nullable
+    private final NativeState nativeState;
+
     /**
      * State allocates a byte array that holds the raw packed value of the C
      * crypto_onetimeauth_poly1305_state bytes.
      */
     public Poly1305() {
         this.state = new byte[STATEBYTES];
+        this.nativeState = null;
+    }
+
+    private Poly1305(@NonNull final NativeState nativeState) {
+        this.state = null;
+        this.nativeState = nativeState;
+    }
+
+    /**
+     * withNativeState creates a Poly1305 instance that keeps its state in
+     * native memory, so that update calls only have to pass the input across
+     * JNI. The instance should be closed when it is no longer used. This
+     * method does NOT call {@code init()}.
+     *
+     * @return A new Poly1305 instance
+     */
+    @NonNull
+    public static Poly1305 withNativeState() {
+        return new Poly1305(new NativeState(STATEBYTES));
     }
 
     /**
@@ -61,7 +91,10 @@ public class Poly1305 {
      * @param original The original State that should be copied
      */
     public Poly1305(@NonNull final Poly1305 original) {
-        this.state = Arrays.copyOf(original.state, original.state.length);
+        this.state = original.state == null ? null
+                : Arrays.copyOf(original.state, original.state.length);
+        this.nativeState = original.nativeState == null ? null
+                : new NativeState(original.nativeState);
     }
 
     /**
@@ -73,6 +106,13 @@ public class Poly1305 {
     public void init(@NonNull @Size(32) final byte[] key)
             throws StodiumException {
         Stodium.checkSize(key.length, KEYBYTES, "Poly1305.KEYBYTES");
+        if (nativeState != null) {
+            synchronized (nativeState) {
+                Stodium.checkStatus(
+                        Sodium.crypto_onetimeauth_poly1305_init_handle(nativeState.handle(), key));
+            }
+            return;
+        }
         Stodium.checkStatus(
                 Sodium.crypto_onetimeauth_poly1305_init(state, key));
     }
@@ -101,8 +141,17 @@ public class Poly1305 {
                        final int length)
             throws StodiumException {
         Stodium.checkOffsetParams(in.length, offset, length);
-        Stodium.checkStatus(Sodium.crypto_onetimeauth_poly1305_update_offset(
-                state, in, offset, length));
+        if (nativeState != null) {
+            synchronized (nativeState) {
+                Stodium.checkStatus(Metrics.record("Poly1305#update", length, Metrics.start(),
+                        Sodium.crypto_onetimeauth_poly1305_update_handle(
+                        nativeState.handle(), in, offset, length)));
+            }
+            return;
+        }
+        Stodium.checkStatus(Metrics.record("Poly1305#update", length, Metrics.start(),
+                Sodium.crypto_onetimeauth_poly1305_update_offset(
+                state, in, offset, length)));
     }
 
     /**
@@ -129,10 +178,28 @@ public class Poly1305 {
                         final int offset)
             throws StodiumException {
         Stodium.checkOffsetParams(out.length, offset, BYTES);
+        if (nativeState != null) {
+            synchronized (nativeState) {
+                Stodium.checkStatus(Sodium.crypto_onetimeauth_poly1305_final_handle(
+                        nativeState.handle(), out, offset));
+            }
+            return;
+        }
         Stodium.checkStatus(Sodium.crypto_onetimeauth_poly1305_final_offset(
                 state, out, offset));
     }
 
+    /**
+     * close wipes and releases the native state of instances created by
+     * {@link #withNativeState()}. It has no effect on other instances.
+     */
+    @Override
+    public void close() {
+        if (nativeState != null) {
+            nativeState.close();
+        }
+    }
+
     // wrappers
 
     //
@@ -151,9 +218,10 @@ public class Poly1305 {
                             @NonNull final byte[] srcIn,
                             @NonNull @Size(32) final byte[] srcKey)
             throws StodiumException {
-        final Poly1305 poly1305 = new Poly1305(srcKey);
-        poly1305.update(srcIn);
-        poly1305.doFinal(dstOut);
+        Stodium.checkSize(dstOut.length, BYTES, "Poly1305.BYTES");
+        Stodium.checkSize(srcKey.length, KEYBYTES, "Poly1305.KEYBYTES");
+        Stodium.checkStatus(Metrics.record("Poly1305#auth", srcIn.length, Metrics.start(),
+                Backends.BACKEND.crypto_onetimeauth_poly1305(dstOut, srcIn, srcIn.length, srcKey)));
     }
 
     /**
@@ -169,8 +237,9 @@ public class Poly1305 {
                                      @NonNull final byte[] srcIn,
                                      @NonNull @Size(32) final byte[] srcKey)
             throws StodiumException {
-        final byte[] verify = new byte[BYTES];
-        auth(verify, srcIn, srcKey);
-        return Stodium.isEqual(srcTag, verify);
+        Stodium.checkSize(srcTag.length, BYTES, "Poly1305.BYTES");
+        Stodium.checkSize(srcKey.length, KEYBYTES, "Poly1305.KEYBYTES");
+        return Metrics.record("Poly1305#authVerify", srcIn.length, Metrics.start(),
+                Backends.BACKEND.crypto_onetimeauth_poly1305_verify(srcTag, srcIn, srcIn.length, srcKey)) == 0;
     }
 }
@@ -17,15 +17,15 @@ public final class Scrypt {
     private Scrypt() {}
 
     // constants
-    public static final int SALTBYTES = Sodium.crypto_pwhash_scryptsalsa208sha256_saltbytes();
+    public static final int SALTBYTES = Stodium.CONSTANTS[Constants.CRYPTO_PWHASH_SCRYPTSALSA208SHA256_SALTBYTES];
 
-    public static final int STRBYTES = Sodium.crypto_pwhash_scryptsalsa208sha256_strbytes();
-    public static final String STRPREFIX = Sodium.crypto_pwhash_scryptsalsa208sha256_strprefix();
+    public static final int STRBYTES = Stodium.CONSTANTS[Constants.CRYPTO_PWHASH_SCRYPTSALSA208SHA256_STRBYTES];
+    public static final String STRPREFIX = Stodium.PRIMITIVES[Constants.CRYPTO_PWHASH_SCRYPTSALSA208SHA256_STRPREFIX];
 
-    public static final int OPSLIMIT_INTERACTIVE = Sodium.crypto_pwhash_scryptsalsa208sha256_opslimit_interactive();
-    public static final int MEMLIMIT_INTERACTIVE = Sodium.crypto_pwhash_scryptsalsa208sha256_memlimit_interactive();
-    public static final int OPSLIMIT_SENSITIVE = Sodium.crypto_pwhash_scryptsalsa208sha256_opslimit_sensitive();
-    public static final int MEMLIMIT_SENSITIVE = Sodium.crypto_pwhash_scryptsalsa208sha256_memlimit_sensitive();
+    public static final int OPSLIMIT_INTERACTIVE = Stodium.CONSTANTS[Constants.CRYPTO_PWHASH_SCRYPTSALSA208SHA256_OPSLIMIT_INTERACTIVE];
+    public static final int MEMLIMIT_INTERACTIVE = Stodium.CONSTANTS[Constants.CRYPTO_PWHASH_SCRYPTSALSA208SHA256_MEMLIMIT_INTERACTIVE];
+    public static final int OPSLIMIT_SENSITIVE = Stodium.CONSTANTS[Constants.CRYPTO_PWHASH_SCRYPTSALSA208SHA256_OPSLIMIT_SENSITIVE];
+    public static final int MEMLIMIT_SENSITIVE = Stodium.CONSTANTS[Constants.CRYPTO_PWHASH_SCRYPTSALSA208SHA256_MEMLIMIT_SENSITIVE];
 
     // wrappers
 
@@ -69,9 +69,11 @@ public final class Scrypt {
             throws StodiumException {
         Stodium.checkSize(srcSalt.length, SALTBYTES, "PwHashSCrypt.SALTBYTES");
         Stodium.checkPow2(memLimit, "PwHashSCrypt.pwhashScrypt(memLimit)");
-        Stodium.checkStatus(Sodium.crypto_pwhash_scryptsalsa208sha256(
+        Stodium.checkStatus(Metrics.recordPasswordHash("Scrypt#pwhashScrypt", srcPwd.length,
+                opsLimit, memLimit, Metrics.start(),
+                Sodium.crypto_pwhash_scryptsalsa208sha256(
                 dstKey, dstKey.length, srcPwd, srcPwd.length, srcSalt,
-                opsLimit, memLimit));
+                opsLimit, memLimit)));
     }
 
     //
@@ -0,0 +1,188 @@
+package eu.artemisc.stodium;
+
+import android.support.annotation.NonNull;
+
+import org.abstractj.kalium.Sodium;
+
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+
+/**
+ * SealedBoxScanner finds the sealed boxes (see
+ * {@link Box#seal(byte[], byte[], byte[])}) that are addressed to a key pair
+ * among a list of anonymous ones, such as the contents of a shared mailbox.
+ * Every box is trial-decrypted on a ForkJoinPool; boxes that do not open, or
+ * that are too short to be sealed boxes at all, are skipped without
+ * allocating an exception or a plaintext array.
+ *
+ * @author Jan van de Molengraft [jan@artemisc.eu]
+ */
+public final class SealedBoxScanner {
+    static {
+        // Require sodium_init();
+        Stodium.StodiumInit();
+    }
+
+    // block the constructor
+    private SealedBoxScanner() {}
+
+    /**
+     * GRAIN is the number of boxes below which a range is not split further.
+     * A trial decryption costs a scalar multiplication, which dominates the
+     * overhead of a task.
+     */
+    static final int GRAIN = 16;
+
+    /**
+     * scan trial-decrypts each of the sealedBoxes with the local key pair on
+     * the given pool, and returns the boxes that opened, in ascending order
+     * of their index in sealedBoxes. On Android, ForkJoinPool requires API
+     * level 21.
+     *
+     * @param sealedBoxes
+     * @param localPubKey
+     * @param localPrivKey
+     * @param pool
+     * @return the indices and plaintexts of the boxes that opened
+     * @throws ConstraintViolationException
+     */
+    @NonNull
+    public static Matches scan(@NonNull final List<byte[]> sealedBoxes,
+                               @NonNull final byte[] localPubKey,
+                               @NonNull final byte[] localPrivKey,
+                               @NonNull final ForkJoinPool pool)
+            throws ConstraintViolationException {
+        Stodium.checkSize(localPubKey.length, Box.PUBLICKEYBYTES, "Box.PUBLICKEYBYTES");
+        Stodium.checkSize(localPrivKey.length, Box.SECRETKEYBYTES, "Box.SECRETKEYBYTES");
+
+        final byte[][] boxes = sealedBoxes.toArray(new byte[sealedBoxes.size()][]);
+        final byte[][] opened = new byte[boxes.length][];
+        long bytes = 0;
+        for (final byte[] box : boxes) {
+            bytes += box.length;
+        }
+
+        final long start = Metrics.start();
+        pool.invoke(new ScanTask(boxes, opened, localPubKey, localPrivKey, 0, boxes.length));
+        // boxes that do not open are expected, and not reported as failures
+        Metrics.record("SealedBoxScanner#scan", (int) Math.min(bytes, Integer.MAX_VALUE), start, 0);
+
+        int count = 0;
+        for (final byte[] plain : opened) {
+            if (plain != null) {
+                count++;
+            }
+        }
+        final int[] indices = new int[count];
+        final byte[][] plaintexts = new byte[count][];
+        for (int i = 0, j = 0; i < opened.length; i++) {
+            if (opened[i] != null) {
+                indices[j] = i;
+                plaintexts[j++] = opened[i];
+            }
+        }
+        return new Matches(indices, plaintexts);
+    }
+
+    /**
+     * Matches holds the indices and plaintexts of the sealed boxes that were
+     * opened by {@link #scan(List, byte[], byte[], ForkJoinPool)}.
+     */
+    public static final class Matches {
+        @NonNull private final int[] indices;
+        @NonNull private final byte[][] plaintexts;
+
+        Matches(@NonNull final int[] indices,
+                @NonNull final byte[][] plaintexts) {
+            this.indices = indices;
+            this.plaintexts = plaintexts;
+        }
+
+        /**
+         * @return The number of boxes that were opened
+         */
+        public int size() {
+            return indices.length;
+        }
+
+        /**
+         * @param i
+         * @return The index in the scanned list of the i'th opened box
+         */
+        public int index(final int i) {
+            return indices[i];
+        }
+
+        /**
+         * @param i
+         * @return The plaintext of the i'th opened box
+         */
+        @NonNull
+        public byte[] plaintext(final int i) {
+            return plaintexts[i];
+        }
+    }
+
+    /**
+     * ScanTask trial-decrypts the boxes [from, to), by splitting the range in
+     * halves until it spans at most GRAIN boxes. The plaintext of each box
+     * that opens is stored at its index in opened.
+     */
+    private static final class ScanTask
+            extends RecursiveAction {
+        private final byte[][] boxes;
+        private final byte[][] opened;
+        private final byte[] localPubKey;
+        private final byte[] localPrivKey;
+        private final int from;
+        private final int to;
+
+        ScanTask(@NonNull final byte[][] boxes,
+                 @NonNull final byte[][] opened,
+                 @NonNull final byte[] localPubKey,
+                 @NonNull final byte[] localPrivKey,
+                 final int from,
+                 final int to) {
+            this.boxes = boxes;
+            this.opened = opened;
+            this.localPubKey = localPubKey;
+            this.localPrivKey = localPrivKey;
+            this.from = from;
+            this.to = to;
+        }
+
+        @Override
+        protected void compute() {
+            if (to - from > GRAIN) {
+                final int mid = (from + to) >>> 1;
+                invokeAll(new ScanTask(boxes, opened, localPubKey, localPrivKey, from, mid),
+                        new ScanTask(boxes, opened, localPubKey, localPrivKey, mid, to));
+                return;
+            }
+
+            // decrypt into a shared scratch array, and only copy the boxes
+            // that open
+            int scratchLen = 0;
+            for (int i = from; i < to; i++) {
+                scratchLen = Math.max(scratchLen, boxes[i].length - Box.SEALBYTES);
+            }
+            final byte[] scratch = new byte[scratchLen];
+            try {
+                for (int i = from; i < to; i++) {
+                    final int plainLen = boxes[i].length - Box.SEALBYTES;
+                    if (plainLen < 0) {
+                        continue;
+                    }
+                    if (Sodium.crypto_box_seal_open_offset(scratch, 0, boxes[i], 0,
+                            boxes[i].length, localPubKey, localPrivKey) == 0) {
+                        opened[i] = Arrays.copyOf(scratch, plainLen);
+                    }
+                }
+            } finally {
+                Stodium.wipeBytes(scratch);
+            }
+        }
+    }
+}
@@ -0,0 +1,237 @@
+package eu.artemisc.stodium;
+
+import android.support.annotation.NonNull;
+
+import org.abstractj.kalium.Sodium;
+
+import javax.crypto.AEADBadTagException;
+
+/**
+ * SealedEnvelope encrypts one message for any number of recipients. The
+ * message is encrypted once, with Secretbox under a random data key, and
+ * only that data key is sealed (see {@link Box#seal(byte[], byte[], byte[])})
+ * to each of the recipients' public keys, in a single native call.
+ *
+ * An envelope has the following format:
+ * <pre>
+ *   recipient count (big-endian int) ||
+ *   count * crypto_box_seal(data key)   (SLOTBYTES each) ||
+ *   crypto_secretbox_easy(message)      (message length + MACBYTES)
+ * </pre>
+ * As every data key is used for a single message, the message is encrypted
+ * with an all-zero nonce. The envelope does not reveal which slot belongs
+ * to which recipient; recipients either know their slot, or try them all.
+ *
+ * @author Jan van de Molengraft [jan@artemisc.eu]
+ */
+public final class SealedEnvelope {
+    static {
+        // Require sodium_init();
+        Stodium.StodiumInit();
+    }
+
+    // block the constructor
+    private SealedEnvelope() {}
+
+    // constants
+    public static final int HEADERBYTES = 4;
+    public static final int SLOTBYTES = Box.SEALBYTES + Secretbox.KEYBYTES;
+
+    private static final byte[] NONCE = new byte[Secretbox.NONCEBYTES];
+
+    /**
+     * envelopeLength returns the length of an envelope that holds a message
+     * of plainLen bytes for the given number of recipients.
+     *
+     * @param recipients
+     * @param plainLen
+     * @return {@code HEADERBYTES + recipients * SLOTBYTES + plainLen + MACBYTES}
+     * @throws ConstraintViolationException if the envelope would exceed
+     *         Integer.MAX_VALUE bytes
+     */
+    public static int envelopeLength(final int recipients,
+                                     final int plainLen)
+            throws ConstraintViolationException {
+        Stodium.checkSize(recipients, 1, Integer.MAX_VALUE, "1", "Integer.MAX_VALUE");
+        Stodium.checkPositive(plainLen);
+        final long len = HEADERBYTES + (long) recipients * SLOTBYTES
+                + (long) plainLen + Secretbox.MACBYTES;
+        if (len > Integer.MAX_VALUE) {
+            throw new ConstraintViolationException(
+                    String.format("SealedEnvelope: envelope length %d exceeds Integer.MAX_VALUE", len));
+        }
+        return (int) len;
+    }
+
+    /**
+     * recipients returns the number of recipient slots in envelope.
+     *
+     * @param envelope
+     * @return the number of recipients
+     * @throws StodiumException
+     * @throws AEADBadTagException if the envelope is malformed
+     */
+    public static int recipients(@NonNull final byte[] envelope)
+            throws StodiumException, AEADBadTagException {
+        if (envelope.length < HEADERBYTES) {
+            Stodium.checkStatusSealOpen(-1, "SealedEnvelope#recipients");
+        }
+        final int count = (envelope[0] & 0xff) << 24
+                | (envelope[1] & 0xff) << 16
+                | (envelope[2] & 0xff) << 8
+                | (envelope[3] & 0xff);
+        if (count < 1 || (envelope.length - HEADERBYTES - Secretbox.MACBYTES) / SLOTBYTES < count) {
+            Stodium.checkStatusSealOpen(-1, "SealedEnvelope#recipients");
+        }
+        return count;
+    }
+
+    /**
+     * plainLength returns the length of the message held by envelope.
+     *
+     * @param envelope
+     * @return the message length
+     * @throws StodiumException
+     * @throws AEADBadTagException if the envelope is malformed
+     */
+    public static int plainLength(@NonNull final byte[] envelope)
+            throws StodiumException, AEADBadTagException {
+        return envelope.length - HEADERBYTES - recipients(envelope) * SLOTBYTES
+                - Secretbox.MACBYTES;
+    }
+
+    /**
+     * seal encrypts srcPlain for each of the recipientPubKeys, and writes the
+     * envelope to dstEnvelope, which must be exactly
+     * {@code envelopeLength(recipientPubKeys.length, srcPlain.length)} bytes
+     * long. The slots are written in the order of recipientPubKeys.
+     *
+     * @param dstEnvelope
+     * @param srcPlain
+     * @param recipientPubKeys
+     * @throws ConstraintViolationException
+     * @throws StodiumException
+     */
+    public static void seal(@NonNull final byte[] dstEnvelope,
+                            @NonNull final byte[] srcPlain,
+                            @NonNull final byte[][] recipientPubKeys)
+            throws StodiumException {
+        final int count = recipientPubKeys.length;
+        Stodium.checkSize(dstEnvelope.length, envelopeLength(count, srcPlain.length),
+                "SealedEnvelope.envelopeLength(recipientPubKeys.length, srcPlain.length)");
+        final byte[] publicKeys = new byte[count * Box.PUBLICKEYBYTES];
+        for (int i = 0; i < count; i++) {
+            Stodium.checkSize(recipientPubKeys[i].length, Box.PUBLICKEYBYTES, "Box.PUBLICKEYBYTES");
+            System.arraycopy(recipientPubKeys[i], 0, publicKeys, i * Box.PUBLICKEYBYTES,
+                    Box.PUBLICKEYBYTES);
+        }
+
+        dstEnvelope[0] = (byte) (count >>> 24);
+        dstEnvelope[1] = (byte) (count >>> 16);
+        dstEnvelope[2] = (byte) (count >>> 8);
+        dstEnvelope[3] = (byte) count;
+
+        final byte[] dataKey = new byte[Secretbox.KEYBYTES];
+        try {
+            RandomBytes.nextBytes(dataKey);
+            Stodium.checkStatus(Metrics.record("SealedEnvelope#seal", count * Secretbox.KEYBYTES, Metrics.start(),
+                    Sodium.crypto_box_seal_batch(dstEnvelope, HEADERBYTES,
+                    dataKey, dataKey.length, publicKeys, count)));
+            Secretbox.easy(dstEnvelope, HEADERBYTES + count * SLOTBYTES,
+                    srcPlain, 0, srcPlain.length, NONCE, dataKey);
+        } finally {
+            Stodium.wipeBytes(dataKey);
+        }
+    }
+
+    /**
+     * open tries each slot of envelope with the local key pair until one
+     * opens, and decrypts the message into dstPlain, which must be exactly
+     * {@code plainLength(envelope)} bytes long. Each slot that is tried costs
+     * a scalar multiplication; use
+     * {@link #open(byte[], byte[], int, byte[], byte[])} if the slot is known.
+     *
+     * @param dstPlain
+     * @param envelope
+     * @param localPubKey
+     * @param localPrivKey
+     * @return the index of the slot that was opened
+     * @throws ConstraintViolationException
+     * @throws StodiumException
+     * @throws AEADBadTagException if no slot is addressed to the key pair,
+     *         or the message cannot be verified
+     */
+    public static int open(@NonNull final byte[] dstPlain,
+                           @NonNull final byte[] envelope,
+                           @NonNull final byte[] localPubKey,
+                           @NonNull final byte[] localPrivKey)
+            throws StodiumException, AEADBadTagException {
+        final int count = recipients(envelope);
+        Stodium.checkSize(dstPlain.length, plainLength(envelope), "SealedEnvelope.plainLength(envelope)");
+        Stodium.checkSize(localPubKey.length, Box.PUBLICKEYBYTES, "Box.PUBLICKEYBYTES");
+        Stodium.checkSize(localPrivKey.length, Box.SECRETKEYBYTES, "Box.SECRETKEYBYTES");
+
+        final byte[] dataKey = new byte[Secretbox.KEYBYTES];
+        try {
+            final long start = Metrics.start();
+            final int slot = Sodium.crypto_box_seal_open_first(dataKey, envelope,
+                    HEADERBYTES, SLOTBYTES, count, localPubKey, localPrivKey);
+            Stodium.checkStatusSealOpen(Metrics.record("SealedEnvelope#open",
+                    (slot < 0 ? count : slot + 1) * SLOTBYTES, start, slot < 0 ? slot : 0),
+                    "SealedEnvelope#open");
+            openMessage(dstPlain, envelope, count, dataKey);
+            return slot;
+        } finally {
+            Stodium.wipeBytes(dataKey);
+        }
+    }
+
+    /**
+     * open opens the given slot of envelope with the local key pair, and
+     * decrypts the message into dstPlain, which must be exactly
+     * {@code plainLength(envelope)} bytes long.
+     *
+     * @param dstPlain
+     * @param envelope
+     * @param slot
+     * @param localPubKey
+     * @param localPrivKey
+     * @throws ConstraintViolationException
+     * @throws StodiumException
+     * @throws AEADBadTagException if the slot is not addressed to the key
+     *         pair, or the message cannot be verified
+     */
+    public static void open(@NonNull final byte[] dstPlain,
+                            @NonNull final byte[] envelope,
+                            final int slot,
+                            @NonNull final byte[] localPubKey,
+                            @NonNull final byte[] localPrivKey)
+            throws StodiumException, AEADBadTagException {
+        final int count = recipients(envelope);
+        Stodium.checkSize(slot, 0, count - 1, "0", "SealedEnvelope.recipients(envelope) - 1");
+        Stodium.checkSize(dstPlain.length, plainLength(envelope), "SealedEnvelope.plainLength(envelope)");
+        Stodium.checkSize(localPubKey.length, Box.PUBLICKEYBYTES, "Box.PUBLICKEYBYTES");
+        Stodium.checkSize(localPrivKey.length, Box.SECRETKEYBYTES, "Box.SECRETKEYBYTES");
+
+        final byte[] dataKey = new byte[Secretbox.KEYBYTES];
+        try {
+            Stodium.checkStatusSealOpen(Metrics.record("SealedEnvelope#open", SLOTBYTES, Metrics.start(),
+                    Sodium.crypto_box_seal_open_offset(dataKey, 0, envelope,
+                    HEADERBYTES + slot * SLOTBYTES, SLOTBYTES, localPubKey, localPrivKey)),
+                    "SealedEnvelope#open");
+            openMessage(dstPlain, envelope, count, dataKey);
+        } finally {
+            Stodium.wipeBytes(dataKey);
+        }
+    }
+
+    private static void openMessage(@NonNull final byte[] dstPlain,
+                                    @NonNull final byte[] envelope,
+                                    final int count,
+                                    @NonNull final byte[] dataKey)
+            throws StodiumException, AEADBadTagException {
+        final int offset = HEADERBYTES + count * SLOTBYTES;
+        Secretbox.openEasy(dstPlain, 0, envelope, offset, envelope.length - offset,
+                NONCE, dataKey);
+    }
+}
@@ -4,6 +4,8 @@ import android.support.annotation.NonNull;
 
 import org.abstractj.kalium.Sodium;
 
+import java.nio.ByteBuffer;
+
 import javax.crypto.AEADBadTagException;
 
 /**
@@ -22,13 +24,13 @@ public final class Secretbox {
     private Secretbox() {}
 
     // constants
-    public static final int KEYBYTES = Sodium.crypto_secretbox_keybytes();
-    public static final int NONCEBYTES = Sodium.crypto_secretbox_noncebytes();
-    public static final int MACBYTES = Sodium.crypto_secretbox_macbytes();
-    public static final int BOXZEROBYTES = Sodium.crypto_secretbox_boxzerobytes();
-    public static final int ZEROBYTES = Sodium.crypto_secretbox_zerobytes();
+    public static final int KEYBYTES = Stodium.CONSTANTS[Constants.CRYPTO_SECRETBOX_KEYBYTES];
+    public static final int NONCEBYTES = Stodium.CONSTANTS[Constants.CRYPTO_SECRETBOX_NONCEBYTES];
+    public static final int MACBYTES = Stodium.CONSTANTS[Constants.CRYPTO_SECRETBOX_MACBYTES];
+    public static final int BOXZEROBYTES = Stodium.CONSTANTS[Constants.CRYPTO_SECRETBOX_BOXZEROBYTES];
+    public static final int ZEROBYTES = Stodium.CONSTANTS[Constants.CRYPTO_SECRETBOX_ZEROBYTES];
 
-    public static final String PRIMITIVE = Sodium.crypto_secretbox_primitive();
+    public static final String PRIMITIVE = Stodium.PRIMITIVES[Constants.CRYPTO_SECRETBOX_PRIMITIVE];
 
     // wrappers
 
@@ -55,8 +57,43 @@ public final class Secretbox {
         Stodium.checkSize(dstCipher.length, srcPlain.length + MACBYTES, "srcPlain.length + Secretbox.MACBYTES");
         Stodium.checkSize(nonce.length, NONCEBYTES, "Secretbox.NONCEBYTES");
         Stodium.checkSize(secretKey.length, KEYBYTES, "Secretbox.KEYBYTES");
-        Stodium.checkStatus(Sodium.crypto_secretbox_easy(dstCipher, srcPlain,
-                srcPlain.length, nonce, secretKey));
+        Stodium.checkStatus(Metrics.record("Secretbox#easy", srcPlain.length, Metrics.start(),
+                Backends.BACKEND.crypto_secretbox_easy(dstCipher, srcPlain,
+                srcPlain.length, nonce, secretKey)));
+    }
+
+    /**
+     * easy encrypts {@code srcLen} bytes of srcPlain, starting at srcOffset,
+     * and writes {@code srcLen + MACBYTES} bytes to dstCipher, starting at
+     * dstOffset.
+     *
+     * @param dstCipher
+     * @param dstOffset
+     * @param srcPlain
+     * @param srcOffset
+     * @param srcLen
+     * @param nonce
+     * @param secretKey
+     * @throws ConstraintViolationException
+     * @throws StodiumException
+     *
+     * @see <a href="https://download.libsodium.org/doc/secret-key_cryptography/authenticated_encryption.html">libsodium documentation</a>
+     */
+    public static void easy(@NonNull final byte[] dstCipher,
+                            final int dstOffset,
+                            @NonNull final byte[] srcPlain,
+                            final int srcOffset,
+                            final int srcLen,
+                            @NonNull final byte[] nonce,
+                            @NonNull final byte[] secretKey)
+            throws StodiumException {
+        Stodium.checkOffsetParams(srcPlain.length, srcOffset, srcLen);
+        Stodium.checkOffsetParams(dstCipher.length, dstOffset, srcLen + MACBYTES);
+        Stodium.checkSize(nonce.length, NONCEBYTES, "Secretbox.NONCEBYTES");
+        Stodium.checkSize(secretKey.length, KEYBYTES, "Secretbox.KEYBYTES");
+        Stodium.checkStatus(Metrics.record("Secretbox#easy", srcLen, Metrics.start(),
+                Sodium.crypto_secretbox_easy_offset(dstCipher,
+                dstOffset, srcPlain, srcOffset, srcLen, nonce, secretKey)));
     }
 
     /**
@@ -78,11 +115,320 @@ public final class Secretbox {
         Stodium.checkSize(srcCipher.length, dstPlain.length + MACBYTES, "dstPlain.length + Secretbox.MACBYTES");
         Stodium.checkSize(nonce.length, NONCEBYTES, "Secretbox.NONCEBYTES");
         Stodium.checkSize(secretKey.length, KEYBYTES, "Secretbox.KEYBYTES");
-        Stodium.checkStatusSealOpen(Sodium.crypto_secretbox_open_easy(dstPlain,
-                srcCipher, srcCipher.length, nonce, secretKey),
+        Stodium.checkStatusSealOpen(Metrics.record("Secretbox#openEasy", srcCipher.length, Metrics.start(),
+                Backends.BACKEND.crypto_secretbox_open_easy(dstPlain,
+                srcCipher, srcCipher.length, nonce, secretKey)),
                 "Secretbox#openEasy");
     }
 
+    /**
+     * openEasy verifies and decrypts {@code srcLen} bytes of srcCipher,
+     * starting at srcOffset, and writes {@code srcLen - MACBYTES} bytes to
+     * dstPlain, starting at dstOffset.
+     *
+     * @param dstPlain
+     * @param dstOffset
+     * @param srcCipher
+     * @param srcOffset
+     * @param srcLen
+     * @param nonce
+     * @param secretKey
+     * @throws ConstraintViolationException
+     * @throws StodiumException
+     *
+     * @see <a href="https://download.libsodium.org/doc/secret-key_cryptography/authenticated_encryption.html">libsodium documentation</a>
+     */
+    public static void openEasy(@NonNull final byte[] dstPlain,
+                                final int dstOffset,
+                                @NonNull final byte[] srcCipher,
+                                final int srcOffset,
+                                final int srcLen,
+                                @NonNull final byte[] nonce,
+                                @NonNull final byte[] secretKey)
+            throws StodiumException, AEADBadTagException {
+        Stodium.checkSize(srcLen, MACBYTES, Integer.MAX_VALUE, "Secretbox.MACBYTES", "Integer.MAX_VALUE");
+        Stodium.checkOffsetParams(srcCipher.length, srcOffset, srcLen);
+        Stodium.checkOffsetParams(dstPlain.length, dstOffset, srcLen - MACBYTES);
+        Stodium.checkSize(nonce.length, NONCEBYTES, "Secretbox.NONCEBYTES");
+        Stodium.checkSize(secretKey.length, KEYBYTES, "Secretbox.KEYBYTES");
+        Stodium.checkStatusSealOpen(Metrics.record("Secretbox#openEasy", srcLen, Metrics.start(),
+                Sodium.crypto_secretbox_open_easy_offset(
+                dstPlain, dstOffset, srcCipher, srcOffset, srcLen, nonce, secretKey)),
+                "Secretbox#openEasy");
+    }
+
+    /**
+     * tryOpenEasy is the exception-free variant of
+     * {@link #openEasy(byte[], byte[], byte[], byte[])}. An invalid
+     * authentication tag is reported by returning false, without allocating
+     * an exception. Invalid parameters are still reported by exceptions.
+     *
+     * @param dstPlain
+     * @param srcCipher
+     * @param nonce
+     * @param secretKey
+     * @return true iff srcCipher was authenticated and decrypted into dstPlain
+     * @throws ConstraintViolationException
+     *
+     * @see <a href="https://download.libsodium.org/doc/secret-key_cryptography/authenticated_encryption.html">libsodium documentation</a>
+     */
+    public static boolean tryOpenEasy(@NonNull final byte[] dstPlain,
+                                      @NonNull final byte[] srcCipher,
+                                      @NonNull final byte[] nonce,
+                                      @NonNull final byte[] secretKey)
+            throws ConstraintViolationException {
+        Stodium.checkSize(srcCipher.length, dstPlain.length + MACBYTES, "dstPlain.length + Secretbox.MACBYTES");
+        Stodium.checkSize(nonce.length, NONCEBYTES, "Secretbox.NONCEBYTES");
+        Stodium.checkSize(secretKey.length, KEYBYTES, "Secretbox.KEYBYTES");
+        return Metrics.record("Secretbox#openEasy", srcCipher.length, Metrics.start(),
+                Backends.BACKEND.crypto_secretbox_open_easy(dstPlain,
+                srcCipher, srcCipher.length, nonce, secretKey)) == 0;
+    }
+
+    /**
+     * tryOpenEasy is the exception-free variant of
+     * {@link #openEasy(byte[], int, byte[], int, int, byte[], byte[])}. A
+     * srcLen shorter than MACBYTES cannot be authenticated, and is reported
+     * by returning false as well.
+     *
+     * @param dstPlain
+     * @param dstOffset
+     * @param srcCipher
+     * @param srcOffset
+     * @param srcLen
+     * @param nonce
+     * @param secretKey
+     * @return true iff srcCipher was authenticated and decrypted into dstPlain
+     * @throws ConstraintViolationException
+     *
+     * @see <a href="https://download.libsodium.org/doc/secret-key_cryptography/authenticated_encryption.html">libsodium documentation</a>
+     */
+    public static boolean tryOpenEasy(@NonNull final byte[] dstPlain,
+                                      final int dstOffset,
+                                      @NonNull final byte[] srcCipher,
+                                      final int srcOffset,
+                                      final int srcLen,
+                                      @NonNull final byte[] nonce,
+                                      @NonNull final byte[] secretKey)
+            throws ConstraintViolationException {
+        Stodium.checkOffsetParams(srcCipher.length, srcOffset, srcLen);
+        Stodium.checkSize(nonce.length, NONCEBYTES, "Secretbox.NONCEBYTES");
+        Stodium.checkSize(secretKey.length, KEYBYTES, "Secretbox.KEYBYTES");
+        if (srcLen < MACBYTES) {
+            return false;
+        }
+        Stodium.checkOffsetParams(dstPlain.length, dstOffset, srcLen - MACBYTES);
+        return Metrics.record("Secretbox#openEasy", srcLen, Metrics.start(),
+                Sodium.crypto_secretbox_open_easy_offset(dstPlain, dstOffset,
+                srcCipher, srcOffset, srcLen, nonce, secretKey)) == 0;
+    }
+
+    /**
+     * easyInPlace encrypts {@code plainLen} bytes of buffer, starting at
+     * offset, and overwrites them with the {@code plainLen + MACBYTES} bytes
+     * of ciphertext, starting at the same offset. The buffer must therefore
+     * have MACBYTES of room after the message.
+     *
+     * @param buffer
+     * @param offset
+     * @param plainLen
+     * @param nonce
+     * @param secretKey
+     * @throws ConstraintViolationException
+     * @throws StodiumException
+     *
+     * @see <a href="https://download.libsodium.org/doc/secret-key_cryptography/authenticated_encryption.html">libsodium documentation</a>
+     */
+    public static void easyInPlace(@NonNull final byte[] buffer,
+                                   final int offset,
+                                   final int plainLen,
+                                   @NonNull final byte[] nonce,
+                                   @NonNull final byte[] secretKey)
+            throws StodiumException {
+        Stodium.checkOffsetParams(buffer.length, offset, plainLen);
+        Stodium.checkOffsetParams(buffer.length, offset, plainLen + MACBYTES);
+        Stodium.checkSize(nonce.length, NONCEBYTES, "Secretbox.NONCEBYTES");
+        Stodium.checkSize(secretKey.length, KEYBYTES, "Secretbox.KEYBYTES");
+        Stodium.checkStatus(Metrics.record("Secretbox#easyInPlace", plainLen, Metrics.start(),
+                Sodium.crypto_secretbox_easy_inplace(buffer, offset, plainLen,
+                nonce, secretKey)));
+    }
+
+    /**
+     * openEasyInPlace verifies and decrypts {@code cipherLen} bytes of
+     * buffer, starting at offset, and writes the {@code cipherLen - MACBYTES}
+     * bytes of plaintext to the same offset. The buffer is only modified if
+     * the ciphertext could be authenticated.
+     *
+     * @param buffer
+     * @param offset
+     * @param cipherLen
+     * @param nonce
+     * @param secretKey
+     * @throws ConstraintViolationException
+     * @throws StodiumException
+     * @throws AEADBadTagException
+     *
+     * @see <a href="https://download.libsodium.org/doc/secret-key_cryptography/authenticated_encryption.html">libsodium documentation</a>
+     */
+    public static void openEasyInPlace(@NonNull final byte[] buffer,
+                                       final int offset,
+                                       final int cipherLen,
+                                       @NonNull final byte[] nonce,
+                                       @NonNull final byte[] secretKey)
+            throws StodiumException, AEADBadTagException {
+        Stodium.checkSize(cipherLen, MACBYTES, Integer.MAX_VALUE, "Secretbox.MACBYTES", "Integer.MAX_VALUE");
+        Stodium.checkOffsetParams(buffer.length, offset, cipherLen);
+        Stodium.checkSize(nonce.length, NONCEBYTES, "Secretbox.NONCEBYTES");
+        Stodium.checkSize(secretKey.length, KEYBYTES, "Secretbox.KEYBYTES");
+        Stodium.checkStatusSealOpen(Metrics.record("Secretbox#openEasyInPlace", cipherLen, Metrics.start(),
+                Sodium.crypto_secretbox_open_easy_inplace(buffer, offset, cipherLen,
+                nonce, secretKey)),
+                "Secretbox#openEasyInPlace");
+    }
+
+    /**
+     * easy encrypts the remaining bytes of srcPlain into dstCipher, which must
+     * have at least {@code srcPlain.remaining() + MACBYTES} bytes remaining.
+     *
+     * Direct buffers are passed to the native code by address, heap buffers
+     * by their backing arrays. Upon return, the position of srcPlain equals
+     * its limit, and the position of dstCipher is advanced by the number of
+     * bytes written.
+     *
+     * @param dstCipher
+     * @param srcPlain
+     * @param nonce
+     * @param secretKey
+     * @throws ConstraintViolationException
+     * @throws StodiumException
+     *
+     * @see <a href="https://download.libsodium.org/doc/secret-key_cryptography/authenticated_encryption.html">libsodium documentation</a>
+     */
+    public static void easy(@NonNull final ByteBuffer dstCipher,
+                            @NonNull final ByteBuffer srcPlain,
+                            @NonNull final byte[] nonce,
+                            @NonNull final byte[] secretKey)
+            throws StodiumException {
+        final int plainLen = srcPlain.remaining();
+        Stodium.checkSize(plainLen, 0, Integer.MAX_VALUE - MACBYTES,
+                "0", "Integer.MAX_VALUE - Secretbox.MACBYTES");
+        final int cipherLen = plainLen + MACBYTES;
+        Stodium.checkBuffer(dstCipher, cipherLen, "srcPlain.remaining() + Secretbox.MACBYTES");
+        Stodium.checkSize(nonce.length, NONCEBYTES, "Secretbox.NONCEBYTES");
+        Stodium.checkSize(secretKey.length, KEYBYTES, "Secretbox.KEYBYTES");
+
+        if (dstCipher.isDirect() && srcPlain.isDirect()) {
+            Stodium.checkStatus(Metrics.record("Secretbox#easy", plainLen, Metrics.start(),
+                    Sodium.crypto_secretbox_easy_buffer(
+                    dstCipher, dstCipher.position(), srcPlain, srcPlain.position(),
+                    plainLen, nonce, secretKey)));
+        } else if (dstCipher.hasArray() && srcPlain.hasArray()) {
+            Stodium.checkStatus(Metrics.record("Secretbox#easy", plainLen, Metrics.start(),
+                    Sodium.crypto_secretbox_easy_offset(
+                    dstCipher.array(), Stodium.arrayPosition(dstCipher),
+                    srcPlain.array(), Stodium.arrayPosition(srcPlain),
+                    plainLen, nonce, secretKey)));
+        } else {
+            final byte[] cipher = new byte[cipherLen];
+            easy(cipher, Stodium.remainingBytes(srcPlain), nonce, secretKey);
+            dstCipher.duplicate().put(cipher);
+        }
+
+        srcPlain.position(srcPlain.limit());
+        dstCipher.position(dstCipher.position() + cipherLen);
+    }
+
+    /**
+     * openEasy verifies and decrypts the remaining bytes of srcCipher into
+     * dstPlain, which must have at least
+     * {@code srcCipher.remaining() - MACBYTES} bytes remaining.
+     *
+     * Direct buffers are passed to the native code by address, heap buffers
+     * by their backing arrays. Upon return, the position of srcCipher equals
+     * its limit, and the position of dstPlain is advanced by the number of
+     * bytes written.
+     *
+     * @param dstPlain
+     * @param srcCipher
+     * @param nonce
+     * @param secretKey
+     * @throws ConstraintViolationException
+     * @throws StodiumException
+     *
+     * @see <a href="https://download.libsodium.org/doc/secret-key_cryptography/authenticated_encryption.html">libsodium documentation</a>
+     */
+    public static void openEasy(@NonNull final ByteBuffer dstPlain,
+                                @NonNull final ByteBuffer srcCipher,
+                                @NonNull final byte[] nonce,
+                                @NonNull final byte[] secretKey)
+            throws StodiumException, AEADBadTagException {
+        final int cipherLen = srcCipher.remaining();
+        final int plainLen = cipherLen - MACBYTES;
+        Stodium.checkSize(cipherLen, MACBYTES, Integer.MAX_VALUE, "Secretbox.MACBYTES", "Integer.MAX_VALUE");
+        Stodium.checkBuffer(dstPlain, plainLen, "srcCipher.remaining() - Secretbox.MACBYTES");
+        Stodium.checkSize(nonce.length, NONCEBYTES, "Secretbox.NONCEBYTES");
+        Stodium.checkSize(secretKey.length, KEYBYTES, "Secretbox.KEYBYTES");
+
+        if (dstPlain.isDirect() && srcCipher.isDirect()) {
+            Stodium.checkStatusSealOpen(Metrics.record("Secretbox#openEasy", cipherLen, Metrics.start(),
+                    Sodium.crypto_secretbox_open_easy_buffer(
+                    dstPlain, dstPlain.position(), srcCipher, srcCipher.position(),
+                    cipherLen, nonce, secretKey)),
+                    "Secretbox#openEasy");
+        } else if (dstPlain.hasArray() && srcCipher.hasArray()) {
+            Stodium.checkStatusSealOpen(Metrics.record("Secretbox#openEasy", cipherLen, Metrics.start(),
+                    Sodium.crypto_secretbox_open_easy_offset(
+                    dstPlain.array(), Stodium.arrayPosition(dstPlain),
+                    srcCipher.array(), Stodium.arrayPosition(srcCipher),
+                    cipherLen, nonce, secretKey)),
+                    "Secretbox#openEasy");
+        } else {
+            final byte[] plain = new byte[plainLen];
+            openEasy(plain, Stodium.remainingBytes(srcCipher), nonce, secretKey);
+            dstPlain.duplicate().put(plain);
+        }
+
+        srcCipher.position(srcCipher.limit());
+        dstPlain.position(dstPlain.position() + plainLen);
+    }
+
+    /**
+     * easyBatch encrypts a batch of messages, packed into srcPlain, in a
+     * single native call. Message i consists of the bytes
+     * {@code [offsets[i], offsets[i + 1])} of srcPlain, is encrypted using the
+     * nonce at {@code i * NONCEBYTES} in nonces, and its ciphertext is written
+     * to dstCipher starting at {@code offsets[i] + i * MACBYTES}.
+     *
+     * @param dstCipher
+     * @param srcPlain
+     * @param offsets
+     * @param nonces
+     * @param secretKey
+     * @throws ConstraintViolationException
+     * @throws StodiumException
+     */
+    public static void easyBatch(@NonNull final byte[] dstCipher,
+                                 @NonNull final byte[] srcPlain,
+                                 @NonNull final int[] offsets,
+                                 @NonNull final byte[] nonces,
+                                 @NonNull final byte[] secretKey)
+            throws StodiumException {
+        // validate and pass a private copy, so that the offsets cannot be
+        // changed by another thread between the checks and the native loop
+        final int[] batch = offsets.clone();
+        final int count = Stodium.checkBatchOffsets(srcPlain.length, batch);
+        Stodium.checkBatchLength(dstCipher.length, batch[count] + (long) count * MACBYTES,
+                "offsets[count] + count * Secretbox.MACBYTES");
+        Stodium.checkSize(count, 0, Integer.MAX_VALUE / NONCEBYTES,
+                "0", "Integer.MAX_VALUE / Secretbox.NONCEBYTES");
+        Stodium.checkSize(nonces.length, count * NONCEBYTES, "count * Secretbox.NONCEBYTES");
+        Stodium.checkSize(secretKey.length, KEYBYTES, "Secretbox.KEYBYTES");
+        Stodium.checkStatus(Metrics.record("Secretbox#easyBatch", srcPlain.length, Metrics.start(),
+                Sodium.crypto_secretbox_easy_batch(dstCipher,
+                srcPlain, batch, count, nonces, secretKey)));
+    }
+
     //
     // _detached
     //
@@ -109,8 +455,15 @@ public final class Secretbox {
         Stodium.checkSize(dstMac.length, MACBYTES, "Secretbox.MACBYTES");
         Stodium.checkSize(nonce.length, NONCEBYTES, "Secretbox.NONCEBYTES");
         Stodium.checkSize(secretKey.length, KEYBYTES, "Secretbox.KEYBYTES");
-        Stodium.checkStatus(Sodium.crypto_secretbox_detached(dstCipher, dstMac,
-                srcPlain, srcPlain.length, nonce, secretKey));
+        if (srcPlain.length <= Stodium.CRITICAL_MAX_BYTES) {
+            Stodium.checkStatus(Metrics.record("Secretbox#detached", srcPlain.length, Metrics.start(),
+                    Sodium.crypto_secretbox_detached_critical(
+                    dstCipher, dstMac, srcPlain, srcPlain.length, nonce, secretKey)));
+            return;
+        }
+        Stodium.checkStatus(Metrics.record("Secretbox#detached", srcPlain.length, Metrics.start(),
+                Sodium.crypto_secretbox_detached(dstCipher, dstMac,
+                srcPlain, srcPlain.length, nonce, secretKey)));
     }
 
     /**
@@ -135,8 +488,304 @@ public final class Secretbox {
         Stodium.checkSize(srcMac.length, MACBYTES, "Secretbox.MACBYTES");
         Stodium.checkSize(nonce.length, NONCEBYTES, "Secretbox.NONCEBYTES");
         Stodium.checkSize(secretKey.length, KEYBYTES, "Secretbox.KEYBYTES");
-        Stodium.checkStatusSealOpen(Sodium.crypto_secretbox_open_detached(dstPlain,
-                        srcCipher, srcMac, srcCipher.length, nonce, secretKey),
+        if (srcCipher.length <= Stodium.CRITICAL_MAX_BYTES) {
+            Stodium.checkStatusSealOpen(Metrics.record("Secretbox#openDetached", srcCipher.length, Metrics.start(),
+                    Sodium.crypto_secretbox_open_detached_critical(
+                            dstPlain, srcCipher, srcMac, srcCipher.length, nonce, secretKey)),
+                    "Secretbox#openDetached");
+            return;
+        }
+        Stodium.checkStatusSealOpen(Metrics.record("Secretbox#openDetached", srcCipher.length, Metrics.start(),
+                Sodium.crypto_secretbox_open_detached(dstPlain,
+                        srcCipher, srcMac, srcCipher.length, nonce, secretKey)),
                 "Secretbox#openDetached");
     }
+
+    /**
+     * detached encrypts the remaining bytes of srcPlain into dstCipher, which
+     * must have at least {@code srcPlain.remaining()} bytes remaining, and
+     * writes the MACBYTES authentication tag to dstMac.
+     *
+     * Direct buffers are passed to the native code by address, heap buffers
+     * by their backing arrays. Upon return, the position of srcPlain equals
+     * its limit, and the positions of dstCipher and dstMac are advanced by the
+     * number of bytes written to them.
+     *
+     * @param dstCipher
+     * @param dstMac
+     * @param srcPlain
+     * @param nonce
+     * @param secretKey
+     * @throws ConstraintViolationException
+     * @throws StodiumException
+     *
+     * @see <a href="https://download.libsodium.org/doc/secret-key_cryptography/authenticated_encryption.html">libsodium documentation</a>
+     */
+    public static void detached(@NonNull final ByteBuffer dstCipher,
+                                @NonNull final ByteBuffer dstMac,
+                                @NonNull final ByteBuffer srcPlain,
+                                @NonNull final byte[] nonce,
+                                @NonNull final byte[] secretKey)
+            throws StodiumException {
+        final int plainLen = srcPlain.remaining();
+        Stodium.checkBuffer(dstCipher, plainLen, "srcPlain.remaining()");
+        Stodium.checkBuffer(dstMac, MACBYTES, "Secretbox.MACBYTES");
+        Stodium.checkSize(nonce.length, NONCEBYTES, "Secretbox.NONCEBYTES");
+        Stodium.checkSize(secretKey.length, KEYBYTES, "Secretbox.KEYBYTES");
+
+        if (dstCipher.isDirect() && dstMac.isDirect() && srcPlain.isDirect()) {
+            Stodium.checkStatus(Metrics.record("Secretbox#detached", plainLen, Metrics.start(),
+                    Sodium.crypto_secretbox_detached_buffer(
+                    dstCipher, dstCipher.position(), dstMac, dstMac.position(),
+                    srcPlain, srcPlain.position(), plainLen, nonce, secretKey)));
+        } else if (dstCipher.hasArray() && dstMac.hasArray() && srcPlain.hasArray()) {
+            Stodium.checkStatus(Metrics.record("Secretbox#detached", plainLen, Metrics.start(),
+                    Sodium.crypto_secretbox_detached_offset(
+                    dstCipher.array(), Stodium.arrayPosition(dstCipher),
+                    dstMac.array(), Stodium.arrayPosition(dstMac),
+                    srcPlain.array(), Stodium.arrayPosition(srcPlain),
+                    plainLen, nonce, secretKey)));
+        } else {
+            final byte[] cipher = new byte[plainLen];
+            final byte[] mac = new byte[MACBYTES];
+            detached(cipher, mac, Stodium.remainingBytes(srcPlain), nonce, secretKey);
+            dstCipher.duplicate().put(cipher);
+            dstMac.duplicate().put(mac);
+        }
+
+        srcPlain.position(srcPlain.limit());
+        dstCipher.position(dstCipher.position() + plainLen);
+        dstMac.position(dstMac.position() + MACBYTES);
+    }
+
+    /**
+     * openDetached verifies the remaining bytes of srcCipher against the
+     * MACBYTES tag at the position of srcMac, and decrypts them into
+     * dstPlain, which must have at least {@code srcCipher.remaining()} bytes
+     * remaining.
+     *
+     * Direct buffers are passed to the native code by address, heap buffers
+     * by their backing arrays. Upon return, the position of srcCipher equals
+     * its limit, and the positions of srcMac and dstPlain are advanced by the
+     * number of bytes read from and written to them.
+     *
+     * @param dstPlain
+     * @param srcCipher
+     * @param srcMac
+     * @param nonce
+     * @param secretKey
+     * @throws ConstraintViolationException
+     * @throws StodiumException
+     * @throws AEADBadTagException
+     *
+     * @see <a href="https://download.libsodium.org/doc/secret-key_cryptography/authenticated_encryption.html">libsodium documentation</a>
+     */
+    public static void openDetached(@NonNull final ByteBuffer dstPlain,
+                                    @NonNull final ByteBuffer srcCipher,
+                                    @NonNull final ByteBuffer srcMac,
+                                    @NonNull final byte[] nonce,
+                                    @NonNull final byte[] secretKey)
+            throws StodiumException, AEADBadTagException {
+        final int cipherLen = srcCipher.remaining();
+        Stodium.checkBuffer(dstPlain, cipherLen, "srcCipher.remaining()");
+        Stodium.checkSize(srcMac.remaining(), MACBYTES, Integer.MAX_VALUE, "Secretbox.MACBYTES", "Integer.MAX_VALUE");
+        Stodium.checkSize(nonce.length, NONCEBYTES, "Secretbox.NONCEBYTES");
+        Stodium.checkSize(secretKey.length, KEYBYTES, "Secretbox.KEYBYTES");
+
+        if (dstPlain.isDirect() && srcCipher.isDirect() && srcMac.isDirect()) {
+            Stodium.checkStatusSealOpen(Metrics.record("Secretbox#openDetached", cipherLen, Metrics.start(),
+                    Sodium.crypto_secretbox_open_detached_buffer(
+                    dstPlain, dstPlain.position(), srcCipher, srcCipher.position(),
+                    srcMac, srcMac.position(), cipherLen, nonce, secretKey)),
+                    "Secretbox#openDetached");
+        } else if (dstPlain.hasArray() && srcCipher.hasArray() && srcMac.hasArray()) {
+            Stodium.checkStatusSealOpen(Metrics.record("Secretbox#openDetached", cipherLen, Metrics.start(),
+                    Sodium.crypto_secretbox_open_detached_offset(
+                    dstPlain.array(), Stodium.arrayPosition(dstPlain),
+                    srcCipher.array(), Stodium.arrayPosition(srcCipher),
+                    srcMac.array(), Stodium.arrayPosition(srcMac),
+                    cipherLen, nonce, secretKey)),
+                    "Secretbox#openDetached");
+        } else {
+            final byte[] plain = new byte[cipherLen];
+            final byte[] mac = new byte[MACBYTES];
+            srcMac.duplicate().get(mac);
+            openDetached(plain, Stodium.remainingBytes(srcCipher), mac, nonce, secretKey);
+            dstPlain.duplicate().put(plain);
+        }
+
+        srcCipher.position(srcCipher.limit());
+        srcMac.position(srcMac.position() + MACBYTES);
+        dstPlain.position(dstPlain.position() + cipherLen);
+    }
+
+    /**
+     * detached encrypts the concatenation of the srcPlain segments into
+     * dstCipher, which must be exactly as long as the segments combined, and
+     * writes the MACBYTES authentication tag to dstMac.
+     *
+     * The segments are fed through the cipher and MAC one after the other,
+     * without first being copied into a single array. The result is
+     * identical to that of {@link #detached(byte[], byte[], byte[], byte[], byte[])}
+     * on the concatenated segments.
+     *
+     * @param dstCipher
+     * @param dstMac
+     * @param srcPlain
+     * @param nonce
+     * @param secretKey
+     * @throws ConstraintViolationException
+     * @throws StodiumException
+     *
+     * @see <a href="https://download.libsodium.org/doc/secret-key_cryptography/authenticated_encryption.html">libsodium documentation</a>
+     */
+    public static void detached(@NonNull final byte[] dstCipher,
+                                @NonNull final byte[] dstMac,
+                                @NonNull final byte[][] srcPlain,
+                                @NonNull final byte[] nonce,
+                                @NonNull final byte[] secretKey)
+            throws StodiumException {
+        final Segments src = Segments.of(srcPlain);
+        Stodium.checkSize(dstCipher.length, src.length, "srcPlain total length");
+        Stodium.checkSize(dstMac.length, MACBYTES, "Secretbox.MACBYTES");
+        Stodium.checkSize(nonce.length, NONCEBYTES, "Secretbox.NONCEBYTES");
+        Stodium.checkSize(secretKey.length, KEYBYTES, "Secretbox.KEYBYTES");
+
+        final Segments dst = Segments.of(dstCipher);
+        Stodium.checkStatus(Metrics.record("Secretbox#detached", src.length, Metrics.start(),
+                Sodium.crypto_secretbox_detached_segments(
+                dst.buffers, dst.bounds, dstMac, src.buffers, src.bounds,
+                src.length, nonce, secretKey)));
+    }
+
+    /**
+     * openDetached verifies srcCipher against srcMac, and scatters the
+     * decrypted message over the dstPlain segments, which must be exactly as
+     * long as srcCipher combined. The segments are filled in order.
+     *
+     * @param dstPlain
+     * @param srcCipher
+     * @param srcMac
+     * @param nonce
+     * @param secretKey
+     * @throws ConstraintViolationException
+     * @throws StodiumException
+     * @throws AEADBadTagException
+     *
+     * @see <a href="https://download.libsodium.org/doc/secret-key_cryptography/authenticated_encryption.html">libsodium documentation</a>
+     */
+    public static void openDetached(@NonNull final byte[][] dstPlain,
+                                    @NonNull final byte[] srcCipher,
+                                    @NonNull final byte[] srcMac,
+                                    @NonNull final byte[] nonce,
+                                    @NonNull final byte[] secretKey)
+            throws StodiumException, AEADBadTagException {
+        final Segments dst = Segments.of(dstPlain);
+        Stodium.checkSize(srcCipher.length, dst.length, "dstPlain total length");
+        Stodium.checkSize(srcMac.length, MACBYTES, "Secretbox.MACBYTES");
+        Stodium.checkSize(nonce.length, NONCEBYTES, "Secretbox.NONCEBYTES");
+        Stodium.checkSize(secretKey.length, KEYBYTES, "Secretbox.KEYBYTES");
+
+        final Segments src = Segments.of(srcCipher);
+        Stodium.checkStatusSealOpen(Metrics.record("Secretbox#openDetached", srcCipher.length, Metrics.start(),
+                Sodium.crypto_secretbox_open_detached_segments(
+                dst.buffers, dst.bounds, src.buffers, src.bounds, srcMac,
+                srcCipher.length, nonce, secretKey)),
+                "Secretbox#openDetached");
+    }
+
+    /**
+     * detached encrypts the remaining bytes of the srcPlain buffers, in
+     * order, into dstCipher, which must have at least as many bytes remaining
+     * as the buffers combined, and writes the MACBYTES authentication tag to
+     * dstMac.
+     *
+     * Direct buffers are passed to the native code by address, heap buffers
+     * by their backing arrays; the segments are not copied into a single
+     * buffer first. Upon return, the positions of the srcPlain buffers equal
+     * their limits, and the positions of dstCipher and dstMac are advanced by
+     * the number of bytes written to them.
+     *
+     * @param dstCipher
+     * @param dstMac
+     * @param srcPlain
+     * @param nonce
+     * @param secretKey
+     * @throws ConstraintViolationException
+     * @throws StodiumException
+     *
+     * @see <a href="https://download.libsodium.org/doc/secret-key_cryptography/authenticated_encryption.html">libsodium documentation</a>
+     */
+    public static void detached(@NonNull final ByteBuffer dstCipher,
+                                @NonNull final ByteBuffer dstMac,
+                                @NonNull final ByteBuffer[] srcPlain,
+                                @NonNull final byte[] nonce,
+                                @NonNull final byte[] secretKey)
+            throws StodiumException {
+        final Segments src = Segments.of(srcPlain);
+        Stodium.checkBuffer(dstCipher, src.length, "srcPlain total remaining");
+        Stodium.checkBuffer(dstMac, MACBYTES, "Secretbox.MACBYTES");
+        Stodium.checkSize(nonce.length, NONCEBYTES, "Secretbox.NONCEBYTES");
+        Stodium.checkSize(secretKey.length, KEYBYTES, "Secretbox.KEYBYTES");
+
+        final Segments dst = Segments.of(dstCipher);
+        final byte[] mac = new byte[MACBYTES];
+        Stodium.checkStatus(Metrics.record("Secretbox#detached", src.length, Metrics.start(),
+                Sodium.crypto_secretbox_detached_segments(
+                dst.buffers, dst.bounds, mac, src.buffers, src.bounds,
+                src.length, nonce, secretKey)));
+
+        Segments.advance(srcPlain, src.length);
+        dstCipher.position(dstCipher.position() + src.length);
+        dstMac.put(mac);
+    }
+
+    /**
+     * openDetached verifies the remaining bytes of srcCipher against the
+     * MACBYTES tag at the position of srcMac, and scatters the decrypted
+     * message over the dstPlain buffers, filling them in order. The buffers
+     * must have at least {@code srcCipher.remaining()} bytes remaining
+     * combined.
+     *
+     * Upon return, the position of srcCipher equals its limit, the position
+     * of srcMac is advanced by MACBYTES, and the positions of the dstPlain
+     * buffers are advanced by the number of bytes written to each of them.
+     *
+     * @param dstPlain
+     * @param srcCipher
+     * @param srcMac
+     * @param nonce
+     * @param secretKey
+     * @throws ConstraintViolationException
+     * @throws StodiumException
+     * @throws AEADBadTagException
+     *
+     * @see <a href="https://download.libsodium.org/doc/secret-key_cryptography/authenticated_encryption.html">libsodium documentation</a>
+     */
+    public static void openDetached(@NonNull final ByteBuffer[] dstPlain,
+                                    @NonNull final ByteBuffer srcCipher,
+                                    @NonNull final ByteBuffer srcMac,
+                                    @NonNull final byte[] nonce,
+                                    @NonNull final byte[] secretKey)
+            throws StodiumException, AEADBadTagException {
+        final int cipherLen = srcCipher.remaining();
+        final Segments dst = Segments.writable(dstPlain);
+        Stodium.checkSize(dst.length, cipherLen, Integer.MAX_VALUE, "srcCipher.remaining()", "Integer.MAX_VALUE");
+        Stodium.checkSize(srcMac.remaining(), MACBYTES, Integer.MAX_VALUE, "Secretbox.MACBYTES", "Integer.MAX_VALUE");
+        Stodium.checkSize(nonce.length, NONCEBYTES, "Secretbox.NONCEBYTES");
+        Stodium.checkSize(secretKey.length, KEYBYTES, "Secretbox.KEYBYTES");
+
+        final Segments src = Segments.of(srcCipher);
+        final byte[] mac = new byte[MACBYTES];
+        srcMac.duplicate().get(mac);
+        Stodium.checkStatusSealOpen(Metrics.record("Secretbox#openDetached", cipherLen, Metrics.start(),
+                Sodium.crypto_secretbox_open_detached_segments(
+                dst.buffers, dst.bounds, src.buffers, src.bounds, mac,
+                cipherLen, nonce, secretKey)),
+                "Secretbox#openDetached");
+
+        srcCipher.position(srcCipher.limit());
+        srcMac.position(srcMac.position() + MACBYTES);
+        Segments.advance(dstPlain, cipherLen);
+    }
 }
@@ -0,0 +1,480 @@
+package eu.artemisc.stodium;
+
+import android.support.annotation.NonNull;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.security.GeneralSecurityException;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+
+import javax.crypto.AEADBadTagException;
+
+/**
+ * SecretboxFile encrypts and decrypts files of any size with Secretbox, by
+ * splitting them into chunks that are authenticated separately. Both files
+ * are accessed through memory mappings of at most WINDOW_BYTES, which are
+ * passed to the native code by address: memory use does not depend on the
+ * file size, and the contents are never copied onto the JAVA heap.
+ *
+ * The encrypted file consists of a HEADERBYTES header, holding a random
+ * initial nonce and the chunk size (a big-endian int), followed by the
+ * chunks. Each chunk holds the MACBYTES tag, followed by the ciphertext of
+ * the next chunkBytes bytes of the file (fewer for the last chunk). Every
+ * chunk uses the nonce of the previous chunk, incremented by
+ * {@link Stodium#increment(byte[])}, i.e. chunk i uses the initial nonce plus
+ * i. The top bit of the last byte of the nonce is flipped for the final
+ * chunk, so a file that is truncated at a chunk boundary does not decrypt.
+ *
+ * As every chunk is authenticated on its own, with a nonce that follows from
+ * its index, the chunks can also be processed in parallel, by
+ * {@link #encryptParallel} and {@link #decryptParallel}. Both modes produce
+ * and accept the same format.
+ *
+ * Both methods process the whole of the source channel, and write the
+ * destination channel from position 0; the destination must be opened for
+ * reading and writing, as required by {@link FileChannel#map}. Its contents
+ * should be discarded when an exception is thrown.
+ *
+ * @author Jan van de Molengraft [jan@artemisc.eu]
+ */
+public final class SecretboxFile {
+    static {
+        // Require sodium_init();
+        Stodium.StodiumInit();
+    }
+
+    // block the constructor
+    private SecretboxFile() {}
+
+    // constants
+    public static final int HEADERBYTES = Secretbox.NONCEBYTES + 4;
+    public static final int CHUNKBYTES_DEFAULT = 1024 * 1024;
+
+    /**
+     * WINDOW_BYTES is the approximate size of the file regions that are
+     * mapped at once. A window always holds whole chunks.
+     */
+    static final int WINDOW_BYTES = 64 * 1024 * 1024;
+
+    /**
+     * PARALLEL_WINDOW_BYTES is the approximate size of the file regions that
+     * are processed by a single fork/join task.
+     */
+    static final int PARALLEL_WINDOW_BYTES = 8 * 1024 * 1024;
+
+    /**
+     * @param plainLen
+     * @param chunkBytes
+     * @return The size of the encrypted file for a file of plainLen bytes
+     */
+    public static long encryptedLength(final long plainLen,
+                                       final int chunkBytes) {
+        return HEADERBYTES + plainLen + chunkCount(plainLen, chunkBytes) * Secretbox.MACBYTES;
+    }
+
+    /**
+     * chunkCount returns the number of chunks for plainLen bytes. There is
+     * always at least one (possibly empty) chunk, so that empty files are
+     * authenticated as well.
+     */
+    private static long chunkCount(final long plainLen,
+                                   final int chunkBytes) {
+        return plainLen == 0 ? 1 : (plainLen + chunkBytes - 1) / chunkBytes;
+    }
+
+    /**
+     * encrypt is equivalent to calling
+     * {@link #encrypt(FileChannel, FileChannel, byte[], int)} with
+     * {@code chunkBytes = CHUNKBYTES_DEFAULT}.
+     *
+     * @param dst
+     * @param src
+     * @param secretKey
+     * @throws IOException
+     * @throws ConstraintViolationException
+     * @throws StodiumException
+     */
+    public static void encrypt(@NonNull final FileChannel dst,
+                               @NonNull final FileChannel src,
+                               @NonNull final byte[] secretKey)
+            throws IOException, StodiumException {
+        encrypt(dst, src, secretKey, CHUNKBYTES_DEFAULT);
+    }
+
+    /**
+     *
+     * @param dst
+     * @param src
+     * @param secretKey
+     * @param chunkBytes The number of plaintext bytes per chunk
+     * @throws IOException
+     * @throws ConstraintViolationException
+     * @throws StodiumException
+     */
+    public static void encrypt(@NonNull final FileChannel dst,
+                               @NonNull final FileChannel src,
+                               @NonNull final byte[] secretKey,
+                               final int chunkBytes)
+            throws IOException, StodiumException {
+        final Layout layout = writeHeader(dst, src, secretKey, chunkBytes);
+        final long windowChunks = Math.max(1, WINDOW_BYTES / layout.stride);
+        for (long first = 0; first < layout.chunks; first += windowChunks) {
+            encryptChunks(layout, dst, src, secretKey, first,
+                    (int) Math.min(windowChunks, layout.chunks - first));
+        }
+    }
+
+    /**
+     * encryptParallel produces the same format as
+     * {@link #encrypt(FileChannel, FileChannel, byte[], int)}, but encrypts
+     * the chunks on the given pool. On Android, ForkJoinPool requires API
+     * level 21.
+     *
+     * @param dst
+     * @param src
+     * @param secretKey
+     * @param chunkBytes The number of plaintext bytes per chunk
+     * @param pool
+     * @throws IOException
+     * @throws ConstraintViolationException
+     * @throws StodiumException
+     */
+    public static void encryptParallel(@NonNull final FileChannel dst,
+                                       @NonNull final FileChannel src,
+                                       @NonNull final byte[] secretKey,
+                                       final int chunkBytes,
+                                       @NonNull final ForkJoinPool pool)
+            throws IOException, StodiumException {
+        final Layout layout = writeHeader(dst, src, secretKey, chunkBytes);
+        try {
+            invoke(pool, new ChunkTask(true, layout, dst, src, secretKey, 0, layout.chunks));
+        } catch (GeneralSecurityException e) {
+            // encryptChunks only throws StodiumException
+            throw (StodiumException) e;
+        }
+    }
+
+    /**
+     *
+     * @param dst
+     * @param src
+     * @param secretKey
+     * @throws IOException
+     * @throws ConstraintViolationException
+     * @throws StodiumException
+     * @throws AEADBadTagException If a chunk cannot be authenticated, or if
+     *         src is not a complete encrypted file
+     */
+    public static void decrypt(@NonNull final FileChannel dst,
+                               @NonNull final FileChannel src,
+                               @NonNull final byte[] secretKey)
+            throws IOException, StodiumException, AEADBadTagException {
+        final Layout layout = readHeader(dst, src, secretKey);
+        final long windowChunks = Math.max(1, WINDOW_BYTES / layout.stride);
+        for (long first = 0; first < layout.chunks; first += windowChunks) {
+            decryptChunks(layout, dst, src, secretKey, first,
+                    (int) Math.min(windowChunks, layout.chunks - first));
+        }
+    }
+
+    /**
+     * decryptParallel accepts the same format as
+     * {@link #decrypt(FileChannel, FileChannel, byte[])}, but verifies and
+     * decrypts the chunks on the given pool. On Android, ForkJoinPool
+     * requires API level 21.
+     *
+     * @param dst
+     * @param src
+     * @param secretKey
+     * @param pool
+     * @throws IOException
+     * @throws ConstraintViolationException
+     * @throws StodiumException
+     * @throws AEADBadTagException If a chunk cannot be authenticated, or if
+     *         src is not a complete encrypted file
+     */
+    public static void decryptParallel(@NonNull final FileChannel dst,
+                                       @NonNull final FileChannel src,
+                                       @NonNull final byte[] secretKey,
+                                       @NonNull final ForkJoinPool pool)
+            throws IOException, StodiumException, AEADBadTagException {
+        final Layout layout = readHeader(dst, src, secretKey);
+        try {
+            invoke(pool, new ChunkTask(false, layout, dst, src, secretKey, 0, layout.chunks));
+        } catch (AEADBadTagException e) {
+            throw e;
+        } catch (GeneralSecurityException e) {
+            throw (StodiumException) e;
+        }
+    }
+
+    /**
+     * Layout describes an encrypted file: its initial nonce, chunk size and
+     * (derived) number of chunks and plaintext length.
+     */
+    private static final class Layout {
+        final byte[] nonce;
+        final int chunkBytes;
+        final long stride;
+        final long chunks;
+        final long plainLen;
+
+        Layout(@NonNull final byte[] nonce,
+               final int chunkBytes,
+               final long chunks,
+               final long plainLen) {
+            this.nonce = nonce;
+            this.chunkBytes = chunkBytes;
+            this.stride = (long) chunkBytes + Secretbox.MACBYTES;
+            this.chunks = chunks;
+            this.plainLen = plainLen;
+        }
+
+        /**
+         * nonce returns the nonce of chunk index, i.e. the initial nonce
+         * plus index, as a little-endian number.
+         */
+        @NonNull
+        byte[] nonce(final long index) {
+            final byte[] n = nonce.clone();
+            long carry = index;
+            for (int i = 0; i < n.length && carry != 0; i++) {
+                carry += n[i] & 0xff;
+                n[i] = (byte) carry;
+                carry >>>= 8;
+            }
+            return n;
+        }
+    }
+
+    /**
+     * writeHeader validates the parameters, creates a random initial nonce
+     * and writes the header to dst.
+     */
+    @NonNull
+    private static Layout writeHeader(@NonNull final FileChannel dst,
+                                      @NonNull final FileChannel src,
+                                      @NonNull final byte[] secretKey,
+                                      final int chunkBytes)
+            throws IOException, StodiumException {
+        Stodium.checkSize(chunkBytes, 1, Integer.MAX_VALUE - Secretbox.MACBYTES,
+                "1", "Integer.MAX_VALUE - Secretbox.MACBYTES");
+        Stodium.checkSize(secretKey.length, Secretbox.KEYBYTES, "Secretbox.KEYBYTES");
+
+        final long plainLen = src.size();
+        final long total = encryptedLength(plainLen, chunkBytes);
+        if (dst.size() > total) {
+            dst.truncate(total);
+        }
+
+        final byte[] nonce = new byte[Secretbox.NONCEBYTES];
+        RandomBytes.nextBytes(nonce);
+
+        final ByteBuffer header = ByteBuffer.allocate(HEADERBYTES);
+        header.put(nonce).putInt(chunkBytes).flip();
+        while (header.hasRemaining()) {
+            dst.write(header, header.position());
+        }
+        return new Layout(nonce, chunkBytes, chunkCount(plainLen, chunkBytes), plainLen);
+    }
+
+    /**
+     * readHeader validates the parameters, reads the header from src and
+     * checks that the size of src is consistent with it.
+     */
+    @NonNull
+    private static Layout readHeader(@NonNull final FileChannel dst,
+                                     @NonNull final FileChannel src,
+                                     @NonNull final byte[] secretKey)
+            throws IOException, StodiumException, AEADBadTagException {
+        Stodium.checkSize(secretKey.length, Secretbox.KEYBYTES, "Secretbox.KEYBYTES");
+
+        final long size = src.size();
+        if (size < HEADERBYTES + Secretbox.MACBYTES) {
+            Stodium.checkStatusSealOpen(-1, "SecretboxFile#decrypt");
+        }
+
+        final ByteBuffer header = ByteBuffer.allocate(HEADERBYTES);
+        while (header.hasRemaining()) {
+            if (src.read(header, header.position()) < 0) {
+                Stodium.checkStatusSealOpen(-1, "SecretboxFile#decrypt");
+            }
+        }
+        header.flip();
+        final byte[] nonce = new byte[Secretbox.NONCEBYTES];
+        header.get(nonce);
+        final int chunkBytes = header.getInt();
+        if (chunkBytes < 1 || chunkBytes > Integer.MAX_VALUE - Secretbox.MACBYTES) {
+            Stodium.checkStatusSealOpen(-1, "SecretboxFile#decrypt");
+        }
+
+        final long body = size - HEADERBYTES;
+        final long stride = (long) chunkBytes + Secretbox.MACBYTES;
+        final long chunks = (body + stride - 1) / stride;
+        if (body - (chunks - 1) * stride < Secretbox.MACBYTES) {
+            Stodium.checkStatusSealOpen(-1, "SecretboxFile#decrypt");
+        }
+        final long plainLen = body - chunks * Secretbox.MACBYTES;
+        if (dst.size() > plainLen) {
+            dst.truncate(plainLen);
+        }
+        return new Layout(nonce, chunkBytes, chunks, plainLen);
+    }
+
+    /**
+     * encryptChunks maps and encrypts the n chunks starting at chunk first.
+     */
+    private static void encryptChunks(@NonNull final Layout layout,
+                                      @NonNull final FileChannel dst,
+                                      @NonNull final FileChannel src,
+                                      @NonNull final byte[] secretKey,
+                                      final long first,
+                                      final int n)
+            throws IOException, StodiumException {
+        final long srcPos = first * layout.chunkBytes;
+        final long srcLen = Math.min((long) n * layout.chunkBytes, layout.plainLen - srcPos);
+        // an empty file is read from an empty heap buffer: a zero-length
+        // mapping has no address, which the native code rejects. As the
+        // other buffers are mapped, the single empty chunk goes through the
+        // copying fallback of Secretbox.detached, which copies nothing
+        final ByteBuffer in = srcLen == 0
+                ? ByteBuffer.allocate(0)
+                : src.map(FileChannel.MapMode.READ_ONLY, srcPos, srcLen);
+        final MappedByteBuffer out = dst.map(FileChannel.MapMode.READ_WRITE,
+                HEADERBYTES + first * layout.stride, srcLen + (long) n * Secretbox.MACBYTES);
+        final ByteBuffer mac = out.duplicate();
+
+        final byte[] nonce = layout.nonce(first);
+        for (int i = 0; i < n; i++) {
+            in.limit(in.position() + Math.min(layout.chunkBytes, in.capacity() - in.position()));
+            mac.position((int) (i * layout.stride));
+            out.position(mac.position() + Secretbox.MACBYTES);
+            if (first + i == layout.chunks - 1) {
+                nonce[nonce.length - 1] ^= (byte) 0x80;
+            }
+            Secretbox.detached(out, mac, in, nonce, secretKey);
+            Stodium.increment(nonce);
+        }
+    }
+
+    /**
+     * decryptChunks maps, verifies and decrypts the n chunks starting at
+     * chunk first.
+     */
+    private static void decryptChunks(@NonNull final Layout layout,
+                                      @NonNull final FileChannel dst,
+                                      @NonNull final FileChannel src,
+                                      @NonNull final byte[] secretKey,
+                                      final long first,
+                                      final int n)
+            throws IOException, StodiumException, AEADBadTagException {
+        final long body = src.size() - HEADERBYTES;
+        final long srcLen = Math.min(n * layout.stride, body - first * layout.stride);
+        final MappedByteBuffer in = src.map(FileChannel.MapMode.READ_ONLY,
+                HEADERBYTES + first * layout.stride, srcLen);
+        // as in encryptChunks, an empty file is written to an empty heap
+        // buffer instead of a zero-length mapping, so the single empty chunk
+        // goes through the copying fallback of Secretbox.openDetached
+        final long dstLen = srcLen - (long) n * Secretbox.MACBYTES;
+        final ByteBuffer out = dstLen == 0
+                ? ByteBuffer.allocate(0)
+                : dst.map(FileChannel.MapMode.READ_WRITE, first * layout.chunkBytes, dstLen);
+        final ByteBuffer mac = in.duplicate();
+
+        final byte[] nonce = layout.nonce(first);
+        for (int i = 0; i < n; i++) {
+            mac.position((int) (i * layout.stride));
+            in.limit((int) Math.min(mac.position() + layout.stride, srcLen));
+            in.position(mac.position() + Secretbox.MACBYTES);
+            if (first + i == layout.chunks - 1) {
+                nonce[nonce.length - 1] ^= (byte) 0x80;
+            }
+            Secretbox.openDetached(out, in, mac, nonce, secretKey);
+            Stodium.increment(nonce);
+        }
+    }
+
+    /**
+     * invoke runs task on pool, and rethrows the checked exception of the
+     * first failed chunk.
+     */
+    private static void invoke(@NonNull final ForkJoinPool pool,
+                               @NonNull final ChunkTask task)
+            throws IOException, GeneralSecurityException {
+        try {
+            pool.invoke(task);
+        } catch (ChunkException e) {
+            final Throwable cause = e.getCause();
+            if (cause instanceof IOException) {
+                throw (IOException) cause;
+            }
+            throw (GeneralSecurityException) cause;
+        }
+    }
+
+    /**
+     * ChunkException carries a checked exception out of a ChunkTask.
+     */
+    private static final class ChunkException
+            extends RuntimeException {
+        ChunkException(@NonNull final Exception cause) {
+            super(cause);
+        }
+    }
+
+    /**
+     * ChunkTask encrypts or decrypts the chunks [from, to), by splitting the
+     * range in halves until it spans at most PARALLEL_WINDOW_BYTES.
+     */
+    private static final class ChunkTask
+            extends RecursiveAction {
+        private final boolean encrypt;
+        private final Layout layout;
+        private final FileChannel dst;
+        private final FileChannel src;
+        private final byte[] secretKey;
+        private final long from;
+        private final long to;
+
+        ChunkTask(final boolean encrypt,
+                  @NonNull final Layout layout,
+                  @NonNull final FileChannel dst,
+                  @NonNull final FileChannel src,
+                  @NonNull final byte[] secretKey,
+                  final long from,
+                  final long to) {
+            this.encrypt = encrypt;
+            this.layout = layout;
+            this.dst = dst;
+            this.src = src;
+            this.secretKey = secretKey;
+            this.from = from;
+            this.to = to;
+        }
+
+        @Override
+        protected void compute() {
+            final long windowChunks = Math.max(1, PARALLEL_WINDOW_BYTES / layout.stride);
+            if (to - from > windowChunks) {
+                final long mid = from + (to - from) / 2;
+                invokeAll(new ChunkTask(encrypt, layout, dst, src, secretKey, from, mid),
+                        new ChunkTask(encrypt, layout, dst, src, secretKey, mid, to));
+                return;
+            }
+            try {
+                if (encrypt) {
+                    encryptChunks(layout, dst, src, secretKey, from, (int) (to - from));
+                } else {
+                    decryptChunks(layout, dst, src, secretKey, from, (int) (to - from));
+                }
+            } catch (IOException e) {
+                throw new ChunkException(e);
+            } catch (GeneralSecurityException e) {
+                throw new ChunkException(e);
+            }
+        }
+    }
+}
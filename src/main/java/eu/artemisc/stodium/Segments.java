@@ -0,0 +1,127 @@
+package eu.artemisc.stodium;
+
+import android.support.annotation.NonNull;
+
+import java.nio.ByteBuffer;
+import java.nio.ReadOnlyBufferException;
+
+/**
+ * Segments describes a list of buffers in the form expected by the native
+ * gather and scatter functions: every element of buffers is either a byte[]
+ * or a direct ByteBuffer, and bounds holds the offset into and the length of
+ * each segment, interleaved.
+ *
+ * @author Jan van de Molengraft [jan@artemisc.eu]
+ */
+final class Segments {
+    @NonNull final Object[] buffers;
+    @NonNull final int[] bounds;
+    /**
+     * length is the sum of the segment lengths.
+     */
+    final int length;
+
+    private Segments(@NonNull final Object[] buffers,
+                     @NonNull final int[] bounds,
+                     final long length)
+            throws ConstraintViolationException {
+        if (length > Integer.MAX_VALUE) {
+            throw new ConstraintViolationException(
+                    String.format("Segments: total length %d exceeds Integer.MAX_VALUE", length));
+        }
+        this.buffers = buffers;
+        this.bounds = bounds;
+        this.length = (int) length;
+    }
+
+    /**
+     * of describes the full length of each of the arrays.
+     *
+     * @param arrays
+     * @return the Segments that describe arrays
+     * @throws ConstraintViolationException if the total length exceeds
+     *         Integer.MAX_VALUE
+     */
+    @NonNull
+    static Segments of(@NonNull final byte[]... arrays)
+            throws ConstraintViolationException {
+        final int[] bounds = new int[2 * arrays.length];
+        long length = 0;
+        for (int i = 0; i < arrays.length; i++) {
+            bounds[2 * i + 1] = arrays[i].length;
+            length += arrays[i].length;
+        }
+        return new Segments(arrays, bounds, length);
+    }
+
+    /**
+     * of describes the remaining bytes of each of the buffers. Direct buffers
+     * are referenced by address and heap buffers by their backing arrays;
+     * buffers that are neither (read-only heap buffers) are copied.
+     *
+     * @param buffers
+     * @return the Segments that describe buffers
+     * @throws ConstraintViolationException if the total length exceeds
+     *         Integer.MAX_VALUE
+     */
+    @NonNull
+    static Segments of(@NonNull final ByteBuffer... buffers)
+            throws ConstraintViolationException {
+        final Object[] segments = new Object[buffers.length];
+        final int[] bounds = new int[2 * buffers.length];
+        long length = 0;
+        for (int i = 0; i < buffers.length; i++) {
+            final ByteBuffer buf = buffers[i];
+            if (buf.isDirect()) {
+                segments[i] = buf;
+                bounds[2 * i] = buf.position();
+            } else if (buf.hasArray()) {
+                segments[i] = buf.array();
+                bounds[2 * i] = Stodium.arrayPosition(buf);
+            } else {
+                segments[i] = Stodium.remainingBytes(buf);
+            }
+            bounds[2 * i + 1] = buf.remaining();
+            length += buf.remaining();
+        }
+        return new Segments(segments, bounds, length);
+    }
+
+    /**
+     * writable describes the remaining bytes of each of the buffers, like
+     * {@link #of(ByteBuffer...)}, but verifies that none of them are
+     * read-only so that output written to the segments cannot be lost.
+     *
+     * @param buffers
+     * @return the Segments that describe buffers
+     * @throws ConstraintViolationException if the total length exceeds
+     *         Integer.MAX_VALUE
+     * @throws ReadOnlyBufferException
+     */
+    @NonNull
+    static Segments writable(@NonNull final ByteBuffer... buffers)
+            throws ConstraintViolationException {
+        for (final ByteBuffer buf : buffers) {
+            if (buf.isReadOnly()) {
+                throw new ReadOnlyBufferException();
+            }
+        }
+        return of(buffers);
+    }
+
+    /**
+     * advance moves the positions of buffers forward by a total of bytes,
+     * filling (or draining) them in order.
+     *
+     * @param buffers
+     * @param bytes
+     */
+    static void advance(@NonNull final ByteBuffer[] buffers,
+                        int bytes) {
+        for (int i = 0; i < buffers.length && bytes > 0; i++) {
+            final int step = Math.min(bytes, buffers[i].remaining());
+            buffers[i].position(buffers[i].position() + step);
+            bytes -= step;
+        }
+    }
+}
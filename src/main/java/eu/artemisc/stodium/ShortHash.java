@@ -4,9 +4,6 @@ import android.support.annotation.NonNull;
 
 import org.abstractj.kalium.Sodium;
 
-import java.nio.ByteBuffer;
-import java.nio.ByteOrder;
-
 /**
  * ShortHash wraps calls to sodium's crypto_shorthash API.
  *
@@ -22,34 +19,30 @@ public class ShortHash {
     private ShortHash() {}
 
     // constants
-    public static final int BYTES = Sodium.crypto_shorthash_bytes();
-    public static final int KEYBYTES = Sodium.crypto_shorthash_keybytes();
+    public static final int BYTES = Stodium.CONSTANTS[Constants.CRYPTO_SHORTHASH_BYTES];
+    public static final int KEYBYTES = Stodium.CONSTANTS[Constants.CRYPTO_SHORTHASH_KEYBYTES];
 
-    public static final String PRIMITIVE = Sodium.crypto_shorthash_primitive();
+    public static final String PRIMITIVE = Stodium.PRIMITIVES[Constants.CRYPTO_SHORTHASH_PRIMITIVE];
 
     /**
      *
      * @param srcIn
      * @param srcKey
-     * @return a Long that holds the (BigEndian) representation of the resulting
-     *         64-bit Hash value.
+     * @return the (BigEndian) representation of the resulting 64-bit Hash
+     *         value.
      * @throws ConstraintViolationException
      * @throws StodiumException
      */
-    @NonNull
-    static Long shorthash(@NonNull final byte[] srcIn,
+    static long shorthash(@NonNull final byte[] srcIn,
                           @NonNull final byte[] srcKey)
             throws StodiumException {
         Stodium.checkSize(srcKey.length, KEYBYTES, "ShortHash.KEYBYTES");
-
-        byte[] dst = new byte[BYTES];
-        Stodium.checkStatus(
-                Sodium.crypto_shorthash(dst, srcIn, srcIn.length, srcKey));
-
-        // Return as long
-        return ByteBuffer.wrap(dst)
-                .order(ByteOrder.BIG_ENDIAN)
-                .getLong();
+        // the hash is returned instead of a status, so the call is recorded
+        // as successful
+        final long start = Metrics.start();
+        final long hash = Backends.BACKEND.crypto_shorthash_long(srcIn, srcIn.length, srcKey);
+        Metrics.record("ShortHash#shorthash", srcIn.length, start, 0);
+        return hash;
     }
 
     /**
@@ -67,7 +60,7 @@ public class ShortHash {
             throws StodiumException {
         Stodium.checkSize(dstHash.length, BYTES, "ShortHash.BYTES");
         Stodium.checkSize(srcKey.length, KEYBYTES, "ShortHash.KEYBYTES");
-        Stodium.checkStatus(
-                Sodium.crypto_shorthash(dstHash, srcIn, srcIn.length, srcKey));
+        Stodium.checkStatus(Metrics.record("ShortHash#shorthash", srcIn.length, Metrics.start(),
+                Sodium.crypto_shorthash(dstHash, srcIn, srcIn.length, srcKey)));
     }
 }
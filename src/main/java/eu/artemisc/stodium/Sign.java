@@ -17,12 +17,12 @@ public final class Sign {
     private Sign() {}
 
     // constants
-    public static final int SIGNBYTES = Sodium.crypto_sign_bytes();
-    public static final int PUBLICKEYBYTES = Sodium.crypto_sign_publickeybytes();
-    public static final int PRIVATEKEYBYTES = Sodium.crypto_sign_secretkeybytes();
-    public static final int SEEDBYTES = Sodium.crypto_box_seedbytes();
+    public static final int SIGNBYTES = Stodium.CONSTANTS[Constants.CRYPTO_SIGN_BYTES];
+    public static final int PUBLICKEYBYTES = Stodium.CONSTANTS[Constants.CRYPTO_SIGN_PUBLICKEYBYTES];
+    public static final int PRIVATEKEYBYTES = Stodium.CONSTANTS[Constants.CRYPTO_SIGN_SECRETKEYBYTES];
+    public static final int SEEDBYTES = Stodium.CONSTANTS[Constants.CRYPTO_BOX_SEEDBYTES];
 
-    public static final String PRIMITIVE = Sodium.crypto_sign_primitive();
+    public static final String PRIMITIVE = Stodium.PRIMITIVES[Constants.CRYPTO_SIGN_PRIMITIVE];
 
     // wrappers
 
@@ -144,10 +144,10 @@ public final class Sign {
             throws StodiumException {
         Stodium.checkSize(dstSignedMsg.length, srcMsg.length + SIGNBYTES, "Sign.SIGNBYTES + srcMsg.length");
         Stodium.checkSize(localPrivKey.length, PRIVATEKEYBYTES, "Sign.PRIVATEKEYBYTES");
-        final int[] dstSize = new int[1];
-        Stodium.checkStatus(Sodium.crypto_sign(dstSignedMsg, dstSize, srcMsg,
-                srcMsg.length, localPrivKey));
-        return dstSize[0];
+        Stodium.checkStatus(Metrics.record("Sign#sign", srcMsg.length, Metrics.start(),
+                Sodium.crypto_sign_offset(dstSignedMsg, 0, srcMsg, 0,
+                srcMsg.length, localPrivKey)));
+        return srcMsg.length + SIGNBYTES;
     }
 
     /**
@@ -174,10 +174,39 @@ public final class Sign {
             throws StodiumException {
         Stodium.checkSize(srcSignedMsg.length, dstMsg.length + SIGNBYTES, "Sign.SIGNBYTES + dstMsg.length");
         Stodium.checkSize(remotePubKey.length, PUBLICKEYBYTES, "Sign.PUBLICKEYBYTES");
-        final int[] dstSize = new int[1];
-        Stodium.checkStatus(Sodium.crypto_sign_open(dstMsg, dstSize,
-                srcSignedMsg, srcSignedMsg.length, remotePubKey));
-        return dstSize[0];
+        Stodium.checkStatus(Metrics.record("Sign#open", srcSignedMsg.length, Metrics.start(),
+                Sodium.crypto_sign_open_offset(dstMsg, 0,
+                srcSignedMsg, 0, srcSignedMsg.length, remotePubKey)));
+        return srcSignedMsg.length - SIGNBYTES;
+    }
+
+    /**
+     * tryOpen is the exception-free variant of
+     * {@link #open(byte[], byte[], byte[])}. An invalid signature is reported
+     * by returning -1, without allocating an exception. Invalid parameters are
+     * still reported by exceptions.
+     *
+     * @param dstMsg
+     * @param srcSignedMsg
+     * @param remotePubKey
+     * @return The size of the original message, or -1 if the signature is
+     *         invalid
+     * @throws ConstraintViolationException
+     *
+     * @see <a href="https://download.libsodium.org/doc/public-key_cryptography/public-key_signatures.html#combined-mode">libsodium docs</a>
+     */
+    public static int tryOpen(@NonNull final byte[] dstMsg,
+                              @NonNull final byte[] srcSignedMsg,
+                              @NonNull final byte[] remotePubKey)
+            throws ConstraintViolationException {
+        Stodium.checkSize(srcSignedMsg.length, dstMsg.length + SIGNBYTES, "Sign.SIGNBYTES + dstMsg.length");
+        Stodium.checkSize(remotePubKey.length, PUBLICKEYBYTES, "Sign.PUBLICKEYBYTES");
+        if (Metrics.record("Sign#open", srcSignedMsg.length, Metrics.start(),
+                Sodium.crypto_sign_open_offset(dstMsg, 0,
+                srcSignedMsg, 0, srcSignedMsg.length, remotePubKey)) != 0) {
+            return -1;
+        }
+        return srcSignedMsg.length - SIGNBYTES;
     }
 
     //
@@ -189,8 +218,7 @@ public final class Sign {
      * @param dstSignature
      * @param srcMsg
      * @param localPrivKey
-     * @return The real size of dstSignature as calculated by
-     *         {@link org.abstractj.kalium.Sodium#crypto_sign_detached(byte[], int[], byte[], int, byte[])}
+     * @return The size of the signature, SIGNBYTES
      * @throws ConstraintViolationException
      * @throws StodiumException
      *
@@ -202,10 +230,43 @@ public final class Sign {
             throws StodiumException {
         Stodium.checkSize(dstSignature.length, SIGNBYTES, "Sign.SIGNBYTES");
         Stodium.checkSize(localPrivKey.length, PRIVATEKEYBYTES, "Sign.PRIVATEKEYBYTES");
-        final int[] dstSize = new int[1];
-        Stodium.checkStatus(Sodium.crypto_sign_detached(dstSignature, dstSize,
-                srcMsg, srcMsg.length, localPrivKey));
-        return dstSize[0];
+        Stodium.checkStatus(Metrics.record("Sign#signDetached", srcMsg.length, Metrics.start(),
+                Sodium.crypto_sign_detached_offset(dstSignature, 0,
+                srcMsg, 0, srcMsg.length, localPrivKey)));
+        return SIGNBYTES;
+    }
+
+    /**
+     * signDetached calculates the signature of {@code srcLen} bytes of srcMsg,
+     * starting at srcOffset, and writes it to dstSignature, starting at
+     * dstOffset.
+     *
+     * @param dstSignature
+     * @param dstOffset
+     * @param srcMsg
+     * @param srcOffset
+     * @param srcLen
+     * @param localPrivKey
+     * @return The size of the signature, SIGNBYTES
+     * @throws ConstraintViolationException
+     * @throws StodiumException
+     *
+     * @see <a href="https://download.libsodium.org/doc/public-key_cryptography/public-key_signatures.html#detached-mode">libsodium docs</a>
+     */
+    public static int signDetached(@NonNull final byte[] dstSignature,
+                                   final int dstOffset,
+                                   @NonNull final byte[] srcMsg,
+                                   final int srcOffset,
+                                   final int srcLen,
+                                   @NonNull final byte[] localPrivKey)
+            throws StodiumException {
+        Stodium.checkOffsetParams(dstSignature.length, dstOffset, SIGNBYTES);
+        Stodium.checkOffsetParams(srcMsg.length, srcOffset, srcLen);
+        Stodium.checkSize(localPrivKey.length, PRIVATEKEYBYTES, "Sign.PRIVATEKEYBYTES");
+        Stodium.checkStatus(Metrics.record("Sign#signDetached", srcLen, Metrics.start(),
+                Sodium.crypto_sign_detached_offset(dstSignature,
+                dstOffset, srcMsg, srcOffset, srcLen, localPrivKey)));
+        return SIGNBYTES;
     }
 
     /**
@@ -224,7 +285,63 @@ public final class Sign {
             throws StodiumException {
         Stodium.checkSize(srcSignature.length, SIGNBYTES, "Sign.SIGNBYTES");
         Stodium.checkSize(remotePubKey.length, PUBLICKEYBYTES, "Sign.PUBLICKEYBYTES");
-        Stodium.checkStatus(Sodium.crypto_sign_verify_detached(srcSignature,
-                srcMsg, srcMsg.length, remotePubKey));
+        Stodium.checkStatus(Metrics.record("Sign#verifyDetached", srcMsg.length, Metrics.start(),
+                Sodium.crypto_sign_verify_detached(srcSignature,
+                srcMsg, srcMsg.length, remotePubKey)));
+    }
+
+    /**
+     * tryVerifyDetached is the exception-free variant of
+     * {@link #verifyDetached(byte[], byte[], byte[])}. An invalid signature is
+     * reported by returning false, without allocating an exception.
+     *
+     * @param srcSignature
+     * @param srcMsg
+     * @param remotePubKey
+     * @return true iff the signature is valid
+     * @throws ConstraintViolationException
+     *
+     * @see <a href="https://download.libsodium.org/doc/public-key_cryptography/public-key_signatures.html#detached-mode">libsodium docs</a>
+     */
+    public static boolean tryVerifyDetached(@NonNull final byte[] srcSignature,
+                                            @NonNull final byte[] srcMsg,
+                                            @NonNull final byte[] remotePubKey)
+            throws ConstraintViolationException {
+        Stodium.checkSize(srcSignature.length, SIGNBYTES, "Sign.SIGNBYTES");
+        Stodium.checkSize(remotePubKey.length, PUBLICKEYBYTES, "Sign.PUBLICKEYBYTES");
+        return Metrics.record("Sign#verifyDetached", srcMsg.length, Metrics.start(),
+                Sodium.crypto_sign_verify_detached(srcSignature,
+                srcMsg, srcMsg.length, remotePubKey)) == 0;
+    }
+
+    /**
+     * verifyDetached verifies the signature found at sigOffset in
+     * srcSignature, against {@code srcLen} bytes of srcMsg, starting at
+     * srcOffset.
+     *
+     * @param srcSignature
+     * @param sigOffset
+     * @param srcMsg
+     * @param srcOffset
+     * @param srcLen
+     * @param remotePubKey
+     * @throws ConstraintViolationException
+     * @throws StodiumException
+     *
+     * @see <a href="https://download.libsodium.org/doc/public-key_cryptography/public-key_signatures.html#detached-mode">libsodium docs</a>
+     */
+    public static void verifyDetached(@NonNull final byte[] srcSignature,
+                                      final int sigOffset,
+                                      @NonNull final byte[] srcMsg,
+                                      final int srcOffset,
+                                      final int srcLen,
+                                      @NonNull final byte[] remotePubKey)
+            throws StodiumException {
+        Stodium.checkOffsetParams(srcSignature.length, sigOffset, SIGNBYTES);
+        Stodium.checkOffsetParams(srcMsg.length, srcOffset, srcLen);
+        Stodium.checkSize(remotePubKey.length, PUBLICKEYBYTES, "Sign.PUBLICKEYBYTES");
+        Stodium.checkStatus(Metrics.record("Sign#verifyDetached", srcLen, Metrics.start(),
+                Sodium.crypto_sign_verify_detached_offset(srcSignature,
+                sigOffset, srcMsg, srcOffset, srcLen, remotePubKey)));
     }
 }
@@ -5,9 +5,6 @@ import android.support.annotation.NonNull;
 
 import org.abstractj.kalium.Sodium;
 
-import java.nio.ByteBuffer;
-import java.nio.ByteOrder;
-
 /**
  * SipHash24 wraps calls to sodium's crypto_shorthash_siphash API, which
  * implements the SipHash-2-4 specification.
@@ -24,31 +21,24 @@ public class SipHash24 {
     private SipHash24() {}
 
     // constants
-    public static final int BYTES    = Sodium.crypto_shorthash_siphash24_bytes();
-    public static final int KEYBYTES = Sodium.crypto_shorthash_siphash24_keybytes();
+    public static final int BYTES    = Stodium.CONSTANTS[Constants.CRYPTO_SHORTHASH_SIPHASH24_BYTES];
+    public static final int KEYBYTES = Stodium.CONSTANTS[Constants.CRYPTO_SHORTHASH_SIPHASH24_KEYBYTES];
 
     /**
      *
      * @param srcIn
      * @param srcKey
-     * @return
+     * @return the (BigEndian) representation of the resulting 64-bit Hash
+     *         value.
      * @throws ConstraintViolationException
      * @throws StodiumException
      */
-    @NonNull @CheckResult
-    static Long shorthash(@NonNull final byte[] srcIn,
+    @CheckResult
+    static long shorthash(@NonNull final byte[] srcIn,
                           @NonNull final byte[] srcKey)
             throws StodiumException {
         Stodium.checkSize(srcKey.length, KEYBYTES, "SipHash24.KEYBYTES");
-
-        byte[] dst = new byte[BYTES];
-        Stodium.checkStatus(
-                Sodium.crypto_shorthash_siphash24(dst, srcIn, srcIn.length, srcKey));
-
-        // Return as long
-        return ByteBuffer.wrap(dst)
-                .order(ByteOrder.BIG_ENDIAN)
-                .getLong();
+        return Sodium.crypto_shorthash_siphash24_long(srcIn, srcIn.length, srcKey);
     }
 
     /**
@@ -1,12 +1,12 @@
 package eu.artemisc.stodium;
 
-import android.os.Build;
 import android.support.annotation.NonNull;
 
 import org.abstractj.kalium.Sodium;
 
+import java.nio.ByteBuffer;
+import java.nio.ReadOnlyBufferException;
 import java.util.Arrays;
-import java.util.concurrent.atomic.AtomicBoolean;
 
 import javax.crypto.AEADBadTagException;
 
@@ -24,6 +24,14 @@ public final class Stodium {
     // Block constructor
     private Stodium() {}
 
+    /**
+     * CRITICAL_MAX_BYTES is the largest message length for which the wrappers
+     * call the *_critical native methods. These pin all arrays of a call in a
+     * single GetPrimitiveArrayCritical region, which avoids copying but may
+     * block the garbage collector for the duration of the call.
+     */
+    static final int CRITICAL_MAX_BYTES = 4096;
+
     /**
      *
      * @param status
@@ -44,7 +52,7 @@ public final class Stodium {
      * @param methodDescription
      * @throws AEADBadTagException If the status value does not equal 0,
      *         indicating an invalid authentication tag was encountered.
-     * @throws StodiumException If the API level does not support
+     * @throws StodiumException If the platform does not support
      *         AEADBadTagException, the method will call
      *         {@link #checkStatus(int)} instead.
      */
@@ -55,7 +63,7 @@ public final class Stodium {
             return;
         }
 
-        if (Build.VERSION.SDK_INT >= Build.VERSION_CODES.KITKAT) {
+        if (Platform.AEAD_BAD_TAG_EXCEPTION) {
             throw new AEADBadTagException(
                     methodDescription + ": cannot open sealed box (invalid tag?)");
         } else {
@@ -136,6 +144,101 @@ public final class Stodium {
         Stodium.checkPositive(len);
     }
 
+    /**
+     * checkBatchOffsets verifies an offset table as used by the *Batch
+     * methods: it must hold at least one entry, be non-decreasing, and
+     * describe a range within [0, dataLen].
+     *
+     * @param dataLen
+     * @param offsets
+     * @return The number of messages described by offsets.
+     * @throws ConstraintViolationException
+     */
+    public static int checkBatchOffsets(final int dataLen,
+                                        @NonNull final int[] offsets)
+            throws ConstraintViolationException {
+        Stodium.checkSize(offsets.length, 1, Integer.MAX_VALUE, "1", "Integer.MAX_VALUE");
+        Stodium.checkSize(offsets[0], 0, dataLen, "0", "dataLen");
+        for (int i = 1; i < offsets.length; i++) {
+            Stodium.checkSize(offsets[i], offsets[i - 1], dataLen, "offsets[i - 1]", "dataLen");
+        }
+        return offsets.length - 1;
+    }
+
+    /**
+     * checkBatchLength verifies that an array of dataLen bytes can hold the
+     * output of a batch of required bytes. The caller computes required as a
+     * long, so that it cannot overflow, and it is rejected if it exceeds
+     * either dataLen or Integer.MAX_VALUE.
+     *
+     * @param dataLen
+     * @param required
+     * @param constant
+     * @throws ConstraintViolationException
+     */
+    public static void checkBatchLength(final int dataLen,
+                                        final long required,
+                                        @NonNull final String constant)
+            throws ConstraintViolationException {
+        if (required <= dataLen && required <= Integer.MAX_VALUE) {
+            return;
+        }
+        throw new ConstraintViolationException(
+                String.format("checkBatchLength failed on [%s] [required: %d, real: %d]",
+                        constant, required, dataLen));
+    }
+
+    /**
+     * checkBuffer verifies that the destination buffer dst is writable, and
+     * that it has at least required bytes remaining.
+     *
+     * @param dst
+     * @param required
+     * @param constant
+     * @throws ConstraintViolationException
+     * @throws ReadOnlyBufferException
+     */
+    public static void checkBuffer(@NonNull final ByteBuffer dst,
+                                   final int required,
+                                   @NonNull final String constant)
+            throws ConstraintViolationException {
+        if (dst.isReadOnly()) {
+            throw new ReadOnlyBufferException();
+        }
+        if (dst.remaining() >= required) {
+            return;
+        }
+        throw new ConstraintViolationException(
+                String.format("checkBuffer failed on [%s] [required: %d, remaining: %d]",
+                        constant, required, dst.remaining()));
+    }
+
+    /**
+     * arrayPosition returns the index in the backing array of buf that
+     * corresponds to the buffer's current position.
+     *
+     * @param buf a buffer for which {@code buf.hasArray()} is true
+     * @return {@code buf.arrayOffset() + buf.position()}
+     */
+    static int arrayPosition(@NonNull final ByteBuffer buf) {
+        return buf.arrayOffset() + buf.position();
+    }
+
+    /**
+     * remainingBytes copies the remaining bytes of src into a new array,
+     * without changing the position of src. It is used as the fallback for
+     * buffers that are neither direct nor backed by an accessible array.
+     *
+     * @param src
+     * @return a copy of the bytes between position and limit
+     */
+    @NonNull
+    static byte[] remainingBytes(@NonNull final ByteBuffer src) {
+        final byte[] dst = new byte[src.remaining()];
+        src.duplicate().get(dst);
+        return dst;
+    }
+
     /**
      * checkPow2 checks whether the given integer src is a power of 2, and
      * throws an exception otherwise.
@@ -192,39 +295,50 @@ public final class Stodium {
     }
 
     /**
+     * increment treats n as a little-endian unsigned number and increments it
+     * by one in constant time, using sodium_increment(). It is used to derive
+     * sequential nonces.
      *
+     * @param n
+     */
+    public static void increment(@NonNull final byte[] n) {
+        Sodium.sodium_increment(n, n.length);
+    }
+
+    /**
+     * CONSTANTS holds the size constants of all wrapper classes, indexed by
+     * the values in {@link Constants}. It is filled by the bootstrap call.
      */
     @NonNull
-    private static final AtomicBoolean initialized = new AtomicBoolean(false);
+    static final int[] CONSTANTS = new int[Constants.CONSTANTS_COUNT];
 
     /**
-     * runInit wraps a call to sodium_init().
+     * PRIMITIVES holds the primitive names (and string constants) of all
+     * wrapper classes, indexed by the values in {@link Constants}.
      */
-    private void runInit()
-            throws RuntimeException {
-        if (initialized.get()) {
-            return;
-        }
-        if (Sodium.sodium_init() == -1) {
-            throw new RuntimeException("StodiumInit: could not initialize Sodium library");
-        }
-        initialized.set(true);
-    }
+    @NonNull
+    static final String[] PRIMITIVES = new String[Constants.PRIMITIVES_COUNT];
 
     /**
-     * Load the native library
+     * Load the native library, initialize libsodium and fetch all constants in
+     * a single native call. The JVM runs this exactly once, and blocks other
+     * threads until it has completed.
      */
     static {
-        System.loadLibrary("kaliumjni");
+        Platform.loadLibrary("kaliumjni");
+        if (Sodium.stodium_bootstrap(CONSTANTS, PRIMITIVES) == -1) {
+            throw new RuntimeException("StodiumInit: could not initialize Sodium library");
+        }
     }
 
     /**
-     * Stodium constructor should be called once per application, or at least
-     * before any class is used that requires the native methods to be
-     * available. This ensures the library is loaded and initialized.
+     * StodiumInit ensures the native library is loaded and initialized before
+     * any class is used that requires the native methods to be available. The
+     * work is done once, by the static initializer of this class; subsequent
+     * calls return immediately.
      */
     public static void StodiumInit() {
-        new Stodium().runInit();
+        // Referencing this method triggers the static initializer
     }
 
     /**
@@ -0,0 +1,114 @@
+package eu.artemisc.stodium;
+
+import android.support.annotation.NonNull;
+
+/**
+ * StodiumBackend is the interface through which the wrappers make their most
+ * frequent native calls: the one-shot array variants of Secretbox (easy),
+ * Box (beforenm and afternm), Chacha20Poly1305 (including its offset
+ * variants), Ed25519 (detached), Poly1305, Curve25519 (scalarMult) and
+ * ShortHash.
+ * The methods are named after the libsodium functions they call, like those
+ * of {@link org.abstractj.kalium.Sodium}, and take the same arguments;
+ * parameters are validated by the wrappers before a backend is called.
+ *
+ * The default backend calls the SWIG-generated JNI methods. Another backend
+ * is installed by listing its class name in a
+ * {@code META-INF/services/eu.artemisc.stodium.StodiumBackend} resource, such
+ * as the java.lang.foreign backend of the ffm module. It is looked up through
+ * {@link java.util.ServiceLoader} once, when the first wrapper class is
+ * initialized. A backend that cannot be loaded or instantiated (e.g. because
+ * the JVM is too old) is skipped, and the JNI backend is used instead. The
+ * system property {@code eu.artemisc.stodium.backend} selects a backend by
+ * its {@link #name()}; "jni" forces the JNI backend.
+ *
+ * All other calls, including the streaming, buffer and batch variants,
+ * always use JNI.
+ *
+ * @author Jan van de Molengraft [jan@artemisc.eu]
+ */
+public interface StodiumBackend {
+    /**
+     * @return The name of the backend, e.g. "jni" or "ffm"
+     */
+    @NonNull
+    String name();
+
+    int crypto_secretbox_easy(@NonNull byte[] dstCipher,
+                              @NonNull byte[] srcPlain,
+                              int plainLen,
+                              @NonNull byte[] nonce,
+                              @NonNull byte[] secretKey);
+
+    int crypto_secretbox_open_easy(@NonNull byte[] dstPlain,
+                                   @NonNull byte[] srcCipher,
+                                   int cipherLen,
+                                   @NonNull byte[] nonce,
+                                   @NonNull byte[] secretKey);
+
+    int crypto_box_beforenm(@NonNull byte[] dstSharedKey,
+                            @NonNull byte[] remotePubKey,
+                            @NonNull byte[] localPrivKey);
+
+    int crypto_box_easy_afternm(@NonNull byte[] dstCipher,
+                                @NonNull byte[] srcPlain,
+                                int plainLen,
+                                @NonNull byte[] nonce,
+                                @NonNull byte[] sharedKey);
+
+    int crypto_box_open_easy_afternm(@NonNull byte[] dstPlain,
+                                     @NonNull byte[] srcCipher,
+                                     int cipherLen,
+                                     @NonNull byte[] nonce,
+                                     @NonNull byte[] sharedKey);
+
+    int crypto_aead_chacha20poly1305_encrypt(@NonNull byte[] dstCipher,
+                                             int dstOffset,
+                                             @NonNull byte[] srcPlain,
+                                             int srcOffset,
+                                             int plainLen,
+                                             @NonNull byte[] ad,
+                                             @NonNull byte[] nonce,
+                                             @NonNull byte[] key);
+
+    int crypto_aead_chacha20poly1305_decrypt(@NonNull byte[] dstPlain,
+                                             int dstOffset,
+                                             @NonNull byte[] srcCipher,
+                                             int srcOffset,
+                                             int cipherLen,
+                                             @NonNull byte[] ad,
+                                             @NonNull byte[] nonce,
+                                             @NonNull byte[] key);
+
+    int crypto_sign_ed25519_detached(@NonNull byte[] dstSignature,
+                                     @NonNull byte[] srcMsg,
+                                     int msgLen,
+                                     @NonNull byte[] localPrivKey);
+
+    int crypto_sign_ed25519_verify_detached(@NonNull byte[] srcSignature,
+                                            @NonNull byte[] srcMsg,
+                                            int msgLen,
+                                            @NonNull byte[] remotePubKey);
+
+    int crypto_onetimeauth_poly1305(@NonNull byte[] dstOut,
+                                    @NonNull byte[] srcIn,
+                                    int inLen,
+                                    @NonNull byte[] srcKey);
+
+    int crypto_onetimeauth_poly1305_verify(@NonNull byte[] srcTag,
+                                           @NonNull byte[] srcIn,
+                                           int inLen,
+                                           @NonNull byte[] srcKey);
+
+    int crypto_scalarmult_curve25519(@NonNull byte[] dst,
+                                     @NonNull byte[] src,
+                                     @NonNull byte[] groupElement);
+
+    /**
+     * crypto_shorthash_long computes crypto_shorthash, and returns the hash
+     * as a big-endian 64-bit value.
+     */
+    long crypto_shorthash_long(@NonNull byte[] srcIn,
+                               int inLen,
+                               @NonNull byte[] srcKey);
+}
@@ -0,0 +1,44 @@
+package eu.artemisc.stodium;
+
+import android.support.annotation.NonNull;
+
+/**
+ * StodiumMetrics is the listener interface for per-operation metrics of the
+ * wrapper classes. Operations are named "Class#method", e.g.
+ * "Secretbox#openEasy", which is the same naming used in exception messages.
+ *
+ * A listener is installed by listing its class name in a
+ * {@code META-INF/services/eu.artemisc.stodium.StodiumMetrics} resource; it is
+ * looked up through {@link java.util.ServiceLoader} once, when the first
+ * wrapper class is initialized. When no listener is present, every hook is a
+ * check of a static final boolean, which the JIT folds away.
+ *
+ * Implementations are called on the thread that performs the operation, and
+ * must therefore be thread-safe and cheap. Aggregation (counters, latency
+ * histograms) is left to the implementation.
+ *
+ * @author Jan van de Molengraft [jan@artemisc.eu]
+ */
+public interface StodiumMetrics {
+    /**
+     * onOperation is called after every native call, whether it succeeded or
+     * not.
+     *
+     * @param operation The "Class#method" name of the operation
+     * @param bytes The number of message bytes processed, or 0 for operations
+     *              that do not take a message (e.g. Box#beforenm)
+     * @param nanos The wall-clock duration of the native call
+     */
+    void onOperation(@NonNull String operation,
+                     int bytes,
+                     long nanos);
+
+    /**
+     * onFailure is called after onOperation when the native call returned a
+     * non-zero status, which for the open, decrypt and verify operations
+     * means a bad tag or a bad signature.
+     *
+     * @param operation The "Class#method" name of the operation
+     */
+    void onFailure(@NonNull String operation);
+}
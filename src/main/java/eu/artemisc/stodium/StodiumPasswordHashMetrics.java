@@ -0,0 +1,30 @@
+package eu.artemisc.stodium;
+
+import android.support.annotation.NonNull;
+
+/**
+ * StodiumPasswordHashMetrics is an optional extension of
+ * {@link StodiumMetrics}, for listeners that also want the limits of the
+ * password hashing calls, which are slow by design and whose duration
+ * depends on the limits rather than on the input length. A listener that
+ * implements it is registered as a StodiumMetrics service as usual.
+ *
+ * @author Jan van de Molengraft [jan@artemisc.eu]
+ */
+public interface StodiumPasswordHashMetrics
+        extends StodiumMetrics {
+    /**
+     * onPasswordHash is called after
+     * {@link #onOperation(String, int, long)}, and before
+     * {@link #onFailure(String)}, for every password hashing call.
+     *
+     * @param operation The "Class#method" name of the operation
+     * @param opsLimit The opslimit the password was hashed with
+     * @param memLimit The memlimit the password was hashed with
+     * @param nanos The wall-clock duration of the native call
+     */
+    void onPasswordHash(@NonNull String operation,
+                        int opsLimit,
+                        int memLimit,
+                        long nanos);
+}
@@ -1053,4 +1053,332 @@ public class Sodium {
     return SodiumJNI.crypto_onetimeauth_poly1305_final_offset(state, out, out_offset);
   }
 
+  public static int crypto_secretbox_easy_critical(byte[] crit_out, byte[] crit_in, int in_len, byte[] crit_nonce, byte[] crit_key) {
+    return SodiumJNI.crypto_secretbox_easy_critical(crit_out, crit_in, in_len, crit_nonce, crit_key);
+  }
+
+  public static int crypto_secretbox_open_easy_critical(byte[] crit_out, byte[] crit_in, int in_len, byte[] crit_nonce, byte[] crit_key) {
+    return SodiumJNI.crypto_secretbox_open_easy_critical(crit_out, crit_in, in_len, crit_nonce, crit_key);
+  }
+
+  public static int crypto_secretbox_detached_critical(byte[] crit_out, byte[] crit_mac_out, byte[] crit_in, int in_len, byte[] crit_nonce, byte[] crit_key) {
+    return SodiumJNI.crypto_secretbox_detached_critical(crit_out, crit_mac_out, crit_in, in_len, crit_nonce, crit_key);
+  }
+
+  public static int crypto_secretbox_open_detached_critical(byte[] crit_out, byte[] crit_in, byte[] crit_mac, int in_len, byte[] crit_nonce, byte[] crit_key) {
+    return SodiumJNI.crypto_secretbox_open_detached_critical(crit_out, crit_in, crit_mac, in_len, crit_nonce, crit_key);
+  }
+
+  public static int crypto_box_easy_afternm_critical(byte[] crit_out, byte[] crit_in, int in_len, byte[] crit_nonce, byte[] crit_key) {
+    return SodiumJNI.crypto_box_easy_afternm_critical(crit_out, crit_in, in_len, crit_nonce, crit_key);
+  }
+
+  public static int crypto_box_open_easy_afternm_critical(byte[] crit_out, byte[] crit_in, int in_len, byte[] crit_nonce, byte[] crit_key) {
+    return SodiumJNI.crypto_box_open_easy_afternm_critical(crit_out, crit_in, in_len, crit_nonce, crit_key);
+  }
+
+  public static int crypto_scalarmult_curve25519_critical(byte[] crit_out, byte[] crit_key, byte[] crit_point) {
+    return SodiumJNI.crypto_scalarmult_curve25519_critical(crit_out, crit_key, crit_point);
+  }
+
+  public static int crypto_scalarmult_base_critical(byte[] crit_out, byte[] crit_key) {
+    return SodiumJNI.crypto_scalarmult_base_critical(crit_out, crit_key);
+  }
+
+  public static int crypto_sign_ed25519_detached_critical(byte[] crit_out, byte[] crit_in, int in_len, byte[] crit_key) {
+    return SodiumJNI.crypto_sign_ed25519_detached_critical(crit_out, crit_in, in_len, crit_key);
+  }
+
+  public static int crypto_sign_ed25519_verify_detached_critical(byte[] crit_mac, byte[] crit_in, int in_len, byte[] crit_key) {
+    return SodiumJNI.crypto_sign_ed25519_verify_detached_critical(crit_mac, crit_in, in_len, crit_key);
+  }
+
+  public static int crypto_secretbox_easy_offset(byte[] dst_cipher, int dst_offset, byte[] src_plain, int src_offset, int plain_len, byte[] nonce, byte[] secret_key) {
+    return SodiumJNI.crypto_secretbox_easy_offset(dst_cipher, dst_offset, src_plain, src_offset, plain_len, nonce, secret_key);
+  }
+
+  public static int crypto_secretbox_open_easy_offset(byte[] dst_plain, int dst_offset, byte[] src_cipher, int src_offset, int cipher_len, byte[] nonce, byte[] secret_key) {
+    return SodiumJNI.crypto_secretbox_open_easy_offset(dst_plain, dst_offset, src_cipher, src_offset, cipher_len, nonce, secret_key);
+  }
+
+  public static int crypto_secretbox_easy_buffer(java.nio.ByteBuffer dst_buf, int dst_offset, java.nio.ByteBuffer src_buf, int src_offset, int plain_len, byte[] nonce, byte[] secret_key) {
+    return SodiumJNI.crypto_secretbox_easy_buffer(dst_buf, dst_offset, src_buf, src_offset, plain_len, nonce, secret_key);
+  }
+
+  public static int crypto_secretbox_open_easy_buffer(java.nio.ByteBuffer dst_buf, int dst_offset, java.nio.ByteBuffer src_buf, int src_offset, int cipher_len, byte[] nonce, byte[] secret_key) {
+    return SodiumJNI.crypto_secretbox_open_easy_buffer(dst_buf, dst_offset, src_buf, src_offset, cipher_len, nonce, secret_key);
+  }
+
+  public static int crypto_box_easy_afternm_offset(byte[] dst_cipher, int dst_offset, byte[] src_plain, int src_offset, int plain_len, byte[] nonce, byte[] shared_key) {
+    return SodiumJNI.crypto_box_easy_afternm_offset(dst_cipher, dst_offset, src_plain, src_offset, plain_len, nonce, shared_key);
+  }
+
+  public static int crypto_box_open_easy_afternm_offset(byte[] dst_plain, int dst_offset, byte[] src_cipher, int src_offset, int cipher_len, byte[] nonce, byte[] shared_key) {
+    return SodiumJNI.crypto_box_open_easy_afternm_offset(dst_plain, dst_offset, src_cipher, src_offset, cipher_len, nonce, shared_key);
+  }
+
+  public static int crypto_box_easy_afternm_buffer(java.nio.ByteBuffer dst_buf, int dst_offset, java.nio.ByteBuffer src_buf, int src_offset, int plain_len, byte[] nonce, byte[] shared_key) {
+    return SodiumJNI.crypto_box_easy_afternm_buffer(dst_buf, dst_offset, src_buf, src_offset, plain_len, nonce, shared_key);
+  }
+
+  public static int crypto_box_open_easy_afternm_buffer(java.nio.ByteBuffer dst_buf, int dst_offset, java.nio.ByteBuffer src_buf, int src_offset, int cipher_len, byte[] nonce, byte[] shared_key) {
+    return SodiumJNI.crypto_box_open_easy_afternm_buffer(dst_buf, dst_offset, src_buf, src_offset, cipher_len, nonce, shared_key);
+  }
+
+  public static int crypto_aead_chacha20poly1305_encrypt_offset(byte[] dst_cipher, int dst_offset, byte[] src_plain, int src_offset, int plain_len, byte[] ad, int ad_len, byte[] npub, byte[] key) {
+    return SodiumJNI.crypto_aead_chacha20poly1305_encrypt_offset(dst_cipher, dst_offset, src_plain, src_offset, plain_len, ad, ad_len, npub, key);
+  }
+
+  public static int crypto_aead_chacha20poly1305_decrypt_offset(byte[] dst_plain, int dst_offset, byte[] src_cipher, int src_offset, int cipher_len, byte[] ad, int ad_len, byte[] npub, byte[] key) {
+    return SodiumJNI.crypto_aead_chacha20poly1305_decrypt_offset(dst_plain, dst_offset, src_cipher, src_offset, cipher_len, ad, ad_len, npub, key);
+  }
+
+  public static int crypto_aead_chacha20poly1305_encrypt_buffer(java.nio.ByteBuffer dst_buf, int dst_offset, java.nio.ByteBuffer src_buf, int src_offset, int plain_len, byte[] ad, int ad_len, byte[] npub, byte[] key) {
+    return SodiumJNI.crypto_aead_chacha20poly1305_encrypt_buffer(dst_buf, dst_offset, src_buf, src_offset, plain_len, ad, ad_len, npub, key);
+  }
+
+  public static int crypto_aead_chacha20poly1305_decrypt_buffer(java.nio.ByteBuffer dst_buf, int dst_offset, java.nio.ByteBuffer src_buf, int src_offset, int cipher_len, byte[] ad, int ad_len, byte[] npub, byte[] key) {
+    return SodiumJNI.crypto_aead_chacha20poly1305_decrypt_buffer(dst_buf, dst_offset, src_buf, src_offset, cipher_len, ad, ad_len, npub, key);
+  }
+
+  public static int crypto_box_easy_offset(byte[] dst_cipher, int dst_offset, byte[] src_plain, int src_offset, int plain_len, byte[] nonce, byte[] remote_public_key, byte[] local_private_key) {
+    return SodiumJNI.crypto_box_easy_offset(dst_cipher, dst_offset, src_plain, src_offset, plain_len, nonce, remote_public_key, local_private_key);
+  }
+
+  public static int crypto_box_open_easy_offset(byte[] dst_plain, int dst_offset, byte[] src_cipher, int src_offset, int cipher_len, byte[] nonce, byte[] remote_public_key, byte[] local_private_key) {
+    return SodiumJNI.crypto_box_open_easy_offset(dst_plain, dst_offset, src_cipher, src_offset, cipher_len, nonce, remote_public_key, local_private_key);
+  }
+
+  public static int crypto_box_seal_offset(byte[] dst_cipher, int dst_offset, byte[] src_plain, int src_offset, int plain_len, byte[] remote_public_key) {
+    return SodiumJNI.crypto_box_seal_offset(dst_cipher, dst_offset, src_plain, src_offset, plain_len, remote_public_key);
+  }
+
+  public static int crypto_box_seal_open_offset(byte[] dst_plain, int dst_offset, byte[] src_cipher, int src_offset, int cipher_len, byte[] local_public_key, byte[] local_private_key) {
+    return SodiumJNI.crypto_box_seal_open_offset(dst_plain, dst_offset, src_cipher, src_offset, cipher_len, local_public_key, local_private_key);
+  }
+
+  public static int crypto_sign_detached_offset(byte[] dst_signature, int signature_offset, byte[] src_msg, int msg_offset, int msg_len, byte[] local_private_key) {
+    return SodiumJNI.crypto_sign_detached_offset(dst_signature, signature_offset, src_msg, msg_offset, msg_len, local_private_key);
+  }
+
+  public static int crypto_sign_verify_detached_offset(byte[] src_signature, int signature_offset, byte[] src_msg, int msg_offset, int msg_len, byte[] remote_public_key) {
+    return SodiumJNI.crypto_sign_verify_detached_offset(src_signature, signature_offset, src_msg, msg_offset, msg_len, remote_public_key);
+  }
+
+  public static int crypto_sign_ed25519_detached_offset(byte[] dst_signature, int signature_offset, byte[] src_msg, int msg_offset, int msg_len, byte[] local_private_key) {
+    return SodiumJNI.crypto_sign_ed25519_detached_offset(dst_signature, signature_offset, src_msg, msg_offset, msg_len, local_private_key);
+  }
+
+  public static int crypto_sign_ed25519_verify_detached_offset(byte[] src_signature, int signature_offset, byte[] src_msg, int msg_offset, int msg_len, byte[] remote_public_key) {
+    return SodiumJNI.crypto_sign_ed25519_verify_detached_offset(src_signature, signature_offset, src_msg, msg_offset, msg_len, remote_public_key);
+  }
+
+  public static int crypto_auth_offset(byte[] dst_mac, int mac_offset, byte[] src_input, int input_offset, int input_len, byte[] src_key) {
+    return SodiumJNI.crypto_auth_offset(dst_mac, mac_offset, src_input, input_offset, input_len, src_key);
+  }
+
+  public static int crypto_auth_verify_offset(byte[] src_mac, int mac_offset, byte[] src_input, int input_offset, int input_len, byte[] src_key) {
+    return SodiumJNI.crypto_auth_verify_offset(src_mac, mac_offset, src_input, input_offset, input_len, src_key);
+  }
+
+  public static int crypto_sign_offset(byte[] dst_signed_msg, int dst_offset, byte[] src_msg, int msg_offset, int msg_len, byte[] local_private_key) {
+    return SodiumJNI.crypto_sign_offset(dst_signed_msg, dst_offset, src_msg, msg_offset, msg_len, local_private_key);
+  }
+
+  public static int crypto_sign_open_offset(byte[] dst_msg, int dst_offset, byte[] src_signed_msg, int signed_offset, int signed_msg_len, byte[] remote_public_key) {
+    return SodiumJNI.crypto_sign_open_offset(dst_msg, dst_offset, src_signed_msg, signed_offset, signed_msg_len, remote_public_key);
+  }
+
+  public static int crypto_sign_ed25519_offset(byte[] dst_signed_msg, int dst_offset, byte[] src_msg, int msg_offset, int msg_len, byte[] local_private_key) {
+    return SodiumJNI.crypto_sign_ed25519_offset(dst_signed_msg, dst_offset, src_msg, msg_offset, msg_len, local_private_key);
+  }
+
+  public static int crypto_sign_ed25519_open_offset(byte[] dst_msg, int dst_offset, byte[] src_signed_msg, int signed_offset, int signed_msg_len, byte[] remote_public_key) {
+    return SodiumJNI.crypto_sign_ed25519_open_offset(dst_msg, dst_offset, src_signed_msg, signed_offset, signed_msg_len, remote_public_key);
+  }
+
+  public static int crypto_secretbox_easy_batch(byte[] dst_cipher, byte[] src_plain, int[] offsets, int count, byte[] nonces, byte[] key) {
+    return SodiumJNI.crypto_secretbox_easy_batch(dst_cipher, src_plain, offsets, count, nonces, key);
+  }
+
+  public static int crypto_box_easy_afternm_batch(byte[] dst_cipher, byte[] src_plain, int[] offsets, int count, byte[] nonces, byte[] shared_key) {
+    return SodiumJNI.crypto_box_easy_afternm_batch(dst_cipher, src_plain, offsets, count, nonces, shared_key);
+  }
+
+  public static int crypto_aead_chacha20poly1305_encrypt_batch(byte[] dst_cipher, byte[] src_plain, int[] offsets, int count, byte[] ad, int ad_len, byte[] nonces, byte[] key) {
+    return SodiumJNI.crypto_aead_chacha20poly1305_encrypt_batch(dst_cipher, src_plain, offsets, count, ad, ad_len, nonces, key);
+  }
+
+  public static long stodium_state_alloc(int size) {
+    return SodiumJNI.stodium_state_alloc(size);
+  }
+
+  public static void stodium_state_free(long handle, int size) {
+    SodiumJNI.stodium_state_free(handle, size);
+  }
+
+  public static void stodium_state_copy(long dst_handle, long src_handle, int size) {
+    SodiumJNI.stodium_state_copy(dst_handle, src_handle, size);
+  }
+
+  public static int crypto_generichash_init_handle(long handle, byte[] key, int keylen, int outlen) {
+    return SodiumJNI.crypto_generichash_init_handle(handle, key, keylen, outlen);
+  }
+
+  public static int crypto_generichash_update_handle(long handle, byte[] in, int in_offset, int inlen) {
+    return SodiumJNI.crypto_generichash_update_handle(handle, in, in_offset, inlen);
+  }
+
+  public static int crypto_generichash_final_handle(long handle, byte[] out, int out_offset, int outlen) {
+    return SodiumJNI.crypto_generichash_final_handle(handle, out, out_offset, outlen);
+  }
+
+  public static int crypto_generichash_blake2b_init_handle(long handle, byte[] key, int keylen, int outlen) {
+    return SodiumJNI.crypto_generichash_blake2b_init_handle(handle, key, keylen, outlen);
+  }
+
+  public static int crypto_generichash_blake2b_init_salt_personal_handle(long handle, byte[] key, int keylen, int outlen, byte[] salt, byte[] personal) {
+    return SodiumJNI.crypto_generichash_blake2b_init_salt_personal_handle(handle, key, keylen, outlen, salt, personal);
+  }
+
+  public static int crypto_generichash_blake2b_update_handle(long handle, byte[] in, int in_offset, int inlen) {
+    return SodiumJNI.crypto_generichash_blake2b_update_handle(handle, in, in_offset, inlen);
+  }
+
+  public static int crypto_generichash_blake2b_final_handle(long handle, byte[] out, int out_offset, int outlen) {
+    return SodiumJNI.crypto_generichash_blake2b_final_handle(handle, out, out_offset, outlen);
+  }
+
+  public static int crypto_hash_init_handle(long handle) {
+    return SodiumJNI.crypto_hash_init_handle(handle);
+  }
+
+  public static int crypto_hash_update_handle(long handle, byte[] in, int in_offset, int inlen) {
+    return SodiumJNI.crypto_hash_update_handle(handle, in, in_offset, inlen);
+  }
+
+  public static int crypto_hash_final_handle(long handle, byte[] out, int out_offset) {
+    return SodiumJNI.crypto_hash_final_handle(handle, out, out_offset);
+  }
+
+  public static int crypto_onetimeauth_init_handle(long handle, byte[] key) {
+    return SodiumJNI.crypto_onetimeauth_init_handle(handle, key);
+  }
+
+  public static int crypto_onetimeauth_update_handle(long handle, byte[] in, int in_offset, int inlen) {
+    return SodiumJNI.crypto_onetimeauth_update_handle(handle, in, in_offset, inlen);
+  }
+
+  public static int crypto_onetimeauth_final_handle(long handle, byte[] out, int out_offset) {
+    return SodiumJNI.crypto_onetimeauth_final_handle(handle, out, out_offset);
+  }
+
+  public static int crypto_onetimeauth_poly1305_init_handle(long handle, byte[] key) {
+    return SodiumJNI.crypto_onetimeauth_poly1305_init_handle(handle, key);
+  }
+
+  public static int crypto_onetimeauth_poly1305_update_handle(long handle, byte[] in, int in_offset, int inlen) {
+    return SodiumJNI.crypto_onetimeauth_poly1305_update_handle(handle, in, in_offset, inlen);
+  }
+
+  public static int crypto_onetimeauth_poly1305_final_handle(long handle, byte[] out, int out_offset) {
+    return SodiumJNI.crypto_onetimeauth_poly1305_final_handle(handle, out, out_offset);
+  }
+
+  public static int crypto_secretbox_easy_inplace(byte[] buf, int offset, int plain_len, byte[] nonce, byte[] secret_key) {
+    return SodiumJNI.crypto_secretbox_easy_inplace(buf, offset, plain_len, nonce, secret_key);
+  }
+
+  public static int crypto_secretbox_open_easy_inplace(byte[] buf, int offset, int cipher_len, byte[] nonce, byte[] secret_key) {
+    return SodiumJNI.crypto_secretbox_open_easy_inplace(buf, offset, cipher_len, nonce, secret_key);
+  }
+
+  public static int crypto_aead_chacha20poly1305_encrypt_inplace(byte[] buf, int offset, int plain_len, byte[] ad, int ad_len, byte[] npub, byte[] key) {
+    return SodiumJNI.crypto_aead_chacha20poly1305_encrypt_inplace(buf, offset, plain_len, ad, ad_len, npub, key);
+  }
+
+  public static int crypto_aead_chacha20poly1305_decrypt_inplace(byte[] buf, int offset, int cipher_len, byte[] ad, int ad_len, byte[] npub, byte[] key) {
+    return SodiumJNI.crypto_aead_chacha20poly1305_decrypt_inplace(buf, offset, cipher_len, ad, ad_len, npub, key);
+  }
+
+  public static int crypto_secretbox_detached_buffer(java.nio.ByteBuffer dst_buf, int dst_offset, java.nio.ByteBuffer mac_buf, int mac_offset, java.nio.ByteBuffer src_buf, int src_offset, int plain_len, byte[] nonce, byte[] secret_key) {
+    return SodiumJNI.crypto_secretbox_detached_buffer(dst_buf, dst_offset, mac_buf, mac_offset, src_buf, src_offset, plain_len, nonce, secret_key);
+  }
+
+  public static int crypto_secretbox_open_detached_buffer(java.nio.ByteBuffer dst_buf, int dst_offset, java.nio.ByteBuffer src_buf, int src_offset, java.nio.ByteBuffer mac_buf, int mac_offset, int cipher_len, byte[] nonce, byte[] secret_key) {
+    return SodiumJNI.crypto_secretbox_open_detached_buffer(dst_buf, dst_offset, src_buf, src_offset, mac_buf, mac_offset, cipher_len, nonce, secret_key);
+  }
+
+  public static int crypto_secretbox_detached_offset(byte[] dst_cipher, int dst_offset, byte[] dst_mac, int mac_offset, byte[] src_plain, int src_offset, int plain_len, byte[] nonce, byte[] secret_key) {
+    return SodiumJNI.crypto_secretbox_detached_offset(dst_cipher, dst_offset, dst_mac, mac_offset, src_plain, src_offset, plain_len, nonce, secret_key);
+  }
+
+  public static int crypto_secretbox_open_detached_offset(byte[] dst_plain, int dst_offset, byte[] src_cipher, int src_offset, byte[] src_mac, int mac_offset, int cipher_len, byte[] nonce, byte[] secret_key) {
+    return SodiumJNI.crypto_secretbox_open_detached_offset(dst_plain, dst_offset, src_cipher, src_offset, src_mac, mac_offset, cipher_len, nonce, secret_key);
+  }
+
+  public static int crypto_secretbox_detached_segments(Object[] dst_segments, int[] dst_bounds, byte[] dst_mac, Object[] src_segments, int[] src_bounds, int plain_len, byte[] nonce, byte[] secret_key) {
+    return SodiumJNI.crypto_secretbox_detached_segments(dst_segments, dst_bounds, dst_mac, src_segments, src_bounds, plain_len, nonce, secret_key);
+  }
+
+  public static int crypto_secretbox_open_detached_segments(Object[] dst_segments, int[] dst_bounds, Object[] src_segments, int[] src_bounds, byte[] src_mac, int cipher_len, byte[] nonce, byte[] secret_key) {
+    return SodiumJNI.crypto_secretbox_open_detached_segments(dst_segments, dst_bounds, src_segments, src_bounds, src_mac, cipher_len, nonce, secret_key);
+  }
+
+  public static int crypto_aead_chacha20poly1305_encrypt_segments(Object[] dst_segments, int[] dst_bounds, Object[] src_segments, int[] src_bounds, int plain_len, byte[] ad, int ad_len, byte[] npub, byte[] key) {
+    return SodiumJNI.crypto_aead_chacha20poly1305_encrypt_segments(dst_segments, dst_bounds, src_segments, src_bounds, plain_len, ad, ad_len, npub, key);
+  }
+
+  public static int crypto_aead_chacha20poly1305_decrypt_segments(Object[] dst_segments, int[] dst_bounds, Object[] src_segments, int[] src_bounds, int cipher_len, byte[] ad, int ad_len, byte[] npub, byte[] key) {
+    return SodiumJNI.crypto_aead_chacha20poly1305_decrypt_segments(dst_segments, dst_bounds, src_segments, src_bounds, cipher_len, ad, ad_len, npub, key);
+  }
+
+  public static int crypto_box_seal_batch(byte[] dst_cipher, int dst_offset, byte[] src_plain, int plain_len, byte[] public_keys, int count) {
+    return SodiumJNI.crypto_box_seal_batch(dst_cipher, dst_offset, src_plain, plain_len, public_keys, count);
+  }
+
+  public static int crypto_box_seal_open_first(byte[] dst_plain, byte[] src_cipher, int src_offset, int cipher_len, int count, byte[] local_public_key, byte[] local_private_key) {
+    return SodiumJNI.crypto_box_seal_open_first(dst_plain, src_cipher, src_offset, cipher_len, count, local_public_key, local_private_key);
+  }
+
+  public static long stodium_secure_alloc(int size) {
+    return SodiumJNI.stodium_secure_alloc(size);
+  }
+
+  public static void stodium_secure_free(long handle) {
+    SodiumJNI.stodium_secure_free(handle);
+  }
+
+  public static void stodium_secure_wipe(long handle, int offset, int len) {
+    SodiumJNI.stodium_secure_wipe(handle, offset, len);
+  }
+
+  public static int crypto_box_keypair_handle(byte[] dst_public_key, long handle, int offset) {
+    return SodiumJNI.crypto_box_keypair_handle(dst_public_key, handle, offset);
+  }
+
+  public static int crypto_box_beforenm_handle(byte[] dst_shared_key, byte[] remote_public_key, long handle, int offset) {
+    return SodiumJNI.crypto_box_beforenm_handle(dst_shared_key, remote_public_key, handle, offset);
+  }
+
+  public static int crypto_box_easy_handle(byte[] dst_cipher, byte[] src_plain, int plain_len, byte[] nonce, byte[] remote_public_key, long handle, int offset) {
+    return SodiumJNI.crypto_box_easy_handle(dst_cipher, src_plain, plain_len, nonce, remote_public_key, handle, offset);
+  }
+
+  public static int crypto_scalarmult_handle(byte[] dst, byte[] remote_public_key, long handle, int offset) {
+    return SodiumJNI.crypto_scalarmult_handle(dst, remote_public_key, handle, offset);
+  }
+
+  public static long crypto_shorthash_long(byte[] src_input, int input_len, byte[] src_key) {
+    return SodiumJNI.crypto_shorthash_long(src_input, input_len, src_key);
+  }
+
+  public static long crypto_shorthash_siphash24_long(byte[] in, int inlen, byte[] k) {
+    return SodiumJNI.crypto_shorthash_siphash24_long(in, inlen, k);
+  }
+
+  public static int stodium_bootstrap(int[] dst_constants, String[] dst_primitives) {
+    return SodiumJNI.stodium_bootstrap(dst_constants, dst_primitives);
+  }
+
 }
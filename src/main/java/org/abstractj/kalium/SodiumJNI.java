@@ -270,4 +270,86 @@ public class SodiumJNI {
   public final static native int crypto_onetimeauth_final_offset(byte[] jarg1, byte[] jarg2, int jarg3);
   public final static native int crypto_onetimeauth_poly1305_update_offset(byte[] jarg1, byte[] jarg2, int jarg3, int jarg4);
   public final static native int crypto_onetimeauth_poly1305_final_offset(byte[] jarg1, byte[] jarg2, int jarg3);
+  public final static native int crypto_secretbox_easy_critical(byte[] jarg1, byte[] jarg2, int jarg3, byte[] jarg4, byte[] jarg5);
+  public final static native int crypto_secretbox_open_easy_critical(byte[] jarg1, byte[] jarg2, int jarg3, byte[] jarg4, byte[] jarg5);
+  public final static native int crypto_secretbox_detached_critical(byte[] jarg1, byte[] jarg2, byte[] jarg3, int jarg4, byte[] jarg5, byte[] jarg6);
+  public final static native int crypto_secretbox_open_detached_critical(byte[] jarg1, byte[] jarg2, byte[] jarg3, int jarg4, byte[] jarg5, byte[] jarg6);
+  public final static native int crypto_box_easy_afternm_critical(byte[] jarg1, byte[] jarg2, int jarg3, byte[] jarg4, byte[] jarg5);
+  public final static native int crypto_box_open_easy_afternm_critical(byte[] jarg1, byte[] jarg2, int jarg3, byte[] jarg4, byte[] jarg5);
+  public final static native int crypto_scalarmult_curve25519_critical(byte[] jarg1, byte[] jarg2, byte[] jarg3);
+  public final static native int crypto_scalarmult_base_critical(byte[] jarg1, byte[] jarg2);
+  public final static native int crypto_sign_ed25519_detached_critical(byte[] jarg1, byte[] jarg2, int jarg3, byte[] jarg4);
+  public final static native int crypto_sign_ed25519_verify_detached_critical(byte[] jarg1, byte[] jarg2, int jarg3, byte[] jarg4);
+  public final static native int crypto_secretbox_easy_offset(byte[] jarg1, int jarg2, byte[] jarg3, int jarg4, int jarg5, byte[] jarg6, byte[] jarg7);
+  public final static native int crypto_secretbox_open_easy_offset(byte[] jarg1, int jarg2, byte[] jarg3, int jarg4, int jarg5, byte[] jarg6, byte[] jarg7);
+  public final static native int crypto_secretbox_easy_buffer(java.nio.ByteBuffer jarg1, int jarg2, java.nio.ByteBuffer jarg3, int jarg4, int jarg5, byte[] jarg6, byte[] jarg7);
+  public final static native int crypto_secretbox_open_easy_buffer(java.nio.ByteBuffer jarg1, int jarg2, java.nio.ByteBuffer jarg3, int jarg4, int jarg5, byte[] jarg6, byte[] jarg7);
+  public final static native int crypto_box_easy_afternm_offset(byte[] jarg1, int jarg2, byte[] jarg3, int jarg4, int jarg5, byte[] jarg6, byte[] jarg7);
+  public final static native int crypto_box_open_easy_afternm_offset(byte[] jarg1, int jarg2, byte[] jarg3, int jarg4, int jarg5, byte[] jarg6, byte[] jarg7);
+  public final static native int crypto_box_easy_afternm_buffer(java.nio.ByteBuffer jarg1, int jarg2, java.nio.ByteBuffer jarg3, int jarg4, int jarg5, byte[] jarg6, byte[] jarg7);
+  public final static native int crypto_box_open_easy_afternm_buffer(java.nio.ByteBuffer jarg1, int jarg2, java.nio.ByteBuffer jarg3, int jarg4, int jarg5, byte[] jarg6, byte[] jarg7);
+  public final static native int crypto_aead_chacha20poly1305_encrypt_offset(byte[] jarg1, int jarg2, byte[] jarg3, int jarg4, int jarg5, byte[] jarg6, int jarg7, byte[] jarg8, byte[] jarg9);
+  public final static native int crypto_aead_chacha20poly1305_decrypt_offset(byte[] jarg1, int jarg2, byte[] jarg3, int jarg4, int jarg5, byte[] jarg6, int jarg7, byte[] jarg8, byte[] jarg9);
+  public final static native int crypto_aead_chacha20poly1305_encrypt_buffer(java.nio.ByteBuffer jarg1, int jarg2, java.nio.ByteBuffer jarg3, int jarg4, int jarg5, byte[] jarg6, int jarg7, byte[] jarg8, byte[] jarg9);
+  public final static native int crypto_aead_chacha20poly1305_decrypt_buffer(java.nio.ByteBuffer jarg1, int jarg2, java.nio.ByteBuffer jarg3, int jarg4, int jarg5, byte[] jarg6, int jarg7, byte[] jarg8, byte[] jarg9);
+  public final static native int crypto_box_easy_offset(byte[] jarg1, int jarg2, byte[] jarg3, int jarg4, int jarg5, byte[] jarg6, byte[] jarg7, byte[] jarg8);
+  public final static native int crypto_box_open_easy_offset(byte[] jarg1, int jarg2, byte[] jarg3, int jarg4, int jarg5, byte[] jarg6, byte[] jarg7, byte[] jarg8);
+  public final static native int crypto_box_seal_offset(byte[] jarg1, int jarg2, byte[] jarg3, int jarg4, int jarg5, byte[] jarg6);
+  public final static native int crypto_box_seal_open_offset(byte[] jarg1, int jarg2, byte[] jarg3, int jarg4, int jarg5, byte[] jarg6, byte[] jarg7);
+  public final static native int crypto_sign_detached_offset(byte[] jarg1, int jarg2, byte[] jarg3, int jarg4, int jarg5, byte[] jarg6);
+  public final static native int crypto_sign_verify_detached_offset(byte[] jarg1, int jarg2, byte[] jarg3, int jarg4, int jarg5, byte[] jarg6);
+  public final static native int crypto_sign_ed25519_detached_offset(byte[] jarg1, int jarg2, byte[] jarg3, int jarg4, int jarg5, byte[] jarg6);
+  public final static native int crypto_sign_ed25519_verify_detached_offset(byte[] jarg1, int jarg2, byte[] jarg3, int jarg4, int jarg5, byte[] jarg6);
+  public final static native int crypto_auth_offset(byte[] jarg1, int jarg2, byte[] jarg3, int jarg4, int jarg5, byte[] jarg6);
+  public final static native int crypto_auth_verify_offset(byte[] jarg1, int jarg2, byte[] jarg3, int jarg4, int jarg5, byte[] jarg6);
+  public final static native int crypto_sign_offset(byte[] jarg1, int jarg2, byte[] jarg3, int jarg4, int jarg5, byte[] jarg6);
+  public final static native int crypto_sign_open_offset(byte[] jarg1, int jarg2, byte[] jarg3, int jarg4, int jarg5, byte[] jarg6);
+  public final static native int crypto_sign_ed25519_offset(byte[] jarg1, int jarg2, byte[] jarg3, int jarg4, int jarg5, byte[] jarg6);
+  public final static native int crypto_sign_ed25519_open_offset(byte[] jarg1, int jarg2, byte[] jarg3, int jarg4, int jarg5, byte[] jarg6);
+  public final static native int crypto_secretbox_easy_batch(byte[] jarg1, byte[] jarg2, int[] jarg3, int jarg4, byte[] jarg5, byte[] jarg6);
+  public final static native int crypto_box_easy_afternm_batch(byte[] jarg1, byte[] jarg2, int[] jarg3, int jarg4, byte[] jarg5, byte[] jarg6);
+  public final static native int crypto_aead_chacha20poly1305_encrypt_batch(byte[] jarg1, byte[] jarg2, int[] jarg3, int jarg4, byte[] jarg5, int jarg6, byte[] jarg7, byte[] jarg8);
+  public final static native long stodium_state_alloc(int jarg1);
+  public final static native void stodium_state_free(long jarg1, int jarg2);
+  public final static native void stodium_state_copy(long jarg1, long jarg2, int jarg3);
+  public final static native int crypto_generichash_init_handle(long jarg1, byte[] jarg2, int jarg3, int jarg4);
+  public final static native int crypto_generichash_update_handle(long jarg1, byte[] jarg2, int jarg3, int jarg4);
+  public final static native int crypto_generichash_final_handle(long jarg1, byte[] jarg2, int jarg3, int jarg4);
+  public final static native int crypto_generichash_blake2b_init_handle(long jarg1, byte[] jarg2, int jarg3, int jarg4);
+  public final static native int crypto_generichash_blake2b_init_salt_personal_handle(long jarg1, byte[] jarg2, int jarg3, int jarg4, byte[] jarg5, byte[] jarg6);
+  public final static native int crypto_generichash_blake2b_update_handle(long jarg1, byte[] jarg2, int jarg3, int jarg4);
+  public final static native int crypto_generichash_blake2b_final_handle(long jarg1, byte[] jarg2, int jarg3, int jarg4);
+  public final static native int crypto_hash_init_handle(long jarg1);
+  public final static native int crypto_hash_update_handle(long jarg1, byte[] jarg2, int jarg3, int jarg4);
+  public final static native int crypto_hash_final_handle(long jarg1, byte[] jarg2, int jarg3);
+  public final static native int crypto_onetimeauth_init_handle(long jarg1, byte[] jarg2);
+  public final static native int crypto_onetimeauth_update_handle(long jarg1, byte[] jarg2, int jarg3, int jarg4);
+  public final static native int crypto_onetimeauth_final_handle(long jarg1, byte[] jarg2, int jarg3);
+  public final static native int crypto_onetimeauth_poly1305_init_handle(long jarg1, byte[] jarg2);
+  public final static native int crypto_onetimeauth_poly1305_update_handle(long jarg1, byte[] jarg2, int jarg3, int jarg4);
+  public final static native int crypto_onetimeauth_poly1305_final_handle(long jarg1, byte[] jarg2, int jarg3);
+  public final static native int crypto_secretbox_easy_inplace(byte[] jarg1, int jarg2, int jarg3, byte[] jarg4, byte[] jarg5);
+  public final static native int crypto_secretbox_open_easy_inplace(byte[] jarg1, int jarg2, int jarg3, byte[] jarg4, byte[] jarg5);
+  public final static native int crypto_aead_chacha20poly1305_encrypt_inplace(byte[] jarg1, int jarg2, int jarg3, byte[] jarg4, int jarg5, byte[] jarg6, byte[] jarg7);
+  public final static native int crypto_aead_chacha20poly1305_decrypt_inplace(byte[] jarg1, int jarg2, int jarg3, byte[] jarg4, int jarg5, byte[] jarg6, byte[] jarg7);
+  public final static native int crypto_secretbox_detached_buffer(java.nio.ByteBuffer jarg1, int jarg2, java.nio.ByteBuffer jarg3, int jarg4, java.nio.ByteBuffer jarg5, int jarg6, int jarg7, byte[] jarg8, byte[] jarg9);
+  public final static native int crypto_secretbox_open_detached_buffer(java.nio.ByteBuffer jarg1, int jarg2, java.nio.ByteBuffer jarg3, int jarg4, java.nio.ByteBuffer jarg5, int jarg6, int jarg7, byte[] jarg8, byte[] jarg9);
+  public final static native int crypto_secretbox_detached_offset(byte[] jarg1, int jarg2, byte[] jarg3, int jarg4, byte[] jarg5, int jarg6, int jarg7, byte[] jarg8, byte[] jarg9);
+  public final static native int crypto_secretbox_open_detached_offset(byte[] jarg1, int jarg2, byte[] jarg3, int jarg4, byte[] jarg5, int jarg6, int jarg7, byte[] jarg8, byte[] jarg9);
+  public final static native int crypto_secretbox_detached_segments(Object[] jarg1, int[] jarg2, byte[] jarg3, Object[] jarg4, int[] jarg5, int jarg6, byte[] jarg7, byte[] jarg8);
+  public final static native int crypto_secretbox_open_detached_segments(Object[] jarg1, int[] jarg2, Object[] jarg3, int[] jarg4, byte[] jarg5, int jarg6, byte[] jarg7, byte[] jarg8);
+  public final static native int crypto_aead_chacha20poly1305_encrypt_segments(Object[] jarg1, int[] jarg2, Object[] jarg3, int[] jarg4, int jarg5, byte[] jarg6, int jarg7, byte[] jarg8, byte[] jarg9);
+  public final static native int crypto_aead_chacha20poly1305_decrypt_segments(Object[] jarg1, int[] jarg2, Object[] jarg3, int[] jarg4, int jarg5, byte[] jarg6, int jarg7, byte[] jarg8, byte[] jarg9);
+  public final static native int crypto_box_seal_batch(byte[] jarg1, int jarg2, byte[] jarg3, int jarg4, byte[] jarg5, int jarg6);
+  public final static native int crypto_box_seal_open_first(byte[] jarg1, byte[] jarg2, int jarg3, int jarg4, int jarg5, byte[] jarg6, byte[] jarg7);
+  public final static native long stodium_secure_alloc(int jarg1);
+  public final static native void stodium_secure_free(long jarg1);
+  public final static native void stodium_secure_wipe(long jarg1, int jarg2, int jarg3);
+  public final static native int crypto_box_keypair_handle(byte[] jarg1, long jarg2, int jarg3);
+  public final static native int crypto_box_beforenm_handle(byte[] jarg1, byte[] jarg2, long jarg3, int jarg4);
+  public final static native int crypto_box_easy_handle(byte[] jarg1, byte[] jarg2, int jarg3, byte[] jarg4, byte[] jarg5, long jarg6, int jarg7);
+  public final static native int crypto_scalarmult_handle(byte[] jarg1, byte[] jarg2, long jarg3, int jarg4);
+  public final static native long crypto_shorthash_long(byte[] jarg1, int jarg2, byte[] jarg3);
+  public final static native long crypto_shorthash_siphash24_long(byte[] jarg1, int jarg2, byte[] jarg3);
+  public final static native int stodium_bootstrap(int[] jarg1, String[] jarg2);
 }
@@ -0,0 +1,104 @@
+/* ----------------------------------------------------------------------------
+ * This file was automatically generated by SWIG (http://www.swig.org).
+ * Version 3.0.8
+ *
+ * Do not make changes to this file unless you know what you are doing--modify
+ * the SWIG interface file instead.
+ * ----------------------------------------------------------------------------- */
+
+package org.abstractj.kalium;
+
+public class SodiumNative {
+  public static int crypto_secretbox_easy(long dst_cipher, long src_plain, long plain_len, long nonce, long secret_key) {
+    return SodiumNativeJNI.crypto_secretbox_easy(dst_cipher, src_plain, plain_len, nonce, secret_key);
+  }
+
+  public static int crypto_secretbox_open_easy(long dst_plain, long src_cipher, long cipher_len, long nonce, long secret_key) {
+    return SodiumNativeJNI.crypto_secretbox_open_easy(dst_plain, src_cipher, cipher_len, nonce, secret_key);
+  }
+
+  public static int crypto_secretbox_detached(long dst_cipher, long dst_mac, long src_plain, long plain_len, long nonce, long secret_key) {
+    return SodiumNativeJNI.crypto_secretbox_detached(dst_cipher, dst_mac, src_plain, plain_len, nonce, secret_key);
+  }
+
+  public static int crypto_secretbox_open_detached(long dst_plain, long src_cipher, long src_mac, long cipher_len, long nonce, long secret_key) {
+    return SodiumNativeJNI.crypto_secretbox_open_detached(dst_plain, src_cipher, src_mac, cipher_len, nonce, secret_key);
+  }
+
+  public static int crypto_box_easy(long dst_cipher, long src_plain, long plain_len, long nonce, long remote_public_key, long local_private_key) {
+    return SodiumNativeJNI.crypto_box_easy(dst_cipher, src_plain, plain_len, nonce, remote_public_key, local_private_key);
+  }
+
+  public static int crypto_box_open_easy(long dst_plain, long src_cipher, long cipher_len, long nonce, long remote_public_key, long local_private_key) {
+    return SodiumNativeJNI.crypto_box_open_easy(dst_plain, src_cipher, cipher_len, nonce, remote_public_key, local_private_key);
+  }
+
+  public static int crypto_box_beforenm(long dst_shared_key, long remote_public_key, long local_private_key) {
+    return SodiumNativeJNI.crypto_box_beforenm(dst_shared_key, remote_public_key, local_private_key);
+  }
+
+  public static int crypto_box_easy_afternm(long dst_cipher, long src_plain, long plain_len, long nonce, long shared_key) {
+    return SodiumNativeJNI.crypto_box_easy_afternm(dst_cipher, src_plain, plain_len, nonce, shared_key);
+  }
+
+  public static int crypto_box_open_easy_afternm(long dst_plain, long src_cipher, long cipher_len, long nonce, long shared_key) {
+    return SodiumNativeJNI.crypto_box_open_easy_afternm(dst_plain, src_cipher, cipher_len, nonce, shared_key);
+  }
+
+  public static int crypto_box_seal(long dst_cipher, long src_plain, long plain_len, long remote_public_key) {
+    return SodiumNativeJNI.crypto_box_seal(dst_cipher, src_plain, plain_len, remote_public_key);
+  }
+
+  public static int crypto_box_seal_open(long dst_plain, long src_cipher, long cipher_len, long local_public_key, long local_private_key) {
+    return SodiumNativeJNI.crypto_box_seal_open(dst_plain, src_cipher, cipher_len, local_public_key, local_private_key);
+  }
+
+  public static int crypto_aead_chacha20poly1305_encrypt(long c, long clen_p, long m, long mlen, long ad, long adlen, long nsec, long npub, long k) {
+    return SodiumNativeJNI.crypto_aead_chacha20poly1305_encrypt(c, clen_p, m, mlen, ad, adlen, nsec, npub, k);
+  }
+
+  public static int crypto_aead_chacha20poly1305_decrypt(long m, long mlen_p, long nsec, long c, long clen, long ad, long adlen, long npub, long k) {
+    return SodiumNativeJNI.crypto_aead_chacha20poly1305_decrypt(m, mlen_p, nsec, c, clen, ad, adlen, npub, k);
+  }
+
+  public static int crypto_aead_chacha20poly1305_ietf_encrypt(long c, long clen_p, long m, long mlen, long ad, long adlen, long nsec, long npub, long k) {
+    return SodiumNativeJNI.crypto_aead_chacha20poly1305_ietf_encrypt(c, clen_p, m, mlen, ad, adlen, nsec, npub, k);
+  }
+
+  public static int crypto_aead_chacha20poly1305_ietf_decrypt(long m, long mlen_p, long nsec, long c, long clen, long ad, long adlen, long npub, long k) {
+    return SodiumNativeJNI.crypto_aead_chacha20poly1305_ietf_decrypt(m, mlen_p, nsec, c, clen, ad, adlen, npub, k);
+  }
+
+  public static int crypto_generichash(long dst_hash, long dst_len, long src_input, long input_len, long src_key, long key_len) {
+    return SodiumNativeJNI.crypto_generichash(dst_hash, dst_len, src_input, input_len, src_key, key_len);
+  }
+
+  public static int crypto_generichash_init(long state, long src_key, long key_len, long out_len) {
+    return SodiumNativeJNI.crypto_generichash_init(state, src_key, key_len, out_len);
+  }
+
+  public static int crypto_generichash_update(long state, long src_input, long input_len) {
+    return SodiumNativeJNI.crypto_generichash_update(state, src_input, input_len);
+  }
+
+  public static int crypto_generichash_final(long state, long dst_out, long out_len) {
+    return SodiumNativeJNI.crypto_generichash_final(state, dst_out, out_len);
+  }
+
+  public static int crypto_sign(long dst_signed_msg, long signed_msg_len, long src_msg, long msg_len, long local_private_key) {
+    return SodiumNativeJNI.crypto_sign(dst_signed_msg, signed_msg_len, src_msg, msg_len, local_private_key);
+  }
+
+  public static int crypto_sign_open(long dst_msg, long msg_len, long src_signed_msg, long signed_msg_len, long remote_public_key) {
+    return SodiumNativeJNI.crypto_sign_open(dst_msg, msg_len, src_signed_msg, signed_msg_len, remote_public_key);
+  }
+
+  public static int crypto_sign_detached(long dst_signature, long signature_len, long src_msg, long msg_len, long local_private_key) {
+    return SodiumNativeJNI.crypto_sign_detached(dst_signature, signature_len, src_msg, msg_len, local_private_key);
+  }
+
+  public static int crypto_sign_verify_detached(long src_signature, long src_msg, long msg_len, long remote_public_key) {
+    return SodiumNativeJNI.crypto_sign_verify_detached(src_signature, src_msg, msg_len, remote_public_key);
+  }
+
+}
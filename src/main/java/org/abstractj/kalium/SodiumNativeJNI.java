@@ -0,0 +1,35 @@
+/* ----------------------------------------------------------------------------
+ * This file was automatically generated by SWIG (http://www.swig.org).
+ * Version 3.0.8
+ *
+ * Do not make changes to this file unless you know what you are doing--modify
+ * the SWIG interface file instead.
+ * ----------------------------------------------------------------------------- */
+
+package org.abstractj.kalium;
+
+public class SodiumNativeJNI {
+  public final static native int crypto_secretbox_easy(long jarg1, long jarg2, long jarg3, long jarg4, long jarg5);
+  public final static native int crypto_secretbox_open_easy(long jarg1, long jarg2, long jarg3, long jarg4, long jarg5);
+  public final static native int crypto_secretbox_detached(long jarg1, long jarg2, long jarg3, long jarg4, long jarg5, long jarg6);
+  public final static native int crypto_secretbox_open_detached(long jarg1, long jarg2, long jarg3, long jarg4, long jarg5, long jarg6);
+  public final static native int crypto_box_easy(long jarg1, long jarg2, long jarg3, long jarg4, long jarg5, long jarg6);
+  public final static native int crypto_box_open_easy(long jarg1, long jarg2, long jarg3, long jarg4, long jarg5, long jarg6);
+  public final static native int crypto_box_beforenm(long jarg1, long jarg2, long jarg3);
+  public final static native int crypto_box_easy_afternm(long jarg1, long jarg2, long jarg3, long jarg4, long jarg5);
+  public final static native int crypto_box_open_easy_afternm(long jarg1, long jarg2, long jarg3, long jarg4, long jarg5);
+  public final static native int crypto_box_seal(long jarg1, long jarg2, long jarg3, long jarg4);
+  public final static native int crypto_box_seal_open(long jarg1, long jarg2, long jarg3, long jarg4, long jarg5);
+  public final static native int crypto_aead_chacha20poly1305_encrypt(long jarg1, long jarg2, long jarg3, long jarg4, long jarg5, long jarg6, long jarg7, long jarg8, long jarg9);
+  public final static native int crypto_aead_chacha20poly1305_decrypt(long jarg1, long jarg2, long jarg3, long jarg4, long jarg5, long jarg6, long jarg7, long jarg8, long jarg9);
+  public final static native int crypto_aead_chacha20poly1305_ietf_encrypt(long jarg1, long jarg2, long jarg3, long jarg4, long jarg5, long jarg6, long jarg7, long jarg8, long jarg9);
+  public final static native int crypto_aead_chacha20poly1305_ietf_decrypt(long jarg1, long jarg2, long jarg3, long jarg4, long jarg5, long jarg6, long jarg7, long jarg8, long jarg9);
+  public final static native int crypto_generichash(long jarg1, long jarg2, long jarg3, long jarg4, long jarg5, long jarg6);
+  public final static native int crypto_generichash_init(long jarg1, long jarg2, long jarg3, long jarg4);
+  public final static native int crypto_generichash_update(long jarg1, long jarg2, long jarg3);
+  public final static native int crypto_generichash_final(long jarg1, long jarg2, long jarg3);
+  public final static native int crypto_sign(long jarg1, long jarg2, long jarg3, long jarg4, long jarg5);
+  public final static native int crypto_sign_open(long jarg1, long jarg2, long jarg3, long jarg4, long jarg5);
+  public final static native int crypto_sign_detached(long jarg1, long jarg2, long jarg3, long jarg4, long jarg5);
+  public final static native int crypto_sign_verify_detached(long jarg1, long jarg2, long jarg3, long jarg4);
+}